@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.coalescing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.config.filter.RequestCoalescingFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class CoalescingConfig {
+	
+	@Bean
+	public RequestCoalescingFilter requestCoalescingFilter(final CoalescingProperties properties,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new RequestCoalescingFilter(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	
+	
+}
@@ -0,0 +1,38 @@
+package com.selimhorri.app.config.coalescing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.coalescing")
+@Data
+public class CoalescingProperties {
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Ids of the routes whose identical unauthenticated GETs share one upstream
+	 * request.
+	 */
+	private List<String> routes = new ArrayList<>();
+	
+	/**
+	 * How long after an upstream request has started identical requests may
+	 * still join it; later ones start their own.
+	 */
+	private Duration window = Duration.ofSeconds(1);
+	
+	/**
+	 * Largest response fanned out to the joined requests; past it they are
+	 * forwarded upstream each on their own.
+	 */
+	private DataSize maxResponseSize = DataSize.ofKilobytes(256);
+	
+	
+	
+}
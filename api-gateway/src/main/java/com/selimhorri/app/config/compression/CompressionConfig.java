@@ -0,0 +1,47 @@
+package com.selimhorri.app.config.compression;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.selimhorri.app.config.filter.ResponseCompressionFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+@Slf4j
+public class CompressionConfig {
+	
+	@Bean
+	public ResponseCompressionFilter responseCompressionFilter(final CompressionProperties properties,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ResponseCompressionFilter(properties, codings(properties),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	/**
+	 * The brotli encoder is native and ships for glibc and macOS only; elsewhere,
+	 * e.g. on Alpine images, the gateway falls back to gzip.
+	 */
+	private static Set<ContentCoding> codings(final CompressionProperties properties) {
+		if (!properties.isBrotliEnabled())
+			return EnumSet.of(ContentCoding.GZIP);
+		if (!Brotli4jLoader.isAvailable()) {
+			log.warn("*** Brotli encoder unavailable, compressing with gzip only: {} *",
+					Brotli4jLoader.getUnavailabilityCause().toString());
+			return EnumSet.of(ContentCoding.GZIP);
+		}
+		return EnumSet.allOf(ContentCoding.class);
+	}
+	
+	
+	
+}
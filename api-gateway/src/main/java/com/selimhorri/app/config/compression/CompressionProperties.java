@@ -0,0 +1,46 @@
+package com.selimhorri.app.config.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.compression")
+@Data
+public class CompressionProperties {
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Responses announcing a smaller Content-Length go out as they are; responses
+	 * of unknown length are compressed.
+	 */
+	private DataSize minResponseSize = DataSize.ofKilobytes(1);
+	
+	/**
+	 * Content types worth compressing; wildcards such as application/*+json work.
+	 */
+	private List<String> mimeTypes = new ArrayList<>(List.of("application/json", "application/*+json",
+			"application/xml", "application/javascript", "text/html", "text/plain", "text/css", "text/xml"));
+	
+	/**
+	 * Deflate level of gzip, 1 (fastest) to 9 (smallest).
+	 */
+	private int gzipLevel = 6;
+	
+	/**
+	 * Offers br when the native brotli encoder loads on this platform, else only
+	 * gzip.
+	 */
+	private boolean brotliEnabled = true;
+	
+	/**
+	 * Brotli quality, 0 to 11; past 5 it costs far more CPU than it saves bytes
+	 * on dynamic responses.
+	 */
+	private int brotliQuality = 4;
+	
+}
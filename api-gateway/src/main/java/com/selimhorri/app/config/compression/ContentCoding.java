@@ -0,0 +1,104 @@
+package com.selimhorri.app.config.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+/**
+ * Response codings the gateway can apply, in order of preference when a client
+ * accepts several with the same quality.
+ */
+public enum ContentCoding {
+	
+	BR("br") {
+		@Override
+		OutputStream open(final OutputStream sink, final CompressionProperties properties) throws IOException {
+			return new BrotliOutputStream(sink, new Encoder.Parameters().setQuality(properties.getBrotliQuality()),
+					BUFFER_SIZE);
+		}
+	},
+	
+	GZIP("gzip") {
+		@Override
+		OutputStream open(final OutputStream sink, final CompressionProperties properties) throws IOException {
+			return new GZIPOutputStream(sink, BUFFER_SIZE) {
+				{
+					this.def.setLevel(properties.getGzipLevel());
+				}
+			};
+		}
+	};
+	
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final String token;
+	
+	ContentCoding(final String token) {
+		this.token = token;
+	}
+	
+	public String getToken() {
+		return this.token;
+	}
+	
+	abstract OutputStream open(OutputStream sink, CompressionProperties properties) throws IOException;
+	
+	/**
+	 * Picks the coding with the highest quality in an Accept-Encoding header
+	 * among the available ones; a coding the header does not name gets the
+	 * quality of "*", if any. Empty when the client accepts none of them.
+	 */
+	public static Optional<ContentCoding> negotiate(final String acceptEncoding,
+			final Collection<ContentCoding> available) {
+		if (acceptEncoding == null || acceptEncoding.isBlank())
+			return Optional.empty();
+		ContentCoding best = null;
+		double bestQuality = 0;
+		for (final ContentCoding coding : available) {
+			final double quality = quality(acceptEncoding, coding);
+			if (quality > bestQuality || (quality > 0 && quality == bestQuality && coding.ordinal() < best.ordinal())) {
+				best = coding;
+				bestQuality = quality;
+			}
+		}
+		return Optional.ofNullable(best);
+	}
+	
+	private static double quality(final String acceptEncoding, final ContentCoding coding) {
+		double wildcard = 0;
+		for (final String range : acceptEncoding.split(",")) {
+			final String[] parts = range.split(";");
+			final String name = parts[0].trim().toLowerCase(Locale.ROOT);
+			final double quality = parseQuality(parts);
+			if (name.equals(coding.token) || (coding == GZIP && name.equals("x-gzip")))
+				return quality;
+			if (name.equals("*"))
+				wildcard = quality;
+		}
+		return wildcard;
+	}
+	
+	private static double parseQuality(final String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			final String parameter = parts[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2));
+				}
+				catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+	
+	
+	
+}
@@ -0,0 +1,87 @@
+package com.selimhorri.app.config.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compresses a response body chunk by chunk: each chunk returns whatever the
+ * encoder has produced so far, often nothing, and {@link #finish()} the rest,
+ * so no more than the encoder's window is held in memory. Not thread safe;
+ * a response body is written by one subscriber at a time.
+ */
+public class StreamCompressor {
+	
+	private final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+	private final OutputStream encoder;
+	private boolean closed;
+	private long bytesIn;
+	private long bytesOut;
+	private long nanos;
+	
+	public StreamCompressor(final ContentCoding coding, final CompressionProperties properties) throws IOException {
+		final long started = System.nanoTime();
+		this.encoder = coding.open(this.sink, properties);
+		this.nanos = System.nanoTime() - started;
+	}
+	
+	public byte[] write(final byte[] chunk) throws IOException {
+		final long started = System.nanoTime();
+		this.encoder.write(chunk);
+		this.bytesIn += chunk.length;
+		final byte[] compressed = this.drain();
+		this.nanos += System.nanoTime() - started;
+		return compressed;
+	}
+	
+	public byte[] finish() throws IOException {
+		final long started = System.nanoTime();
+		this.closed = true;
+		this.encoder.close();
+		final byte[] compressed = this.drain();
+		this.nanos += System.nanoTime() - started;
+		return compressed;
+	}
+	
+	/**
+	 * Frees the encoder of a body that did not complete; the brotli encoder holds
+	 * native memory until closed.
+	 */
+	public void close() {
+		if (this.closed)
+			return;
+		this.closed = true;
+		try {
+			this.encoder.close();
+		}
+		catch (IOException e) {
+			// the body is abandoned anyway
+		}
+	}
+	
+	public long getBytesIn() {
+		return this.bytesIn;
+	}
+	
+	public long getBytesOut() {
+		return this.bytesOut;
+	}
+	
+	/**
+	 * Time spent inside the encoder; it runs on an event loop thread and never
+	 * blocks, so this is CPU time.
+	 */
+	public long getNanos() {
+		return this.nanos;
+	}
+	
+	private byte[] drain() {
+		final byte[] compressed = this.sink.toByteArray();
+		this.sink.reset();
+		this.bytesOut += compressed.length;
+		return compressed;
+	}
+	
+	
+	
+}
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers 404 for the service-to-service endpoints every service keeps under
+ * {@code /<service>/internal/**}, e.g. the order summary sync calls of the
+ * payment and user services, whatever route would otherwise match them.
+ * Dot segments are resolved and escapes decoded before matching, as the
+ * upstream servlet container would.
+ */
+public class InternalPathFilter implements GlobalFilter, Ordered {
+	
+	private static final PathPattern INTERNAL_PATHS = PathPatternParser.defaultInstance.parse("/*/internal/**");
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		if (!isInternal(exchange.getRequest().getURI().normalize().getRawPath()))
+			return chain.filter(exchange);
+		exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+		return exchange.getResponse().setComplete();
+	}
+	
+	/**
+	 * Runs ahead of every other filter, so a refused request costs neither a
+	 * rate limit token nor an upstream connection.
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 1_000;
+	}
+	
+	static boolean isInternal(final String rawPath) {
+		return INTERNAL_PATHS.matches(PathContainer.parsePath(rawPath));
+	}
+	
+	
+	
+}
@@ -0,0 +1,100 @@
+package com.selimhorri.app.config.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.ratelimit.ClientKeyResolver;
+import com.selimhorri.app.config.ratelimit.RateLimitProperties;
+import com.selimhorri.app.config.ratelimit.TokenBucketStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds every client to a token bucket per route, the client being the
+ * subject of its verified token or its address, with the limit configured
+ * for the route under {@code app.rate-limit.routes} or the default one.
+ *
+ * Every answer carries RateLimit-Limit, RateLimit-Remaining and
+ * RateLimit-Reset (seconds until the bucket is full); a request over the
+ * limit is answered 429 with Retry-After and never reaches the upstream.
+ * The buckets live in this gateway instance only, so with several instances
+ * behind a balancer each enforces its own share.
+ */
+public class RateLimitFilter implements GlobalFilter, Ordered {
+	
+	public static final String LIMIT_HEADER = "RateLimit-Limit";
+	public static final String REMAINING_HEADER = "RateLimit-Remaining";
+	public static final String RESET_HEADER = "RateLimit-Reset";
+	
+	private final RateLimitProperties properties;
+	private final ClientKeyResolver clientKeyResolver;
+	private final TokenBucketStore tokenBucketStore;
+	private final MeterRegistry meterRegistry;
+	
+	public RateLimitFilter(final RateLimitProperties properties, final ClientKeyResolver clientKeyResolver,
+			final TokenBucketStore tokenBucketStore, final MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.clientKeyResolver = clientKeyResolver;
+		this.tokenBucketStore = tokenBucketStore;
+		this.meterRegistry = meterRegistry;
+	}
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		if (!this.properties.isEnabled())
+			return chain.filter(exchange);
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		final String routeId = (route == null) ? "none" : route.getId();
+		final RateLimitProperties.Limit limit = this.properties.getRoutes()
+				.getOrDefault(routeId, this.properties.getDefaultLimit());
+		final TokenBucketStore.Probe probe = this.tokenBucketStore.tryConsume(
+				routeId + ' ' + this.clientKeyResolver.resolve(exchange), limit.getCapacity(), limit.getReplenishRate());
+		
+		final HttpHeaders headers = exchange.getResponse().getHeaders();
+		headers.set(LIMIT_HEADER, String.valueOf(probe.getLimit()));
+		headers.set(REMAINING_HEADER, String.valueOf(probe.getRemaining()));
+		headers.set(RESET_HEADER, String.valueOf(seconds(probe.getResetNanos())));
+		this.count(routeId, probe.isAllowed());
+		if (probe.isAllowed())
+			return chain.filter(exchange);
+		
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, seconds(probe.getRetryAfterNanos()))));
+		exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+		return exchange.getResponse().setComplete();
+	}
+	
+	/**
+	 * Runs ahead of load balancing and routing, so a refused request costs no
+	 * upstream connection.
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 2_000;
+	}
+	
+	private void count(final String routeId, final boolean allowed) {
+		Counter.builder("gateway.ratelimit.requests")
+				.description("Requests checked against the rate limit")
+				.tag("route", routeId)
+				.tag("outcome", allowed ? "allowed" : "limited")
+				.register(this.meterRegistry)
+				.increment();
+	}
+	
+	private static long seconds(final long nanos) {
+		return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+	}
+	
+	
+	
+}
@@ -0,0 +1,232 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.coalescing.CoalescingProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Collapses identical GETs in flight on the routes listed under
+ * {@code app.coalescing.routes} into one upstream request: the first one goes
+ * upstream and keeps a copy of its response, and the ones arriving within
+ * {@code window} of it wait for that copy instead of going upstream as well.
+ *
+ * Requests are identical when they share route, path, query, Accept,
+ * Accept-Encoding and Origin. Requests with an Authorization or a Cookie
+ * header are never collapsed, since their responses may be personal, nor are
+ * responses setting a cookie shared. When the first request fails, is
+ * cancelled or its response outgrows {@code max-response-size}, the waiting
+ * ones are all forwarded upstream at once, each on its own.
+ *
+ * Every request is counted as {@code gateway.coalescing.requests} tagged with
+ * its role: leader, collapsed or forwarded; the requests each upstream response
+ * was fanned out to are recorded as {@code gateway.coalescing.fanout}.
+ */
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+	
+	static final String LEADER = "leader";
+	static final String COLLAPSED = "collapsed";
+	static final String FORWARDED = "forwarded";
+	
+	private final CoalescingProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+	
+	public RequestCoalescingFilter(final CoalescingProperties properties, final MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		final ServerHttpRequest request = exchange.getRequest();
+		if (!this.properties.isEnabled() || !HttpMethod.GET.equals(request.getMethod())
+				|| request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+				|| request.getHeaders().containsKey(HttpHeaders.COOKIE))
+			return chain.filter(exchange);
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		if (route == null || !this.properties.getRoutes().contains(route.getId()))
+			return chain.filter(exchange);
+		
+		final String key = key(route.getId(), request);
+		final long now = System.nanoTime();
+		final long window = this.properties.getWindow().toNanos();
+		final InFlight candidate = new InFlight(now);
+		final InFlight current = this.inFlight.compute(key, (k, existing) ->
+				(existing != null && now - existing.started < window) ? existing : candidate);
+		if (current == candidate)
+			return this.lead(key, current, route.getId(), exchange, chain);
+		
+		current.followers.incrementAndGet();
+		return current.response.asMono()
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(shared -> {
+					if (shared.isPresent()) {
+						this.count(route.getId(), COLLAPSED);
+						return replay(exchange.getResponse(), shared.get());
+					}
+					this.count(route.getId(), FORWARDED);
+					return chain.filter(exchange);
+				});
+	}
+	
+	/**
+	 * Runs after the rate limit, so collapsed requests still count against
+	 * their clients, and outside the compression filter, so the copy kept is
+	 * the encoded body the first client got.
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 3_000;
+	}
+	
+	private Mono<Void> lead(final String key, final InFlight leader, final String routeId,
+			final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		this.count(routeId, LEADER);
+		return chain.filter(exchange.mutate()
+						.response(new SharingResponse(exchange.getResponse(), leader))
+						.build())
+				.doFinally(signal -> {
+					leader.response.tryEmitEmpty();
+					this.inFlight.remove(key, leader);
+					DistributionSummary.builder("gateway.coalescing.fanout")
+							.description("Requests collapsed into each upstream request")
+							.tag("route", routeId)
+							.register(this.meterRegistry)
+							.record(leader.followers.get());
+				});
+	}
+	
+	private void count(final String routeId, final String role) {
+		Counter.builder("gateway.coalescing.requests")
+				.description("GETs on coalescing routes by their part in a collapsed request")
+				.tag("route", routeId)
+				.tag("role", role)
+				.register(this.meterRegistry)
+				.increment();
+	}
+	
+	private static String key(final String routeId, final ServerHttpRequest request) {
+		final HttpHeaders headers = request.getHeaders();
+		return String.join("\n", routeId, request.getURI().getRawPath(),
+				String.valueOf(request.getURI().getRawQuery()),
+				String.valueOf(headers.getFirst(HttpHeaders.ACCEPT)),
+				String.valueOf(headers.getFirst(HttpHeaders.ACCEPT_ENCODING)),
+				String.valueOf(headers.getFirst(HttpHeaders.ORIGIN)));
+	}
+	
+	/**
+	 * Answers a collapsed request with the shared response, keeping the
+	 * headers already set for it, such as its own rate limit and CORS ones.
+	 */
+	private static Mono<Void> replay(final ServerHttpResponse response, final SharedResponse shared) {
+		response.setRawStatusCode(shared.status);
+		shared.headers.forEach((name, values) -> {
+			if (!response.getHeaders().containsKey(name))
+				response.getHeaders().addAll(name, values);
+		});
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body)));
+	}
+	
+	private static final class InFlight {
+		
+		private final long started;
+		private final AtomicInteger followers = new AtomicInteger();
+		private final Sinks.One<SharedResponse> response = Sinks.one();
+		
+		private InFlight(final long started) {
+			this.started = started;
+		}
+		
+	}
+	
+	private static final class SharedResponse {
+		
+		private final int status;
+		private final HttpHeaders headers;
+		private final byte[] body;
+		
+		private SharedResponse(final int status, final HttpHeaders headers, final byte[] body) {
+			this.status = status;
+			this.headers = headers;
+			this.body = body;
+		}
+		
+	}
+	
+	/**
+	 * Copies the leading response as it is written, and hands the copy to the
+	 * waiting requests once the body is complete.
+	 */
+	private final class SharingResponse extends ServerHttpResponseDecorator {
+		
+		private final InFlight leader;
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		private boolean overflowed;
+		
+		private SharingResponse(final ServerHttpResponse delegate, final InFlight leader) {
+			super(delegate);
+			this.leader = leader;
+		}
+		
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			return super.writeWith(Flux.from(body)
+					.doOnNext(this::copy)
+					.doOnComplete(this::share));
+		}
+		
+		private void copy(final DataBuffer buffer) {
+			if (this.overflowed)
+				return;
+			final int length = buffer.readableByteCount();
+			if (this.body.size() + length > properties.getMaxResponseSize().toBytes()) {
+				this.overflowed = true;
+				this.leader.response.tryEmitEmpty();
+				return;
+			}
+			final byte[] chunk = new byte[length];
+			buffer.asByteBuffer().get(chunk);
+			this.body.writeBytes(chunk);
+		}
+		
+		private void share() {
+			final HttpHeaders headers = this.getHeaders();
+			if (this.overflowed || headers.containsKey(HttpHeaders.SET_COOKIE))
+				return;
+			final HttpHeaders copy = new HttpHeaders();
+			copy.addAll(headers);
+			final Integer status = this.getRawStatusCode();
+			this.leader.response.tryEmitValue(new SharedResponse((status == null) ? 200 : status,
+					HttpHeaders.readOnlyHttpHeaders(copy), this.body.toByteArray()));
+		}
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,194 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.compression.CompressionProperties;
+import com.selimhorri.app.config.compression.ContentCoding;
+import com.selimhorri.app.config.compression.StreamCompressor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Compresses routed responses with the best coding the client accepts, br or
+ * gzip, chunk by chunk as the upstream body arrives, so a large collection is
+ * never held whole in the gateway.
+ *
+ * A response is left alone when the route opts out with the metadata entry
+ * {@code compression: false}, when it is already encoded, marked no-transform,
+ * of a content type outside {@code mime-types} or announces a Content-Length
+ * under {@code min-response-size}. Every compressed response records its ratio
+ * (compressed to original size) and the CPU time spent in the encoder.
+ */
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+	
+	public static final String ROUTE_METADATA_KEY = "compression";
+	
+	private final CompressionProperties properties;
+	private final Set<ContentCoding> codings;
+	private final List<MediaType> mimeTypes;
+	private final MeterRegistry meterRegistry;
+	
+	public ResponseCompressionFilter(final CompressionProperties properties, final Set<ContentCoding> codings,
+			final MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.codings = codings;
+		this.mimeTypes = properties.getMimeTypes().stream()
+				.map(MediaType::parseMediaType)
+				.collect(Collectors.toUnmodifiableList());
+		this.meterRegistry = meterRegistry;
+	}
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		if (!this.properties.isEnabled() || HttpMethod.HEAD.equals(exchange.getRequest().getMethod()))
+			return chain.filter(exchange);
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		if (route != null && "false".equals(String.valueOf(route.getMetadata().get(ROUTE_METADATA_KEY))))
+			return chain.filter(exchange);
+		return ContentCoding.negotiate(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING),
+						this.codings)
+				.map(coding -> chain.filter(exchange.mutate()
+						.response(new CompressingResponse(exchange.getResponse(), coding,
+								(route == null) ? "none" : route.getId()))
+						.build()))
+				.orElseGet(() -> chain.filter(exchange));
+	}
+	
+	/**
+	 * Wraps the response before {@link NettyWriteResponseFilter} writes the
+	 * upstream body into it.
+	 */
+	@Override
+	public int getOrder() {
+		return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+	}
+	
+	private boolean compressible(final ServerHttpResponse response) {
+		final HttpStatus status = response.getStatusCode();
+		if (status == HttpStatus.NO_CONTENT || status == HttpStatus.NOT_MODIFIED)
+			return false;
+		final HttpHeaders headers = response.getHeaders();
+		if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+				|| headers.getOrEmpty(HttpHeaders.CACHE_CONTROL).stream().anyMatch(value -> value.contains("no-transform")))
+			return false;
+		final MediaType contentType = headers.getContentType();
+		if (contentType == null || this.mimeTypes.stream().noneMatch(type -> type.includes(contentType)))
+			return false;
+		final long contentLength = headers.getContentLength();
+		return contentLength < 0 || contentLength >= this.properties.getMinResponseSize().toBytes();
+	}
+	
+	private final class CompressingResponse extends ServerHttpResponseDecorator {
+		
+		private final ContentCoding coding;
+		private final String routeId;
+		
+		private CompressingResponse(final ServerHttpResponse delegate, final ContentCoding coding,
+				final String routeId) {
+			super(delegate);
+			this.coding = coding;
+			this.routeId = routeId;
+		}
+		
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			if (!compressible(this.getDelegate()))
+				return super.writeWith(body);
+			
+			final HttpHeaders headers = this.getHeaders();
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			headers.set(HttpHeaders.CONTENT_ENCODING, this.coding.getToken());
+			if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING))
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			
+			return super.writeWith(Flux.using(this::compressor, compressor -> Flux.from(body)
+							.map(buffer -> this.compress(compressor, buffer))
+							.concatWith(Mono.fromCallable(compressor::finish))
+							.filter(compressed -> compressed.length > 0)
+							.map(this.bufferFactory()::wrap)
+							.doFinally(signal -> {
+								if (signal == SignalType.ON_COMPLETE)
+									this.record(compressor);
+							}),
+					StreamCompressor::close));
+		}
+		
+		private StreamCompressor compressor() throws IOException {
+			return new StreamCompressor(this.coding, properties);
+		}
+		
+		private byte[] compress(final StreamCompressor compressor, final DataBuffer buffer) {
+			try {
+				final byte[] chunk = new byte[buffer.readableByteCount()];
+				buffer.read(chunk);
+				return compressor.write(chunk);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+		
+		private void record(final StreamCompressor compressor) {
+			final Tags tags = Tags.of("route", this.routeId, "encoding", this.coding.getToken());
+			if (compressor.getBytesIn() > 0)
+				DistributionSummary.builder("gateway.compression.ratio")
+						.description("Compressed to original size of compressed responses")
+						.tags(tags)
+						.register(meterRegistry)
+						.record((double) compressor.getBytesOut() / compressor.getBytesIn());
+			Timer.builder("gateway.compression.cpu")
+					.description("CPU time spent compressing a response")
+					.tags(tags)
+					.register(meterRegistry)
+					.record(compressor.getNanos(), TimeUnit.NANOSECONDS);
+			Counter.builder("gateway.compression.bytes")
+					.description("Bytes before and after compression")
+					.tags(tags)
+					.tag("stage", "original")
+					.register(meterRegistry)
+					.increment(compressor.getBytesIn());
+			Counter.builder("gateway.compression.bytes")
+					.description("Bytes before and after compression")
+					.tags(tags)
+					.tag("stage", "compressed")
+					.register(meterRegistry)
+					.increment(compressor.getBytesOut());
+		}
+		
+	}
+	
+	
+	
+}
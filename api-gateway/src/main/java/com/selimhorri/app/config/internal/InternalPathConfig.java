@@ -0,0 +1,18 @@
+package com.selimhorri.app.config.internal;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.config.filter.InternalPathFilter;
+
+@Configuration
+public class InternalPathConfig {
+	
+	@Bean
+	public InternalPathFilter internalPathFilter() {
+		return new InternalPathFilter();
+	}
+	
+	
+	
+}
@@ -0,0 +1,60 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Names the client a request is counted against: {@code sub:<username>} when
+ * it carries a bearer token signed by the proxy-client, else
+ * {@code ip:<address>}. A token that fails to verify or has expired counts
+ * as no token, so forging subjects buys no fresh buckets.
+ */
+public class ClientKeyResolver {
+	
+	private static final String BEARER = "Bearer ";
+	
+	private final String signingKey;
+	private final RemoteAddressResolver remoteAddressResolver;
+	
+	public ClientKeyResolver(final String signingKey, final int trustedProxies) {
+		this.signingKey = signingKey;
+		this.remoteAddressResolver = (trustedProxies > 0)
+				? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+				: new RemoteAddressResolver() {};
+	}
+	
+	public String resolve(final ServerWebExchange exchange) {
+		final String subject = this.subject(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+		if (subject != null)
+			return "sub:" + subject;
+		final InetSocketAddress address = this.remoteAddressResolver.resolve(exchange);
+		if (address == null)
+			return "ip:unknown";
+		return "ip:" + ((address.getAddress() != null) ? address.getAddress().getHostAddress() : address.getHostString());
+	}
+	
+	private String subject(final String authorization) {
+		if (authorization == null || !authorization.startsWith(BEARER))
+			return null;
+		try {
+			return Jwts.parser()
+					.setSigningKey(this.signingKey)
+					.parseClaimsJws(authorization.substring(BEARER.length()).trim())
+					.getBody()
+					.getSubject();
+		}
+		catch (JwtException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	
+	
+}
@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.ratelimit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.config.filter.RateLimitFilter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+	
+	@Bean
+	public TokenBucketStore tokenBucketStore(final RateLimitProperties properties,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		final TokenBucketStore store = new TokenBucketStore(properties.getStripes(), properties.getSweepInterval(),
+				System::nanoTime);
+		Gauge.builder("gateway.ratelimit.clients", store, TokenBucketStore::size)
+				.description("Clients holding a token bucket that is not full")
+				.register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+		return store;
+	}
+	
+	@Bean
+	public RateLimitFilter rateLimitFilter(final RateLimitProperties properties,
+			final TokenBucketStore tokenBucketStore, final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new RateLimitFilter(properties,
+				new ClientKeyResolver(properties.getSigningKey(), properties.getTrustedProxies()), tokenBucketStore,
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	
+	
+}
@@ -0,0 +1,68 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Limit of routes without an entry in {@code routes}.
+	 */
+	private Limit defaultLimit = new Limit();
+	
+	/**
+	 * Limits by route id, e.g. {@code PROXY-CLIENT}.
+	 */
+	private Map<String, Limit> routes = new LinkedHashMap<>();
+	
+	/**
+	 * Number of maps the buckets are spread over, rounded up to a power of two;
+	 * each sweep walks a single one.
+	 */
+	private int stripes = 16;
+	
+	/**
+	 * How often each stripe drops the buckets that have refilled since their
+	 * last request.
+	 */
+	private Duration sweepInterval = Duration.ofSeconds(30);
+	
+	/**
+	 * Key the proxy-client signs its tokens with; callers are limited by the
+	 * subject of a token that verifies against it, else by address.
+	 */
+	private String signingKey = "secret";
+	
+	/**
+	 * Proxies in front of the gateway whose X-Forwarded-For entries are
+	 * trusted; 0 limits by the connection's remote address.
+	 */
+	private int trustedProxies = 0;
+	
+	@Data
+	public static class Limit {
+		
+		/**
+		 * Requests a client may burst before being held to the replenish rate.
+		 */
+		private int capacity = 100;
+		
+		/**
+		 * Requests per second a client is granted over time.
+		 */
+		private double replenishRate = 50;
+		
+	}
+	
+	
+	
+}
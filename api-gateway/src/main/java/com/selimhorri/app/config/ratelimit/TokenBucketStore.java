@@ -0,0 +1,121 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import lombok.Value;
+
+/**
+ * Token buckets of every client the gateway has seen lately, held in memory.
+ *
+ * A bucket is kept as the single instant it will be full again (the
+ * theoretical arrival time of the generic cell rate algorithm): each request
+ * pushes it one emission interval further, and a request is refused once it
+ * would lie more than a full bucket's worth of intervals ahead. A bucket whose
+ * instant has passed is full, no different from a new one, so it is dropped;
+ * eviction never hands a client tokens it has not earned.
+ *
+ * The buckets are spread over a power of two of maps by key hash. Whichever
+ * request reaches a stripe after its sweep interval has elapsed walks that
+ * stripe alone, so no request pays for a pass over every client and no
+ * background thread is needed.
+ */
+public class TokenBucketStore {
+	
+	private final ConcurrentHashMap<String, Long>[] stripes;
+	private final AtomicLongArray nextSweeps;
+	private final long sweepIntervalNanos;
+	private final LongSupplier nanoClock;
+	
+	@SuppressWarnings("unchecked")
+	public TokenBucketStore(final int stripes, final Duration sweepInterval, final LongSupplier nanoClock) {
+		final int count = (stripes <= 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+		this.stripes = new ConcurrentHashMap[count];
+		for (int i = 0; i < count; i++)
+			this.stripes[i] = new ConcurrentHashMap<>();
+		this.sweepIntervalNanos = sweepInterval.toNanos();
+		this.nanoClock = nanoClock;
+		this.nextSweeps = new AtomicLongArray(count);
+		final long firstSweep = nanoClock.getAsLong() + this.sweepIntervalNanos;
+		for (int i = 0; i < count; i++)
+			this.nextSweeps.set(i, firstSweep);
+	}
+	
+	/**
+	 * Takes one token from the bucket of {@code key}, creating a full one when
+	 * there is none.
+	 */
+	public Probe tryConsume(final String key, final int capacity, final double replenishRate) {
+		final long interval = Math.max(1L, Math.round(1_000_000_000L / replenishRate));
+		final long tolerance = capacity * interval;
+		final long now = this.nanoClock.getAsLong();
+		final int index = index(key);
+		final Probe[] probe = new Probe[1];
+		this.stripes[index].compute(key, (k, full) -> {
+			final long start = (full == null || full - now < 0) ? now : full;
+			final long next = start + interval;
+			if (next - now > tolerance) {
+				probe[0] = new Probe(false, capacity, 0, next - now - tolerance, start - now);
+				return full;
+			}
+			probe[0] = new Probe(true, capacity, (int) ((tolerance - (next - now)) / interval), 0, next - now);
+			return next;
+		});
+		this.sweep(index, now);
+		return probe[0];
+	}
+	
+	/**
+	 * Number of clients holding a bucket that is not full.
+	 */
+	public int size() {
+		int size = 0;
+		for (final ConcurrentHashMap<String, Long> stripe : this.stripes)
+			size += stripe.size();
+		return size;
+	}
+	
+	/**
+	 * Drops full buckets from the stripe if its turn has come and no other
+	 * request has claimed it. A bucket consumed in the meantime holds a later
+	 * instant and is kept, the removal being conditional on the value it saw.
+	 */
+	private void sweep(final int index, final long now) {
+		final long due = this.nextSweeps.get(index);
+		if (now - due < 0 || !this.nextSweeps.compareAndSet(index, due, now + this.sweepIntervalNanos))
+			return;
+		this.stripes[index].values().removeIf(full -> full - now <= 0);
+	}
+	
+	private int index(final String key) {
+		final int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (this.stripes.length - 1);
+	}
+	
+	/**
+	 * Outcome of a request against its bucket; durations are in nanoseconds.
+	 */
+	@Value
+	public static class Probe {
+		
+		boolean allowed;
+		int limit;
+		int remaining;
+		
+		/**
+		 * Until a refused request would be let through, 0 when allowed.
+		 */
+		long retryAfterNanos;
+		
+		/**
+		 * Until the bucket is full again.
+		 */
+		long resetNanos;
+		
+	}
+	
+	
+	
+}
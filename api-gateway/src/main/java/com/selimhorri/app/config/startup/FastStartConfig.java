@@ -0,0 +1,57 @@
+package com.selimhorri.app.config.startup;
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Beans of the fast-start profile; the rest of it is in application-fast-start.yml.
+ */
+@Configuration
+@Profile("fast-start")
+@Slf4j
+public class FastStartConfig {
+	
+	/**
+	 * Packages created eagerly although {@code spring.main.lazy-initialization} is
+	 * on: routes, predicates and filters, which every request goes through.
+	 */
+	private static final List<String> EAGER_PACKAGES = List.of("org.springframework.cloud.gateway.");
+	
+	/**
+	 * Keeps the request hot path out of lazy initialization, so the first request
+	 * does not pay for building it, and keeps startup hooks eager: a lazy
+	 * SmartInitializingSingleton would never run.
+	 */
+	@Bean
+	public static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+		return (beanName, beanDefinition, beanType) -> SmartInitializingSingleton.class.isAssignableFrom(beanType)
+				|| EAGER_PACKAGES.stream().anyMatch(beanType.getName()::startsWith);
+	}
+	
+	/**
+	 * Training run of the fast-start build: exits once started, so that the
+	 * classes loaded so far can be dumped into the class-data-sharing archive.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "app.fast-start", name = "exit-after-startup", havingValue = "true")
+	public ApplicationListener<ApplicationReadyEvent> exitAfterStartupListener() {
+		return event -> {
+			log.info("*** Fast-start training run, exiting after startup *");
+			System.exit(SpringApplication.exit(event.getApplicationContext()));
+		};
+	}
+	
+	
+	
+}
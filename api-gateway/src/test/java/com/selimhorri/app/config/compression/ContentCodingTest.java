@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ContentCodingTest {
+
+    private static final Set<ContentCoding> ALL = EnumSet.allOf(ContentCoding.class);
+
+    @Test
+    void negotiateShouldPreferBrotliAmongEquallyAcceptedCodings() {
+        assertThat(ContentCoding.negotiate("gzip, deflate, br", ALL)).contains(ContentCoding.BR);
+        assertThat(ContentCoding.negotiate("gzip, deflate, br", EnumSet.of(ContentCoding.GZIP)))
+                .contains(ContentCoding.GZIP);
+    }
+
+    @Test
+    void negotiateShouldFollowQualityValues() {
+        assertThat(ContentCoding.negotiate("br;q=0.5, gzip;q=0.8", ALL)).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("br;q=0, gzip", ALL)).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("*;q=0.3, gzip;q=0.2", ALL)).contains(ContentCoding.BR);
+        assertThat(ContentCoding.negotiate("x-gzip", ALL)).contains(ContentCoding.GZIP);
+    }
+
+    @Test
+    void negotiateShouldBeEmptyWhenNothingIsAccepted() {
+        assertThat(ContentCoding.negotiate(null, ALL)).isEmpty();
+        assertThat(ContentCoding.negotiate("identity", ALL)).isEmpty();
+        assertThat(ContentCoding.negotiate("gzip;q=0, *;q=0", ALL)).isEmpty();
+    }
+
+}
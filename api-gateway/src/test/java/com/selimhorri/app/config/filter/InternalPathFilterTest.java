@@ -0,0 +1,66 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+class InternalPathFilterTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final GatewayFilterChain upstream = exchange -> {
+        this.forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private final InternalPathFilter filter = new InternalPathFilter();
+
+    @Test
+    void filterShouldAnswerNotFoundForInternalPaths() {
+        MockServerWebExchange payment = MockServerWebExchange.from(
+                MockServerHttpRequest.put("/order-service/internal/order-summaries/10/payment"));
+        this.filter.filter(payment, this.upstream).block();
+        MockServerWebExchange user = MockServerWebExchange.from(
+                MockServerHttpRequest.put("/order-service/internal/order-summaries/user/7"));
+        this.filter.filter(user, this.upstream).block();
+
+        assertThat(payment.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(user.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(this.forwarded).hasValue(0);
+    }
+
+    @Test
+    void filterShouldForwardPublicPaths() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/order-service/api/order-summaries/10"));
+        this.filter.filter(exchange, this.upstream).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isNull();
+        assertThat(this.forwarded).hasValue(1);
+    }
+
+    @Test
+    void isInternalShouldMatchDecodedSegments() {
+        assertThat(InternalPathFilter.isInternal("/order-service/%69nternal/order-summaries/user/7")).isTrue();
+        assertThat(InternalPathFilter.isInternal("/order-service/internal;v=1/order-summaries/user/7")).isTrue();
+        assertThat(InternalPathFilter.isInternal("/order-service/api/order-summaries/internal")).isFalse();
+    }
+
+    @Test
+    void filterShouldResolveDotSegmentsBeforeMatching() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.put("/order-service/api/../internal/order-summaries/user/7"));
+        this.filter.filter(exchange, this.upstream).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+}
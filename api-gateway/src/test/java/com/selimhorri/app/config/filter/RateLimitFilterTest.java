@@ -0,0 +1,131 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.selimhorri.app.config.ratelimit.ClientKeyResolver;
+import com.selimhorri.app.config.ratelimit.RateLimitProperties;
+import com.selimhorri.app.config.ratelimit.TokenBucketStore;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final GatewayFilterChain upstream = exchange -> {
+        this.forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultLimit().setCapacity(2);
+        properties.getDefaultLimit().setReplenishRate(0.1);
+        RateLimitProperties.Limit proxyClient = new RateLimitProperties.Limit();
+        proxyClient.setCapacity(1);
+        proxyClient.setReplenishRate(0.1);
+        properties.getRoutes().put("PROXY-CLIENT", proxyClient);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.filter = new RateLimitFilter(properties, new ClientKeyResolver("secret", 0),
+                new TokenBucketStore(4, Duration.ofSeconds(30), System::nanoTime), this.meterRegistry);
+    }
+
+    @Test
+    void filterShouldAnswerTooManyRequestsOnceTheBucketIsEmpty() {
+        MockServerWebExchange first = exchange("PRODUCT-SERVICE", "10.0.0.1", null);
+        this.filter.filter(first, this.upstream).block();
+        assertThat(first.getResponse().getHeaders().getFirst(RateLimitFilter.LIMIT_HEADER)).isEqualTo("2");
+        assertThat(first.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER)).isEqualTo("1");
+        assertThat(first.getResponse().getHeaders().getFirst(RateLimitFilter.RESET_HEADER)).isEqualTo("10");
+        this.filter.filter(exchange("PRODUCT-SERVICE", "10.0.0.1", null), this.upstream).block();
+
+        MockServerWebExchange third = exchange("PRODUCT-SERVICE", "10.0.0.1", null);
+        this.filter.filter(third, this.upstream).block();
+
+        assertThat(this.forwarded).hasValue(2);
+        assertThat(third.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(third.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(third.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        assertThat(this.meterRegistry.get("gateway.ratelimit.requests").tag("route", "PRODUCT-SERVICE")
+                .tag("outcome", "limited").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void filterShouldApplyTheRouteLimitPerClientAndRoute() {
+        this.filter.filter(exchange("PROXY-CLIENT", "10.0.0.1", null), this.upstream).block();
+        MockServerWebExchange limited = exchange("PROXY-CLIENT", "10.0.0.1", null);
+        this.filter.filter(limited, this.upstream).block();
+        MockServerWebExchange otherClient = exchange("PROXY-CLIENT", "10.0.0.2", null);
+        this.filter.filter(otherClient, this.upstream).block();
+        MockServerWebExchange otherRoute = exchange("PRODUCT-SERVICE", "10.0.0.1", null);
+        this.filter.filter(otherRoute, this.upstream).block();
+
+        assertThat(limited.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(otherClient.getResponse().getStatusCode()).isNull();
+        assertThat(otherRoute.getResponse().getStatusCode()).isNull();
+        assertThat(this.forwarded).hasValue(3);
+    }
+
+    @Test
+    void filterShouldCountVerifiedSubjectsAcrossAddressesAndForgedOnesByAddress() {
+        String token = token("selimhorri", "secret");
+        this.filter.filter(exchange("PROXY-CLIENT", "10.0.0.1", token), this.upstream).block();
+        MockServerWebExchange sameUser = exchange("PROXY-CLIENT", "10.0.0.2", token);
+        this.filter.filter(sameUser, this.upstream).block();
+
+        this.filter.filter(exchange("PROXY-CLIENT", "10.0.0.3", token("forged-1", "guess")), this.upstream).block();
+        MockServerWebExchange forged = exchange("PROXY-CLIENT", "10.0.0.3", token("forged-2", "guess"));
+        this.filter.filter(forged, this.upstream).block();
+
+        assertThat(sameUser.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(forged.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(this.forwarded).hasValue(2);
+    }
+
+    private static MockServerWebExchange exchange(final String routeId, final String address, final String token) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/app/api/products")
+                .remoteAddress(new InetSocketAddress(address, 40_000));
+        if (token != null)
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri(URI.create("http://localhost:8900"))
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    private static String token(final String subject, final String signingKey) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS256, signingKey)
+                .compact();
+    }
+
+}
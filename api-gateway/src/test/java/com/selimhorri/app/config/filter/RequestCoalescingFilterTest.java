@@ -0,0 +1,188 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import com.selimhorri.app.config.coalescing.CoalescingProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RequestCoalescingFilterTest {
+
+    private static final String BODY = "{\"productId\":1,\"productTitle\":\"asus\"}";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    /**
+     * Answers once released, so the requests under test are all in flight
+     * together.
+     */
+    private final GatewayFilterChain upstream = exchange -> {
+        this.upstreamCalls.incrementAndGet();
+        return this.release.asMono().then(Mono.defer(() -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(
+                    new DefaultDataBufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        }));
+    };
+
+    private CoalescingProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestCoalescingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        this.properties = new CoalescingProperties();
+        this.properties.getRoutes().add("PRODUCT-SERVICE");
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.filter = new RequestCoalescingFilter(this.properties, this.meterRegistry);
+    }
+
+    @Test
+    void filterShouldFanOneUpstreamResponseOutToIdenticalRequests() {
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 5)
+                .mapToObj(i -> exchange("/product-service/api/products/1", null))
+                .collect(Collectors.toList());
+        exchanges.get(0).getResponse().getHeaders().set(RateLimitFilter.REMAINING_HEADER, "9");
+        exchanges.get(3).getResponse().getHeaders().set(RateLimitFilter.REMAINING_HEADER, "7");
+
+        runTogether(exchanges);
+
+        assertThat(this.upstreamCalls).hasValue(1);
+        for (MockServerWebExchange exchange : exchanges) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        }
+        assertThat(exchanges.get(3).getResponse().getHeaders().get(RateLimitFilter.REMAINING_HEADER))
+                .containsExactly("7");
+        assertThat(this.meterRegistry.get("gateway.coalescing.requests").tag("role", "collapsed")
+                .counter().count()).isEqualTo(4.0);
+        assertThat(this.meterRegistry.get("gateway.coalescing.fanout").summary().totalAmount()).isEqualTo(4.0);
+    }
+
+    @Test
+    void filterShouldNotCollapseAuthenticatedOrDifferentRequests() {
+        runTogether(List.of(
+                exchange("/product-service/api/products/1", null),
+                exchange("/product-service/api/products/1", "Bearer token"),
+                exchange("/product-service/api/products/2", null),
+                exchange("/product-service/api/products/1?fields=title", null)));
+
+        assertThat(this.upstreamCalls).hasValue(4);
+    }
+
+    @Test
+    void filterShouldNotCollapseRequestsCarryingCookies() {
+        MockServerWebExchange anonymous = exchange("/product-service/api/products/1", null);
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/product-service/api/products/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .cookie(new HttpCookie("SESSION", "first")));
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/product-service/api/products/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .cookie(new HttpCookie("SESSION", "second")));
+
+        runTogether(List.of(anonymous, first, second));
+
+        assertThat(this.upstreamCalls).hasValue(3);
+        assertThat(this.meterRegistry.find("gateway.coalescing.requests").tag("role", "collapsed").counter())
+                .isNull();
+    }
+
+    @Test
+    void filterShouldForwardAllWaitingRequestsAtOnceWhenTheFirstFails() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger mostInFlight = new AtomicInteger();
+        Sinks.Empty<Void> releaseForwarded = Sinks.empty();
+        GatewayFilterChain failingFirst = exchange -> {
+            if (this.upstreamCalls.getAndIncrement() == 0)
+                return this.release.asMono().then(Mono.error(new IllegalStateException("upstream down")));
+            mostInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return releaseForwarded.asMono().doFinally(signal -> inFlight.decrementAndGet());
+        };
+        List<Disposable> requests = IntStream.range(0, 4)
+                .mapToObj(i -> this.filter.filter(exchange("/product-service/api/products/1", null), failingFirst)
+                        .onErrorResume(e -> Mono.empty())
+                        .subscribe())
+                .collect(Collectors.toList());
+
+        this.release.tryEmitEmpty();
+        assertThat(mostInFlight).hasValue(3);
+        releaseForwarded.tryEmitEmpty();
+
+        assertThat(requests).allMatch(Disposable::isDisposed);
+        assertThat(this.upstreamCalls).hasValue(4);
+    }
+
+    @Test
+    void filterShouldForwardWaitingRequestsWhenTheResponseIsTooLargeToShare() {
+        this.properties.setMaxResponseSize(DataSize.ofBytes(16));
+        List<MockServerWebExchange> exchanges = List.of(
+                exchange("/product-service/api/products/1", null),
+                exchange("/product-service/api/products/1", null),
+                exchange("/product-service/api/products/1", null));
+
+        runTogether(exchanges);
+
+        assertThat(this.upstreamCalls).hasValue(3);
+        for (MockServerWebExchange exchange : exchanges)
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(this.meterRegistry.get("gateway.coalescing.requests").tag("role", "forwarded")
+                .counter().count()).isEqualTo(2.0);
+    }
+
+    private void runTogether(final List<MockServerWebExchange> exchanges) {
+        List<Disposable> inFlight = exchanges.stream()
+                .map(exchange -> this.filter.filter(exchange, this.upstream).subscribe())
+                .collect(Collectors.toList());
+        this.release.tryEmitEmpty();
+        assertThat(inFlight).allMatch(Disposable::isDisposed);
+    }
+
+    private static MockServerWebExchange exchange(final String uri, final String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(uri)
+                .accept(MediaType.APPLICATION_JSON);
+        if (authorization != null)
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        return exchange(request);
+    }
+
+    private static MockServerWebExchange exchange(final MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("PRODUCT-SERVICE")
+                .uri(URI.create("http://localhost:8500"))
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.selimhorri.app.config.compression.CompressionProperties;
+import com.selimhorri.app.config.compression.ContentCoding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class ResponseCompressionFilterTest {
+
+    private static final String BODY = IntStream.range(0, 500)
+            .mapToObj(i -> "{\"productId\":" + i + ",\"productTitle\":\"product " + i + "\"}")
+            .collect(Collectors.joining(",", "{\"collection\":[", "]}"));
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ResponseCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.filter = new ResponseCompressionFilter(new CompressionProperties(), EnumSet.allOf(ContentCoding.class),
+                this.meterRegistry);
+    }
+
+    @Test
+    void filterShouldGzipAChunkedBodyAsItStreams() throws Exception {
+        MockServerWebExchange exchange = exchange("gzip", route(true));
+
+        this.filter.filter(exchange, upstream(MediaType.APPLICATION_JSON, -1)).block();
+
+        MockServerHttpResponse response = exchange.getResponse();
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+        byte[] compressed = body(response);
+        assertThat(new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(),
+                StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(compressed.length).isLessThan(BODY.length() / 4);
+        assertThat(this.meterRegistry.get("gateway.compression.ratio").tag("route", "PRODUCT-SERVICE")
+                .tag("encoding", "gzip").summary().count()).isEqualTo(1);
+        assertThat(this.meterRegistry.get("gateway.compression.cpu").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void filterShouldPreferBrotliWhenTheEncoderIsAvailable() throws Exception {
+        assumeTrue(Brotli4jLoader.isAvailable());
+        MockServerWebExchange exchange = exchange("gzip, br", route(true));
+
+        this.filter.filter(exchange, upstream(MediaType.APPLICATION_JSON, -1)).block();
+
+        MockServerHttpResponse response = exchange.getResponse();
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(new String(Decoder.decompress(body(response)).getDecompressedData(), StandardCharsets.UTF_8))
+                .isEqualTo(BODY);
+    }
+
+    @Test
+    void filterShouldLeaveSmallAndNonTextResponsesAlone() {
+        MockServerWebExchange small = exchange("gzip", route(true));
+        this.filter.filter(small, upstream(MediaType.APPLICATION_JSON, 512)).block();
+        assertThat(small.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+
+        MockServerWebExchange image = exchange("gzip", route(true));
+        this.filter.filter(image, upstream(MediaType.IMAGE_PNG, -1)).block();
+        assertThat(image.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String(body(image.getResponse()), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void filterShouldRespectTheRouteOptOutAndClientsWithoutCompression() {
+        MockServerWebExchange optedOut = exchange("gzip", route(false));
+        this.filter.filter(optedOut, upstream(MediaType.APPLICATION_JSON, -1)).block();
+        assertThat(optedOut.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+
+        MockServerWebExchange identity = exchange(null, route(true));
+        this.filter.filter(identity, upstream(MediaType.APPLICATION_JSON, -1)).block();
+        assertThat(identity.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(this.meterRegistry.find("gateway.compression.ratio").summary()).isNull();
+    }
+
+    private static MockServerWebExchange exchange(final String acceptEncoding, final Route route) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/product-service/api/products");
+        if (acceptEncoding != null)
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static Route route(final boolean compression) {
+        Route.AsyncBuilder route = Route.async()
+                .id("PRODUCT-SERVICE")
+                .uri(URI.create("http://localhost:8500"))
+                .predicate(exchange -> true);
+        if (!compression)
+            route.metadata(ResponseCompressionFilter.ROUTE_METADATA_KEY, false);
+        return route.build();
+    }
+
+    /**
+     * Writes the body in 1 KB chunks, as the upstream connection would.
+     */
+    private static GatewayFilterChain upstream(final MediaType contentType, final long contentLength) {
+        return exchange -> {
+            exchange.getResponse().getHeaders().setContentType(contentType);
+            if (contentLength >= 0)
+                exchange.getResponse().getHeaders().setContentLength(contentLength);
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            Flux<DataBuffer> chunks = Flux.range(0, (bytes.length + 1023) / 1024)
+                    .map(i -> new DefaultDataBufferFactory().wrap(
+                            Arrays.copyOfRange(bytes, i * 1024, Math.min(bytes.length, (i + 1) * 1024))));
+            return exchange.getResponse().writeWith(chunks);
+        };
+    }
+
+    private static byte[] body(final MockServerHttpResponse response) {
+        DataBuffer joined = DataBufferUtils.join(response.getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+
+}
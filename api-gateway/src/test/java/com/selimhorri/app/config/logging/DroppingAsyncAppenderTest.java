@@ -0,0 +1,90 @@
+package com.selimhorri.app.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+class DroppingAsyncAppenderTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private final CountDownLatch consumerStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseConsumer = new CountDownLatch(1);
+
+    private final List<String> written = new CopyOnWriteArrayList<>();
+
+    private DroppingAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        AppenderBase<ILoggingEvent> blockingConsole = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                consumerStarted.countDown();
+                try {
+                    releaseConsumer.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event.getMessage());
+            }
+        };
+        blockingConsole.setContext(this.loggerContext);
+        blockingConsole.start();
+
+        this.appender = new DroppingAsyncAppender();
+        this.appender.setContext(this.loggerContext);
+        this.appender.setQueueSize(4);
+        this.appender.setReserve(2);
+        this.appender.addAppender(blockingConsole);
+        this.appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.releaseConsumer.countDown();
+        this.appender.stop();
+    }
+
+    @Test
+    void appendShouldNeverBlockAndShedInfoBeforeWarnings() throws InterruptedException {
+        long before = DroppingAsyncAppender.getDroppedEvents();
+        this.appender.doAppend(event(Level.INFO, "taken"));
+        assertThat(this.consumerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        this.appender.doAppend(event(Level.INFO, "info-1"));
+        this.appender.doAppend(event(Level.INFO, "info-2"));
+        this.appender.doAppend(event(Level.INFO, "info-3"));
+        // one free slot left: below the reserve only warnings get in
+        this.appender.doAppend(event(Level.INFO, "info-shed"));
+        this.appender.doAppend(event(Level.WARN, "warn-1"));
+        // buffer full
+        this.appender.doAppend(event(Level.ERROR, "error-dropped"));
+
+        assertThat(DroppingAsyncAppender.getDroppedEvents() - before).isEqualTo(2);
+        this.releaseConsumer.countDown();
+        this.appender.stop();
+        assertThat(this.written).containsExactly("taken", "info-1", "info-2", "info-3", "warn-1");
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(getClass().getName(), this.loggerContext.getLogger("com.selimhorri.app.Test"), level,
+                message, null, null);
+    }
+
+}
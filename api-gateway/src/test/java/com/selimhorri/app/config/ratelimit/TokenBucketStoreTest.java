@@ -0,0 +1,72 @@
+package com.selimhorri.app.config.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketStoreTest {
+
+    private final AtomicLong now = new AtomicLong(-5_000_000_000L);
+
+    private TokenBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        this.store = new TokenBucketStore(4, Duration.ofSeconds(30), this.now::get);
+    }
+
+    @Test
+    void tryConsumeShouldAllowABurstThenTheReplenishRate() {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            TokenBucketStore.Probe probe = this.store.tryConsume("alice", 3, 2);
+            assertThat(probe.isAllowed()).isTrue();
+            assertThat(probe.getRemaining()).isEqualTo(remaining);
+        }
+
+        TokenBucketStore.Probe refused = this.store.tryConsume("alice", 3, 2);
+        assertThat(refused.isAllowed()).isFalse();
+        assertThat(refused.getRemaining()).isZero();
+        assertThat(refused.getRetryAfterNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(refused.getResetNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1_500));
+        assertThat(this.store.tryConsume("bob", 3, 2).isAllowed()).isTrue();
+
+        advance(500);
+        assertThat(this.store.tryConsume("alice", 3, 2).isAllowed()).isTrue();
+        assertThat(this.store.tryConsume("alice", 3, 2).isAllowed()).isFalse();
+    }
+
+    @Test
+    void tryConsumeShouldNotHoardTokensPastTheCapacity() {
+        this.store.tryConsume("alice", 3, 2);
+        advance(60_000);
+
+        assertThat(this.store.tryConsume("alice", 3, 2).getRemaining()).isEqualTo(2);
+    }
+
+    @Test
+    void sweepShouldDropOnlyBucketsThatHaveRefilled() {
+        this.store.tryConsume("idle", 1, 1);
+        advance(29_000);
+        TokenBucketStore.Probe busy = this.store.tryConsume("busy", 100, 0.01);
+        assertThat(busy.isAllowed()).isTrue();
+        assertThat(this.store.size()).isEqualTo(2);
+
+        // the sweep interval is up: the next request to reach each stripe walks it
+        advance(1_000);
+        for (int i = 0; i < 64; i++)
+            this.store.tryConsume("client-" + i, 1, 1);
+
+        assertThat(this.store.size()).isEqualTo(65);
+        assertThat(this.store.tryConsume("busy", 100, 0.01).getRemaining()).isEqualTo(98);
+    }
+
+    private void advance(final long millis) {
+        this.now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.datasource.replica")
+@Data
+public class ReplicaProperties {
+	
+	/**
+	 * JDBC url of the read replica; without it every transaction runs on
+	 * spring.datasource as before.
+	 */
+	private String url;
+	
+	private String username;
+	
+	private String password;
+	
+	private int maximumPoolSize = 10;
+	
+	/**
+	 * Read-only transactions go to the primary while the replica's copy of the
+	 * heartbeat is older than this, or the replica cannot be reached.
+	 */
+	private Duration maxLag = Duration.ofSeconds(5);
+	
+	/**
+	 * How often the heartbeat is written to the primary and read back from the
+	 * replica; keep it well under max-lag.
+	 */
+	private Duration heartbeatInterval = Duration.ofSeconds(1);
+	
+	
+	
+}
@@ -0,0 +1,70 @@
+package com.selimhorri.app.config.ranking;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.ranking.TopFavouritesTracker;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@EnableConfigurationProperties(TopFavouritesProperties.class)
+@Slf4j
+public class TopFavouritesConfig {
+
+	@Bean
+	public TopFavouritesTracker topFavouritesTrackerBean(final TopFavouritesProperties properties) {
+		return new TopFavouritesTracker(properties, Clock.systemDefaultZone());
+	}
+
+	/**
+	 * Replays the retained favourites into the tracker once all singletons exist,
+	 * which is before the web server starts, so no live write can race with it.
+	 */
+	@Bean
+	public SmartInitializingSingleton topFavouritesRebuild(final TopFavouritesTracker tracker,
+			final FavouriteRepository favouriteRepository, final PlatformTransactionManager transactionManager) {
+		return () -> {
+			final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			transactionTemplate.setReadOnly(true);
+			final long started = System.nanoTime();
+			final AtomicLong replayed = new AtomicLong();
+			transactionTemplate.executeWithoutResult(status -> {
+				tracker.clear();
+				try (final Stream<Favourite> favourites = favouriteRepository
+						.streamAllByLikeDateGreaterThanEqual(LocalDateTime.now().minus(tracker.getRetention()))) {
+					favourites.forEach(f -> {
+						tracker.record(f.getProductId(), f.getLikeDate());
+						replayed.incrementAndGet();
+					});
+				}
+			});
+			log.info("*** Top favourites rebuilt from {} likes in {} ms *", replayed.get(),
+					(System.nanoTime() - started) / 1_000_000);
+		};
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,51 @@
+package com.selimhorri.app.config.ranking;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.top-favourites")
+@Data
+public class TopFavouritesProperties {
+
+	/**
+	 * Granularity of the time windows; a window is rounded up to whole buckets.
+	 */
+	private Duration bucketDuration = Duration.ofHours(1);
+
+	/**
+	 * Largest window that can be queried; older buckets are dropped.
+	 */
+	private Duration retention = Duration.ofDays(7);
+
+	private Duration defaultWindow = Duration.ofDays(1);
+
+	private int defaultK = 10;
+
+	private int maxK = 100;
+
+	private int sketchDepth = 4;
+
+	/**
+	 * Counters per sketch row (power of two); error is about 2.7 / width of the likes in a bucket.
+	 */
+	private int sketchWidth = 1024;
+
+	/**
+	 * Heavy-hitter candidates kept per bucket; should stay well above max-k.
+	 */
+	private int candidatesPerBucket = 256;
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.toggle;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.service.toggle.FeatureToggleRegistry;
+
+@Configuration
+@EnableConfigurationProperties(FeatureToggleProperties.class)
+public class FeatureToggleConfig {
+	
+	@Bean
+	public FeatureToggleRegistry featureToggleRegistryBean(final FeatureToggleProperties properties) {
+		return new FeatureToggleRegistry(properties.toPercentages());
+	}
+	
+	@Bean
+	public FeatureToggleEndpoint featureToggleEndpointBean(final FeatureToggleRegistry featureToggleRegistry) {
+		return new FeatureToggleEndpoint(featureToggleRegistry);
+	}
+	
+	
+	
+}
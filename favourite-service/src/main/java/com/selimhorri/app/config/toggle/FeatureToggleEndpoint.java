@@ -0,0 +1,59 @@
+package com.selimhorri.app.config.toggle;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import com.selimhorri.app.service.toggle.FeatureToggle;
+import com.selimhorri.app.service.toggle.FeatureToggleRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@code /actuator/featuretoggles}: GET lists toggles, POST to
+ * {@code /actuator/featuretoggles/{name}} with {@code {"enabled": true}} or
+ * {@code {"percentage": 25}} changes one at runtime (not persisted across restarts).
+ */
+@Endpoint(id = "featuretoggles")
+@RequiredArgsConstructor
+public class FeatureToggleEndpoint {
+	
+	private final FeatureToggleRegistry featureToggleRegistry;
+	
+	@ReadOperation
+	public Map<String, Integer> toggles() {
+		return this.featureToggleRegistry.percentages();
+	}
+	
+	/**
+	 * Null (404) for an unknown toggle.
+	 */
+	@ReadOperation
+	public Map<String, Integer> toggle(@Selector final String name) {
+		final Integer percentage = this.featureToggleRegistry.percentages().get(name);
+		return (percentage == null) ? null : Map.of(name, percentage);
+	}
+	
+	@WriteOperation
+	public Map<String, Integer> update(@Selector final String name, @Nullable final Boolean enabled,
+			@Nullable final Integer percentage) {
+		if ((enabled == null) == (percentage == null))
+			throw new InvalidEndpointRequestException("Give either enabled or percentage", "Missing toggle state");
+		try {
+			final FeatureToggle toggle = this.featureToggleRegistry.update(name, 
+					(percentage != null) ? percentage : (enabled ? 100 : 0));
+			return Map.of(name, toggle.getPercentage());
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+		}
+	}
+	
+	
+	
+}
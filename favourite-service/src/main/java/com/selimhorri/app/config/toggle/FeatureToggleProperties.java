@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.toggle;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app")
+@Data
+public class FeatureToggleProperties {
+	
+	/**
+	 * Initial state of each toggle under {@code app.feature}: {@code true},
+	 * {@code false} or a rollout percentage such as {@code 25} or {@code 25%}.
+	 */
+	private Map<String, String> feature = new LinkedHashMap<>();
+	
+	public Map<String, Integer> toPercentages() {
+		final Map<String, Integer> percentages = new LinkedHashMap<>();
+		this.feature.forEach((name, value) -> percentages.put(name, parsePercentage(name, value.trim())));
+		return percentages;
+	}
+	
+	private static int parsePercentage(final String name, final String value) {
+		if ("true".equalsIgnoreCase(value))
+			return 100;
+		if ("false".equalsIgnoreCase(value))
+			return 0;
+		try {
+			return Integer.parseInt(value.endsWith("%") ? value.substring(0, value.length() - 1).trim() : value);
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value for app.feature." + name + ": " + value, e);
+		}
+	}
+	
+}
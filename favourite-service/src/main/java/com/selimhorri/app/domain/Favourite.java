@@ -7,6 +7,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 import org.springframework.format.annotation.DateTimeFormat;
@@ -27,7 +28,10 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "favourites")
+@Table(name = "favourites", indexes = {
+		@Index(name = "idx_favourites_user_id_like_date", columnList = "user_id, like_date"),
+		@Index(name = "idx_favourites_product_id_like_date", columnList = "product_id, like_date")
+})
 @IdClass(FavouriteId.class)
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,34 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class TopFavouriteDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private Integer productId;
+
+	/**
+	 * Estimated likes in the requested window; may over-count slightly, never under-counts.
+	 */
+	private long likes;
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,33 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page; the next page starts after the last element of {@code collection}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoKeysetResponse<T> {
+	
+	private Collection<T> collection;
+	private int size;
+	private boolean hasNext;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,12 +1,52 @@
 package com.selimhorri.app.repository;
 
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
 
 public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId> {
 	
+	Stream<Favourite> streamAllByLikeDateGreaterThanEqual(final LocalDateTime since);
+	
+	Slice<Favourite> findByUserIdOrderByLikeDateDescProductIdDesc(final Integer userId, final Pageable pageable);
+	
+	/**
+	 * Newest first, resuming strictly after the (likeDate, productId) of the last row
+	 * already seen, so every page is an index range scan on (user_id, like_date).
+	 */
+	@Query("SELECT f FROM Favourite f WHERE f.userId = :userId "
+			+ "AND (f.likeDate < :likeDate OR (f.likeDate = :likeDate AND f.productId < :productId)) "
+			+ "ORDER BY f.likeDate DESC, f.productId DESC")
+	Slice<Favourite> findByUserIdBefore(@Param("userId") final Integer userId, 
+			@Param("likeDate") final LocalDateTime likeDate, 
+			@Param("productId") final Integer productId, 
+			final Pageable pageable);
+	
+	Slice<Favourite> findByProductIdOrderByLikeDateDescUserIdDesc(final Integer productId, final Pageable pageable);
+	
+	/**
+	 * Same keyset paging as {@link #findByUserIdBefore}, on (product_id, like_date).
+	 */
+	@Query("SELECT f FROM Favourite f WHERE f.productId = :productId "
+			+ "AND (f.likeDate < :likeDate OR (f.likeDate = :likeDate AND f.userId < :userId)) "
+			+ "ORDER BY f.likeDate DESC, f.userId DESC")
+	Slice<Favourite> findByProductIdBefore(@Param("productId") final Integer productId, 
+			@Param("likeDate") final LocalDateTime likeDate, 
+			@Param("userId") final Integer userId, 
+			final Pageable pageable);
+	
+	long countByUserId(final Integer userId);
+	
+	long countByProductId(final Integer productId);
+	
 	
 	
 }
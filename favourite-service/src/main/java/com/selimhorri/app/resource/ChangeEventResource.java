@@ -0,0 +1,50 @@
+package com.selimhorri.app.resource;
+
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.ChangeEventDto;
+import com.selimhorri.app.service.ChangeEventService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/events")
+@Slf4j
+@RequiredArgsConstructor
+public class ChangeEventResource {
+	
+	private final ChangeEventService changeEventService;
+	
+	@PostMapping
+	public ResponseEntity<Boolean> handle(
+			@RequestBody
+			@NotNull(message = "Input must not be NULL")
+			@Valid final List<ChangeEventDto> changeEvents) {
+		log.info("*** Boolean, resource; handle change events *");
+		this.changeEventService.handle(changeEvents);
+		return ResponseEntity.ok(true);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,11 +1,14 @@
 package com.selimhorri.app.resource;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,12 +17,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.TopFavouriteDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoKeysetResponse;
 import com.selimhorri.app.service.FavouriteService;
 
 import lombok.RequiredArgsConstructor;
@@ -59,6 +65,62 @@ public class FavouriteResource {
 		return ResponseEntity.ok(this.favouriteService.findById(favouriteId));
 	}
 	
+	/**
+	 * A user's favourites, newest first. For the next page pass the likeDate and
+	 * productId of the last favourite returned.
+	 */
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<DtoKeysetResponse<FavouriteDto>> findAllByUserId(
+			@PathVariable("userId") final String userId, 
+			@RequestParam(name = "size", defaultValue = "20") final int size, 
+			@RequestParam(name = "likeDate", required = false) 
+			@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT) final LocalDateTime likeDate, 
+			@RequestParam(name = "productId", required = false) final Integer productId) {
+		log.info("*** FavouriteDto Slice, resource; fetch favourites by userId *");
+		return ResponseEntity.ok(toResponse(this.favouriteService
+				.findAllByUserId(Integer.parseInt(userId), likeDate, productId, size)));
+	}
+	
+	@GetMapping("/user/{userId}/count")
+	public ResponseEntity<Long> countByUserId(@PathVariable("userId") final String userId) {
+		log.info("*** Long, resource; count favourites by userId *");
+		return ResponseEntity.ok(this.favouriteService.countByUserId(Integer.parseInt(userId)));
+	}
+	
+	/**
+	 * Favourites of a product, newest first. For the next page pass the likeDate
+	 * and userId of the last favourite returned.
+	 */
+	@GetMapping("/product/{productId}")
+	public ResponseEntity<DtoKeysetResponse<FavouriteDto>> findAllByProductId(
+			@PathVariable("productId") final String productId, 
+			@RequestParam(name = "size", defaultValue = "20") final int size, 
+			@RequestParam(name = "likeDate", required = false) 
+			@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT) final LocalDateTime likeDate, 
+			@RequestParam(name = "userId", required = false) final Integer userId) {
+		log.info("*** FavouriteDto Slice, resource; fetch favourites by productId *");
+		return ResponseEntity.ok(toResponse(this.favouriteService
+				.findAllByProductId(Integer.parseInt(productId), likeDate, userId, size)));
+	}
+	
+	@GetMapping("/product/{productId}/count")
+	public ResponseEntity<Long> countByProductId(@PathVariable("productId") final String productId) {
+		log.info("*** Long, resource; count favourites by productId *");
+		return ResponseEntity.ok(this.favouriteService.countByProductId(Integer.parseInt(productId)));
+	}
+	
+	/**
+	 * Most favourited products over a recent window, e.g. {@code ?k=10&window=PT24H}.
+	 * Counts are sketch estimates kept in memory, so this never scans the table.
+	 */
+	@GetMapping("/top")
+	public ResponseEntity<DtoCollectionResponse<TopFavouriteDto>> findTop(
+			@RequestParam(name = "k", required = false) final Integer k, 
+			@RequestParam(name = "window", required = false) final Duration window) {
+		log.info("*** TopFavouriteDto List, resource; fetch most favourited products *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findTop(k, window)));
+	}
+	
 	@PostMapping
 	public ResponseEntity<FavouriteDto> save(
 			@RequestBody 
@@ -98,6 +160,10 @@ public class FavouriteResource {
 		return ResponseEntity.ok(true);
 	}
 	
+	private static <T> DtoKeysetResponse<T> toResponse(final Slice<T> slice) {
+		return new DtoKeysetResponse<>(slice.getContent(), slice.getSize(), slice.hasNext());
+	}
+	
 	
 	
 }
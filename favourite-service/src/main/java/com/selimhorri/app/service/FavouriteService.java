@@ -1,14 +1,26 @@
 package com.selimhorri.app.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Slice;
+
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.TopFavouriteDto;
 
 public interface FavouriteService {
 	
 	List<FavouriteDto> findAll();
 	FavouriteDto findById(final FavouriteId favouriteId);
+	Slice<FavouriteDto> findAllByUserId(final Integer userId, final LocalDateTime likeDate, final Integer productId, 
+			final int size);
+	Slice<FavouriteDto> findAllByProductId(final Integer productId, final LocalDateTime likeDate, final Integer userId, 
+			final int size);
+	long countByUserId(final Integer userId);
+	long countByProductId(final Integer productId);
+	List<TopFavouriteDto> findTop(final Integer k, final Duration window);
 	FavouriteDto save(final FavouriteDto favouriteDto);
 	FavouriteDto update(final FavouriteDto favouriteDto);
 	void deleteById(final FavouriteId favouriteId);
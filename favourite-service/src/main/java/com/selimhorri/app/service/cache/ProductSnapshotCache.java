@@ -0,0 +1,124 @@
+package com.selimhorri.app.service.cache;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.selimhorri.app.config.cache.ProductCacheProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded near-cache of remote {@link ProductDto} snapshots.
+ *
+ * Entries are refreshed in the background once older than {@code refresh-after}
+ * (callers keep getting the current snapshot meanwhile), and a failed refresh
+ * keeps the previous snapshot until {@code expire-after}, so a product-service
+ * outage degrades to slightly stale data instead of missing products.
+ */
+@Slf4j
+public class ProductSnapshotCache {
+
+	private static final String CACHE_NAME = "productSnapshots";
+
+	private final RestTemplate restTemplate;
+	private final LoadingCache<Integer, Snapshot> cache;
+	private final long refreshAfterNanos;
+	private final Timer staleness;
+	private final Counter staleHits;
+
+	public ProductSnapshotCache(final RestTemplate restTemplate, final ProductCacheProperties properties,
+			final MeterRegistry meterRegistry) {
+		this.restTemplate = restTemplate;
+		this.refreshAfterNanos = properties.getRefreshAfter().toNanos();
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.getMaximumSize())
+				.refreshAfterWrite(properties.getRefreshAfter())
+				.expireAfterWrite(properties.getExpireAfter())
+				.recordStats()
+				.build(this::fetch);
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+		this.staleness = Timer.builder("cache.staleness")
+				.description("Age of the product snapshots served by the near-cache")
+				.tag("cache", CACHE_NAME)
+				.register(meterRegistry);
+		this.staleHits = Counter.builder("cache.stale.hits")
+				.description("Snapshots served more than twice their refresh interval old (refresh pending or failing)")
+				.tag("cache", CACHE_NAME)
+				.register(meterRegistry);
+	}
+
+	private Snapshot fetch(final Integer productId) {
+		final ProductDto productDto = this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
+				.PRODUCT_SERVICE_API_URL + "/" + productId, ProductDto.class);
+		return (productDto == null) ? null : new Snapshot(productDto, System.nanoTime());
+	}
+
+	/**
+	 * Loads the product on a miss; remote failures on a miss are propagated.
+	 */
+	public ProductDto get(final Integer productId) {
+		return this.served(this.cache.get(productId));
+	}
+
+	/**
+	 * Last known snapshot without touching product-service, or null when never fetched.
+	 */
+	public ProductDto getIfPresent(final Integer productId) {
+		return this.served(this.cache.getIfPresent(productId));
+	}
+
+	public void invalidate(final Integer productId) {
+		this.cache.invalidate(productId);
+	}
+
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	private ProductDto served(final Snapshot snapshot) {
+		if (snapshot == null)
+			return null;
+		final long age = System.nanoTime() - snapshot.fetchedAtNanos;
+		this.staleness.record(age, TimeUnit.NANOSECONDS);
+		if (age > this.refreshAfterNanos * 2) {
+			this.staleHits.increment();
+			log.debug("Serving product {} snapshot {} old", snapshot.productDto.getProductId(), Duration.ofNanos(age));
+		}
+		return snapshot.productDto;
+	}
+
+	private static final class Snapshot {
+
+		private final ProductDto productDto;
+		private final long fetchedAtNanos;
+
+		private Snapshot(final ProductDto productDto, final long fetchedAtNanos) {
+			this.productDto = productDto;
+			this.fetchedAtNanos = fetchedAtNanos;
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,47 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.dto.ChangeEventDto;
+import com.selimhorri.app.service.ChangeEventService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies change events published by other services; handling is idempotent
+ * since the outbox relay delivers at least once.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChangeEventServiceImpl implements ChangeEventService {
+	
+	private static final String PRODUCT_AGGREGATE_TYPE = "PRODUCT";
+	
+	private final ProductSnapshotCache productSnapshotCache;
+	
+	@Override
+	public void handle(final List<ChangeEventDto> changeEvents) {
+		log.info("*** Void, service; handle {} change events *", changeEvents.size());
+		changeEvents.stream()
+				.filter(e -> PRODUCT_AGGREGATE_TYPE.equals(e.getAggregateType()))
+				.forEach(e -> this.productSnapshotCache.invalidate(Integer.parseInt(e.getAggregateId())));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
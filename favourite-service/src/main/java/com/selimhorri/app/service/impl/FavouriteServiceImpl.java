@@ -1,12 +1,18 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -14,13 +20,15 @@ import io.github.resilience4j.retry.annotation.Retry;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
-import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.TopFavouriteDto;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.helper.FavouriteMappingHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
 import com.selimhorri.app.service.FavouriteService;
-import com.selimhorri.app.service.FeatureToggleService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+import com.selimhorri.app.service.ranking.TopFavouritesTracker;
+import com.selimhorri.app.service.toggle.FeatureToggleRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,30 +41,33 @@ public class FavouriteServiceImpl implements FavouriteService {
 
 	private final FavouriteRepository favouriteRepository;
 	private final RestTemplate restTemplate;
-	private final FeatureToggleService featureToggleService;
+	private final FeatureToggleRegistry featureToggleRegistry;
+	private final ProductSnapshotCache productSnapshotCache;
+	private final TopFavouritesTracker topFavouritesTracker;
 
 	private static final String SERVICE_CB = "favouriteService";
+	static final String FETCH_DETAILS_TOGGLE = "fetch-details";
+	static final int MAX_PAGE_SIZE = 100;
 
 	@Override
 	@CircuitBreaker(name = SERVICE_CB, fallbackMethod = "findAllFallback")
 	@Retry(name = SERVICE_CB)
+	@Transactional(readOnly = true)
 	public List<FavouriteDto> findAll() {
 		log.info("*** FavouriteDto List, service; fetch all favourites *");
+		// decided once per listing, not per row
+		final boolean fetchDetails = this.featureToggleRegistry.isEnabled(FETCH_DETAILS_TOGGLE);
 		return this.favouriteRepository.findAll()
 				.stream()
 				.map(FavouriteMappingHelper::map)
 				.map(f -> {
-					if (this.featureToggleService.isFetchDetailsEnabled()) {
+					if (fetchDetails) {
 						try {
 							f.setUserDto(this.restTemplate
 									.getForObject(
 											AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + f.getUserId(),
 											UserDto.class));
-							f.setProductDto(this.restTemplate
-									.getForObject(
-											AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/"
-													+ f.getProductId(),
-											ProductDto.class));
+							f.setProductDto(this.productSnapshotCache.get(f.getProductId()));
 						} catch (Exception e) {
 							log.error("Error fetching details: {}", e.getMessage());
 							throw e;
@@ -64,7 +75,6 @@ public class FavouriteServiceImpl implements FavouriteService {
 					}
 					return f;
 				})
-				.distinct()
 				.collect(Collectors.toUnmodifiableList());
 	}
 
@@ -76,6 +86,7 @@ public class FavouriteServiceImpl implements FavouriteService {
 	@Override
 	@CircuitBreaker(name = SERVICE_CB, fallbackMethod = "findByIdFallback")
 	@Retry(name = SERVICE_CB)
+	@Transactional(readOnly = true)
 	public FavouriteDto findById(final FavouriteId favouriteId) {
 		log.info("*** FavouriteDto, service; fetch favourite by id *");
 		return this.favouriteRepository.findById(favouriteId)
@@ -84,10 +95,7 @@ public class FavouriteServiceImpl implements FavouriteService {
 					f.setUserDto(this.restTemplate
 							.getForObject(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + f.getUserId(),
 									UserDto.class));
-					f.setProductDto(this.restTemplate
-							.getForObject(
-									AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(),
-									ProductDto.class));
+					f.setProductDto(this.productSnapshotCache.get(f.getProductId()));
 					return f;
 				})
 				.orElseThrow(() -> new FavouriteNotFoundException(
@@ -103,25 +111,115 @@ public class FavouriteServiceImpl implements FavouriteService {
 		fallbackDto.setLikeDate(favouriteId.getLikeDate());
 
 		fallbackDto.setUserDto(null);
-		fallbackDto.setProductDto(null);
+		fallbackDto.setProductDto(this.productSnapshotCache.getIfPresent(favouriteId.getProductId()));
 
 		return fallbackDto;
 	}
 
+	/**
+	 * Keyset page of a user's favourites, newest first; pass the likeDate and
+	 * productId of the last favourite seen to get the next page (both null for the first).
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<FavouriteDto> findAllByUserId(final Integer userId, final LocalDateTime likeDate,
+			final Integer productId, final int size) {
+		log.info("*** FavouriteDto Slice, service; fetch favourites by userId *");
+		final PageRequest pageRequest = pageRequest(size);
+		return ((likeDate == null)
+				? this.favouriteRepository.findByUserIdOrderByLikeDateDescProductIdDesc(userId, pageRequest)
+				: this.favouriteRepository.findByUserIdBefore(userId, likeDate,
+						(productId == null) ? Integer.MIN_VALUE : productId, pageRequest))
+				.map(FavouriteMappingHelper::map);
+	}
+
+	/**
+	 * Keyset page of the users who liked a product, newest first; the cursor is
+	 * the likeDate and userId of the last favourite seen.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<FavouriteDto> findAllByProductId(final Integer productId, final LocalDateTime likeDate,
+			final Integer userId, final int size) {
+		log.info("*** FavouriteDto Slice, service; fetch favourites by productId *");
+		final PageRequest pageRequest = pageRequest(size);
+		return ((likeDate == null)
+				? this.favouriteRepository.findByProductIdOrderByLikeDateDescUserIdDesc(productId, pageRequest)
+				: this.favouriteRepository.findByProductIdBefore(productId, likeDate,
+						(userId == null) ? Integer.MIN_VALUE : userId, pageRequest))
+				.map(FavouriteMappingHelper::map);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long countByUserId(final Integer userId) {
+		log.info("*** Long, service; count favourites by userId *");
+		return this.favouriteRepository.countByUserId(userId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long countByProductId(final Integer productId) {
+		log.info("*** Long, service; count favourites by productId *");
+		return this.favouriteRepository.countByProductId(productId);
+	}
+
+	/**
+	 * Answered from the in-memory tracker alone, so no transaction and no
+	 * connection are taken.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<TopFavouriteDto> findTop(final Integer k, final Duration window) {
+		log.info("*** TopFavouriteDto List, service; fetch most favourited products *");
+		return this.topFavouritesTracker.top(k, window);
+	}
+
 	@Override
 	public FavouriteDto save(final FavouriteDto favouriteDto) {
-		return FavouriteMappingHelper.map(this.favouriteRepository
-				.save(FavouriteMappingHelper.map(favouriteDto)));
+		return this.saveAndTrack(favouriteDto);
 	}
 
 	@Override
 	public FavouriteDto update(final FavouriteDto favouriteDto) {
-		return FavouriteMappingHelper.map(this.favouriteRepository
-				.save(FavouriteMappingHelper.map(favouriteDto)));
+		return this.saveAndTrack(favouriteDto);
 	}
 
 	@Override
 	public void deleteById(final FavouriteId favouriteId) {
 		this.favouriteRepository.deleteById(favouriteId);
+		this.afterCommit(() -> this.topFavouritesTracker
+				.remove(favouriteId.getProductId(), favouriteId.getLikeDate()));
+	}
+
+	/**
+	 * The whole key is the primary key, so a save either inserts a new like or
+	 * rewrites an identical row; only the former counts towards the top list.
+	 */
+	private FavouriteDto saveAndTrack(final FavouriteDto favouriteDto) {
+		final boolean newLike = !this.favouriteRepository.existsById(new FavouriteId(favouriteDto.getUserId(),
+				favouriteDto.getProductId(), favouriteDto.getLikeDate()));
+		final FavouriteDto saved = FavouriteMappingHelper.map(this.favouriteRepository
+				.save(FavouriteMappingHelper.map(favouriteDto)));
+		if (newLike)
+			this.afterCommit(() -> this.topFavouritesTracker.record(saved.getProductId(), saved.getLikeDate()));
+		return saved;
+	}
+
+	private static PageRequest pageRequest(final int size) {
+		return PageRequest.of(0, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+	}
+
+	private void afterCommit(final Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
 	}
 }
\ No newline at end of file
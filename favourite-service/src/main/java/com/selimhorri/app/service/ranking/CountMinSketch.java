@@ -0,0 +1,69 @@
+package com.selimhorri.app.service.ranking;
+
+/**
+ * Count-Min sketch over integer keys supporting negative updates (turnstile model).
+ *
+ * As long as no key is decremented below its true count (only existing likes are
+ * removed), {@link #estimate(int)} never under-counts and over-counts by at most
+ * {@code e / width} of the total weight with probability {@code 1 - e^-depth}.
+ */
+final class CountMinSketch {
+
+	private static final long[] SEEDS = {
+		0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+		0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L,
+	};
+
+	private final int[][] counts;
+	private final int mask;
+
+	CountMinSketch(final int depth, final int width) {
+		if (depth < 1 || depth > SEEDS.length)
+			throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+		if (width < 1 || Integer.bitCount(width) != 1)
+			throw new IllegalArgumentException("width must be a power of two");
+		this.counts = new int[depth][width];
+		this.mask = width - 1;
+	}
+
+	/**
+	 * Applies {@code delta} to the key and returns its new estimate.
+	 */
+	long add(final int key, final int delta) {
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < this.counts.length; row++) {
+			final int[] cells = this.counts[row];
+			final int cell = this.cell(row, key);
+			cells[cell] += delta;
+			estimate = Math.min(estimate, cells[cell]);
+		}
+		return Math.max(0, estimate);
+	}
+
+	long estimate(final int key) {
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < this.counts.length; row++)
+			estimate = Math.min(estimate, this.counts[row][this.cell(row, key)]);
+		return Math.max(0, estimate);
+	}
+
+	private int cell(final int row, final int key) {
+		long h = (key & 0xFFFFFFFFL) ^ SEEDS[row];
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return (int) (h ^ (h >>> 33)) & this.mask;
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
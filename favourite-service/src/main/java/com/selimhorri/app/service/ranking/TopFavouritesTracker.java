@@ -0,0 +1,211 @@
+package com.selimhorri.app.service.ranking;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.selimhorri.app.config.ranking.TopFavouritesProperties;
+import com.selimhorri.app.dto.TopFavouriteDto;
+
+/**
+ * Approximate "most favourited products" over sliding time windows.
+ *
+ * Likes are counted per {@code bucket-duration} bucket (keyed by like date) in a
+ * Count-Min sketch, next to a bounded set of heavy-hitter candidates per bucket.
+ * A query sums the sketch estimates of every candidate over the buckets of the
+ * window and keeps the top k in a heap, so memory and query cost depend on the
+ * number of buckets and candidates, never on the number of favourites.
+ *
+ * Windows are rounded up to whole buckets; buckets older than {@code retention}
+ * are dropped and likes older than that are ignored.
+ */
+public class TopFavouritesTracker {
+
+	private static final Comparator<TopFavouriteDto> BY_LIKES = Comparator
+			.comparingLong(TopFavouriteDto::getLikes)
+			.thenComparing(TopFavouriteDto::getProductId, Comparator.reverseOrder());
+
+	private final Clock clock;
+	private final long bucketSeconds;
+	private final long retentionBuckets;
+	private final int sketchDepth;
+	private final int sketchWidth;
+	private final int candidatesPerBucket;
+	private final int defaultK;
+	private final int maxK;
+	private final Duration defaultWindow;
+	private final NavigableMap<Long, Bucket> buckets = new TreeMap<>();
+
+	public TopFavouritesTracker(final TopFavouritesProperties properties, final Clock clock) {
+		this.clock = clock;
+		this.bucketSeconds = properties.getBucketDuration().getSeconds();
+		if (this.bucketSeconds < 1)
+			throw new IllegalArgumentException("bucket-duration must be at least one second");
+		this.retentionBuckets = Math.max(1, this.bucketsIn(properties.getRetention()));
+		this.sketchDepth = properties.getSketchDepth();
+		this.sketchWidth = properties.getSketchWidth();
+		this.candidatesPerBucket = properties.getCandidatesPerBucket();
+		this.defaultK = properties.getDefaultK();
+		this.maxK = properties.getMaxK();
+		this.defaultWindow = properties.getDefaultWindow();
+	}
+
+	public synchronized void record(final int productId, final LocalDateTime likeDate) {
+		final Bucket bucket = this.bucketFor(likeDate, true);
+		if (bucket != null)
+			bucket.add(productId, 1);
+	}
+
+	public synchronized void remove(final int productId, final LocalDateTime likeDate) {
+		final Bucket bucket = this.bucketFor(likeDate, false);
+		if (bucket != null)
+			bucket.add(productId, -1);
+	}
+
+	public synchronized void clear() {
+		this.buckets.clear();
+	}
+
+	/**
+	 * Top {@code k} products by estimated likes over the last {@code window},
+	 * most liked first. Null arguments fall back to the configured defaults;
+	 * k is capped at {@code max-k} and the window at {@code retention}.
+	 */
+	public synchronized List<TopFavouriteDto> top(final Integer requestedK, final Duration requestedWindow) {
+		final int k = Math.min(this.maxK, (requestedK == null) ? this.defaultK : requestedK);
+		if (k < 1)
+			return List.of();
+		final Duration window = (requestedWindow == null) ? this.defaultWindow : requestedWindow;
+		final long windowBuckets = Math.min(this.retentionBuckets, Math.max(1, this.bucketsIn(window)));
+		final Collection<Bucket> inWindow = this.buckets
+				.tailMap(this.currentBucket() - windowBuckets + 1, true).values();
+
+		final Set<Integer> candidates = new HashSet<>();
+		inWindow.forEach(bucket -> candidates.addAll(bucket.candidates.keySet()));
+
+		final PriorityQueue<TopFavouriteDto> heap = new PriorityQueue<>(k + 1, BY_LIKES);
+		for (final Integer productId : candidates) {
+			long likes = 0;
+			for (final Bucket bucket : inWindow)
+				likes += bucket.sketch.estimate(productId);
+			if (likes == 0)
+				continue;
+			heap.offer(new TopFavouriteDto(productId, likes));
+			if (heap.size() > k)
+				heap.poll();
+		}
+
+		final List<TopFavouriteDto> top = new ArrayList<>(heap);
+		top.sort(BY_LIKES.reversed());
+		return top;
+	}
+
+	public Duration getRetention() {
+		return Duration.ofSeconds(this.retentionBuckets * this.bucketSeconds);
+	}
+
+	private Bucket bucketFor(final LocalDateTime likeDate, final boolean create) {
+		final long index = likeDate.toEpochSecond(ZoneOffset.UTC) / this.bucketSeconds;
+		final long oldest = this.currentBucket() - this.retentionBuckets + 1;
+		this.buckets.headMap(oldest, false).clear();
+		if (index < oldest)
+			return null;
+		return create
+				? this.buckets.computeIfAbsent(index, i -> new Bucket(this.sketchDepth, this.sketchWidth,
+						this.candidatesPerBucket))
+				: this.buckets.get(index);
+	}
+
+	private long currentBucket() {
+		return LocalDateTime.now(this.clock).toEpochSecond(ZoneOffset.UTC) / this.bucketSeconds;
+	}
+
+	private long bucketsIn(final Duration duration) {
+		return (duration.getSeconds() + this.bucketSeconds - 1) / this.bucketSeconds;
+	}
+
+	/**
+	 * One time bucket: sketch of all likes plus the heaviest products seen in it,
+	 * kept ordered by estimate so the lightest can be evicted in O(log n).
+	 */
+	private static final class Bucket {
+
+		private final CountMinSketch sketch;
+		private final int capacity;
+		private final Map<Integer, Candidate> candidates = new HashMap<>();
+		private final TreeSet<Candidate> byEstimate = new TreeSet<>(Comparator
+				.comparingLong((Candidate c) -> c.estimate)
+				.thenComparingInt(c -> c.productId));
+
+		private Bucket(final int depth, final int width, final int capacity) {
+			this.sketch = new CountMinSketch(depth, width);
+			this.capacity = capacity;
+		}
+
+		private void add(final int productId, final int delta) {
+			final long estimate = this.sketch.add(productId, delta);
+			final Candidate candidate = this.candidates.get(productId);
+			if (candidate != null) {
+				this.byEstimate.remove(candidate);
+				if (estimate == 0) {
+					this.candidates.remove(productId);
+					return;
+				}
+				candidate.estimate = estimate;
+				this.byEstimate.add(candidate);
+				return;
+			}
+			if (delta <= 0 || estimate == 0)
+				return;
+			if (this.candidates.size() >= this.capacity) {
+				final Candidate lightest = this.byEstimate.first();
+				if (lightest.estimate >= estimate)
+					return;
+				this.byEstimate.pollFirst();
+				this.candidates.remove(lightest.productId);
+			}
+			final Candidate added = new Candidate(productId, estimate);
+			this.candidates.put(productId, added);
+			this.byEstimate.add(added);
+		}
+
+	}
+
+	private static final class Candidate {
+
+		private final int productId;
+		private long estimate;
+
+		private Candidate(final int productId, final long estimate) {
+			this.productId = productId;
+			this.estimate = estimate;
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,67 @@
+package com.selimhorri.app.service.toggle;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A runtime-switchable feature with a percentage rollout. The state is one
+ * volatile int, so a check is a field read plus, only for partial rollouts,
+ * a random draw or a hash: no lock, no allocation, no logging.
+ */
+public final class FeatureToggle {
+	
+	private final String name;
+	private final int salt;
+	private volatile int percentage;
+	
+	FeatureToggle(final String name, final int percentage) {
+		this.name = name;
+		this.salt = name.hashCode();
+		this.setPercentage(percentage);
+	}
+	
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Share of checks, 0 to 100, that see the feature enabled.
+	 */
+	public int getPercentage() {
+		return this.percentage;
+	}
+	
+	void setPercentage(final int percentage) {
+		if (percentage < 0 || percentage > 100)
+			throw new IllegalArgumentException("Rollout percentage must be between 0 and 100");
+		this.percentage = percentage;
+	}
+	
+	/**
+	 * Independent draw per call; use for request-scoped decisions.
+	 */
+	public boolean isEnabled() {
+		final int current = this.percentage;
+		return current >= 100 || (current > 0 && ThreadLocalRandom.current().nextInt(100) < current);
+	}
+	
+	/**
+	 * Sticky decision for a key (user, product...): the same key keeps the same
+	 * answer while the percentage grows, and a different toggle spreads keys
+	 * differently.
+	 */
+	public boolean isEnabledFor(final int key) {
+		final int current = this.percentage;
+		if (current >= 100 || current <= 0)
+			return current >= 100;
+		int h = key ^ this.salt;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return Integer.remainderUnsigned(h, 100) < current;
+	}
+	
+	
+	
+}
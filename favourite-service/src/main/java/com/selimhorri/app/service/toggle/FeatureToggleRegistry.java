@@ -0,0 +1,54 @@
+package com.selimhorri.app.service.toggle;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Named {@link FeatureToggle}s known at startup. Callers resolve a toggle once
+ * (or look it up per request) and read it on the hot path; changes made
+ * through {@link #update} are visible to every thread on their next check.
+ */
+@Slf4j
+public class FeatureToggleRegistry {
+	
+	private final Map<String, FeatureToggle> toggles = new ConcurrentHashMap<>();
+	
+	public FeatureToggleRegistry(final Map<String, Integer> percentages) {
+		percentages.forEach((name, percentage) -> this.toggles.put(name, new FeatureToggle(name, percentage)));
+	}
+	
+	public FeatureToggle get(final String name) {
+		final FeatureToggle toggle = this.toggles.get(name);
+		if (toggle == null)
+			throw new IllegalArgumentException("Unknown feature toggle " + name);
+		return toggle;
+	}
+	
+	public boolean isEnabled(final String name) {
+		return this.get(name).isEnabled();
+	}
+	
+	public FeatureToggle update(final String name, final int percentage) {
+		final FeatureToggle toggle = this.get(name);
+		final int previous = toggle.getPercentage();
+		toggle.setPercentage(percentage);
+		log.info("*** Feature toggle {} changed from {}% to {}% *", name, previous, percentage);
+		return toggle;
+	}
+	
+	/**
+	 * Snapshot of all toggles, by name.
+	 */
+	public SortedMap<String, Integer> percentages() {
+		final SortedMap<String, Integer> snapshot = new TreeMap<>();
+		this.toggles.forEach((name, toggle) -> snapshot.put(name, toggle.getPercentage()));
+		return snapshot;
+	}
+	
+	
+	
+}
@@ -0,0 +1,4 @@
+
+CREATE INDEX idx_favourites_user_id_like_date ON favourites (user_id, like_date);
+CREATE INDEX idx_favourites_product_id_like_date ON favourites (product_id, like_date);
+
@@ -0,0 +1,71 @@
+package com.selimhorri.app.config.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+class BulkheadClientHttpRequestInterceptorTest {
+
+    private BulkheadRegistry bulkheadRegistry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.restTemplate = new RestTemplate();
+        this.restTemplate.getInterceptors().add(new BulkheadClientHttpRequestInterceptor(this.bulkheadRegistry));
+        this.server = MockRestServiceServer.bindTo(this.restTemplate).build();
+    }
+
+    @Test
+    void saturatedProductBulkheadShouldNotBlockUserCalls() {
+        this.bulkheadRegistry.bulkhead("product-service").acquirePermission();
+        this.server.expect(requestTo(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1"))
+                .andRespond(withSuccess("{\"userId\":1}", MediaType.APPLICATION_JSON));
+
+        assertThrows(BulkheadFullException.class, () -> this.restTemplate
+                .getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class));
+        UserDto userDto = this.restTemplate
+                .getForObject(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class);
+
+        assertThat(userDto.getUserId()).isEqualTo(1);
+        this.server.verify();
+    }
+
+    @Test
+    void permitShouldBeReleasedAfterEachCall() {
+        this.server.expect(requestTo(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1"))
+                .andRespond(withSuccess("{\"productId\":1}", MediaType.APPLICATION_JSON));
+        this.server.expect(requestTo(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/2"))
+                .andRespond(withSuccess("{\"productId\":2}", MediaType.APPLICATION_JSON));
+
+        this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class);
+        this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/2", ProductDto.class);
+
+        assertThat(this.bulkheadRegistry.bulkhead("product-service").getMetrics().getAvailableConcurrentCalls())
+                .isEqualTo(1);
+        this.server.verify();
+    }
+
+}
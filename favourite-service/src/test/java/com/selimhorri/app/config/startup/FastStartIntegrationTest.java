@@ -0,0 +1,45 @@
+package com.selimhorri.app.config.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:favourite_fast_start_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path="
+})
+@ActiveProfiles("fast-start")
+class FastStartIntegrationTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void hotPathShouldStayEagerWhileInfrastructureIsLazy() {
+        assertThat(this.beanFactory.getBeanDefinition("favouriteResource").isLazyInit()).isFalse();
+        assertThat(this.beanFactory.getBeanDefinition("favouriteServiceImpl").isLazyInit()).isFalse();
+        assertThat(this.beanFactory.getBeanDefinition("loggingEventsMetrics").isLazyInit()).isTrue();
+    }
+
+    @Test
+    void startupHooksShouldStillRun() {
+        assertThat(this.beanFactory.getBeanDefinition("topFavouritesRebuild").isLazyInit()).isFalse();
+        assertThat(this.beanFactory.containsSingleton("topFavouritesRebuild")).isTrue();
+    }
+
+}
@@ -30,6 +30,7 @@ import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.repository.FavouriteRepository;
 import com.selimhorri.app.service.FavouriteService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @TestPropertySource(locations = "classpath:application-test.yml")
@@ -41,6 +42,9 @@ class FavouriteServiceHorizontalIntegrationTest {
 	@Autowired
 	private FavouriteRepository favouriteRepository;
 	
+	@Autowired
+	private ProductSnapshotCache productSnapshotCache;
+	
 	@Autowired
 	private ObjectMapper objectMapper;
 	
@@ -98,6 +102,7 @@ class FavouriteServiceHorizontalIntegrationTest {
 	@BeforeEach
 	void setUp() {
 		favouriteRepository.deleteAll();
+		productSnapshotCache.invalidateAll();
 		wireMockServerUser.resetAll();
 		wireMockServerProduct.resetAll();
 	}
@@ -0,0 +1,62 @@
+package com.selimhorri.app.integration;
+
+import static com.selimhorri.app.integration.QueryPlanInspector.assertNoFullScan;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.repository.FavouriteRepository;
+
+/**
+ * Every derived lookup must be served by an index of the Flyway schema.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:favourite_query_plan_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.selimhorri.app.integration.QueryPlanInspector",
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path="
+})
+class RepositoryQueryPlanIntegrationTest {
+
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.of(2024, 5, 20, 9, 30);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FavouriteRepository favouriteRepository;
+
+    @Test
+    void favouritesOfUserPagesShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate, () -> this.favouriteRepository
+                .findByUserIdOrderByLikeDateDescProductIdDesc(1, PageRequest.of(0, 20)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.favouriteRepository
+                .findByUserIdBefore(1, LIKE_DATE, 5, PageRequest.of(0, 20)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.favouriteRepository.countByUserId(1));
+    }
+
+    @Test
+    void favouritesOfProductPagesShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate, () -> this.favouriteRepository
+                .findByProductIdOrderByLikeDateDescUserIdDesc(1, PageRequest.of(0, 20)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.favouriteRepository
+                .findByProductIdBefore(1, LIKE_DATE, 5, PageRequest.of(0, 20)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.favouriteRepository.countByProductId(1));
+    }
+
+}
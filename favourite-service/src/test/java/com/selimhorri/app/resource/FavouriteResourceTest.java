@@ -13,6 +13,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -23,6 +24,8 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -30,6 +33,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.TopFavouriteDto;
 import com.selimhorri.app.service.FavouriteService;
 
 @WebMvcTest(FavouriteResource.class)
@@ -99,6 +103,46 @@ class FavouriteResourceTest {
         verify(this.favouriteService).findById(favouriteId);
     }
 
+    @Test
+    void findAllByUserIdShouldPassKeysetCursorToService() throws Exception {
+        when(this.favouriteService.findAllByUserId(7, LIKE_DATE, 8, 5))
+                .thenReturn(new SliceImpl<>(List.of(this.favouriteDto), PageRequest.of(0, 5), true));
+
+        this.mockMvc.perform(get("/api/favourites/user/{userId}", "7")
+                        .param("size", "5")
+                        .param("likeDate", LIKE_DATE.format(FORMATTER))
+                        .param("productId", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId", equalTo(8)))
+                .andExpect(jsonPath("$.hasNext", equalTo(true)));
+
+        verify(this.favouriteService).findAllByUserId(7, LIKE_DATE, 8, 5);
+    }
+
+    @Test
+    void countByProductIdShouldReturnCountOnly() throws Exception {
+        when(this.favouriteService.countByProductId(8)).thenReturn(12L);
+
+        this.mockMvc.perform(get("/api/favourites/product/{productId}/count", "8"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("12"));
+    }
+
+    @Test
+    void findTopShouldPassWindowAndLimitToService() throws Exception {
+        when(this.favouriteService.findTop(3, Duration.ofHours(24)))
+                .thenReturn(List.of(new TopFavouriteDto(8, 42L)));
+
+        this.mockMvc.perform(get("/api/favourites/top")
+                        .param("k", "3")
+                        .param("window", "PT24H"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId", equalTo(8)))
+                .andExpect(jsonPath("$.collection[0].likes", equalTo(42)));
+
+        verify(this.favouriteService).findTop(3, Duration.ofHours(24));
+    }
+
     @Test
     void saveShouldDelegateToService() throws Exception {
         when(this.favouriteService.save(any(FavouriteDto.class))).thenReturn(this.favouriteDto);
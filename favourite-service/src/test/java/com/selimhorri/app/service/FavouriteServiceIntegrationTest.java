@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Slice;
 
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Favourite;
@@ -21,6 +22,7 @@ import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
 
 @SpringBootTest(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
@@ -47,6 +49,9 @@ class FavouriteServiceIntegrationTest {
     @Autowired
     private FavouriteRepository favouriteRepository;
 
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
     @MockBean
     private org.springframework.web.client.RestTemplate restTemplate;
 
@@ -55,6 +60,7 @@ class FavouriteServiceIntegrationTest {
     @BeforeEach
     void setUp() {
         this.favouriteRepository.deleteAll();
+        this.productSnapshotCache.invalidateAll();
         Favourite favourite = Favourite.builder()
                 .userId(101)
                 .productId(202)
@@ -120,6 +126,41 @@ class FavouriteServiceIntegrationTest {
         assertThat(this.favouriteRepository.findAll()).isEmpty();
     }
 
+    @Test
+    void findAllByUserIdShouldWalkKeysetPagesNewestFirst() {
+        this.favouriteRepository.save(Favourite.builder().userId(101).productId(203)
+                .likeDate(EXISTING_LIKE_DATE.plusDays(1)).build());
+        this.favouriteRepository.save(Favourite.builder().userId(101).productId(204)
+                .likeDate(EXISTING_LIKE_DATE.plusDays(1)).build());
+        this.favouriteRepository.save(Favourite.builder().userId(999).productId(202)
+                .likeDate(EXISTING_LIKE_DATE.plusDays(2)).build());
+
+        Slice<FavouriteDto> first = this.favouriteService.findAllByUserId(101, null, null, 2);
+        FavouriteDto last = first.getContent().get(1);
+        Slice<FavouriteDto> second = this.favouriteService.findAllByUserId(101, last.getLikeDate(),
+                last.getProductId(), 2);
+
+        assertThat(first.getContent()).extracting(FavouriteDto::getProductId).containsExactly(204, 203);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(FavouriteDto::getProductId).containsExactly(202);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(this.favouriteService.countByUserId(101)).isEqualTo(3);
+        assertThat(this.favouriteService.countByProductId(202)).isEqualTo(2);
+    }
+
+    @Test
+    void findAllByProductIdShouldOnlyReturnThatProduct() {
+        this.favouriteRepository.save(Favourite.builder().userId(102).productId(202)
+                .likeDate(EXISTING_LIKE_DATE.minusDays(1)).build());
+        this.favouriteRepository.save(Favourite.builder().userId(102).productId(303)
+                .likeDate(EXISTING_LIKE_DATE).build());
+
+        Slice<FavouriteDto> page = this.favouriteService.findAllByProductId(202, null, null, 10);
+
+        assertThat(page.getContent()).extracting(FavouriteDto::getUserId).containsExactly(101, 102);
+        assertThat(page.hasNext()).isFalse();
+    }
+
     private void mockRemoteUser(int userId, String firstName) {
         when(this.restTemplate.getForObject(userUrl(userId), UserDto.class))
                 .thenReturn(UserDto.builder().userId(userId).firstName(firstName).build());
@@ -0,0 +1,51 @@
+package com.selimhorri.app.service.impl;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.domain.ChangeType;
+import com.selimhorri.app.dto.ChangeEventDto;
+import com.selimhorri.app.service.ChangeEventService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeEventServiceImplTest {
+
+    @Mock
+    private ProductSnapshotCache productSnapshotCache;
+
+    private ChangeEventService changeEventService;
+
+    @BeforeEach
+    void setUp() {
+        this.changeEventService = new ChangeEventServiceImpl(this.productSnapshotCache);
+    }
+
+    @Test
+    void handleShouldInvalidateCachedProductsOnly() {
+        this.changeEventService.handle(List.of(
+                buildEvent("PRODUCT", "5", ChangeType.UPDATED),
+                buildEvent("USER", "5", ChangeType.UPDATED),
+                buildEvent("PRODUCT", "9", ChangeType.DELETED)));
+
+        verify(this.productSnapshotCache).invalidate(5);
+        verify(this.productSnapshotCache).invalidate(9);
+        verifyNoMoreInteractions(this.productSnapshotCache);
+    }
+
+    private static ChangeEventDto buildEvent(String aggregateType, String aggregateId, ChangeType changeType) {
+        return ChangeEventDto.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .changeType(changeType)
+                .build();
+    }
+}
@@ -1,14 +1,18 @@
 package com.selimhorri.app.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,16 +23,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.config.cache.ProductCacheProperties;
+import com.selimhorri.app.config.ranking.TopFavouritesProperties;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.TopFavouriteDto;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.repository.FavouriteRepository;
 import com.selimhorri.app.service.FavouriteService;
-import com.selimhorri.app.service.FeatureToggleService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+import com.selimhorri.app.service.ranking.TopFavouritesTracker;
+import com.selimhorri.app.service.toggle.FeatureToggleRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class FavouriteServiceImplTest {
@@ -41,22 +52,26 @@ class FavouriteServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @Mock
-    private FeatureToggleService featureToggleService;
+    private final FeatureToggleRegistry featureToggleRegistry = new FeatureToggleRegistry(
+            Map.of(FavouriteServiceImpl.FETCH_DETAILS_TOGGLE, 100));
+
+    private TopFavouritesTracker topFavouritesTracker;
 
     private FavouriteService favouriteService;
 
     @BeforeEach
     void setUp() {
+        this.topFavouritesTracker = new TopFavouritesTracker(new TopFavouritesProperties(),
+                Clock.fixed(LIKE_DATE.plusHours(1).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
         this.favouriteService = new FavouriteServiceImpl(this.favouriteRepository, this.restTemplate,
-                this.featureToggleService);
+                this.featureToggleRegistry, new ProductSnapshotCache(this.restTemplate, new ProductCacheProperties(),
+                        new SimpleMeterRegistry()), this.topFavouritesTracker);
     }
 
     @Test
     void findAllShouldReturnMappedDtosWithRemoteDetails() {
         Favourite favourite = buildFavourite(11, 22, LIKE_DATE);
         when(this.favouriteRepository.findAll()).thenReturn(List.of(favourite));
-        when(this.featureToggleService.isFetchDetailsEnabled()).thenReturn(true);
         when(this.restTemplate.getForObject(userUrl(favourite.getUserId()), UserDto.class))
                 .thenReturn(UserDto.builder().userId(favourite.getUserId()).firstName("Alice").build());
         when(this.restTemplate.getForObject(productUrl(favourite.getProductId()), ProductDto.class))
@@ -80,7 +95,7 @@ class FavouriteServiceImplTest {
     void findAllShouldSkipDetailsWhenToggleIsDisabled() {
         Favourite favourite = buildFavourite(11, 22, LIKE_DATE);
         when(this.favouriteRepository.findAll()).thenReturn(List.of(favourite));
-        when(this.featureToggleService.isFetchDetailsEnabled()).thenReturn(false);
+        this.featureToggleRegistry.update(FavouriteServiceImpl.FETCH_DETAILS_TOGGLE, 0);
 
         List<FavouriteDto> result = this.favouriteService.findAll();
 
@@ -117,6 +132,24 @@ class FavouriteServiceImplTest {
         verify(this.favouriteRepository).findById(favouriteId);
     }
 
+    @Test
+    void findByIdFallbackShouldServeLastKnownProductSnapshot() {
+        Favourite favourite = buildFavourite(33, 44, LIKE_DATE);
+        FavouriteId favouriteId = buildFavouriteId(favourite);
+        when(this.favouriteRepository.findById(favouriteId)).thenReturn(Optional.of(favourite));
+        when(this.restTemplate.getForObject(userUrl(favourite.getUserId()), UserDto.class))
+                .thenReturn(UserDto.builder().userId(favourite.getUserId()).build());
+        when(this.restTemplate.getForObject(productUrl(favourite.getProductId()), ProductDto.class))
+                .thenReturn(ProductDto.builder().productId(favourite.getProductId()).productTitle("Item").build());
+        this.favouriteService.findById(favouriteId);
+
+        FavouriteDto result = ((FavouriteServiceImpl) this.favouriteService)
+                .findByIdFallback(favouriteId, new RuntimeException("product-service down"));
+
+        assertThat(result.getUserDto()).isNull();
+        assertThat(result.getProductDto().getProductTitle()).isEqualTo("Item");
+    }
+
     @Test
     void findByIdShouldThrowWhenMissing() {
         FavouriteId favouriteId = new FavouriteId(99, 100, LIKE_DATE);
@@ -170,6 +203,26 @@ class FavouriteServiceImplTest {
         verifyNoInteractions(this.restTemplate);
     }
 
+    @Test
+    void saveAndDeleteShouldKeepTopFavouritesInStep() {
+        FavouriteDto payload = buildFavouriteDto(55, 66, LIKE_DATE);
+        FavouriteId favouriteId = new FavouriteId(55, 66, LIKE_DATE);
+        when(this.favouriteRepository.save(any(Favourite.class)))
+                .thenReturn(buildFavourite(payload.getUserId(), payload.getProductId(), payload.getLikeDate()));
+        when(this.favouriteRepository.existsById(favouriteId)).thenReturn(false, true);
+
+        this.favouriteService.save(payload);
+        this.favouriteService.save(payload);
+
+        assertThat(this.favouriteService.findTop(10, null))
+                .extracting(TopFavouriteDto::getProductId, TopFavouriteDto::getLikes)
+                .containsExactly(tuple(66, 1L));
+
+        this.favouriteService.deleteById(favouriteId);
+
+        assertThat(this.favouriteService.findTop(10, null)).isEmpty();
+    }
+
     private static Favourite buildFavourite(int userId, int productId, LocalDateTime likeDate) {
         return Favourite.builder()
                 .userId(userId)
@@ -11,7 +11,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -24,7 +23,6 @@ import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.repository.FavouriteRepository;
 import com.selimhorri.app.service.FavouriteService;
-import com.selimhorri.app.service.FeatureToggleService;
 
 @SpringBootTest(properties = {
                 "resilience4j.retry.instances.favouriteService.max-retry-attempts=3",
@@ -44,16 +42,8 @@ class FavouriteServiceRetryImplTest {
         @MockBean
         private RestTemplate restTemplate;
 
-        @MockBean
-        private FeatureToggleService featureToggleService;
-
         private static final LocalDateTime LIKE_DATE = LocalDateTime.of(2023, 1, 1, 10, 15);
 
-        @BeforeEach
-        void setUp() {
-                when(this.featureToggleService.isFetchDetailsEnabled()).thenReturn(true);
-        }
-
         @Test
         void findAllShouldRetryAndReturnFallbackWhenServiceIsDown() {
                 Favourite favourite = Favourite.builder()
@@ -0,0 +1,97 @@
+package com.selimhorri.app.service.ranking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.ranking.TopFavouritesProperties;
+import com.selimhorri.app.dto.TopFavouriteDto;
+
+class TopFavouritesTrackerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 30);
+
+    private TopFavouritesProperties properties;
+
+    private TopFavouritesTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        this.properties = new TopFavouritesProperties();
+        this.tracker = new TopFavouritesTracker(this.properties, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    void topShouldRankProductsByLikesInsideTheWindow() {
+        likes(1, 5, NOW.minusMinutes(10));
+        likes(2, 3, NOW.minusMinutes(20));
+        likes(3, 9, NOW.minusDays(2));
+
+        assertThat(this.tracker.top(2, Duration.ofHours(1)))
+                .extracting(TopFavouriteDto::getProductId, TopFavouriteDto::getLikes)
+                .containsExactly(tuple(1, 5L), tuple(2, 3L));
+        assertThat(this.tracker.top(1, Duration.ofDays(3)))
+                .extracting(TopFavouriteDto::getProductId)
+                .containsExactly(3);
+    }
+
+    @Test
+    void removeShouldDecrementAndDropProductsWithoutLikes() {
+        likes(1, 2, NOW);
+        likes(2, 1, NOW);
+
+        this.tracker.remove(1, NOW);
+        this.tracker.remove(2, NOW);
+
+        assertThat(this.tracker.top(10, Duration.ofHours(1)))
+                .extracting(TopFavouriteDto::getProductId, TopFavouriteDto::getLikes)
+                .containsExactly(tuple(1, 1L));
+    }
+
+    @Test
+    void likesOlderThanRetentionShouldBeIgnored() {
+        likes(1, 4, NOW.minus(this.properties.getRetention()).minusHours(1));
+
+        assertThat(this.tracker.top(10, Duration.ofDays(30))).isEmpty();
+    }
+
+    @Test
+    void heavyHittersShouldSurviveCandidateEvictionAmongManyLightProducts() {
+        this.properties.setCandidatesPerBucket(16);
+        this.properties.setSketchWidth(256);
+        this.tracker = new TopFavouritesTracker(this.properties, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+        for (int productId = 100; productId < 2_100; productId++)
+            this.tracker.record(productId, NOW);
+        likes(7, 500, NOW);
+        likes(8, 300, NOW);
+
+        assertThat(this.tracker.top(2, null))
+                .extracting(TopFavouriteDto::getProductId)
+                .containsExactly(7, 8);
+        assertThat(this.tracker.top(2, null).get(0).getLikes()).isGreaterThanOrEqualTo(500L);
+    }
+
+    @Test
+    void kShouldBeCappedAtMaxK() {
+        this.properties.setMaxK(5);
+        this.tracker = new TopFavouritesTracker(this.properties, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        for (int productId = 1; productId <= 20; productId++)
+            this.tracker.record(productId, NOW);
+
+        assertThat(this.tracker.top(50, null)).hasSize(5);
+    }
+
+    private void likes(int productId, int count, LocalDateTime likeDate) {
+        for (int i = 0; i < count; i++)
+            this.tracker.record(productId, likeDate);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.selimhorri.app.service.toggle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class FeatureToggleRegistryTest {
+
+    private final FeatureToggleRegistry registry = new FeatureToggleRegistry(Map.of("on", 100, "off", 0, "rollout", 25));
+
+    @Test
+    void fullAndNoRolloutShouldBeDeterministic() {
+        assertThat(IntStream.range(0, 1_000).allMatch(i -> this.registry.isEnabled("on"))).isTrue();
+        assertThat(IntStream.range(0, 1_000).noneMatch(i -> this.registry.isEnabled("off"))).isTrue();
+    }
+
+    @Test
+    void stickyRolloutShouldCoverRoughlyThePercentageAndOnlyGrow() {
+        FeatureToggle toggle = this.registry.get("rollout");
+        long enabledAt25 = IntStream.range(0, 10_000).filter(toggle::isEnabledFor).count();
+        assertThat(enabledAt25).isBetween(2_200L, 2_800L);
+
+        int[] enabledBefore = IntStream.range(0, 10_000).filter(toggle::isEnabledFor).toArray();
+        this.registry.update("rollout", 50);
+
+        assertThat(IntStream.of(enabledBefore).allMatch(toggle::isEnabledFor)).isTrue();
+        assertThat(IntStream.range(0, 10_000).filter(toggle::isEnabledFor).count()).isBetween(4_700L, 5_300L);
+    }
+
+    @Test
+    void updateShouldBeVisibleThroughResolvedToggles() {
+        FeatureToggle toggle = this.registry.get("off");
+
+        this.registry.update("off", 100);
+
+        assertThat(toggle.isEnabled()).isTrue();
+        assertThat(this.registry.percentages()).containsEntry("off", 100);
+    }
+
+    @Test
+    void unknownTogglesAndInvalidPercentagesShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> this.registry.isEnabled("missing"));
+        assertThrows(IllegalArgumentException.class, () -> this.registry.update("on", 101));
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.bulkread;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import com.selimhorri.app.service.bulkread.BulkReader;
+
+@Configuration
+@EnableConfigurationProperties(BulkReadProperties.class)
+public class BulkReadConfig {
+	
+	@Bean
+	public BulkReader bulkReaderBean(final EntityManagerFactory entityManagerFactory, final DataSource dataSource,
+			final BulkReadProperties properties) {
+		return new BulkReader(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+				entityManagerFactory.unwrap(SessionFactory.class), dataSource, properties.getFetchSize());
+	}
+	
+	
+	
+}
@@ -0,0 +1,19 @@
+package com.selimhorri.app.config.bulkread;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.bulk-read")
+@Data
+public class BulkReadProperties {
+	
+	/**
+	 * Rows fetched per round trip by stateless scrolls, and rows mapped
+	 * between two clears of the persistence context.
+	 */
+	private int fetchSize = 500;
+	
+	
+	
+}
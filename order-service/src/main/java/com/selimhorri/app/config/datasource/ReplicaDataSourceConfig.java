@@ -0,0 +1,79 @@
+package com.selimhorri.app.config.datasource;
+
+import java.time.Clock;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Only active with app.datasource.replica.url set: spring.datasource becomes
+ * the primary pool, the replica gets a pool of its own, and the data source
+ * everything else uses, JPA and Flyway included, routes between the two.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+@RequiredArgsConstructor
+public class ReplicaDataSourceConfig {
+	
+	private final ReplicaProperties replicaProperties;
+	
+	@Bean
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+	}
+	
+	@Bean
+	public HikariDataSource replicaDataSource() {
+		final HikariDataSource replica = new HikariDataSource();
+		replica.setPoolName("replica");
+		replica.setJdbcUrl(this.replicaProperties.getUrl());
+		replica.setUsername(this.replicaProperties.getUsername());
+		replica.setPassword(this.replicaProperties.getPassword());
+		replica.setMaximumPoolSize(this.replicaProperties.getMaximumPoolSize());
+		replica.setReadOnly(true);
+		return replica;
+	}
+	
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") final DataSource primaryDataSource,
+			@Qualifier("replicaDataSource") final DataSource replicaDataSource,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, this.replicaProperties.getMaxLag(),
+				this.replicaProperties.getHeartbeatInterval(), Clock.systemUTC(),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primaryDataSource") final DataSource primaryDataSource,
+			@Qualifier("replicaDataSource") final DataSource replicaDataSource,
+			final ReplicaLagMonitor replicaLagMonitor, final ObjectProvider<MeterRegistry> meterRegistry) {
+		final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+				replicaLagMonitor, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+	
+	
+	
+}
@@ -0,0 +1,114 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.limiter.GradientConcurrencyLimit;
+import com.selimhorri.app.exception.payload.ExceptionMsg;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final List<LimitedGroup> groups;
+	private final ObjectMapper objectMapper;
+	private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+			throws ServletException, IOException {
+
+		final LimitedGroup group = this.resolveGroup(this.urlPathHelper.getPathWithinApplication(request));
+		if (group == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		final int inFlight = group.getLimit().tryAcquire();
+		if (inFlight < 0) {
+			group.getRejected().increment();
+			this.reject(response, group);
+			return;
+		}
+
+		final long start = System.nanoTime();
+		boolean dropped = true;
+		try {
+			filterChain.doFilter(request, response);
+			dropped = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()
+					|| response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value();
+		}
+		finally {
+			group.getLimit().release(System.nanoTime() - start, inFlight, dropped);
+		}
+	}
+
+	private LimitedGroup resolveGroup(final String path) {
+		for (final LimitedGroup group : this.groups)
+			for (final String pattern : group.getPaths())
+				if (this.pathMatcher.match(pattern, path))
+					return group;
+		return null;
+	}
+
+	private void reject(final HttpServletResponse response, final LimitedGroup group) throws IOException {
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+		response.setStatus(serviceUnavailable.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(group.getRetryAfterSeconds()));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		this.objectMapper.writeValue(response.getOutputStream(),
+				ExceptionMsg.builder()
+					.msg(String.format("#### Concurrency limit of %d reached for '%s', retry later! ####",
+							group.getLimit().getLimit(), group.getName()))
+					.httpStatus(serviceUnavailable)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build());
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	public static final class LimitedGroup {
+
+		private final String name;
+		private final List<String> paths;
+		private final GradientConcurrencyLimit limit;
+		private final long retryAfterSeconds;
+		private final Counter rejected;
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.idempotency;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.service.idempotency.IdempotencyStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+	
+	@Bean
+	public IdempotencyStore<OrderDto> orderIdempotencyStore(final IdempotencyProperties properties,
+			final ObjectProvider<ObjectMapper> objectMapper, final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new IdempotencyStore<>("orders", properties.getMaxEntries(), properties.getTtl(),
+				properties.getInFlightTimeout(), Clock.systemUTC(),
+				objectMapper.getIfAvailable(() -> JsonMapper.builder().findAndAddModules().build()),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	
+	
+}
@@ -0,0 +1,54 @@
+package com.selimhorri.app.config.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Async appender over a bounded ring buffer that never blocks the logging
+ * thread. Once the buffer is full every event is dropped; once less than
+ * {@code reserve} slots are left (a fifth of the queue by default) events
+ * below WARN are dropped first. Drops are counted, see {@link #getDroppedEvents()}.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+	
+	private static final LongAdder DROPPED = new LongAdder();
+	
+	private int reserve = -1;
+	
+	public void setReserve(final int reserve) {
+		this.reserve = reserve;
+	}
+	
+	@Override
+	public void start() {
+		this.setNeverBlock(true);
+		// dropping is decided in append() so that it can be counted
+		this.setDiscardingThreshold(0);
+		if (this.reserve < 0)
+			this.reserve = this.getQueueSize() / 5;
+		super.start();
+	}
+	
+	@Override
+	protected void append(final ILoggingEvent event) {
+		final int remaining = this.getRemainingCapacity();
+		if (remaining == 0 || (remaining < this.reserve && event.getLevel().toInt() < Level.WARN_INT)) {
+			DROPPED.increment();
+			return;
+		}
+		super.append(event);
+	}
+	
+	/**
+	 * Events dropped by all instances since the JVM started.
+	 */
+	public static long getDroppedEvents() {
+		return DROPPED.sum();
+	}
+	
+	
+	
+}
@@ -0,0 +1,83 @@
+package com.selimhorri.app.config.logging;
+
+import java.time.Instant;
+import java.util.Map;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+/**
+ * One JSON object per line, with the Sleuth trace and span ids taken from the
+ * MDC so log lines can be joined with Zipkin traces. Runs on the async
+ * appender's worker thread, never on the request thread.
+ */
+public class JsonLogLayout extends LayoutBase<ILoggingEvent> {
+	
+	private String service;
+	
+	public void setService(final String service) {
+		this.service = service;
+	}
+	
+	@Override
+	public String doLayout(final ILoggingEvent event) {
+		final StringBuilder json = new StringBuilder(256);
+		json.append('{');
+		field(json, "@timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+		field(json, "level", event.getLevel().toString());
+		field(json, "service", this.service);
+		final Map<String, String> mdc = event.getMDCPropertyMap();
+		field(json, "traceId", mdc.get("traceId"));
+		field(json, "spanId", mdc.get("spanId"));
+		field(json, "thread", event.getThreadName());
+		field(json, "logger", event.getLoggerName());
+		field(json, "message", event.getFormattedMessage());
+		final IThrowableProxy throwable = event.getThrowableProxy();
+		if (throwable != null)
+			field(json, "exception", ThrowableProxyUtil.asString(throwable));
+		json.setLength(json.length() - 1);
+		return json.append('}').append(CoreConstants.LINE_SEPARATOR).toString();
+	}
+	
+	private static void field(final StringBuilder json, final String name, final String value) {
+		if (value == null)
+			return;
+		json.append('"').append(name).append("\":\"");
+		escape(json, value);
+		json.append("\",");
+	}
+	
+	private static void escape(final StringBuilder json, final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					json.append("\\\"");
+					break;
+				case '\\':
+					json.append("\\\\");
+					break;
+				case '\n':
+					json.append("\\n");
+					break;
+				case '\r':
+					json.append("\\r");
+					break;
+				case '\t':
+					json.append("\\t");
+					break;
+				default:
+					if (c < 0x20)
+						json.append(String.format("\\u%04x", (int) c));
+					else
+						json.append(c);
+			}
+		}
+	}
+	
+	
+	
+}
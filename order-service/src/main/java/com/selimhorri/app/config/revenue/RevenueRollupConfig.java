@@ -0,0 +1,52 @@
+package com.selimhorri.app.config.revenue;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.domain.RevenueRollupGuard;
+import com.selimhorri.app.repository.OrderSummaryRepository;
+import com.selimhorri.app.repository.RevenueRollupGuardRepository;
+import com.selimhorri.app.repository.RevenueRollupRepository;
+import com.selimhorri.app.service.RevenueRollupService;
+
+@Configuration
+@EnableConfigurationProperties(RevenueRollupProperties.class)
+public class RevenueRollupConfig {
+	
+	/**
+	 * Fills the rollups from the existing order summaries on the first start
+	 * after they were introduced; runs before the web server accepts writes.
+	 * Also creates the guard row where the schema comes from Hibernate rather
+	 * than the migrations.
+	 */
+	@Bean
+	public SmartInitializingSingleton revenueRollupInitialRebuild(final RevenueRollupProperties properties,
+			final RevenueRollupService revenueRollupService, final RevenueRollupRepository revenueRollupRepository,
+			final RevenueRollupGuardRepository revenueRollupGuardRepository,
+			final OrderSummaryRepository orderSummaryRepository) {
+		return () -> {
+			if (!revenueRollupGuardRepository.existsById(RevenueRollupGuard.GUARD_ID))
+				revenueRollupGuardRepository.save(RevenueRollupGuard.builder()
+						.guardId(RevenueRollupGuard.GUARD_ID)
+						.build());
+			if (properties.isRebuildIfEmpty() && revenueRollupRepository.count() == 0
+					&& orderSummaryRepository.count() > 0)
+				revenueRollupService.rebuild();
+		};
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
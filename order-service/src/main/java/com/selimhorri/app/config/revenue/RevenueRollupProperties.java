@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.revenue;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.revenue")
+@Data
+public class RevenueRollupProperties {
+	
+	/**
+	 * Relative error of the fee percentiles; changing it invalidates stored sketches (rebuild).
+	 */
+	private double relativeAccuracy = 0.01;
+	
+	/**
+	 * Upper bound on the buckets a single report may span.
+	 */
+	private int maxBuckets = 2_000;
+	
+	/**
+	 * Rebuilds the rollups from the order summaries at startup when no rollup exists yet.
+	 */
+	private boolean rebuildIfEmpty = true;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,75 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized order history row (order + cart owner + latest payment status),
+ * maintained incrementally on order, cart and payment writes so that a history
+ * page is a single indexed range scan on (user_id, order_date).
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+		@Index(name = "idx_order_summaries_user_id_order_date", columnList = "user_id, order_date"),
+		@Index(name = "idx_order_summaries_cart_id", columnList = "cart_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class OrderSummary extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "order_id", unique = true, nullable = false, updatable = false)
+	private Integer orderId;
+	
+	@Column(name = "order_date")
+	private LocalDateTime orderDate;
+	
+	@Column(name = "order_fee", columnDefinition = "decimal")
+	private Double orderFee;
+	
+	@Column(name = "cart_id")
+	private Integer cartId;
+	
+	@Column(name = "user_id")
+	private Integer userId;
+	
+	@Column(name = "user_display_name")
+	private String userDisplayName;
+	
+	@Column(name = "payment_id")
+	private Integer paymentId;
+	
+	@Column(name = "payment_status")
+	private String paymentStatus;
+	
+	@Column(name = "payment_version")
+	private Integer paymentVersion;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,12 @@
+package com.selimhorri.app.domain;
+
+/**
+ * What a revenue rollup row is grouped by; TOTAL rows use dimension key 0.
+ */
+public enum RevenueDimension {
+	
+	TOTAL,
+	USER,
+	CART;
+	
+}
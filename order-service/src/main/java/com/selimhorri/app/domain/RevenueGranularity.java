@@ -0,0 +1,30 @@
+package com.selimhorri.app.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RevenueGranularity {
+	
+	HOUR(ChronoUnit.HOURS),
+	DAY(ChronoUnit.DAYS);
+	
+	private final ChronoUnit unit;
+	
+	private RevenueGranularity(final ChronoUnit unit) {
+		this.unit = unit;
+	}
+	
+	public LocalDateTime bucketOf(final LocalDateTime dateTime) {
+		return dateTime.truncatedTo(this.unit);
+	}
+	
+	/**
+	 * Number of buckets overlapping [from, to).
+	 */
+	public long bucketsBetween(final LocalDateTime from, final LocalDateTime to) {
+		final long bucketSeconds = this.unit.getDuration().toSeconds();
+		return (Duration.between(this.bucketOf(from), to).toSeconds() + bucketSeconds - 1) / bucketSeconds;
+	}
+	
+}
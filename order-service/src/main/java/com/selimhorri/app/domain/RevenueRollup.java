@@ -0,0 +1,77 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import com.selimhorri.app.domain.id.RevenueRollupId;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order count, fee sum and fee quantile sketch of one time bucket for one
+ * group (all orders, a user or a cart). Maintained incrementally on order
+ * writes so a report reads one row per bucket instead of every order.
+ */
+@Entity
+@Table(name = "order_revenue_rollups")
+@IdClass(RevenueRollupId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class RevenueRollup implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "granularity", nullable = false, length = 8)
+	private RevenueGranularity granularity;
+	
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "dimension", nullable = false, length = 8)
+	private RevenueDimension dimension;
+	
+	@Id
+	@Column(name = "bucket_start", nullable = false)
+	private LocalDateTime bucketStart;
+	
+	@Id
+	@Column(name = "dimension_key", nullable = false)
+	private Integer dimensionKey;
+	
+	@Column(name = "order_count", nullable = false)
+	private long orderCount;
+	
+	@Column(name = "fee_sum", nullable = false, precision = 19, scale = 2)
+	private BigDecimal feeSum;
+	
+	@Lob
+	@Column(name = "fee_sketch")
+	private byte[] feeSketch;
+	
+}
+
+
+
+
+
+
+
+
+
+
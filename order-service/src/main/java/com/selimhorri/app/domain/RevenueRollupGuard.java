@@ -0,0 +1,48 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row that order writes lock shared and a rollup rebuild locks
+ * exclusively, so no increment lands in the rollups while they are rebuilt.
+ */
+@Entity
+@Table(name = "order_revenue_rollup_guard")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class RevenueRollupGuard implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	public static final int GUARD_ID = 1;
+	
+	@Id
+	@Column(name = "guard_id", nullable = false, updatable = false)
+	private Integer guardId;
+	
+	@Column(name = "rebuilt_at")
+	private LocalDateTime rebuiltAt;
+	
+}
+
+
+
+
+
+
+
+
+
+
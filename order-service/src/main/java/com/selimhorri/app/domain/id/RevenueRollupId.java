@@ -0,0 +1,51 @@
+package com.selimhorri.app.domain.id;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Natural key of a rollup row. Comparable so that rows touched by one order
+ * write are always locked in the same order, which rules out deadlocks.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RevenueRollupId implements Serializable, Comparable<RevenueRollupId> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private static final Comparator<RevenueRollupId> LOCK_ORDER = Comparator
+			.comparing(RevenueRollupId::getGranularity)
+			.thenComparing(RevenueRollupId::getDimension)
+			.thenComparing(RevenueRollupId::getBucketStart)
+			.thenComparing(RevenueRollupId::getDimensionKey);
+	
+	private RevenueGranularity granularity;
+	private RevenueDimension dimension;
+	private LocalDateTime bucketStart;
+	private Integer dimensionKey;
+	
+	@Override
+	public int compareTo(final RevenueRollupId other) {
+		return LOCK_ORDER.compare(this, other);
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
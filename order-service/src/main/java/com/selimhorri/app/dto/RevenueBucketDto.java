@@ -0,0 +1,63 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.selimhorri.app.constant.AppConstant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revenue of one bucket and group. Fee percentiles are sketch estimates
+ * within the configured relative accuracy; count, sum and average are exact.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class RevenueBucketDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@JsonInclude(Include.NON_NULL)
+	@JsonSerialize(using = LocalDateTimeSerializer.class)
+	@JsonDeserialize(using = LocalDateTimeDeserializer.class)
+	@JsonFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT, shape = Shape.STRING)
+	@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT)
+	private LocalDateTime bucketStart;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Integer groupKey;
+	
+	private long orderCount;
+	private BigDecimal feeSum;
+	private BigDecimal feeAvg;
+	private Double feeP50;
+	private Double feeP90;
+	private Double feeP99;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,31 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoSliceResponse<T> {
+	
+	private Collection<T> collection;
+	private int page;
+	private int size;
+	private boolean hasNext;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -12,9 +12,12 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,6 +48,7 @@ public class ApiExceptionHandler {
 		CartNotFoundException.class,
 		OrderNotFoundException.class,
 		IllegalStateException.class,
+		IllegalArgumentException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
 		
@@ -60,6 +64,57 @@ public class ApiExceptionHandler {
 					.build(), badRequest);
 	}
 	
+	@ExceptionHandler(value = {
+		IdempotencyKeyConflictException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleIdempotencyKeyConflictException(final IdempotencyKeyConflictException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle duplicate in-flight request*\n");
+		final var conflict = HttpStatus.CONFLICT;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(conflict)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), conflict);
+	}
+	
+	@ExceptionHandler(value = {
+		IdempotencyKeyMismatchException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleIdempotencyKeyMismatchException(final IdempotencyKeyMismatchException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle reused idempotency key*\n");
+		final var unprocessableEntity = HttpStatus.UNPROCESSABLE_ENTITY;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(unprocessableEntity)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), unprocessableEntity);
+	}
+	
+	@ExceptionHandler(value = {
+		BulkheadFullException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleBulkheadFullException(final BulkheadFullException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle saturated downstream bulkhead*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(serviceUnavailable)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), serviceUnavailable);
+	}
+	
 	
 	
 }
@@ -0,0 +1,32 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OrderSummary;
+import com.selimhorri.app.dto.OrderSummaryDto;
+
+public interface OrderSummaryMappingHelper {
+	
+	public static OrderSummaryDto map(final OrderSummary orderSummary) {
+		return OrderSummaryDto.builder()
+				.orderId(orderSummary.getOrderId())
+				.orderDate(orderSummary.getOrderDate())
+				.orderFee(orderSummary.getOrderFee())
+				.cartId(orderSummary.getCartId())
+				.userId(orderSummary.getUserId())
+				.userDisplayName(orderSummary.getUserDisplayName())
+				.paymentStatus(orderSummary.getPaymentStatus())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
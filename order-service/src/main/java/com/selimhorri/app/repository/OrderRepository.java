@@ -1,11 +1,36 @@
 package com.selimhorri.app.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.selimhorri.app.domain.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 	
+	/**
+	 * Query of {@link #streamAll}, shared with the exports that scroll it
+	 * through a stateless session.
+	 */
+	public static final String STREAM_ALL_QUERY = "SELECT o FROM Order o LEFT JOIN FETCH o.cart ORDER BY o.orderId";
+	
+	/**
+	 * Every order with its cart, as read-only entities fetched 500 rows per
+	 * round trip; for listings mapped through the BulkReader.
+	 */
+	@QueryHints({
+			@QueryHint(name = HINT_READONLY, value = "true"),
+			@QueryHint(name = HINT_FETCH_SIZE, value = "500")})
+	@Query(STREAM_ALL_QUERY)
+	Stream<Order> streamAll();
+	
 	
 	
 }
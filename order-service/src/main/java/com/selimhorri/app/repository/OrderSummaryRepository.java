@@ -0,0 +1,34 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderSummary;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Integer> {
+	
+	Slice<OrderSummary> findAllBy(final Pageable pageable);
+	Slice<OrderSummary> findByUserId(final Integer userId, final Pageable pageable);
+	Optional<OrderSummary> findFirstByUserIdAndUserDisplayNameIsNotNull(final Integer userId);
+	List<OrderSummary> findByCartId(final Integer cartId);
+	List<OrderSummary> findByOrderIdGreaterThanOrderByOrderIdAsc(final Integer orderId, final Pageable pageable);
+	
+	@Modifying
+	@Query("DELETE FROM OrderSummary s WHERE s.cartId = :cartId")
+	int deleteByCartId(@Param("cartId") final Integer cartId);
+	
+	@Modifying
+	@Query("UPDATE OrderSummary s SET s.userDisplayName = :userDisplayName WHERE s.userId = :userId")
+	int updateUserDisplayName(@Param("userId") final Integer userId,
+			@Param("userDisplayName") final String userDisplayName);
+	
+	
+	
+}
@@ -0,0 +1,24 @@
+package com.selimhorri.app.repository;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.RevenueRollupGuard;
+
+public interface RevenueRollupGuardRepository extends JpaRepository<RevenueRollupGuard, Integer> {
+	
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("SELECT g FROM RevenueRollupGuard g WHERE g.guardId = :guardId")
+	Optional<RevenueRollupGuard> findForShare(@Param("guardId") final Integer guardId);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT g FROM RevenueRollupGuard g WHERE g.guardId = :guardId")
+	Optional<RevenueRollupGuard> findForUpdate(@Param("guardId") final Integer guardId);
+	
+}
@@ -0,0 +1,43 @@
+package com.selimhorri.app.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+import com.selimhorri.app.domain.RevenueRollup;
+import com.selimhorri.app.domain.id.RevenueRollupId;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollupId>,
+		RevenueRollupRepositoryCustom {
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT r FROM RevenueRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension "
+			+ "AND r.bucketStart = :bucketStart AND r.dimensionKey = :dimensionKey")
+	Optional<RevenueRollup> findForUpdate(@Param("granularity") final RevenueGranularity granularity, 
+			@Param("dimension") final RevenueDimension dimension, 
+			@Param("bucketStart") final LocalDateTime bucketStart, 
+			@Param("dimensionKey") final Integer dimensionKey);
+	
+	/**
+	 * Rows of [from, to) for one granularity and grouping; a primary key range scan.
+	 */
+	@Query("SELECT r FROM RevenueRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension "
+			+ "AND r.bucketStart >= :from AND r.bucketStart < :to AND r.orderCount > 0 "
+			+ "ORDER BY r.bucketStart ASC, r.dimensionKey ASC")
+	List<RevenueRollup> findRange(@Param("granularity") final RevenueGranularity granularity, 
+			@Param("dimension") final RevenueDimension dimension, 
+			@Param("from") final LocalDateTime from, 
+			@Param("to") final LocalDateTime to);
+	
+	
+	
+}
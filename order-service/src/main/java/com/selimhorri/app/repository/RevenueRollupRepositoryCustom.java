@@ -0,0 +1,9 @@
+package com.selimhorri.app.repository;
+
+import com.selimhorri.app.domain.id.RevenueRollupId;
+
+public interface RevenueRollupRepositoryCustom {
+	
+	int insertIfAbsent(final RevenueRollupId id);
+	
+}
@@ -0,0 +1,58 @@
+package com.selimhorri.app.repository;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.selimhorri.app.domain.id.RevenueRollupId;
+
+/**
+ * Creates an empty rollup row unless it exists, in the caller's transaction
+ * and without ever failing on the primary key, so the caller can lock the row
+ * right after. Inserting before the locking read matters on InnoDB: a
+ * SELECT ... FOR UPDATE that finds nothing leaves a gap lock behind, and an
+ * insert into that gap from any other transaction waits for this one.
+ *
+ * MySQL (stage and prod) gets INSERT ... ON DUPLICATE KEY UPDATE with a no-op
+ * update; everything else (H2 in dev and tests) gets a MERGE that only inserts.
+ */
+public class RevenueRollupRepositoryCustomImpl implements RevenueRollupRepositoryCustom {
+	
+	static final String INSERT_IF_ABSENT_MYSQL = "INSERT INTO order_revenue_rollups "
+			+ "(granularity, dimension, bucket_start, dimension_key, order_count, fee_sum) "
+			+ "VALUES (:granularity, :dimension, :bucketStart, :dimensionKey, 0, 0) "
+			+ "ON DUPLICATE KEY UPDATE order_count = order_count";
+	static final String INSERT_IF_ABSENT_MERGE = "MERGE INTO order_revenue_rollups r "
+			+ "USING (SELECT CAST(:granularity AS VARCHAR(8)) AS granularity, "
+			+ "CAST(:dimension AS VARCHAR(8)) AS dimension, CAST(:bucketStart AS TIMESTAMP) AS bucket_start, "
+			+ "CAST(:dimensionKey AS INT) AS dimension_key) k "
+			+ "ON (r.granularity = k.granularity AND r.dimension = k.dimension "
+			+ "AND r.bucket_start = k.bucket_start AND r.dimension_key = k.dimension_key) "
+			+ "WHEN NOT MATCHED THEN "
+			+ "INSERT (granularity, dimension, bucket_start, dimension_key, order_count, fee_sum) "
+			+ "VALUES (k.granularity, k.dimension, k.bucket_start, k.dimension_key, 0, 0)";
+	
+	private final EntityManager entityManager;
+	private final String insertIfAbsent;
+	
+	public RevenueRollupRepositoryCustomImpl(final EntityManager entityManager) {
+		this.entityManager = entityManager;
+		final boolean mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+				.getJdbcServices().getDialect() instanceof MySQLDialect;
+		this.insertIfAbsent = mysql ? INSERT_IF_ABSENT_MYSQL : INSERT_IF_ABSENT_MERGE;
+	}
+	
+	@Override
+	public int insertIfAbsent(final RevenueRollupId id) {
+		return this.entityManager.createNativeQuery(this.insertIfAbsent)
+				.setParameter("granularity", id.getGranularity().name())
+				.setParameter("dimension", id.getDimension().name())
+				.setParameter("bucketStart", id.getBucketStart())
+				.setParameter("dimensionKey", id.getDimensionKey())
+				.executeUpdate();
+	}
+	
+	
+	
+}
@@ -1,9 +1,13 @@
 package com.selimhorri.app.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,23 +15,39 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.idempotency.IdempotencyStore;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/orders")
 @Slf4j
-@RequiredArgsConstructor
 public class OrderResource {
 	
 	private final OrderService orderService;
+	private final IdempotencyStore<OrderDto> orderIdempotencyStore;
+	private final ObjectWriter exportWriter;
+	
+	public OrderResource(final OrderService orderService, final IdempotencyStore<OrderDto> orderIdempotencyStore,
+			final ObjectMapper objectMapper) {
+		this.orderService = orderService;
+		this.orderIdempotencyStore = orderIdempotencyStore;
+		this.exportWriter = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT)
+				.withRootValueSeparator("\n");
+	}
 	
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAll() {
@@ -35,6 +55,29 @@ public class OrderResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
 	}
 	
+	/**
+	 * Every order as newline-delimited JSON, written while it is read, so the
+	 * export never holds more than one fetch of orders in memory.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportAll() {
+		log.info("*** OrderDto Stream, controller; export all orders *");
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(out -> {
+					try (SequenceWriter orders = this.exportWriter.writeValues(out)) {
+						this.orderService.exportAll(order -> {
+							try {
+								orders.write(order);
+							}
+							catch (IOException e) {
+								throw new UncheckedIOException(e);
+							}
+						});
+					}
+				});
+	}
+	
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") 
@@ -44,13 +87,19 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.findById(Integer.parseInt(orderId)));
 	}
 	
+	/**
+	 * Retries carrying the same {@code Idempotency-Key} get the original
+	 * response instead of creating another order.
+	 */
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
+			@RequestHeader(name = IdempotencyStore.HEADER, required = false) final String idempotencyKey,
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL") 
 			@Valid final OrderDto orderDto) {
 		log.info("*** OrderDto, resource; save order *");
-		return ResponseEntity.ok(this.orderService.save(orderDto));
+		return ResponseEntity.ok(this.orderIdempotencyStore.execute(idempotencyKey, orderDto, 
+				() -> this.orderService.save(orderDto)));
 	}
 	
 	@PutMapping
@@ -0,0 +1,74 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.response.collection.DtoSliceResponse;
+import com.selimhorri.app.service.OrderSummaryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/order-summaries")
+@Slf4j
+@RequiredArgsConstructor
+public class OrderSummaryResource {
+	
+	private final OrderSummaryService orderSummaryService;
+	
+	@GetMapping
+	public ResponseEntity<DtoSliceResponse<OrderSummaryDto>> findAll(
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		log.info("*** OrderSummaryDto Slice, controller; fetch all order summaries *");
+		return ResponseEntity.ok(toResponse(this.orderSummaryService.findAll(page, size)));
+	}
+	
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<DtoSliceResponse<OrderSummaryDto>> findAllByUserId(
+			@PathVariable("userId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String userId,
+			@RequestParam(name = "page", defaultValue = "0") final int page,
+			@RequestParam(name = "size", defaultValue = "20") final int size) {
+		log.info("*** OrderSummaryDto Slice, controller; fetch order summaries by userId *");
+		return ResponseEntity.ok(toResponse(this.orderSummaryService
+				.findAllByUserId(Integer.parseInt(userId), page, size)));
+	}
+	
+	@GetMapping("/{orderId}")
+	public ResponseEntity<OrderSummaryDto> findById(
+			@PathVariable("orderId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String orderId) {
+		log.info("*** OrderSummaryDto, resource; fetch order summary by id *");
+		return ResponseEntity.ok(this.orderSummaryService.findById(Integer.parseInt(orderId)));
+	}
+	
+	private static <T> DtoSliceResponse<T> toResponse(final Slice<T> slice) {
+		return new DtoSliceResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
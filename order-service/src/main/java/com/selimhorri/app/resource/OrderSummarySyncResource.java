@@ -0,0 +1,83 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.service.OrderSummaryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps order summaries in sync with payment and user writes. Called by the
+ * payment and user services only: the api gateway answers 404 for every
+ * internal path, so clients cannot reach it.
+ */
+@RestController
+@RequestMapping("/internal/order-summaries")
+@Slf4j
+@RequiredArgsConstructor
+public class OrderSummarySyncResource {
+	
+	private final OrderSummaryService orderSummaryService;
+	
+	@PutMapping("/{orderId}/payment")
+	public ResponseEntity<OrderSummaryDto> updatePayment(
+			@PathVariable("orderId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String orderId,
+			@RequestBody
+			@NotNull(message = "Input must not be NULL")
+			@Valid final PaymentDto paymentDto) {
+		log.info("*** OrderSummaryDto, resource; record payment status of order *");
+		return ResponseEntity.ok(this.orderSummaryService.onPaymentSaved(Integer.parseInt(orderId), paymentDto));
+	}
+	
+	@DeleteMapping("/{orderId}/payment/{paymentId}")
+	public ResponseEntity<OrderSummaryDto> deletePayment(
+			@PathVariable("orderId") final String orderId,
+			@PathVariable("paymentId") final String paymentId) {
+		log.info("*** OrderSummaryDto, resource; clear payment status of order *");
+		return ResponseEntity.ok(this.orderSummaryService
+				.onPaymentDeleted(Integer.parseInt(orderId), Integer.parseInt(paymentId)));
+	}
+	
+	@PutMapping("/user/{userId}")
+	public ResponseEntity<Boolean> updateUser(
+			@PathVariable("userId")
+			@NotBlank(message = "Input must not be blank")
+			@Valid final String userId,
+			@RequestBody
+			@NotNull(message = "Input must not be NULL")
+			@Valid final UserDto userDto) {
+		log.info("*** Boolean, resource; record display name of user *");
+		userDto.setUserId(Integer.parseInt(userId));
+		this.orderSummaryService.onUserSaved(userDto);
+		return ResponseEntity.ok(true);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
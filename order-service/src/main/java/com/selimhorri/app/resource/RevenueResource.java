@@ -0,0 +1,65 @@
+package com.selimhorri.app.resource;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+import com.selimhorri.app.dto.RevenueReportDto;
+import com.selimhorri.app.service.RevenueRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/order-revenue")
+@Slf4j
+@RequiredArgsConstructor
+public class RevenueResource {
+	
+	private final RevenueRollupService revenueRollupService;
+	
+	/**
+	 * Order count, fee sum/average and fee percentiles per bucket of [from, to),
+	 * grouped by granularity (HOUR, DAY) and by TOTAL, USER or CART.
+	 * from is rounded down to the start of its bucket.
+	 */
+	@GetMapping
+	public ResponseEntity<RevenueReportDto> findReport(
+			@RequestParam("from") 
+			@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT) final LocalDateTime from, 
+			@RequestParam("to") 
+			@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT) final LocalDateTime to, 
+			@RequestParam(name = "granularity", defaultValue = "DAY") final RevenueGranularity granularity, 
+			@RequestParam(name = "groupBy", defaultValue = "TOTAL") final RevenueDimension groupBy) {
+		log.info("*** RevenueReportDto, controller; fetch revenue report *");
+		return ResponseEntity.ok(this.revenueRollupService.findReport(from, to, granularity, groupBy));
+	}
+	
+	@PostMapping("/rebuild")
+	public ResponseEntity<Long> rebuild() {
+		log.info("*** Long, controller; rebuild revenue rollups *");
+		return ResponseEntity.ok(this.revenueRollupService.rebuild());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
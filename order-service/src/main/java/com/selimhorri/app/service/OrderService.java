@@ -1,6 +1,7 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.dto.OrderDto;
 
@@ -13,4 +14,10 @@ public interface OrderService {
 	OrderDto update(final Integer orderId, final OrderDto orderDto);
 	void deleteById(final Integer orderId);
 	
+	/**
+	 * Hands every order to the sink without materializing the result, for
+	 * exports too large for findAll; returns how many were exported.
+	 */
+	long exportAll(final Consumer<? super OrderDto> sink);
+	
 }
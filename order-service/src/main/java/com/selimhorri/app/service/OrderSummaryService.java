@@ -0,0 +1,27 @@
+package com.selimhorri.app.service;
+
+import org.springframework.data.domain.Slice;
+
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.UserDto;
+
+public interface OrderSummaryService {
+	
+	Slice<OrderSummaryDto> findAll(final int page, final int size);
+	Slice<OrderSummaryDto> findAllByUserId(final Integer userId, final int page, final int size);
+	OrderSummaryDto findById(final Integer orderId);
+	
+	void onOrderSaved(final OrderDto orderDto);
+	void onOrderDeleted(final Integer orderId);
+	void onCartSaved(final CartDto cartDto);
+	void onCartDeleted(final Integer cartId);
+	OrderSummaryDto onPaymentSaved(final Integer orderId, final PaymentDto paymentDto);
+	OrderSummaryDto onPaymentDeleted(final Integer orderId, final Integer paymentId);
+	void onUserSaved(final UserDto userDto);
+	
+	
+	
+}
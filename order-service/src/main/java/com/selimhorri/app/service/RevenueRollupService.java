@@ -0,0 +1,23 @@
+package com.selimhorri.app.service;
+
+import java.time.LocalDateTime;
+
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.RevenueReportDto;
+
+public interface RevenueRollupService {
+	
+	RevenueReportDto findReport(final LocalDateTime from, final LocalDateTime to, 
+			final RevenueGranularity granularity, final RevenueDimension groupBy);
+	
+	/**
+	 * Moves an order's contribution from its previous to its current state;
+	 * either side is null when the order did not exist before or no longer exists.
+	 */
+	void onOrderChanged(final OrderSummaryDto previous, final OrderSummaryDto current);
+	
+	long rebuild();
+	
+}
@@ -3,9 +3,8 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
@@ -15,6 +14,7 @@ import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.helper.CartMappingHelper;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.service.CartService;
+import com.selimhorri.app.service.OrderSummaryService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,8 +27,10 @@ public class CartServiceImpl implements CartService {
 	
 	private final CartRepository cartRepository;
 	private final RestTemplate restTemplate;
+	private final OrderSummaryService orderSummaryService;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<CartDto> findAll() {
 		log.info("*** CartDto List, service; fetch all carts *");
 		return this.cartRepository.findAll()
@@ -39,11 +41,11 @@ public class CartServiceImpl implements CartService {
 								.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(), UserDto.class));
 						return c;
 					})
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public CartDto findById(final Integer cartId) {
 		log.info("*** CartDto, service; fetch cart by id *");
 		return this.cartRepository.findById(cartId)
@@ -67,8 +69,8 @@ public class CartServiceImpl implements CartService {
 	@Override
 	public CartDto update(final CartDto cartDto) {
 		log.info("*** CartDto, service; update cart *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(cartDto)));
+		return this.summarized(CartMappingHelper.map(this.cartRepository
+				.save(CartMappingHelper.map(cartDto))));
 	}
 	
 	@Override
@@ -78,14 +80,20 @@ public class CartServiceImpl implements CartService {
 			.orElseThrow(() -> new CartNotFoundException(String
 					.format("Cart with id: %d not found", cartId)));
 		cartDto.setCartId(cartId);
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(cartDto)));
+		return this.summarized(CartMappingHelper.map(this.cartRepository
+				.save(CartMappingHelper.map(cartDto))));
 	}
 	
 	@Override
 	public void deleteById(final Integer cartId) {
 		log.info("*** Void, service; delete cart by id *");
 		this.cartRepository.deleteById(cartId);
+		this.orderSummaryService.onCartDeleted(cartId);
+	}
+	
+	private CartDto summarized(final CartDto cartDto) {
+		this.orderSummaryService.onCartSaved(cartDto);
+		return cartDto;
 	}
 	
 	
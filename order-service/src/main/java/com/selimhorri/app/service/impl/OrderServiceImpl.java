@@ -1,17 +1,21 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
-import java.util.stream.Collectors;
-
-import javax.transaction.Transactional;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.domain.ChangeType;
+import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 import com.selimhorri.app.helper.OrderMappingHelper;
 import com.selimhorri.app.repository.OrderRepository;
 import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.OrderSummaryService;
+import com.selimhorri.app.service.bulkread.BulkReader;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,19 +26,30 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 	
+	private static final String AGGREGATE_TYPE = "ORDER";
+	
 	private final OrderRepository orderRepository;
+	private final OrderSummaryService orderSummaryService;
+	private final OutboxPublisher outboxPublisher;
+	private final BulkReader bulkReader;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<OrderDto> findAll() {
 		log.info("*** OrderDto List, service; fetch all orders *");
-		return this.orderRepository.findAll()
-				.stream()
-					.map(OrderMappingHelper::map)
-					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+		return this.bulkReader.mapAll(this.orderRepository.streamAll(), OrderMappingHelper::map);
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
+	public long exportAll(final Consumer<? super OrderDto> sink) {
+		log.info("*** Long, service; export all orders *");
+		return this.bulkReader.scroll(OrderRepository.STREAM_ALL_QUERY, Order.class,
+				order -> sink.accept(OrderMappingHelper.map(order)));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
 	public OrderDto findById(final Integer orderId) {
 		log.info("*** OrderDto, service; fetch order by id *");
 		return this.orderRepository.findById(orderId)
@@ -46,15 +61,15 @@ public class OrderServiceImpl implements OrderService {
 	@Override
 	public OrderDto save(final OrderDto orderDto) {
 		log.info("*** OrderDto, service; save order *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.published(ChangeType.CREATED, OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(orderDto))));
 	}
 	
 	@Override
 	public OrderDto update(final OrderDto orderDto) {
 		log.info("*** OrderDto, service; update order *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.published(ChangeType.UPDATED, OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(orderDto))));
 	}
 	
 	@Override
@@ -64,15 +79,23 @@ public class OrderServiceImpl implements OrderService {
 			.orElseThrow(() -> new OrderNotFoundException(String
 					.format("Order with id: %d not found", orderId)));
 		orderDto.setOrderId(orderId);
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.published(ChangeType.UPDATED, OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(orderDto))));
 	}
 	
 	@Override
 	public void deleteById(final Integer orderId) {
 		log.info("*** Void, service; delete order by id *");
-		this.findById(orderId);
+		final OrderDto orderDto = this.findById(orderId);
 		this.orderRepository.deleteById(orderId);
+		this.orderSummaryService.onOrderDeleted(orderId);
+		this.outboxPublisher.append(AGGREGATE_TYPE, orderId, ChangeType.DELETED, orderDto);
+	}
+	
+	private OrderDto published(final ChangeType changeType, final OrderDto orderDto) {
+		this.orderSummaryService.onOrderSaved(orderDto);
+		this.outboxPublisher.append(AGGREGATE_TYPE, orderDto.getOrderId(), changeType, orderDto);
+		return orderDto;
 	}
 	
 	
@@ -0,0 +1,269 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.OrderSummary;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.helper.OrderSummaryMappingHelper;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderSummaryRepository;
+import com.selimhorri.app.service.OrderSummaryService;
+import com.selimhorri.app.service.RevenueRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the order_summaries read model in step with order, cart and payment
+ * writes. Everything but the user display name is local data; the name is
+ * copied from another summary of the same user when one exists, otherwise it
+ * is fetched from user-service once the write has committed, so the remote call
+ * never holds the order transaction open and a failed lookup only leaves the
+ * name empty until the user's next order. user-service reports renames through
+ * {@link #onUserSaved}; until that call arrives a summary shows the old name.
+ * Each change is also handed to the revenue rollups with the row's previous state.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+	
+	static final int MAX_PAGE_SIZE = 100;
+	
+	private static final Sort HISTORY_ORDER = Sort.by(Sort.Direction.DESC, "orderDate")
+			.and(Sort.by(Sort.Direction.DESC, "orderId"));
+	
+	private final OrderSummaryRepository orderSummaryRepository;
+	private final CartRepository cartRepository;
+	private final RestTemplate restTemplate;
+	private final RevenueRollupService revenueRollupService;
+	private final PlatformTransactionManager transactionManager;
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<OrderSummaryDto> findAll(final int page, final int size) {
+		log.info("*** OrderSummaryDto Slice, service; fetch all order summaries *");
+		return this.orderSummaryRepository.findAllBy(pageRequest(page, size))
+				.map(OrderSummaryMappingHelper::map);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<OrderSummaryDto> findAllByUserId(final Integer userId, final int page, final int size) {
+		log.info("*** OrderSummaryDto Slice, service; fetch order summaries by userId *");
+		return this.orderSummaryRepository.findByUserId(userId, pageRequest(page, size))
+				.map(OrderSummaryMappingHelper::map);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public OrderSummaryDto findById(final Integer orderId) {
+		log.info("*** OrderSummaryDto, service; fetch order summary by id *");
+		return this.orderSummaryRepository.findById(orderId)
+				.map(OrderSummaryMappingHelper::map)
+				.orElseThrow(() -> new OrderNotFoundException(String
+						.format("Order summary with id: %d not found", orderId)));
+	}
+	
+	@Override
+	public void onOrderSaved(final OrderDto orderDto) {
+		final Integer cartId = (orderDto.getCartDto() == null) ? null : orderDto.getCartDto().getCartId();
+		final Optional<OrderSummary> existing = this.orderSummaryRepository.findById(orderDto.getOrderId());
+		final OrderSummaryDto previous = existing.map(OrderSummaryMappingHelper::map).orElse(null);
+		final OrderSummary orderSummary = existing
+				.orElseGet(() -> OrderSummary.builder()
+						.orderId(orderDto.getOrderId())
+						.build());
+		
+		if (orderSummary.getUserId() == null || !Objects.equals(orderSummary.getCartId(), cartId)) {
+			final Integer userId = (cartId == null) ? null : this.cartRepository.findById(cartId)
+					.map(Cart::getUserId)
+					.orElse(null);
+			orderSummary.setUserId(userId);
+			orderSummary.setUserDisplayName(this.knownDisplayName(userId));
+		}
+		orderSummary.setCartId(cartId);
+		orderSummary.setOrderDate(orderDto.getOrderDate());
+		orderSummary.setOrderFee(orderDto.getOrderFee());
+		this.orderSummaryRepository.save(orderSummary);
+		this.revenueRollupService.onOrderChanged(previous, OrderSummaryMappingHelper.map(orderSummary));
+		if (orderSummary.getUserId() != null && orderSummary.getUserDisplayName() == null)
+			this.afterCommit(() -> this.refreshDisplayName(orderSummary.getUserId()));
+	}
+	
+	@Override
+	public void onOrderDeleted(final Integer orderId) {
+		this.orderSummaryRepository.findById(orderId).ifPresent(orderSummary -> {
+			this.orderSummaryRepository.delete(orderSummary);
+			this.revenueRollupService.onOrderChanged(OrderSummaryMappingHelper.map(orderSummary), null);
+		});
+	}
+	
+	@Override
+	public void onCartSaved(final CartDto cartDto) {
+		final List<OrderSummary> orderSummaries = this.orderSummaryRepository.findByCartId(cartDto.getCartId());
+		if (orderSummaries.isEmpty()
+				|| orderSummaries.stream().allMatch(s -> Objects.equals(s.getUserId(), cartDto.getUserId())))
+			return;
+		final String userDisplayName = this.knownDisplayName(cartDto.getUserId());
+		orderSummaries.forEach(s -> {
+			final OrderSummaryDto previous = OrderSummaryMappingHelper.map(s);
+			s.setUserId(cartDto.getUserId());
+			s.setUserDisplayName(userDisplayName);
+			this.revenueRollupService.onOrderChanged(previous, OrderSummaryMappingHelper.map(s));
+		});
+		this.orderSummaryRepository.saveAll(orderSummaries);
+		if (cartDto.getUserId() != null && userDisplayName == null)
+			this.afterCommit(() -> this.refreshDisplayName(cartDto.getUserId()));
+	}
+	
+	@Override
+	public void onCartDeleted(final Integer cartId) {
+		this.orderSummaryRepository.findByCartId(cartId).forEach(orderSummary -> this.revenueRollupService
+				.onOrderChanged(OrderSummaryMappingHelper.map(orderSummary), null));
+		this.orderSummaryRepository.deleteByCartId(cartId);
+	}
+	
+	@Override
+	public OrderSummaryDto onPaymentSaved(final Integer orderId, final PaymentDto paymentDto) {
+		log.info("*** OrderSummaryDto, service; record payment status *");
+		final OrderSummary orderSummary = this.orderSummaryRepository.findById(orderId)
+				.orElseThrow(() -> new OrderNotFoundException(String
+						.format("Order summary with id: %d not found", orderId)));
+		if (isNewerPayment(orderSummary, paymentDto)) {
+			orderSummary.setPaymentId(paymentDto.getPaymentId());
+			orderSummary.setPaymentStatus(paymentDto.getPaymentStatus());
+			orderSummary.setPaymentVersion(paymentDto.getVersion());
+		}
+		return OrderSummaryMappingHelper.map(this.orderSummaryRepository.save(orderSummary));
+	}
+	
+	@Override
+	public OrderSummaryDto onPaymentDeleted(final Integer orderId, final Integer paymentId) {
+		log.info("*** OrderSummaryDto, service; clear payment status *");
+		final OrderSummary orderSummary = this.orderSummaryRepository.findById(orderId)
+				.orElseThrow(() -> new OrderNotFoundException(String
+						.format("Order summary with id: %d not found", orderId)));
+		if (Objects.equals(orderSummary.getPaymentId(), paymentId)) {
+			orderSummary.setPaymentId(null);
+			orderSummary.setPaymentStatus(null);
+			orderSummary.setPaymentVersion(null);
+		}
+		return OrderSummaryMappingHelper.map(this.orderSummaryRepository.save(orderSummary));
+	}
+	
+	@Override
+	public void onUserSaved(final UserDto userDto) {
+		log.info("*** Void, service; record display name of user *");
+		this.orderSummaryRepository.updateUserDisplayName(userDto.getUserId(), displayName(userDto));
+	}
+	
+	/**
+	 * Payments may be reported out of order: a later payment wins over an
+	 * earlier one, and for the same payment a later version wins, so a late
+	 * IN_PROGRESS never overrides the COMPLETED it was followed by.
+	 */
+	private static boolean isNewerPayment(final OrderSummary orderSummary, final PaymentDto paymentDto) {
+		if (orderSummary.getPaymentId() == null || paymentDto.getPaymentId() == null)
+			return true;
+		if (!paymentDto.getPaymentId().equals(orderSummary.getPaymentId()))
+			return paymentDto.getPaymentId() > orderSummary.getPaymentId();
+		return orderSummary.getPaymentVersion() == null || paymentDto.getVersion() == null
+				|| paymentDto.getVersion() > orderSummary.getPaymentVersion();
+	}
+	
+	private String knownDisplayName(final Integer userId) {
+		if (userId == null)
+			return null;
+		return this.orderSummaryRepository.findFirstByUserIdAndUserDisplayNameIsNotNull(userId)
+				.map(OrderSummary::getUserDisplayName)
+				.orElse(null);
+	}
+	
+	/**
+	 * Fetches the name outside any transaction and writes it to all summaries of
+	 * the user in a new one; the transaction that asked for it has already
+	 * committed, so it cannot take the write.
+	 */
+	private void refreshDisplayName(final Integer userId) {
+		final String displayName;
+		try {
+			displayName = displayName(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
+					.USER_SERVICE_API_URL + "/" + userId, UserDto.class));
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Could not resolve display name of user {}: {} *", userId, e.getMessage());
+			return;
+		}
+		if (displayName == null)
+			return;
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		transactionTemplate.executeWithoutResult(status -> this.orderSummaryRepository
+				.updateUserDisplayName(userId, displayName));
+	}
+	
+	/**
+	 * Runs the lookup once the summary is committed, or right away when there
+	 * is no transaction to wait for.
+	 */
+	private void afterCommit(final Runnable lookup) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			lookup.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				lookup.run();
+			}
+		});
+	}
+	
+	private static String displayName(final UserDto userDto) {
+		if (userDto == null)
+			return null;
+		final String displayName = String.join(" ", Objects.toString(userDto.getFirstName(), ""),
+				Objects.toString(userDto.getLastName(), "")).trim();
+		return displayName.isEmpty() ? null : displayName;
+	}
+	
+	private static PageRequest pageRequest(final int page, final int size) {
+		return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), HISTORY_ORDER);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,270 @@
+package com.selimhorri.app.service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.config.revenue.RevenueRollupProperties;
+import com.selimhorri.app.domain.OrderSummary;
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+import com.selimhorri.app.domain.RevenueRollup;
+import com.selimhorri.app.domain.RevenueRollupGuard;
+import com.selimhorri.app.domain.id.RevenueRollupId;
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.RevenueBucketDto;
+import com.selimhorri.app.dto.RevenueReportDto;
+import com.selimhorri.app.helper.OrderSummaryMappingHelper;
+import com.selimhorri.app.repository.OrderSummaryRepository;
+import com.selimhorri.app.repository.RevenueRollupGuardRepository;
+import com.selimhorri.app.repository.RevenueRollupRepository;
+import com.selimhorri.app.service.RevenueRollupService;
+import com.selimhorri.app.service.revenue.QuantileSketch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hourly and daily revenue rollups (overall, per user, per cart), kept in step
+ * with the order summaries inside the same transaction.
+ *
+ * Every row touched by an order write is created empty if missing and then
+ * locked (SELECT ... FOR UPDATE), both in the order transaction and in key
+ * order. Order writes also hold a shared lock on the rollup guard row, which
+ * a rebuild locks exclusively. Orders without an order date or fee are not
+ * counted.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+	
+	private static final int REBUILD_BATCH_SIZE = 500;
+	
+	private final RevenueRollupRepository revenueRollupRepository;
+	private final OrderSummaryRepository orderSummaryRepository;
+	private final RevenueRollupGuardRepository revenueRollupGuardRepository;
+	private final RevenueRollupProperties revenueRollupProperties;
+	
+	@Override
+	@Transactional(readOnly = true)
+	public RevenueReportDto findReport(final LocalDateTime from, final LocalDateTime to, 
+			final RevenueGranularity granularity, final RevenueDimension groupBy) {
+		log.info("*** RevenueReportDto, service; fetch revenue report *");
+		if (!from.isBefore(to))
+			throw new IllegalArgumentException("Revenue range must end after it starts");
+		if (granularity.bucketsBetween(from, to) > this.revenueRollupProperties.getMaxBuckets())
+			throw new IllegalArgumentException(String.format("Revenue range spans more than %d %s buckets",
+					this.revenueRollupProperties.getMaxBuckets(), granularity));
+		
+		final LocalDateTime alignedFrom = granularity.bucketOf(from);
+		final List<RevenueBucketDto> buckets = new ArrayList<>();
+		final QuantileSketch totalSketch = this.newSketch();
+		long totalCount = 0;
+		BigDecimal totalSum = BigDecimal.ZERO;
+		for (final RevenueRollup rollup : this.revenueRollupRepository.findRange(granularity, groupBy, alignedFrom, to)) {
+			final QuantileSketch sketch = this.sketchOf(rollup);
+			buckets.add(bucket(rollup.getBucketStart(), 
+					(groupBy == RevenueDimension.TOTAL) ? null : rollup.getDimensionKey(), 
+					rollup.getOrderCount(), rollup.getFeeSum(), sketch));
+			totalSketch.merge(sketch);
+			totalCount += rollup.getOrderCount();
+			totalSum = totalSum.add(rollup.getFeeSum());
+		}
+		
+		return RevenueReportDto.builder()
+				.granularity(granularity)
+				.groupBy(groupBy)
+				.from(alignedFrom)
+				.to(to)
+				.buckets(buckets)
+				.total(bucket(null, null, totalCount, totalSum, totalSketch))
+				.build();
+	}
+	
+	@Override
+	public void onOrderChanged(final OrderSummaryDto previous, final OrderSummaryDto current) {
+		final boolean counted = isCounted(previous);
+		final boolean counts = isCounted(current);
+		if (counted && counts && sameContribution(previous, current))
+			return;
+		
+		this.revenueRollupGuardRepository.findForShare(RevenueRollupGuard.GUARD_ID)
+				.orElseThrow(RevenueRollupServiceImpl::missingGuard);
+		final TreeMap<RevenueRollupId, Delta> deltas = new TreeMap<>();
+		if (counted)
+			keysOf(previous).forEach(id -> deltas.computeIfAbsent(id, k -> new Delta()).removed
+					.add(previous.getOrderFee()));
+		if (counts)
+			keysOf(current).forEach(id -> deltas.computeIfAbsent(id, k -> new Delta()).added
+					.add(current.getOrderFee()));
+		
+		deltas.forEach((id, delta) -> {
+			final RevenueRollup rollup = this.lockOrCreate(id);
+			final QuantileSketch sketch = this.sketchOf(rollup);
+			delta.removed.forEach(fee -> {
+				sketch.remove(fee);
+				rollup.setOrderCount(rollup.getOrderCount() - 1);
+				rollup.setFeeSum(rollup.getFeeSum().subtract(BigDecimal.valueOf(fee)));
+			});
+			delta.added.forEach(fee -> {
+				sketch.add(fee);
+				rollup.setOrderCount(rollup.getOrderCount() + 1);
+				rollup.setFeeSum(rollup.getFeeSum().add(BigDecimal.valueOf(fee)));
+			});
+			rollup.setFeeSketch(sketch.toBytes());
+			this.revenueRollupRepository.save(rollup);
+		});
+	}
+	
+	/**
+	 * Recomputes every rollup from the order summaries, e.g. after a change of
+	 * relative accuracy or for data written before the rollups existed.
+	 *
+	 * The exclusive lock on the guard row waits for order writes in flight and
+	 * holds off new ones until the rebuild commits, so none of their increments
+	 * is lost to the delete or counted twice. It is taken before anything else
+	 * is read: on InnoDB the snapshot of the summaries is only fixed at the
+	 * first plain read, and then includes every write that held the guard.
+	 */
+	@Override
+	public long rebuild() {
+		log.info("*** Long, service; rebuild revenue rollups *");
+		final RevenueRollupGuard guard = this.revenueRollupGuardRepository.findForUpdate(RevenueRollupGuard.GUARD_ID)
+				.orElseThrow(RevenueRollupServiceImpl::missingGuard);
+		this.revenueRollupRepository.deleteAllInBatch();
+		final Map<RevenueRollupId, RevenueRollup> rollups = new HashMap<>();
+		final Map<RevenueRollupId, QuantileSketch> sketches = new HashMap<>();
+		long orders = 0;
+		List<OrderSummary> page = this.orderSummaryRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(
+				Integer.MIN_VALUE, PageRequest.of(0, REBUILD_BATCH_SIZE));
+		while (!page.isEmpty()) {
+			for (final OrderSummary orderSummary : page) {
+				final OrderSummaryDto current = OrderSummaryMappingHelper.map(orderSummary);
+				if (!isCounted(current))
+					continue;
+				orders++;
+				for (final RevenueRollupId id : keysOf(current)) {
+					final RevenueRollup rollup = rollups.computeIfAbsent(id, RevenueRollupServiceImpl::emptyRollup);
+					rollup.setOrderCount(rollup.getOrderCount() + 1);
+					rollup.setFeeSum(rollup.getFeeSum().add(BigDecimal.valueOf(current.getOrderFee())));
+					sketches.computeIfAbsent(id, k -> this.newSketch()).add(current.getOrderFee());
+				}
+			}
+			page = this.orderSummaryRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(
+					page.get(page.size() - 1).getOrderId(), PageRequest.of(0, REBUILD_BATCH_SIZE));
+		}
+		rollups.forEach((id, rollup) -> rollup.setFeeSketch(sketches.get(id).toBytes()));
+		this.revenueRollupRepository.saveAll(rollups.values());
+		guard.setRebuiltAt(LocalDateTime.now());
+		log.info("*** Revenue rollups rebuilt: {} rows from {} orders *", rollups.size(), orders);
+		return orders;
+	}
+	
+	private RevenueRollup lockOrCreate(final RevenueRollupId id) {
+		this.revenueRollupRepository.insertIfAbsent(id);
+		return this.revenueRollupRepository.findForUpdate(id.getGranularity(), id.getDimension(), 
+						id.getBucketStart(), id.getDimensionKey())
+				.orElseThrow(() -> new IllegalStateException("Revenue rollup " + id + " vanished"));
+	}
+	
+	private static IllegalStateException missingGuard() {
+		return new IllegalStateException("Revenue rollup guard row is missing");
+	}
+	
+	private QuantileSketch newSketch() {
+		return new QuantileSketch(this.revenueRollupProperties.getRelativeAccuracy());
+	}
+	
+	private QuantileSketch sketchOf(final RevenueRollup rollup) {
+		return QuantileSketch.fromBytes(rollup.getFeeSketch(), this.revenueRollupProperties.getRelativeAccuracy());
+	}
+	
+	private static boolean isCounted(final OrderSummaryDto orderSummaryDto) {
+		return orderSummaryDto != null && orderSummaryDto.getOrderDate() != null 
+				&& orderSummaryDto.getOrderFee() != null;
+	}
+	
+	private static boolean sameContribution(final OrderSummaryDto previous, final OrderSummaryDto current) {
+		return Objects.equals(previous.getOrderDate(), current.getOrderDate())
+				&& Objects.equals(previous.getOrderFee(), current.getOrderFee())
+				&& Objects.equals(previous.getUserId(), current.getUserId())
+				&& Objects.equals(previous.getCartId(), current.getCartId());
+	}
+	
+	private static List<RevenueRollupId> keysOf(final OrderSummaryDto orderSummaryDto) {
+		final List<RevenueRollupId> ids = new ArrayList<>(6);
+		for (final RevenueGranularity granularity : RevenueGranularity.values()) {
+			final LocalDateTime bucketStart = granularity.bucketOf(orderSummaryDto.getOrderDate());
+			ids.add(new RevenueRollupId(granularity, RevenueDimension.TOTAL, bucketStart, 0));
+			if (orderSummaryDto.getUserId() != null)
+				ids.add(new RevenueRollupId(granularity, RevenueDimension.USER, bucketStart, 
+						orderSummaryDto.getUserId()));
+			if (orderSummaryDto.getCartId() != null)
+				ids.add(new RevenueRollupId(granularity, RevenueDimension.CART, bucketStart, 
+						orderSummaryDto.getCartId()));
+		}
+		return ids;
+	}
+	
+	private static RevenueRollup emptyRollup(final RevenueRollupId id) {
+		return RevenueRollup.builder()
+				.granularity(id.getGranularity())
+				.dimension(id.getDimension())
+				.bucketStart(id.getBucketStart())
+				.dimensionKey(id.getDimensionKey())
+				.orderCount(0)
+				.feeSum(BigDecimal.ZERO)
+				.build();
+	}
+	
+	private static RevenueBucketDto bucket(final LocalDateTime bucketStart, final Integer groupKey, 
+			final long orderCount, final BigDecimal feeSum, final QuantileSketch sketch) {
+		return RevenueBucketDto.builder()
+				.bucketStart(bucketStart)
+				.groupKey(groupKey)
+				.orderCount(orderCount)
+				.feeSum(feeSum.setScale(2, RoundingMode.HALF_UP))
+				.feeAvg((orderCount == 0) ? null 
+						: feeSum.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_UP))
+				.feeP50(rounded(sketch.quantile(0.5)))
+				.feeP90(rounded(sketch.quantile(0.9)))
+				.feeP99(rounded(sketch.quantile(0.99)))
+				.build();
+	}
+	
+	private static Double rounded(final Double value) {
+		return (value == null) ? null : Math.round(value * 100) / 100.0;
+	}
+	
+	private static final class Delta {
+		
+		private final List<Double> removed = new ArrayList<>(1);
+		private final List<Double> added = new ArrayList<>(1);
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,52 @@
+package com.selimhorri.app.service.outbox;
+
+import java.time.LocalDateTime;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.domain.ChangeType;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+/**
+ * Records a change event in the outbox table. Must be called inside the
+ * transaction of the change, so the event is committed or rolled back with it.
+ */
+public class OutboxPublisher {
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final ObjectWriter payloadWriter;
+	
+	public OutboxPublisher(final OutboxEventRepository outboxEventRepository, final ObjectMapper objectMapper) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.payloadWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+	}
+	
+	@Transactional(TxType.MANDATORY)
+	public void append(final String aggregateType, final Object aggregateId, final ChangeType changeType,
+			final Object payload) {
+		final String json;
+		try {
+			json = this.payloadWriter.writeValueAsString(payload);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException(String.format("Could not serialize %s %s event payload",
+					aggregateType, changeType), e);
+		}
+		this.outboxEventRepository.save(OutboxEvent.builder()
+				.aggregateType(aggregateType)
+				.aggregateId(String.valueOf(aggregateId))
+				.changeType(changeType)
+				.payload(json)
+				.occurredAt(LocalDateTime.now())
+				.build());
+	}
+	
+	
+	
+}
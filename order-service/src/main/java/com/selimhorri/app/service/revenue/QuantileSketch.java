@@ -0,0 +1,182 @@
+package com.selimhorri.app.service.revenue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch with relative accuracy (DDSketch-style log histogram).
+ *
+ * A value v > 0 goes to bucket {@code ceil(log(v) / log(gamma))} with
+ * {@code gamma = (1 + a) / (1 - a)}, so any quantile is returned within a
+ * relative error {@code a} of the true value. Buckets are plain counters, so
+ * sketches merge by adding counts and values can be removed again, which is
+ * what keeps rollups correct when orders are updated or deleted. Values <= 0
+ * share a single zero bucket.
+ */
+public final class QuantileSketch {
+
+	private static final byte FORMAT_VERSION = 1;
+
+	private final double relativeAccuracy;
+	private final double logGamma;
+	private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+	private long zeroCount;
+	private long count;
+
+	public QuantileSketch(final double relativeAccuracy) {
+		if (relativeAccuracy <= 0 || relativeAccuracy >= 1)
+			throw new IllegalArgumentException("relative accuracy must be in (0, 1)");
+		this.relativeAccuracy = relativeAccuracy;
+		this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+	}
+
+	public void add(final double value) {
+		this.add(value, 1);
+	}
+
+	/**
+	 * Removes one occurrence of a value previously added.
+	 */
+	public void remove(final double value) {
+		this.add(value, -1);
+	}
+
+	public void merge(final QuantileSketch other) {
+		if (Double.compare(other.relativeAccuracy, this.relativeAccuracy) != 0)
+			throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+		this.zeroCount += other.zeroCount;
+		other.buckets.forEach(this::addToBucket);
+		this.count += other.count;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Value at quantile {@code q} in [0, 1], or null when the sketch is empty.
+	 */
+	public Double quantile(final double q) {
+		if (this.count <= 0)
+			return null;
+		final long rank = (long) Math.floor(Math.min(Math.max(q, 0), 1) * (this.count - 1));
+		long seen = this.zeroCount;
+		if (rank < seen)
+			return 0.0;
+		for (final Map.Entry<Integer, Long> bucket : this.buckets.entrySet()) {
+			seen += bucket.getValue();
+			if (rank < seen)
+				return 2 * Math.exp(bucket.getKey() * this.logGamma) / (1 + Math.exp(this.logGamma));
+		}
+		return this.buckets.isEmpty() ? 0.0
+				: 2 * Math.exp(this.buckets.lastKey() * this.logGamma) / (1 + Math.exp(this.logGamma));
+	}
+
+	public byte[] toBytes() {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + this.buckets.size() * 4);
+		try (final DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(FORMAT_VERSION);
+			writeVarLong(out, this.zeroCount);
+			writeVarLong(out, this.buckets.size());
+			int previous = 0;
+			for (final Map.Entry<Integer, Long> bucket : this.buckets.entrySet()) {
+				// indexes are ascending, so deltas stay small
+				writeVarLong(out, zigZag(bucket.getKey() - previous));
+				writeVarLong(out, bucket.getValue());
+				previous = bucket.getKey();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static QuantileSketch fromBytes(final byte[] bytes, final double relativeAccuracy) {
+		final QuantileSketch sketch = new QuantileSketch(relativeAccuracy);
+		if (bytes == null || bytes.length == 0)
+			return sketch;
+		try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			final byte version = in.readByte();
+			if (version != FORMAT_VERSION)
+				throw new IllegalStateException("Unsupported sketch format " + version);
+			sketch.zeroCount = readVarLong(in);
+			sketch.count = sketch.zeroCount;
+			final long size = readVarLong(in);
+			int index = 0;
+			for (long i = 0; i < size; i++) {
+				index += unZigZag(readVarLong(in));
+				final long bucketCount = readVarLong(in);
+				sketch.buckets.put(index, bucketCount);
+				sketch.count += bucketCount;
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return sketch;
+	}
+
+	private void add(final double value, final long delta) {
+		if (value <= 0)
+			this.zeroCount = Math.max(0, this.zeroCount + delta);
+		else
+			this.addToBucket((int) Math.ceil(Math.log(value) / this.logGamma), delta);
+		this.count = Math.max(0, this.count + delta);
+	}
+
+	private void addToBucket(final Integer index, final Long delta) {
+		final long updated = this.buckets.getOrDefault(index, 0L) + delta;
+		if (updated > 0)
+			this.buckets.put(index, updated);
+		else
+			this.buckets.remove(index);
+	}
+
+	private static long zigZag(final int value) {
+		return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+	}
+
+	private static int unZigZag(final long value) {
+		return (int) (value >>> 1) ^ -(int) (value & 1);
+	}
+
+	private static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			out.writeByte((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		out.writeByte((int) remaining);
+	}
+
+	private static long readVarLong(final DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final byte b = in.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IllegalStateException("Malformed sketch varint");
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,12 @@
+
+CREATE TABLE order_revenue_rollups (
+	granularity VARCHAR(8) NOT NULL,
+	dimension VARCHAR(8) NOT NULL,
+	bucket_start TIMESTAMP NOT NULL,
+	dimension_key INT(11) NOT NULL,
+	order_count BIGINT NOT NULL,
+	fee_sum DECIMAL(19, 2) NOT NULL,
+	fee_sketch BLOB,
+	PRIMARY KEY (granularity, dimension, bucket_start, dimension_key)
+);
+
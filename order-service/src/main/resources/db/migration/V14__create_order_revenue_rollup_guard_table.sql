@@ -0,0 +1,7 @@
+CREATE TABLE order_revenue_rollup_guard (
+	guard_id INT(11) NOT NULL PRIMARY KEY,
+	rebuilt_at TIMESTAMP NULL
+);
+
+INSERT INTO order_revenue_rollup_guard (guard_id) VALUES (1);
+
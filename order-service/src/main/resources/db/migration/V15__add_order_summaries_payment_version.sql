@@ -0,0 +1,2 @@
+ALTER TABLE order_summaries ADD COLUMN payment_version INT(11);
+
@@ -0,0 +1,14 @@
+
+CREATE TABLE order_summaries (
+	order_id INT(11) NOT NULL PRIMARY KEY,
+	order_date TIMESTAMP,
+	order_fee DECIMAL(7, 2),
+	cart_id INT(11),
+	user_id INT(11),
+	user_display_name VARCHAR(255),
+	payment_id INT(11),
+	payment_status VARCHAR(255),
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
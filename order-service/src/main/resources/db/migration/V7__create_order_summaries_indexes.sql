@@ -0,0 +1,3 @@
+
+CREATE INDEX idx_order_summaries_user_id_order_date ON order_summaries (user_id, order_date);
+CREATE INDEX idx_order_summaries_cart_id ON order_summaries (cart_id);
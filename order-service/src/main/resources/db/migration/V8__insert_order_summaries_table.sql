@@ -0,0 +1,6 @@
+
+INSERT INTO order_summaries
+(order_id, order_date, order_fee, cart_id, user_id)
+SELECT o.order_id, o.order_date, o.order_fee, o.cart_id, c.user_id
+FROM orders o
+LEFT JOIN carts c ON c.cart_id = o.cart_id;
@@ -0,0 +1,51 @@
+package com.selimhorri.app.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+class JsonLogLayoutTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    void doLayoutShouldWriteOneJsonLineWithTraceIds() {
+        JsonLogLayout layout = new JsonLogLayout();
+        layout.setService("ORDER-SERVICE");
+        LoggingEvent event = new LoggingEvent(getClass().getName(),
+                this.loggerContext.getLogger("com.selimhorri.app.Test"), Level.INFO,
+                "order {} \"done\"\n", null, new Object[] { 7 });
+        event.setTimeStamp(0L);
+        event.setThreadName("http-nio-1");
+        event.setMDCPropertyMap(Map.of("traceId", "4bf92f3577b34da6", "spanId", "00f067aa0ba902b7"));
+
+        String line = layout.doLayout(event);
+
+        assertThat(line).isEqualTo("{\"@timestamp\":\"1970-01-01T00:00:00Z\",\"level\":\"INFO\","
+                + "\"service\":\"ORDER-SERVICE\",\"traceId\":\"4bf92f3577b34da6\",\"spanId\":\"00f067aa0ba902b7\","
+                + "\"thread\":\"http-nio-1\",\"logger\":\"com.selimhorri.app.Test\","
+                + "\"message\":\"order 7 \\\"done\\\"\\n\"}" + System.lineSeparator());
+    }
+
+    @Test
+    void doLayoutShouldOmitMissingTraceIdsAndEscapeStackTraces() {
+        JsonLogLayout layout = new JsonLogLayout();
+        LoggingEvent event = new LoggingEvent(getClass().getName(),
+                this.loggerContext.getLogger("com.selimhorri.app.Test"), Level.ERROR,
+                "failed\u0001", new IllegalStateException("boom"), null);
+        event.setMDCPropertyMap(Map.of());
+
+        String line = layout.doLayout(event);
+
+        assertThat(line).doesNotContain("traceId", "service").contains("\"message\":\"failed\\u0001\"")
+                .contains("\"exception\":\"java.lang.IllegalStateException: boom\\n\\tat ");
+        assertThat(line.trim()).doesNotContain("\n");
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.bulkread.BulkReader;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:order_bulk_read_integration_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false",
+        "app.bulk-read.fetch-size=4"
+})
+class BulkReadIntegrationTest {
+
+    private static final int ORDERS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private BulkReader bulkReader;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer cartId;
+
+    @BeforeEach
+    void setUp() {
+        this.orderRepository.deleteAll();
+        this.cartRepository.deleteAll();
+        final Cart cart = this.cartRepository.save(Cart.builder().userId(7).build());
+        this.cartId = cart.getCartId();
+        this.orderRepository.saveAll(IntStream.range(0, ORDERS)
+                .mapToObj(i -> Order.builder()
+                        .orderDesc("order " + i)
+                        .orderFee(10.0 + i)
+                        .cart(cart)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllShouldLeaveNoEntitiesInThePersistenceContext() {
+        final TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+        readOnly.setReadOnly(true);
+
+        final int managed = readOnly.execute(status -> {
+            final List<OrderDto> orders = this.bulkReader.mapAll(this.orderRepository.streamAll(),
+                    OrderMappingHelper::map);
+            assertThat(orders).hasSize(ORDERS);
+            assertThat(orders).allSatisfy(order -> assertThat(order.getCartDto().getCartId()).isEqualTo(this.cartId));
+            return this.entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertThat(managed).isZero();
+    }
+
+    @Test
+    void exportAllShouldHandEveryOrderWithItsCartToTheSinkInIdOrder() {
+        final List<OrderDto> exported = new ArrayList<>();
+
+        final long count = this.orderService.exportAll(exported::add);
+
+        assertThat(count).isEqualTo(ORDERS);
+        assertThat(exported).extracting(OrderDto::getOrderDesc)
+                .containsExactlyElementsOf(IntStream.range(0, ORDERS)
+                        .mapToObj(i -> "order " + i)
+                        .collect(Collectors.toList()));
+        assertThat(exported).allSatisfy(order -> assertThat(order.getCartDto().getCartId()).isEqualTo(this.cartId));
+    }
+
+    @Test
+    void bulkReadsShouldRefuseReadWriteTransactions() {
+        final TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> readWrite.executeWithoutResult(status ->
+                this.bulkReader.scroll("SELECT o FROM Order o", Order.class, order -> {})));
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.config.datasource.ReplicaLagMonitor;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderService;
+
+/**
+ * Two H2 databases stand in for the primary and its replica; replication is
+ * played by hand, copying the heartbeat row from one to the other.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false",
+        "app.datasource.replica.url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.max-lag=5s",
+        "app.datasource.replica.heartbeat-interval=1h"
+})
+class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:order_replica_routing_primary_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String REPLICA_URL = "jdbc:h2:mem:order_replica_routing_replica_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final String ORDER_DESC = "SELECT order_desc FROM orders WHERE order_id = 1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.primary = new JdbcTemplate(this.primaryDataSource);
+        this.primary.update("UPDATE orders SET order_desc = 'init' WHERE order_id = 1");
+        replica.update("UPDATE orders SET order_desc = 'replica copy' WHERE order_id = 1");
+    }
+
+    @Test
+    void readOnlyTransactionsShouldReadFromAFreshReplica() {
+        this.replicate();
+
+        assertThat(this.replicaLagMonitor.isReplicaUsable()).isTrue();
+        assertThat(this.orderService.findById(1).getOrderDesc()).isEqualTo("replica copy");
+    }
+
+    @Test
+    void readOnlyTransactionsShouldFallBackToThePrimaryWhenTheReplicaLags() {
+        this.replicate();
+        replica.update("UPDATE replica_heartbeat SET beat_at = ? WHERE heartbeat_id = 1",
+                Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES)));
+        this.replicaLagMonitor.heartbeat();
+
+        assertThat(this.replicaLagMonitor.isReplicaUsable()).isFalse();
+        assertThat(this.orderService.findById(1).getOrderDesc()).isEqualTo("init");
+    }
+
+    @Test
+    void readWriteTransactionsShouldAlwaysUseThePrimary() {
+        this.replicate();
+        final TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+
+        readWrite.executeWithoutResult(status -> this.orderRepository.findById(1)
+                .ifPresent(order -> order.setOrderDesc(order.getOrderDesc() + " updated")));
+
+        assertThat(this.primary.queryForObject(ORDER_DESC, String.class)).isEqualTo("init updated");
+        assertThat(replica.queryForObject(ORDER_DESC, String.class)).isEqualTo("replica copy");
+    }
+
+    /**
+     * Ships the primary's latest heartbeat to the replica, as replication
+     * would, and lets the monitor look at it.
+     */
+    private void replicate() {
+        this.replicaLagMonitor.heartbeat();
+        replica.update("UPDATE replica_heartbeat SET beat_at = ? WHERE heartbeat_id = 1", this.primary
+                .queryForObject("SELECT beat_at FROM replica_heartbeat WHERE heartbeat_id = 1", Timestamp.class));
+        this.replicaLagMonitor.heartbeat();
+    }
+
+}
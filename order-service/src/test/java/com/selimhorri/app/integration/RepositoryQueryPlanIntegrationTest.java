@@ -0,0 +1,101 @@
+package com.selimhorri.app.integration;
+
+import static com.selimhorri.app.integration.QueryPlanInspector.assertNoFullScan;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+import com.selimhorri.app.domain.RevenueRollupGuard;
+import com.selimhorri.app.repository.OrderSummaryRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.RevenueRollupGuardRepository;
+import com.selimhorri.app.repository.RevenueRollupRepository;
+
+/**
+ * Every derived lookup must be served by an index of the Flyway schema.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:order_query_plan_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.selimhorri.app.integration.QueryPlanInspector",
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false"
+})
+class RepositoryQueryPlanIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private RevenueRollupGuardRepository revenueRollupGuardRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void revenueRollupLookupsShouldUseIndexes() {
+        LocalDateTime day = LocalDateTime.of(2024, 5, 20, 0, 0);
+        assertNoFullScan(this.jdbcTemplate, () -> this.revenueRollupRepository.findRange(RevenueGranularity.HOUR,
+                RevenueDimension.TOTAL, day, day.plusDays(1)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.inTransaction(() -> this.revenueRollupRepository
+                .findForUpdate(RevenueGranularity.DAY, RevenueDimension.CART, day, 1)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.inTransaction(() -> this.revenueRollupGuardRepository
+                .findForShare(RevenueRollupGuard.GUARD_ID)));
+    }
+
+    @Test
+    void revenueRollupRebuildPagingShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate, () -> this.orderSummaryRepository
+                .findByOrderIdGreaterThanOrderByOrderIdAsc(Integer.MIN_VALUE, PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void orderSummaryLookupsShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate, () -> this.orderSummaryRepository.findByUserId(1, PageRequest.of(0, 20)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.orderSummaryRepository.findByCartId(1));
+        assertNoFullScan(this.jdbcTemplate,
+                () -> this.orderSummaryRepository.findFirstByUserIdAndUserDisplayNameIsNotNull(1));
+    }
+
+    @Test
+    void unpublishedOutboxEventsLookupShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate,
+                () -> this.outboxEventRepository.findByPublishedAtIsNullOrderByEventIdAsc(PageRequest.of(0, 100)));
+    }
+
+    /**
+     * Locking reads refuse to run outside a transaction.
+     */
+    private void inTransaction(Runnable queries) {
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> queries.run());
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.RevenueDimension;
+import com.selimhorri.app.domain.RevenueGranularity;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.RevenueBucketDto;
+import com.selimhorri.app.dto.RevenueReportDto;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.OrderSummaryRepository;
+import com.selimhorri.app.repository.RevenueRollupRepository;
+import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.RevenueRollupService;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:order_revenue_integration_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false"
+})
+class RevenueRollupIntegrationTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 20, 0, 0);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CartDto firstCart;
+    private CartDto secondCart;
+
+    @BeforeEach
+    void setUp() {
+        this.orderRepository.deleteAll();
+        this.orderSummaryRepository.deleteAll();
+        this.revenueRollupRepository.deleteAll();
+        this.cartRepository.deleteAll();
+        this.firstCart = toDto(this.cartRepository.save(Cart.builder().userId(1).build()));
+        this.secondCart = toDto(this.cartRepository.save(Cart.builder().userId(2).build()));
+    }
+
+    @Test
+    void ordersShouldRollUpPerHourAndDayAsTheyAreWritten() {
+        save(DAY.plusHours(9).plusMinutes(5), 10.0, this.firstCart);
+        save(DAY.plusHours(9).plusMinutes(40), 30.0, this.firstCart);
+        save(DAY.plusHours(15), 20.0, this.secondCart);
+        save(DAY.plusDays(1).plusHours(1), 1_000.0, this.secondCart);
+
+        RevenueReportDto hourly = this.revenueRollupService.findReport(DAY, DAY.plusDays(1),
+                RevenueGranularity.HOUR, RevenueDimension.TOTAL);
+
+        assertThat(hourly.getBuckets()).extracting(RevenueBucketDto::getBucketStart)
+                .containsExactly(DAY.plusHours(9), DAY.plusHours(15));
+        assertThat(hourly.getBuckets().get(0).getOrderCount()).isEqualTo(2);
+        assertThat(hourly.getBuckets().get(0).getFeeSum()).isEqualByComparingTo("40.00");
+        assertThat(hourly.getBuckets().get(0).getFeeAvg()).isEqualByComparingTo("20.00");
+        assertThat(hourly.getTotal().getOrderCount()).isEqualTo(3);
+        assertThat(hourly.getTotal().getFeeSum()).isEqualByComparingTo("60.00");
+        assertThat(hourly.getTotal().getFeeP50()).isBetween(19.8, 20.2);
+
+        RevenueReportDto perUser = this.revenueRollupService.findReport(DAY, DAY.plusDays(2),
+                RevenueGranularity.DAY, RevenueDimension.USER);
+
+        assertThat(perUser.getBuckets()).extracting(RevenueBucketDto::getBucketStart, RevenueBucketDto::getGroupKey,
+                RevenueBucketDto::getOrderCount)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple(DAY, 1, 2L),
+                        org.assertj.core.groups.Tuple.tuple(DAY, 2, 1L),
+                        org.assertj.core.groups.Tuple.tuple(DAY.plusDays(1), 2, 1L));
+    }
+
+    @Test
+    void updatesAndDeletesShouldMoveRevenueBetweenBuckets() {
+        OrderDto order = save(DAY.plusHours(9), 10.0, this.firstCart);
+        OrderDto other = save(DAY.plusHours(10), 5.0, this.firstCart);
+
+        order.setOrderFee(25.0);
+        order.setOrderDate(DAY.plusHours(11));
+        this.orderService.update(order);
+        this.orderService.deleteById(other.getOrderId());
+
+        RevenueReportDto report = this.revenueRollupService.findReport(DAY, DAY.plusDays(1),
+                RevenueGranularity.HOUR, RevenueDimension.CART);
+
+        assertThat(report.getBuckets()).hasSize(1);
+        RevenueBucketDto bucket = report.getBuckets().get(0);
+        assertThat(bucket.getBucketStart()).isEqualTo(DAY.plusHours(11));
+        assertThat(bucket.getGroupKey()).isEqualTo(this.firstCart.getCartId());
+        assertThat(bucket.getFeeSum()).isEqualByComparingTo(BigDecimal.valueOf(25));
+        assertThat(bucket.getFeeP99()).isBetween(24.75, 25.25);
+    }
+
+    @Test
+    void rebuildShouldReproduceIncrementalRollups() {
+        save(DAY.plusHours(8), 12.5, this.firstCart);
+        save(DAY.plusHours(8), 7.5, this.secondCart);
+        RevenueReportDto incremental = this.revenueRollupService.findReport(DAY, DAY.plusDays(1),
+                RevenueGranularity.DAY, RevenueDimension.CART);
+
+        assertThat(this.revenueRollupService.rebuild()).isEqualTo(2);
+
+        assertThat(this.revenueRollupService.findReport(DAY, DAY.plusDays(1), RevenueGranularity.DAY,
+                RevenueDimension.CART)).isEqualTo(incremental);
+    }
+
+    @Test
+    void orderWritesShouldWaitUntilARunningRebuildCommits() throws Exception {
+        save(DAY.plusHours(8), 10.0, this.firstCart);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(() -> new TransactionTemplate(this.transactionManager)
+                .executeWithoutResult(status -> {
+                    this.revenueRollupService.rebuild();
+                    rebuilt.countDown();
+                    awaitUninterruptibly(commit);
+                }));
+        assertThat(rebuilt.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<OrderDto> write = CompletableFuture.supplyAsync(() -> save(DAY.plusHours(8), 5.0, this.secondCart));
+        Thread.sleep(300);
+        assertThat(write).isNotDone();
+
+        commit.countDown();
+        rebuild.get(10, TimeUnit.SECONDS);
+        write.get(10, TimeUnit.SECONDS);
+        RevenueReportDto report = this.revenueRollupService.findReport(DAY, DAY.plusDays(1),
+                RevenueGranularity.DAY, RevenueDimension.TOTAL);
+        assertThat(report.getTotal().getOrderCount()).isEqualTo(2);
+        assertThat(report.getTotal().getFeeSum()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void findReportShouldRejectOversizedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> this.revenueRollupService.findReport(DAY,
+                DAY.plusYears(1), RevenueGranularity.HOUR, RevenueDimension.TOTAL));
+    }
+
+    private OrderDto save(LocalDateTime orderDate, double orderFee, CartDto cartDto) {
+        return this.orderService.save(OrderDto.builder()
+                .orderDate(orderDate)
+                .orderFee(orderFee)
+                .cartDto(cartDto)
+                .build());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CartDto toDto(Cart cart) {
+        return CartDto.builder().cartId(cart.getCartId()).userId(cart.getUserId()).build();
+    }
+
+}
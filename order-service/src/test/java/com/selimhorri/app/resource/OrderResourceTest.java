@@ -3,17 +3,21 @@ package com.selimhorri.app.resource;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,15 +25,19 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.idempotency.IdempotencyConfig;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.service.OrderService;
 
 @WebMvcTest(OrderResource.class)
+@Import(IdempotencyConfig.class)
 class OrderResourceTest {
 
     @Autowired
@@ -65,6 +73,31 @@ class OrderResourceTest {
 	verify(this.orderService).findAll();
     }
 
+    @Test
+    void exportAllShouldStreamOneJsonLinePerOrder() throws Exception {
+	when(this.orderService.exportAll(any())).thenAnswer(invocation -> {
+	    Consumer<OrderDto> sink = invocation.getArgument(0);
+	    sink.accept(this.orderDto);
+	    sink.accept(OrderDto.builder().orderId(11).orderDesc("second").build());
+	    return 2L;
+	});
+
+	MvcResult started = this.mockMvc.perform(get("/api/orders/export"))
+		.andExpect(request().asyncStarted())
+		.andReturn();
+	String body = this.mockMvc.perform(asyncDispatch(started))
+		.andExpect(status().isOk())
+		.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+		.andReturn()
+		.getResponse()
+		.getContentAsString();
+
+	String[] lines = body.split("\n");
+	org.assertj.core.api.Assertions.assertThat(lines).hasSize(2);
+	org.assertj.core.api.Assertions.assertThat(this.objectMapper.readValue(lines[1], OrderDto.class).getOrderDesc())
+		.isEqualTo("second");
+    }
+
     @Test
     void findByIdShouldReturnOrder() throws Exception {
 	when(this.orderService.findById(10)).thenReturn(this.orderDto);
@@ -97,6 +130,27 @@ class OrderResourceTest {
 	org.assertj.core.api.Assertions.assertThat(captor.getValue().getOrderDesc()).isEqualTo(payload.getOrderDesc());
     }
 
+    @Test
+    void saveWithSameIdempotencyKeyShouldRunOnce() throws Exception {
+	String payload = this.objectMapper.writeValueAsString(this.orderDto);
+	when(this.orderService.save(any(OrderDto.class))).thenReturn(this.orderDto);
+
+	for (int attempt = 0; attempt < 2; attempt++)
+	    this.mockMvc.perform(post("/api/orders")
+	            .header("Idempotency-Key", "checkout-42")
+	            .contentType(MediaType.APPLICATION_JSON)
+	            .content(payload))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.orderId", equalTo(this.orderDto.getOrderId())));
+	this.mockMvc.perform(post("/api/orders")
+	        .header("Idempotency-Key", "checkout-42")
+	        .contentType(MediaType.APPLICATION_JSON)
+	        .content("{}"))
+	    .andExpect(status().isUnprocessableEntity());
+
+	verify(this.orderService, times(1)).save(any(OrderDto.class));
+    }
+
     @Test
     void updateShouldDelegateToService() throws Exception {
 	when(this.orderService.update(any(OrderDto.class))).thenReturn(this.orderDto);
@@ -0,0 +1,60 @@
+package com.selimhorri.app.resource;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.service.OrderSummaryService;
+
+@WebMvcTest(OrderSummaryResource.class)
+class OrderSummaryResourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderSummaryService orderSummaryService;
+
+    private OrderSummaryDto orderSummaryDto;
+
+    @BeforeEach
+    void setUp() {
+        this.orderSummaryDto = OrderSummaryDto.builder()
+                .orderId(10)
+                .orderFee(99.5)
+                .cartId(3)
+                .userId(7)
+                .userDisplayName("Jane Doe")
+                .paymentStatus("COMPLETED")
+                .build();
+    }
+
+    @Test
+    void findAllByUserIdShouldReturnSlice() throws Exception {
+        when(this.orderSummaryService.findAllByUserId(7, 1, 5))
+                .thenReturn(new SliceImpl<>(List.of(this.orderSummaryDto), PageRequest.of(1, 5), true));
+
+        this.mockMvc.perform(get("/api/order-summaries/user/{userId}", "7").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userDisplayName", equalTo("Jane Doe")))
+                .andExpect(jsonPath("$.page", equalTo(1)))
+                .andExpect(jsonPath("$.hasNext", equalTo(true)));
+
+        verify(this.orderSummaryService).findAllByUserId(7, 1, 5);
+    }
+}
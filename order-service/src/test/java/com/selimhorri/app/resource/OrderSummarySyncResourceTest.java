@@ -0,0 +1,62 @@
+package com.selimhorri.app.resource;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.service.OrderSummaryService;
+
+@WebMvcTest(OrderSummarySyncResource.class)
+class OrderSummarySyncResourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private OrderSummaryService orderSummaryService;
+
+    @Test
+    void updatePaymentShouldRecordPaymentStatus() throws Exception {
+        PaymentDto paymentDto = PaymentDto.builder().paymentId(4).paymentStatus("COMPLETED").build();
+        when(this.orderSummaryService.onPaymentSaved(eq(10), any(PaymentDto.class))).thenReturn(OrderSummaryDto.builder().orderId(10).paymentStatus("COMPLETED").build());
+
+        this.mockMvc.perform(put("/internal/order-summaries/{orderId}/payment", "10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(paymentDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentStatus", equalTo("COMPLETED")));
+
+        verify(this.orderSummaryService).onPaymentSaved(eq(10), any(PaymentDto.class));
+    }
+
+    @Test
+    void updateUserShouldRecordDisplayNameOfThePathUser() throws Exception {
+        UserDto userDto = UserDto.builder().firstName("Jane").lastName("Roe").build();
+
+        this.mockMvc.perform(put("/internal/order-summaries/user/{userId}", "7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isOk());
+
+        verify(this.orderSummaryService).onUserSaved(UserDto.builder().userId(7).firstName("Jane").lastName("Roe").build());
+    }
+}
@@ -28,6 +28,7 @@ import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.service.CartService;
+import com.selimhorri.app.service.OrderSummaryService;
 
 @ExtendWith(MockitoExtension.class)
 class CartServiceImplTest {
@@ -38,11 +39,14 @@ class CartServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
     private CartService cartService;
 
     @BeforeEach
     void setUp() {
-        this.cartService = new CartServiceImpl(this.cartRepository, this.restTemplate);
+        this.cartService = new CartServiceImpl(this.cartRepository, this.restTemplate, this.orderSummaryService);
     }
 
     @Test
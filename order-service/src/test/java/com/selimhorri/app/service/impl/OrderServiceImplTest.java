@@ -10,6 +10,9 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +28,9 @@ import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 import com.selimhorri.app.repository.OrderRepository;
 import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.OrderSummaryService;
+import com.selimhorri.app.service.bulkread.BulkReader;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
@@ -34,17 +40,30 @@ class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private BulkReader bulkReader;
+
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
-        this.orderService = new OrderServiceImpl(this.orderRepository);
+        this.orderService = new OrderServiceImpl(this.orderRepository, this.orderSummaryService, this.outboxPublisher,
+                this.bulkReader);
     }
 
     @Test
     void findAllShouldReturnMappedDtos() {
         Order order = buildOrder(1, 200, "order-desc", 99.99);
-        when(this.orderRepository.findAll()).thenReturn(List.of(order));
+        when(this.orderRepository.streamAll()).thenReturn(Stream.of(order));
+        when(this.bulkReader.mapAll(any(), any())).thenAnswer(invocation -> invocation.<Stream<Order>>getArgument(0)
+                .map(invocation.<Function<Order, OrderDto>>getArgument(1))
+                .collect(Collectors.toList()));
 
         List<OrderDto> result = this.orderService.findAll();
 
@@ -54,7 +73,7 @@ class OrderServiceImplTest {
         assertThat(dto.getOrderDesc()).isEqualTo(order.getOrderDesc());
         assertThat(dto.getOrderFee()).isEqualTo(order.getOrderFee());
         assertThat(dto.getCartDto().getCartId()).isEqualTo(order.getCart().getCartId());
-        verify(this.orderRepository).findAll();
+        verify(this.orderRepository).streamAll();
     }
 
     @Test
@@ -96,6 +115,7 @@ class OrderServiceImplTest {
 
         assertThat(result.getOrderId()).isEqualTo(persisted.getOrderId());
         assertThat(result.getOrderDesc()).isEqualTo(payload.getOrderDesc());
+        verify(this.orderSummaryService).onOrderSaved(result);
     }
 
     @Test
@@ -158,6 +178,7 @@ class OrderServiceImplTest {
 
         verify(this.orderRepository).findById(orderId);
         verify(this.orderRepository).deleteById(orderId);
+        verify(this.orderSummaryService).onOrderDeleted(orderId);
     }
 
     @Test
@@ -0,0 +1,256 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.OrderSummary;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSummaryDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderSummaryRepository;
+import com.selimhorri.app.service.OrderSummaryService;
+import com.selimhorri.app.service.RevenueRollupService;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSummaryServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderSummaryService orderSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        this.orderSummaryService = new OrderSummaryServiceImpl(this.orderSummaryRepository, this.cartRepository,
+                this.restTemplate, this.revenueRollupService, this.transactionManager);
+    }
+
+    @Test
+    void findAllByUserIdShouldQueryNewestFirstWithCappedPageSize() {
+        OrderSummary summary = buildSummary(3, 7, 1, "COMPLETED");
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        when(this.orderSummaryRepository.findByUserId(any(), captor.capture()))
+                .thenReturn(new SliceImpl<>(List.of(summary)));
+
+        List<OrderSummaryDto> result = this.orderSummaryService.findAllByUserId(7, 2, 10_000).getContent();
+
+        assertThat(result).extracting(OrderSummaryDto::getPaymentStatus).containsExactly("COMPLETED");
+        assertThat(captor.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(captor.getValue().getPageSize()).isEqualTo(OrderSummaryServiceImpl.MAX_PAGE_SIZE);
+        assertThat(captor.getValue().getSort().getOrderFor("orderDate").getDirection()).isEqualTo(Sort.Direction.DESC);
+    }
+
+    @Test
+    void onOrderSavedShouldReuseKnownDisplayNameOfTheUser() {
+        when(this.orderSummaryRepository.findById(11)).thenReturn(Optional.empty());
+        when(this.cartRepository.findById(4)).thenReturn(Optional.of(Cart.builder().cartId(4).userId(7).build()));
+        when(this.orderSummaryRepository.findFirstByUserIdAndUserDisplayNameIsNotNull(7))
+                .thenReturn(Optional.of(buildSummary(2, 7, 4, null)));
+
+        this.orderSummaryService.onOrderSaved(buildOrderDto(11, 4));
+
+        OrderSummary saved = captureSaved();
+        assertThat(saved.getOrderId()).isEqualTo(11);
+        assertThat(saved.getUserId()).isEqualTo(7);
+        assertThat(saved.getUserDisplayName()).isEqualTo("Jane Doe");
+        assertThat(saved.getOrderFee()).isEqualTo(42.0);
+        verifyNoInteractions(this.restTemplate);
+    }
+
+    @Test
+    void onOrderSavedShouldFetchDisplayNameOnceAndTolerateUserServiceFailures() {
+        when(this.orderSummaryRepository.findById(12)).thenReturn(Optional.empty());
+        when(this.cartRepository.findById(5)).thenReturn(Optional.of(Cart.builder().cartId(5).userId(8).build()));
+        when(this.orderSummaryRepository.findFirstByUserIdAndUserDisplayNameIsNotNull(8)).thenReturn(Optional.empty());
+        when(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/8", UserDto.class))
+                .thenThrow(new ResourceAccessException("user-service down"));
+
+        this.orderSummaryService.onOrderSaved(buildOrderDto(12, 5));
+
+        OrderSummary saved = captureSaved();
+        assertThat(saved.getUserId()).isEqualTo(8);
+        assertThat(saved.getUserDisplayName()).isNull();
+        verify(this.orderSummaryRepository, never()).updateUserDisplayName(anyInt(), anyString());
+    }
+
+    @Test
+    void onOrderSavedShouldWriteFetchedDisplayNameOnlyAfterTheSummary() {
+        when(this.orderSummaryRepository.findById(15)).thenReturn(Optional.empty());
+        when(this.cartRepository.findById(6)).thenReturn(Optional.of(Cart.builder().cartId(6).userId(9).build()));
+        when(this.orderSummaryRepository.findFirstByUserIdAndUserDisplayNameIsNotNull(9)).thenReturn(Optional.empty());
+        when(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/9", UserDto.class))
+                .thenReturn(UserDto.builder().userId(9).firstName("John").lastName("Smith").build());
+
+        this.orderSummaryService.onOrderSaved(buildOrderDto(15, 6));
+
+        InOrder inOrder = inOrder(this.orderSummaryRepository, this.restTemplate);
+        inOrder.verify(this.orderSummaryRepository).save(any(OrderSummary.class));
+        inOrder.verify(this.restTemplate).getForObject(any(String.class), any());
+        inOrder.verify(this.orderSummaryRepository).updateUserDisplayName(9, "John Smith");
+    }
+
+    @Test
+    void onUserSavedShouldRenameEverySummaryOfTheUser() {
+        this.orderSummaryService.onUserSaved(UserDto.builder().userId(7).firstName("Jane").lastName("Roe").build());
+
+        verify(this.orderSummaryRepository).updateUserDisplayName(7, "Jane Roe");
+    }
+
+    @Test
+    void onPaymentSavedShouldIgnoreOlderPayments() {
+        OrderSummary summary = buildSummary(3, 7, 1, "COMPLETED");
+        summary.setPaymentId(20);
+        when(this.orderSummaryRepository.findById(3)).thenReturn(Optional.of(summary));
+        when(this.orderSummaryRepository.save(summary)).thenReturn(summary);
+
+        OrderSummaryDto result = this.orderSummaryService.onPaymentSaved(3, PaymentDto.builder()
+                .paymentId(19)
+                .paymentStatus("IN_PROGRESS")
+                .build());
+
+        assertThat(result.getPaymentStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void onPaymentSavedShouldIgnoreOlderVersionsOfTheSamePayment() {
+        OrderSummary summary = buildSummary(3, 7, 1, "COMPLETED");
+        summary.setPaymentId(20);
+        summary.setPaymentVersion(2);
+        when(this.orderSummaryRepository.findById(3)).thenReturn(Optional.of(summary));
+        when(this.orderSummaryRepository.save(summary)).thenReturn(summary);
+
+        OrderSummaryDto result = this.orderSummaryService.onPaymentSaved(3, PaymentDto.builder()
+                .paymentId(20)
+                .paymentStatus("IN_PROGRESS")
+                .version(1)
+                .build());
+
+        assertThat(result.getPaymentStatus()).isEqualTo("COMPLETED");
+        assertThat(summary.getPaymentVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void onPaymentSavedShouldApplyNewerVersionsOfTheSamePayment() {
+        OrderSummary summary = buildSummary(3, 7, 1, "IN_PROGRESS");
+        summary.setPaymentId(20);
+        summary.setPaymentVersion(1);
+        when(this.orderSummaryRepository.findById(3)).thenReturn(Optional.of(summary));
+        when(this.orderSummaryRepository.save(summary)).thenReturn(summary);
+
+        OrderSummaryDto result = this.orderSummaryService.onPaymentSaved(3, PaymentDto.builder()
+                .paymentId(20)
+                .paymentStatus("COMPLETED")
+                .version(2)
+                .build());
+
+        assertThat(result.getPaymentStatus()).isEqualTo("COMPLETED");
+        assertThat(summary.getPaymentVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void onCartSavedShouldSkipWritesWhenOwnerDidNotChange() {
+        when(this.orderSummaryRepository.findByCartId(1)).thenReturn(List.of(buildSummary(3, 7, 1, null)));
+
+        this.orderSummaryService.onCartSaved(CartDto.builder().cartId(1).userId(7).build());
+
+        verify(this.orderSummaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void onOrderSavedShouldMoveRevenueFromPreviousToCurrentState() {
+        OrderSummary existing = buildSummary(13, 7, 4, null);
+        when(this.orderSummaryRepository.findById(13)).thenReturn(Optional.of(existing));
+
+        this.orderSummaryService.onOrderSaved(buildOrderDto(13, 4));
+
+        ArgumentCaptor<OrderSummaryDto> previous = ArgumentCaptor.forClass(OrderSummaryDto.class);
+        ArgumentCaptor<OrderSummaryDto> current = ArgumentCaptor.forClass(OrderSummaryDto.class);
+        verify(this.revenueRollupService).onOrderChanged(previous.capture(), current.capture());
+        assertThat(previous.getValue().getOrderFee()).isEqualTo(10.0);
+        assertThat(current.getValue().getOrderFee()).isEqualTo(42.0);
+        assertThat(current.getValue().getUserId()).isEqualTo(7);
+    }
+
+    @Test
+    void onOrderDeletedShouldRetractRevenue() {
+        OrderSummary existing = buildSummary(14, 7, 4, null);
+        when(this.orderSummaryRepository.findById(14)).thenReturn(Optional.of(existing));
+
+        this.orderSummaryService.onOrderDeleted(14);
+
+        verify(this.orderSummaryRepository).delete(existing);
+        verify(this.revenueRollupService).onOrderChanged(any(OrderSummaryDto.class), isNull());
+    }
+
+    private OrderSummary captureSaved() {
+        ArgumentCaptor<OrderSummary> captor = ArgumentCaptor.forClass(OrderSummary.class);
+        verify(this.orderSummaryRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static OrderDto buildOrderDto(Integer orderId, Integer cartId) {
+        return OrderDto.builder()
+                .orderId(orderId)
+                .orderDate(NOW)
+                .orderFee(42.0)
+                .cartDto(CartDto.builder().cartId(cartId).build())
+                .build();
+    }
+
+    private static OrderSummary buildSummary(Integer orderId, Integer userId, Integer cartId, String paymentStatus) {
+        return OrderSummary.builder()
+                .orderId(orderId)
+                .orderDate(NOW)
+                .orderFee(10.0)
+                .cartId(cartId)
+                .userId(userId)
+                .userDisplayName("Jane Doe")
+                .paymentStatus(paymentStatus)
+                .build();
+    }
+}
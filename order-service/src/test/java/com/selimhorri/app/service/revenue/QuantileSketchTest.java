@@ -0,0 +1,73 @@
+package com.selimhorri.app.service.revenue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    void quantilesShouldStayWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (int fee = 1; fee <= 10_000; fee++)
+            sketch.add(fee / 100.0);
+
+        assertThat(sketch.getCount()).isEqualTo(10_000);
+        assertThat(sketch.quantile(0.5)).isCloseTo(50.0, within(50.0 * ACCURACY));
+        assertThat(sketch.quantile(0.99)).isCloseTo(99.0, within(99.0 * ACCURACY));
+        assertThat(sketch.quantile(0.0)).isCloseTo(0.01, within(0.01 * ACCURACY));
+    }
+
+    @Test
+    void mergedSketchShouldMatchSketchOfAllValues() {
+        QuantileSketch morning = new QuantileSketch(ACCURACY);
+        QuantileSketch evening = new QuantileSketch(ACCURACY);
+        QuantileSketch day = new QuantileSketch(ACCURACY);
+        for (int i = 1; i <= 500; i++) {
+            morning.add(i);
+            evening.add(1_000 + i);
+            day.add(i);
+            day.add(1_000 + i);
+        }
+
+        morning.merge(evening);
+
+        assertThat(morning.getCount()).isEqualTo(day.getCount());
+        assertThat(morning.quantile(0.9)).isEqualTo(day.quantile(0.9));
+        assertThat(morning.toBytes()).isEqualTo(day.toBytes());
+    }
+
+    @Test
+    void removeShouldUndoAdd() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(10.0);
+        sketch.add(0.0);
+        byte[] before = sketch.toBytes();
+
+        sketch.add(250.0);
+        sketch.remove(250.0);
+
+        assertThat(sketch.toBytes()).isEqualTo(before);
+        sketch.remove(10.0);
+        sketch.remove(0.0);
+        assertThat(sketch.quantile(0.5)).isNull();
+    }
+
+    @Test
+    void bytesShouldRoundTrip() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (double fee : new double[] { 0.0, 0.5, 3.25, 120.75, 99_999.99 })
+            sketch.add(fee);
+
+        QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes(), ACCURACY);
+
+        assertThat(restored.getCount()).isEqualTo(5);
+        assertThat(restored.quantile(0.5)).isEqualTo(sketch.quantile(0.5));
+        assertThat(restored.quantile(1.0)).isCloseTo(99_999.99, within(99_999.99 * ACCURACY));
+        assertThat(QuantileSketch.fromBytes(null, ACCURACY).getCount()).isZero();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.selimhorri.app.config.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hands out replica connections to read-only transactions while the
+ * {@link ReplicaLagMonitor} finds the replica fresh, and primary connections
+ * to everything else.
+ *
+ * The read-only flag is only set once the transaction has begun, so this
+ * must sit behind a LazyConnectionDataSourceProxy, which defers fetching the
+ * connection to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	
+	public enum Target {
+		PRIMARY, REPLICA
+	}
+	
+	private final ReplicaLagMonitor replicaLagMonitor;
+	private final Counter primaryConnections;
+	private final Counter replicaConnections;
+	
+	public ReplicaRoutingDataSource(final DataSource primary, final DataSource replica,
+			final ReplicaLagMonitor replicaLagMonitor, final MeterRegistry meterRegistry) {
+		this.replicaLagMonitor = replicaLagMonitor;
+		this.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+		this.setDefaultTargetDataSource(primary);
+		this.setLenientFallback(false);
+		this.primaryConnections = connections(meterRegistry, Target.PRIMARY);
+		this.replicaConnections = connections(meterRegistry, Target.REPLICA);
+	}
+	
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && this.replicaLagMonitor.isReplicaUsable()) {
+			this.replicaConnections.increment();
+			return Target.REPLICA;
+		}
+		this.primaryConnections.increment();
+		return Target.PRIMARY;
+	}
+	
+	private static Counter connections(final MeterRegistry meterRegistry, final Target target) {
+		return Counter.builder("datasource.routed.connections")
+				.description("Connections handed out by the replica routing data source")
+				.tag("target", target.name().toLowerCase())
+				.register(meterRegistry);
+	}
+	
+	
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.idempotency;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.idempotency")
+@Data
+public class IdempotencyProperties {
+	
+	/**
+	 * Upper bound of remembered keys per endpoint; the oldest are evicted first.
+	 */
+	private int maxEntries = 10_000;
+	
+	/**
+	 * How long a key is remembered; should exceed the longest client retry window.
+	 */
+	private Duration ttl = Duration.ofHours(1);
+	
+	/**
+	 * How long a duplicate waits for the original request before answering 409.
+	 */
+	private Duration inFlightTimeout = Duration.ofSeconds(10);
+	
+}
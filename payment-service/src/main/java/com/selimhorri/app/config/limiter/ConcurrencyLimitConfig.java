@@ -0,0 +1,73 @@
+package com.selimhorri.app.config.limiter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.filter.ConcurrencyLimitFilter;
+import com.selimhorri.app.config.filter.ConcurrencyLimitFilter.LimitedGroup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+	@Bean
+	public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterBean(
+			final ConcurrencyLimitProperties properties,
+			final ObjectMapper objectMapper,
+			final ObjectProvider<MeterRegistry> meterRegistryProvider) {
+
+		final MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+		final List<LimitedGroup> groups = new ArrayList<>(properties.getGroups().size());
+
+		properties.getGroups().forEach((name, group) -> {
+			final var limit = new GradientConcurrencyLimit(group.getInitialLimit(), group.getMinLimit(),
+					group.getMaxLimit(), group.getTolerance(), group.getSmoothing());
+			Gauge.builder("concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+				.description("Current adaptive concurrency limit")
+				.tag("group", name)
+				.register(meterRegistry);
+			Gauge.builder("concurrency.inflight", limit, GradientConcurrencyLimit::getInFlight)
+				.description("Requests currently holding a concurrency permit")
+				.tag("group", name)
+				.register(meterRegistry);
+			final Counter rejected = Counter.builder("concurrency.rejected")
+				.description("Requests rejected with 503 because the concurrency limit was reached")
+				.tag("group", name)
+				.register(meterRegistry);
+			groups.add(new LimitedGroup(name, List.copyOf(group.getPaths()), limit,
+					Math.max(1, group.getRetryAfter().toSeconds()), rejected));
+		});
+
+		final var registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(groups, objectMapper));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+		return registration;
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
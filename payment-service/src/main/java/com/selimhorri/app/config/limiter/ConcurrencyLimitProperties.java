@@ -0,0 +1,50 @@
+package com.selimhorri.app.config.limiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+@Data
+public class ConcurrencyLimitProperties {
+
+	private boolean enabled = true;
+
+	/**
+	 * Endpoint groups, each one with its own adaptive limit.
+	 * Requests not matching any group are never limited.
+	 */
+	private Map<String, Group> groups = new LinkedHashMap<>();
+
+	@Data
+	public static class Group {
+
+		private List<String> paths = new ArrayList<>();
+		private int initialLimit = 20;
+		private int minLimit = 4;
+		private int maxLimit = 200;
+		private double tolerance = 1.5;
+		private double smoothing = 0.2;
+		private Duration retryAfter = Duration.ofSeconds(1);
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
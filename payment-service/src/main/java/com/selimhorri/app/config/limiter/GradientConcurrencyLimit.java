@@ -0,0 +1,107 @@
+package com.selimhorri.app.config.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency driven concurrency limit (gradient algorithm).
+ *
+ * The limit grows while the short term latency stays close to the long term
+ * (no load) latency, and shrinks proportionally as soon as requests start
+ * queueing, so excess load is rejected before it piles up on worker threads.
+ */
+public class GradientConcurrencyLimit {
+
+	private static final double MIN_GRADIENT = 0.5;
+	private static final double DROP_BACKOFF = 0.9;
+	private static final int LONG_RTT_WINDOW = 600;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final double smoothing;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile double estimatedLimit;
+	private double longRttNanos;
+
+	public GradientConcurrencyLimit(final int initialLimit, final int minLimit, final int maxLimit,
+			final double tolerance, final double smoothing) {
+		if (minLimit < 1 || maxLimit < minLimit)
+			throw new IllegalArgumentException("Concurrency limit bounds must satisfy 1 <= min <= max");
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.smoothing = smoothing;
+		this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+
+	/**
+	 * @return the number of requests in flight when the permit was granted,
+	 * or -1 when the limit is reached and the request must be rejected
+	 */
+	public int tryAcquire() {
+		final int limit = this.getLimit();
+		while (true) {
+			final int current = this.inFlight.get();
+			if (current >= limit)
+				return -1;
+			if (this.inFlight.compareAndSet(current, current + 1))
+				return current + 1;
+		}
+	}
+
+	public void release(final long rttNanos, final int inFlightAtStart, final boolean dropped) {
+		this.inFlight.decrementAndGet();
+		this.onSample(rttNanos, inFlightAtStart, dropped);
+	}
+
+	private synchronized void onSample(final long rttNanos, final int inFlightAtStart, final boolean dropped) {
+
+		final double limit = this.estimatedLimit;
+
+		if (dropped) {
+			this.estimatedLimit = this.clamp(limit * DROP_BACKOFF);
+			return;
+		}
+
+		this.longRttNanos = (this.longRttNanos == 0) ? rttNanos
+				: this.longRttNanos + (rttNanos - this.longRttNanos) / LONG_RTT_WINDOW;
+
+		// Application limited: there is not enough traffic to learn anything about the limit
+		if (inFlightAtStart * 2 < limit)
+			return;
+
+		// Let the baseline recover quickly after a long stretch of high latency
+		if (this.longRttNanos / rttNanos > 2)
+			this.longRttNanos *= 0.95;
+
+		final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, this.tolerance * this.longRttNanos / rttNanos));
+		final double newLimit = limit * gradient + Math.sqrt(limit);
+		this.estimatedLimit = this.clamp(limit * (1 - this.smoothing) + newLimit * this.smoothing);
+	}
+
+	private double clamp(final double limit) {
+		return Math.max(this.minLimit, Math.min(this.maxLimit, limit));
+	}
+
+	public int getLimit() {
+		return (int) this.estimatedLimit;
+	}
+
+	public int getInFlight() {
+		return this.inFlight.get();
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,60 @@
+package com.selimhorri.app.config.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Keeps the INFO (and finer) lines of our own loggers for only
+ * {@code samplePercent} of the requests. The decision hashes the Sleuth trace
+ * id, so a sampled request keeps all of its lines and the others keep none.
+ * WARN and ERROR, other packages and lines outside a trace always pass.
+ *
+ * Runs before the logging event is built, so a skipped line costs an MDC
+ * lookup and no message formatting.
+ */
+public class RequestSamplingTurboFilter extends TurboFilter {
+	
+	private static final LongAdder SAMPLED_OUT = new LongAdder();
+	
+	private String packagePrefix = "com.selimhorri.app";
+	private int samplePercent = 100;
+	
+	public void setPackagePrefix(final String packagePrefix) {
+		this.packagePrefix = packagePrefix;
+	}
+	
+	public void setSamplePercent(final int samplePercent) {
+		this.samplePercent = samplePercent;
+	}
+	
+	@Override
+	public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+			final Object[] params, final Throwable t) {
+		if (this.samplePercent >= 100 || level == null || level.toInt() >= Level.WARN_INT
+				|| !level.isGreaterOrEqual(logger.getEffectiveLevel())
+				|| !logger.getName().startsWith(this.packagePrefix))
+			return FilterReply.NEUTRAL;
+		final String traceId = MDC.get("traceId");
+		if (traceId == null || Math.floorMod(traceId.hashCode(), 100) < this.samplePercent)
+			return FilterReply.NEUTRAL;
+		SAMPLED_OUT.increment();
+		return FilterReply.DENY;
+	}
+	
+	/**
+	 * Lines skipped because their request was not sampled, since the JVM started.
+	 */
+	public static long getSampledOutEvents() {
+		return SAMPLED_OUT.sum();
+	}
+	
+	
+	
+}
@@ -2,10 +2,13 @@ package com.selimhorri.app.config.mapper;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 @Configuration
 public class MapperConfig {
@@ -16,6 +19,22 @@ public class MapperConfig {
 				.enable(SerializationFeature.INDENT_OUTPUT);
 	}
 	
+	/**
+	 * Serves Smile to the services that ask for it in their Accept header. It is
+	 * registered after the JSON converter, so callers that accept anything, or
+	 * send no Accept header at all, keep getting JSON. The mapper comes from
+	 * Boot's builder, so it carries the java.time module and the spring.jackson
+	 * settings that date fields with only a @JsonFormat pattern depend on.
+	 */
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverterBean(
+			final Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+		return new MappingJackson2SmileHttpMessageConverter(jackson2ObjectMapperBuilder
+				.createXmlMapper(false)
+				.factory(new SmileFactory())
+				.build());
+	}
+	
 	
 	
 }
@@ -0,0 +1,29 @@
+package com.selimhorri.app.config.outbox;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.outbox")
+@Data
+public class OutboxProperties {
+	
+	private boolean relayEnabled = true;
+	
+	private Duration relayInterval = Duration.ofMillis(500);
+	
+	/**
+	 * Delay before the first relay run, to keep it off the startup path.
+	 */
+	private Duration relayInitialDelay = Duration.ZERO;
+	
+	private int batchSize = 100;
+	
+	/**
+	 * How long published events are kept before being purged.
+	 */
+	private Duration retention = Duration.ofHours(1);
+	
+}
@@ -0,0 +1,67 @@
+package com.selimhorri.app.config.processing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.processing.FakePaymentGateway;
+import com.selimhorri.app.service.processing.PaymentGateway;
+import com.selimhorri.app.service.processing.PaymentProcessor;
+import com.selimhorri.app.service.processing.PaymentQueue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PaymentProcessingProperties.class)
+@RequiredArgsConstructor
+public class PaymentProcessingConfig implements SchedulingConfigurer {
+	
+	private final PaymentProcessingProperties paymentProcessingProperties;
+	private final ObjectProvider<PaymentProcessor> paymentProcessor;
+	
+	@Bean
+	public PaymentQueue paymentQueueBean(final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new PaymentQueue(this.paymentProcessingProperties.getQueueCapacity(), 
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean(PaymentGateway.class)
+	public PaymentGateway fakePaymentGatewayBean() {
+		return new FakePaymentGateway(this.paymentProcessingProperties.getFakeGateway().getLatency(),
+				this.paymentProcessingProperties.getFakeGateway().getDeclineRate());
+	}
+	
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty(prefix = "app.payment-processing", name = "enabled", matchIfMissing = true)
+	public PaymentProcessor paymentProcessorBean(final PaymentQueue paymentQueue, final PaymentService paymentService,
+			final PaymentGateway paymentGateway, final PaymentRepository paymentRepository,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new PaymentProcessor(paymentQueue, paymentService, paymentGateway, paymentRepository,
+				this.paymentProcessingProperties.getWorkers(), this.paymentProcessingProperties.getBatchSize(),
+				this.paymentProcessingProperties.getBatchLinger(), this.paymentProcessingProperties.getShutdownTimeout(),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	@Override
+	public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+		this.paymentProcessor.ifAvailable(processor -> taskRegistrar.addFixedDelayTask(new IntervalTask(processor::sweep,
+				this.paymentProcessingProperties.getSweepInterval().toMillis(),
+				this.paymentProcessingProperties.getSweepInitialDelay().toMillis())));
+	}
+	
+	
+	
+}
@@ -0,0 +1,57 @@
+package com.selimhorri.app.config.processing;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.payment-processing")
+@Data
+public class PaymentProcessingProperties {
+	
+	/**
+	 * Starts the worker pool and the sweeper; when disabled payments are still
+	 * accepted and stay NOT_STARTED.
+	 */
+	private boolean enabled = true;
+	
+	private int queueCapacity = 10_000;
+	
+	private int workers = 4;
+	
+	private int batchSize = 50;
+	
+	/**
+	 * How long a worker keeps collecting after the first payment of a batch.
+	 */
+	private Duration batchLinger = Duration.ofMillis(20);
+	
+	/**
+	 * How often NOT_STARTED payments are looked up again (queue overflow,
+	 * gateway outages, restarts).
+	 */
+	private Duration sweepInterval = Duration.ofSeconds(5);
+	
+	/**
+	 * Delay before the first sweep, to keep it off the startup path.
+	 */
+	private Duration sweepInitialDelay = Duration.ZERO;
+	
+	private Duration shutdownTimeout = Duration.ofSeconds(10);
+	
+	private final FakeGateway fakeGateway = new FakeGateway();
+	
+	@Data
+	public static class FakeGateway {
+		
+		/**
+		 * Round trip of one gateway call, paid once per batch.
+		 */
+		private Duration latency = Duration.ofMillis(50);
+		
+		private double declineRate = 0.0;
+		
+	}
+	
+}
@@ -9,8 +9,39 @@ public enum PaymentStatus {
 	
 	NOT_STARTED("not_started"),
 	IN_PROGRESS("in_progress"),
-	COMPLETED("completed");
+	COMPLETED("completed"),
+	FAILED("failed");
 	
 	private final String status;
 	
+	/**
+	 * Legal moves of the payment state machine: a payment is claimed by the
+	 * processing pipeline, then either completed, declined, or handed back
+	 * when the gateway could not be reached; a failed payment may be retried.
+	 * Staying in the same status is always allowed.
+	 */
+	public boolean canTransitionTo(final PaymentStatus next) {
+		if (this == next)
+			return true;
+		switch (this) {
+			case NOT_STARTED:
+				return next == IN_PROGRESS;
+			case IN_PROGRESS:
+				return next == COMPLETED || next == FAILED || next == NOT_STARTED;
+			case FAILED:
+				return next == NOT_STARTED;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Moves a client may ask for: retrying a failed payment, or keeping the
+	 * status. Claiming, completing and declining belong to the processing
+	 * pipeline, which is the only one that talks to the payment gateway.
+	 */
+	public boolean canBeRequestedTo(final PaymentStatus next) {
+		return this == next || (this == FAILED && next == NOT_STARTED);
+	}
+
 }
@@ -23,6 +23,7 @@ public class PaymentDto implements Serializable {
 	private Integer paymentId;
 	private Boolean isPayed;
 	private PaymentStatus paymentStatus;
+	private Integer version;
 	
 	@JsonProperty("order")
 	@JsonInclude(Include.NON_NULL)
@@ -6,14 +6,18 @@ import java.time.ZonedDateTime;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,6 +46,7 @@ public class ApiExceptionHandler {
 	
 	@ExceptionHandler(value = {
 		IllegalStateException.class,
+		IllegalArgumentException.class,
 		PaymentNotFoundException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
@@ -58,6 +63,75 @@ public class ApiExceptionHandler {
 					.build(), badRequest);
 	}
 	
+	@ExceptionHandler(value = {
+		ObjectOptimisticLockingFailureException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleOptimisticLockingFailureException(
+			final ObjectOptimisticLockingFailureException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle concurrent payment change*\n");
+		final var conflict = HttpStatus.CONFLICT;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### Payment was changed concurrently, reload and retry! ####")
+					.httpStatus(conflict)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), conflict);
+	}
+	
+	@ExceptionHandler(value = {
+		IdempotencyKeyConflictException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleIdempotencyKeyConflictException(final IdempotencyKeyConflictException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle duplicate in-flight request*\n");
+		final var conflict = HttpStatus.CONFLICT;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(conflict)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), conflict);
+	}
+	
+	@ExceptionHandler(value = {
+		IdempotencyKeyMismatchException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleIdempotencyKeyMismatchException(final IdempotencyKeyMismatchException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle reused idempotency key*\n");
+		final var unprocessableEntity = HttpStatus.UNPROCESSABLE_ENTITY;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(unprocessableEntity)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), unprocessableEntity);
+	}
+	
+	@ExceptionHandler(value = {
+		BulkheadFullException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleBulkheadFullException(final BulkheadFullException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle saturated downstream bulkhead*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(serviceUnavailable)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), serviceUnavailable);
+	}
+	
 	
 	
 }
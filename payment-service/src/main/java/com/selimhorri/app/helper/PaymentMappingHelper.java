@@ -11,6 +11,7 @@ public interface PaymentMappingHelper {
 				.paymentId(payment.getPaymentId())
 				.isPayed(payment.getIsPayed())
 				.paymentStatus(payment.getPaymentStatus())
+				.version(payment.getVersion())
 				.orderDto(
 						OrderDto.builder()
 							.orderId(payment.getOrderId())
@@ -24,6 +25,7 @@ public interface PaymentMappingHelper {
 				.orderId(paymentDto.getOrderDto().getOrderId())
 				.isPayed(paymentDto.getIsPayed())
 				.paymentStatus(paymentDto.getPaymentStatus())
+				.version(paymentDto.getVersion())
 				.build();
 	}
 	
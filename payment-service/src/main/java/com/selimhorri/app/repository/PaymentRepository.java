@@ -1,11 +1,58 @@
 package com.selimhorri.app.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
 
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
 	
+	/**
+	 * Query of {@link #streamAll}, shared with the exports that scroll it
+	 * through a stateless session.
+	 */
+	public static final String STREAM_ALL_QUERY = "SELECT p FROM Payment p ORDER BY p.paymentId";
+	
+	List<Payment> findByOrderIdOrderByPaymentIdAsc(final Integer orderId);
+	
+	/**
+	 * Every payment, as read-only entities fetched 500 rows per round trip; for
+	 * listings mapped through the BulkReader.
+	 */
+	@QueryHints({
+			@QueryHint(name = HINT_READONLY, value = "true"),
+			@QueryHint(name = HINT_FETCH_SIZE, value = "500")})
+	@Query(STREAM_ALL_QUERY)
+	Stream<Payment> streamAll();
+	
+	@Query("SELECT p.paymentId FROM Payment p WHERE p.paymentStatus = :paymentStatus ORDER BY p.paymentId")
+	List<Integer> findIdsByPaymentStatus(@Param("paymentStatus") final PaymentStatus paymentStatus, 
+			final Pageable pageable);
+	
+	/**
+	 * Moves a payment from one status to another only if nobody changed it since
+	 * it was read at {@code version}; returns 0 when the transition lost the race.
+	 */
+	@Modifying
+	@Query("UPDATE Payment p SET p.paymentStatus = :to, p.isPayed = :isPayed, p.version = p.version + 1 "
+			+ "WHERE p.paymentId = :paymentId AND p.version = :version AND p.paymentStatus = :from")
+	int transition(@Param("paymentId") final Integer paymentId, @Param("version") final Integer version, 
+			@Param("from") final PaymentStatus from, @Param("to") final PaymentStatus to, 
+			@Param("isPayed") final Boolean isPayed);
+	
 	
 	
 }
@@ -1,9 +1,13 @@
 package com.selimhorri.app.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,23 +15,39 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.idempotency.IdempotencyStore;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/payments")
 @Slf4j
-@RequiredArgsConstructor
 public class PaymentResource {
 	
 	private final PaymentService paymentService;
+	private final IdempotencyStore<PaymentDto> paymentIdempotencyStore;
+	private final ObjectWriter exportWriter;
+	
+	public PaymentResource(final PaymentService paymentService,
+			final IdempotencyStore<PaymentDto> paymentIdempotencyStore, final ObjectMapper objectMapper) {
+		this.paymentService = paymentService;
+		this.paymentIdempotencyStore = paymentIdempotencyStore;
+		this.exportWriter = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT)
+				.withRootValueSeparator("\n");
+	}
 	
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAll() {
@@ -35,6 +55,29 @@ public class PaymentResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAll()));
 	}
 	
+	/**
+	 * Every payment as newline-delimited JSON, written while it is read, so
+	 * the export never holds more than one fetch of payments in memory.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportAll() {
+		log.info("*** PaymentDto Stream, controller; export all payments *");
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(out -> {
+					try (SequenceWriter payments = this.exportWriter.writeValues(out)) {
+						this.paymentService.exportAll(payment -> {
+							try {
+								payments.write(payment);
+							}
+							catch (IOException e) {
+								throw new UncheckedIOException(e);
+							}
+						});
+					}
+				});
+	}
+	
 	@GetMapping("/{paymentId}")
 	public ResponseEntity<PaymentDto> findById(
 			@PathVariable("paymentId") 
@@ -44,13 +87,28 @@ public class PaymentResource {
 		return ResponseEntity.ok(this.paymentService.findById(Integer.parseInt(paymentId)));
 	}
 	
+	@GetMapping("/order/{orderId}")
+	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findByOrderId(
+			@PathVariable("orderId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String orderId) {
+		log.info("*** PaymentDto List, resource; fetch payments by orderId *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findByOrderId(Integer.parseInt(orderId))));
+	}
+	
+	/**
+	 * Retries carrying the same {@code Idempotency-Key} get the original
+	 * response instead of creating another payment.
+	 */
 	@PostMapping
 	public ResponseEntity<PaymentDto> save(
+			@RequestHeader(name = IdempotencyStore.HEADER, required = false) final String idempotencyKey,
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL") 
 			@Valid final PaymentDto paymentDto) {
 		log.info("*** PaymentDto, resource; save payment *");
-		return ResponseEntity.ok(this.paymentService.save(paymentDto));
+		return ResponseEntity.ok(this.paymentIdempotencyStore.execute(idempotencyKey, paymentDto, 
+				() -> this.paymentService.save(paymentDto)));
 	}
 	
 	@PutMapping
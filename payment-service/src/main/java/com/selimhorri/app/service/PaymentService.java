@@ -1,15 +1,28 @@
 package com.selimhorri.app.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.service.processing.ChargeOutcome;
 
 public interface PaymentService {
 	
 	List<PaymentDto> findAll();
 	PaymentDto findById(final Integer paymentId);
+	List<PaymentDto> findByOrderId(final Integer orderId);
 	PaymentDto save(final PaymentDto paymentDto);
 	PaymentDto update(final PaymentDto paymentDto);
 	void deleteById(final Integer paymentId);
+	List<PaymentDto> startProcessing(final Collection<Integer> paymentIds);
+	List<PaymentDto> finishProcessing(final List<PaymentDto> claimed, final Map<Integer, ChargeOutcome> outcomes);
+	
+	/**
+	 * Hands every payment to the sink without materializing the result, for
+	 * exports too large for findAll; returns how many were exported.
+	 */
+	long exportAll(final Consumer<? super PaymentDto> sink);
 	
 }
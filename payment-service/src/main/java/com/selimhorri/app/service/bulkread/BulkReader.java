@@ -0,0 +1,101 @@
+package com.selimhorri.app.service.bulkread;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reads large result sets without letting the persistence context grow with
+ * them. Both methods only run inside read-only transactions, where Spring
+ * puts the session in manual flush mode and Hibernate loads entities
+ * read-only: nothing is snapshotted for dirty checking nor flushed at commit.
+ *
+ * Fetch size only bounds driver memory where the driver honours it; MySQL
+ * Connector/J needs useCursorFetch=true on the url, or buffers every row.
+ */
+public class BulkReader {
+	
+	private final EntityManager entityManager;
+	private final SessionFactory sessionFactory;
+	private final DataSource dataSource;
+	private final int fetchSize;
+	
+	public BulkReader(final EntityManager entityManager, final SessionFactory sessionFactory,
+			final DataSource dataSource, final int fetchSize) {
+		this.entityManager = entityManager;
+		this.sessionFactory = sessionFactory;
+		this.dataSource = dataSource;
+		this.fetchSize = fetchSize;
+	}
+	
+	/**
+	 * Maps a repository stream, clearing the persistence context every
+	 * fetch-size rows, so at most one chunk of entities is held at a time; the
+	 * mapped list itself still grows with the result. Entities the caller
+	 * loaded earlier in the transaction are detached as well.
+	 */
+	public <E, D> List<D> mapAll(final Stream<E> rows, final Function<? super E, ? extends D> mapper) {
+		requireReadOnlyTransaction();
+		final List<D> mapped = new ArrayList<>();
+		try (rows) {
+			final Iterator<E> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				mapped.add(mapper.apply(iterator.next()));
+				if (mapped.size() % this.fetchSize == 0)
+					this.entityManager.clear();
+			}
+		}
+		this.entityManager.clear();
+		return Collections.unmodifiableList(mapped);
+	}
+	
+	/**
+	 * Hands every result of the HQL query to the sink from a stateless session
+	 * on the transaction's connection: rows are never attached to a
+	 * persistence context, so memory stays at one fetch whatever the result
+	 * size. Associations the sink reads must be fetch-joined by the query.
+	 */
+	public <E> long scroll(final String hql, final Class<E> type, final Consumer<? super E> sink) {
+		requireReadOnlyTransaction();
+		final Connection connection = DataSourceUtils.getConnection(this.dataSource);
+		long count = 0;
+		try (StatelessSession session = this.sessionFactory.openStatelessSession(connection);
+				ScrollableResults results = session.createQuery(hql, type)
+						.setFetchSize(this.fetchSize)
+						.setReadOnly(true)
+						.scroll(ScrollMode.FORWARD_ONLY)) {
+			while (results.next()) {
+				sink.accept(type.cast(results.get(0)));
+				count++;
+			}
+		}
+		finally {
+			DataSourceUtils.releaseConnection(connection, this.dataSource);
+		}
+		return count;
+	}
+	
+	private static void requireReadOnlyTransaction() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()
+				|| !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			throw new IllegalStateException("Bulk reads must run inside a read-only transaction");
+	}
+	
+	
+	
+}
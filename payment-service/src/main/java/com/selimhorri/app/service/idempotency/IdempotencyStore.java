@@ -0,0 +1,189 @@
+package com.selimhorri.app.service.idempotency;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers the result of a create call per {@code Idempotency-Key} so a
+ * retried request gets the original response instead of creating twice.
+ *
+ * The first request for a key runs the action; concurrent requests with the
+ * same key wait on its result (up to {@code in-flight-timeout}). A failed
+ * execution is forgotten, so the next attempt runs again. A key reused with a
+ * different payload is rejected; payloads are told apart by the SHA-256 of
+ * their JSON with properties and map keys sorted. Entries expire {@code ttl} after they were
+ * created and the oldest ones are evicted beyond {@code max-entries}.
+ *
+ * The store is local to the instance: retries routed to another instance are
+ * not deduplicated.
+ */
+public class IdempotencyStore<T> {
+	
+	public static final String HEADER = "Idempotency-Key";
+	
+	private static final int MAX_KEY_LENGTH = 255;
+	
+	private final int maxEntries;
+	private final long ttlMillis;
+	private final Duration inFlightTimeout;
+	private final Clock clock;
+	private final ObjectMapper canonicalMapper;
+	private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>();
+	private final Counter executed;
+	private final Counter replayed;
+	private final Counter conflicts;
+	
+	public IdempotencyStore(final String name, final int maxEntries, final Duration ttl, 
+			final Duration inFlightTimeout, final Clock clock, final ObjectMapper objectMapper, 
+			final MeterRegistry meterRegistry) {
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttl.toMillis();
+		this.inFlightTimeout = inFlightTimeout;
+		this.clock = clock;
+		this.canonicalMapper = objectMapper.copy()
+				.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+				.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+		Gauge.builder("idempotency.entries", this, IdempotencyStore::size)
+				.tag("store", name)
+				.register(meterRegistry);
+		this.executed = counter(name, "executed", meterRegistry);
+		this.replayed = counter(name, "replayed", meterRegistry);
+		this.conflicts = counter(name, "conflict", meterRegistry);
+	}
+	
+	/**
+	 * Runs {@code action} once per key and payload; without a key the action
+	 * simply runs.
+	 */
+	public T execute(final String key, final Object payload, final Supplier<T> action) {
+		if (key == null)
+			return action.get();
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH)
+			throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+		final byte[] fingerprint = this.fingerprint(payload);
+		while (true) {
+			final Entry<T> mine = new Entry<>(fingerprint, this.clock.millis() + this.ttlMillis);
+			final Entry<T> existing = this.claim(key, mine);
+			if (existing == null)
+				return this.run(key, mine, action);
+			if (!MessageDigest.isEqual(existing.fingerprint, fingerprint)) {
+				this.conflicts.increment();
+				throw new IdempotencyKeyMismatchException(HEADER + " was already used for a different request");
+			}
+			try {
+				final T result = existing.result.get(this.inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+				this.replayed.increment();
+				return result;
+			}
+			catch (ExecutionException e) {
+				// first attempt failed and was forgotten, try to run it ourselves
+			}
+			catch (TimeoutException e) {
+				this.conflicts.increment();
+				throw new IdempotencyKeyConflictException("A request with this " + HEADER + " is still in progress");
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IdempotencyKeyConflictException("Interrupted while waiting for the original request");
+			}
+		}
+	}
+	
+	public synchronized int size() {
+		return this.entries.size();
+	}
+	
+	private byte[] fingerprint(final Object payload) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(this.canonicalMapper.writeValueAsBytes(payload));
+		}
+		catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Could not fingerprint the request payload", e);
+		}
+	}
+	
+	private T run(final String key, final Entry<T> entry, final Supplier<T> action) {
+		this.executed.increment();
+		try {
+			final T result = action.get();
+			entry.result.complete(result);
+			return result;
+		}
+		catch (RuntimeException | Error e) {
+			synchronized (this) {
+				this.entries.remove(key, entry);
+			}
+			entry.result.completeExceptionally(e);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Registers {@code entry} for the key, or returns the live entry already there.
+	 */
+	private synchronized Entry<T> claim(final String key, final Entry<T> entry) {
+		final long now = this.clock.millis();
+		// insertion order is expiry order, so expired entries sit at the head
+		final Iterator<Entry<T>> oldest = this.entries.values().iterator();
+		while (oldest.hasNext()) {
+			if (oldest.next().expiresAt > now)
+				break;
+			oldest.remove();
+		}
+		final Entry<T> existing = this.entries.get(key);
+		if (existing != null)
+			return existing;
+		this.entries.put(key, entry);
+		if (this.entries.size() > this.maxEntries) {
+			final Iterator<Map.Entry<String, Entry<T>>> eldest = this.entries.entrySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+		return null;
+	}
+	
+	private static Counter counter(final String name, final String outcome, final MeterRegistry meterRegistry) {
+		return Counter.builder("idempotency.requests")
+				.description("Requests carrying an Idempotency-Key, by outcome")
+				.tag("store", name)
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+	
+	private static final class Entry<T> {
+		
+		private final byte[] fingerprint;
+		private final long expiresAt;
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+		
+		private Entry(final byte[] fingerprint, final long expiresAt) {
+			this.fingerprint = fingerprint;
+			this.expiresAt = expiresAt;
+		}
+		
+	}
+	
+	
+	
+}
@@ -1,20 +1,38 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.ChangeType;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.helper.PaymentMappingHelper;
 import com.selimhorri.app.repository.PaymentRepository;
 import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.bulkread.BulkReader;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
+import com.selimhorri.app.service.processing.ChargeOutcome;
+import com.selimhorri.app.service.processing.PaymentQueue;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,25 +43,49 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 	
+	private static final String AGGREGATE_TYPE = "PAYMENT";
+	
 	private final PaymentRepository paymentRepository;
 	private final RestTemplate restTemplate;
+	private final OutboxPublisher outboxPublisher;
+	private final PaymentQueue paymentQueue;
+	private final BulkReader bulkReader;
+	private final PlatformTransactionManager transactionManager;
 	
+	/**
+	 * Reads the payments in a read-only transaction of their own and resolves
+	 * the orders once it has ended, each distinct order once, so no cursor,
+	 * transaction or connection is held while the order service answers.
+	 */
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<PaymentDto> findAll() {
 		log.info("*** PaymentDto List, service; fetch all payments *");
-		return this.paymentRepository.findAll()
-				.stream()
-					.map(PaymentMappingHelper::map)
-					.map(p -> {
-						p.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class));
-						return p;
-					})
-					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+		final TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+		readOnly.setReadOnly(true);
+		final List<PaymentDto> payments = readOnly.execute(status -> this.bulkReader
+				.mapAll(this.paymentRepository.streamAll(), PaymentMappingHelper::map));
+		final Map<Integer, OrderDto> orders = new HashMap<>();
+		payments.forEach(p -> p.setOrderDto(orders.computeIfAbsent(p.getOrderDto().getOrderId(), 
+				orderId -> this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
+						.ORDER_SERVICE_API_URL + "/" + orderId, OrderDto.class))));
+		return payments;
+	}
+	
+	/**
+	 * Payments without remote order details, which would cost a call to the
+	 * order service per exported row.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public long exportAll(final Consumer<? super PaymentDto> sink) {
+		log.info("*** Long, service; export all payments *");
+		return this.bulkReader.scroll(PaymentRepository.STREAM_ALL_QUERY, Payment.class,
+				payment -> sink.accept(PaymentMappingHelper.map(payment)));
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public PaymentDto findById(final Integer paymentId) {
 		log.info("*** PaymentDto, service; fetch payment by id *");
 		return this.paymentRepository.findById(paymentId)
@@ -56,26 +98,182 @@ public class PaymentServiceImpl implements PaymentService {
 				.orElseThrow(() -> new PaymentNotFoundException(String.format("Payment with id: %d not found", paymentId)));
 	}
 	
+	/**
+	 * Payments of one order, oldest first, without remote order details: the
+	 * caller already knows the order.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<PaymentDto> findByOrderId(final Integer orderId) {
+		log.info("*** PaymentDto List, service; fetch payments by orderId *");
+		return this.paymentRepository.findByOrderIdOrderByPaymentIdAsc(orderId)
+				.stream()
+					.map(PaymentMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	/**
+	 * Records the payment as NOT_STARTED and hands it to the processing
+	 * pipeline once committed; charging happens asynchronously, so the caller
+	 * never waits for the payment gateway.
+	 */
 	@Override
 	public PaymentDto save(final PaymentDto paymentDto) {
 		log.info("*** PaymentDto, service; save payment *");
-		return PaymentMappingHelper.map(this.paymentRepository
-				.save(PaymentMappingHelper.map(paymentDto)));
+		final Payment payment = PaymentMappingHelper.map(paymentDto);
+		payment.setPaymentId(null);
+		payment.setVersion(null);
+		payment.setIsPayed(false);
+		payment.setPaymentStatus(PaymentStatus.NOT_STARTED);
+		final PaymentDto saved = this.published(ChangeType.CREATED, 
+				PaymentMappingHelper.map(this.paymentRepository.save(payment)));
+		this.afterCommit("queue payment", () -> this.paymentQueue.submit(saved.getPaymentId()));
+		return saved;
 	}
 	
+	/**
+	 * Only retrying a failed payment or keeping its status is accepted here;
+	 * every other move is the processing pipeline's. When the payload carries
+	 * a version it must match the stored one, and a concurrent change between
+	 * read and write fails with an optimistic locking error as well.
+	 */
 	@Override
 	public PaymentDto update(final PaymentDto paymentDto) {
 		log.info("*** PaymentDto, service; update payment *");
-		return PaymentMappingHelper.map(this.paymentRepository
-				.save(PaymentMappingHelper.map(paymentDto)));
+		final Payment payment = this.paymentRepository.findById(paymentDto.getPaymentId())
+				.orElseThrow(() -> new PaymentNotFoundException(String
+						.format("Payment with id: %d not found", paymentDto.getPaymentId())));
+		if (paymentDto.getVersion() != null && !paymentDto.getVersion().equals(payment.getVersion()))
+			throw new ObjectOptimisticLockingFailureException(Payment.class, payment.getPaymentId());
+		
+		final PaymentStatus current = Objects.requireNonNullElse(payment.getPaymentStatus(), PaymentStatus.NOT_STARTED);
+		final PaymentStatus next = Objects.requireNonNullElse(paymentDto.getPaymentStatus(), current);
+		if (!current.canBeRequestedTo(next))
+			throw new IllegalStateException(String.format("Payment with id: %d cannot be moved from %s to %s through the API", 
+					payment.getPaymentId(), current, next));
+		if (paymentDto.getOrderDto() != null && paymentDto.getOrderDto().getOrderId() != null)
+			payment.setOrderId(paymentDto.getOrderDto().getOrderId());
+		payment.setPaymentStatus(next);
+		payment.setIsPayed(next == PaymentStatus.COMPLETED);
+		this.paymentRepository.saveAndFlush(payment);
+		
+		final PaymentDto updated = this.published(ChangeType.UPDATED, PaymentMappingHelper.map(payment));
+		if (next == PaymentStatus.NOT_STARTED && current != PaymentStatus.NOT_STARTED)
+			this.afterCommit("queue payment", () -> this.paymentQueue.submit(updated.getPaymentId()));
+		return updated;
 	}
 	
 	@Override
 	public void deleteById(final Integer paymentId) {
 		log.info("*** Void, service; delete payment by id *");
+		this.paymentRepository.findById(paymentId)
+				.ifPresent(p -> {
+					this.outboxPublisher.append(AGGREGATE_TYPE, paymentId, ChangeType.DELETED,
+							PaymentMappingHelper.map(p));
+					this.afterCommit("update order summary", () -> this.restTemplate.delete(AppConstant.DiscoveredDomainsApi
+							.ORDER_SUMMARY_SERVICE_API_URL + "/" + p.getOrderId() + "/payment/" + paymentId));
+				});
 		this.paymentRepository.deleteById(paymentId);
 	}
 	
+	/**
+	 * Claims NOT_STARTED payments for the processing pipeline; payments already
+	 * claimed or changed meanwhile are left out of the returned list.
+	 */
+	@Override
+	public List<PaymentDto> startProcessing(final Collection<Integer> paymentIds) {
+		log.info("*** PaymentDto List, service; start processing payments *");
+		return this.paymentRepository.findAllById(paymentIds)
+				.stream()
+					.map(PaymentMappingHelper::map)
+					.filter(p -> p.getPaymentStatus() == PaymentStatus.NOT_STARTED)
+					.map(p -> this.transition(p, PaymentStatus.IN_PROGRESS))
+					.flatMap(Optional::stream)
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	/**
+	 * Settles claimed payments with the gateway outcomes; a payment without an
+	 * outcome is handed back to NOT_STARTED.
+	 */
+	@Override
+	public List<PaymentDto> finishProcessing(final List<PaymentDto> claimed, 
+			final Map<Integer, ChargeOutcome> outcomes) {
+		log.info("*** PaymentDto List, service; finish processing payments *");
+		return claimed.stream()
+				.map(p -> this.transition(p, outcomes.getOrDefault(p.getPaymentId(), ChargeOutcome.UNAVAILABLE)
+						.getPaymentStatus()))
+				.flatMap(Optional::stream)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	/**
+	 * Version-checked status transition; empty when the payment changed since
+	 * it was read.
+	 */
+	private Optional<PaymentDto> transition(final PaymentDto paymentDto, final PaymentStatus next) {
+		checkTransition(paymentDto.getPaymentId(), paymentDto.getPaymentStatus(), next);
+		final boolean isPayed = next == PaymentStatus.COMPLETED;
+		if (this.paymentRepository.transition(paymentDto.getPaymentId(), paymentDto.getVersion(), 
+				paymentDto.getPaymentStatus(), next, isPayed) == 0) {
+			log.info("*** Payment {} changed concurrently, {} skipped *", paymentDto.getPaymentId(), next);
+			return Optional.empty();
+		}
+		return Optional.of(this.published(ChangeType.UPDATED, PaymentDto.builder()
+				.paymentId(paymentDto.getPaymentId())
+				.isPayed(isPayed)
+				.paymentStatus(next)
+				.version(paymentDto.getVersion() + 1)
+				.orderDto(paymentDto.getOrderDto())
+				.build()));
+	}
+	
+	private static void checkTransition(final Integer paymentId, final PaymentStatus current, 
+			final PaymentStatus next) {
+		if (!current.canTransitionTo(next))
+			throw new IllegalStateException(String.format("Payment with id: %d cannot move from %s to %s", 
+					paymentId, current, next));
+	}
+	
+	/**
+	 * Records the change event and reports the payment status to the
+	 * order-service order summaries.
+	 */
+	private PaymentDto published(final ChangeType changeType, final PaymentDto paymentDto) {
+		this.outboxPublisher.append(AGGREGATE_TYPE, paymentDto.getPaymentId(), changeType, paymentDto);
+		final Integer orderId = paymentDto.getOrderDto().getOrderId();
+		if (orderId != null)
+			this.afterCommit("update order summary", () -> this.restTemplate.put(AppConstant.DiscoveredDomainsApi
+					.ORDER_SUMMARY_SERVICE_API_URL + "/" + orderId + "/payment", paymentDto));
+		return paymentDto;
+	}
+	
+	/**
+	 * Runs the action once the payment is committed, outside the database
+	 * transaction; a failure is logged under the description and never rolls
+	 * back the payment write.
+	 */
+	private void afterCommit(final String description, final Runnable action) {
+		final Runnable guarded = () -> {
+			try {
+				action.run();
+			}
+			catch (RuntimeException e) {
+				log.warn("*** Could not {}: {} *", description, e.getMessage());
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			guarded.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				guarded.run();
+			}
+		});
+	}
+	
 	
 	
 }
@@ -0,0 +1,28 @@
+package com.selimhorri.app.service.outbox;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.selimhorri.app.dto.ChangeEventDto;
+
+/**
+ * In-process broker: hands every published event to the subscribed listeners
+ * on the relay thread. A failing listener fails the batch, which is retried.
+ */
+public class InMemoryEventBroker implements EventBroker {
+	
+	private final List<Consumer<ChangeEventDto>> subscribers = new CopyOnWriteArrayList<>();
+	
+	public void subscribe(final Consumer<ChangeEventDto> subscriber) {
+		this.subscribers.add(subscriber);
+	}
+	
+	@Override
+	public void publish(final List<ChangeEventDto> changeEvents) {
+		changeEvents.forEach(e -> this.subscribers.forEach(s -> s.accept(e)));
+	}
+	
+	
+	
+}
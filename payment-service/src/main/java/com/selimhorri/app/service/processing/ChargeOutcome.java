@@ -0,0 +1,19 @@
+package com.selimhorri.app.service.processing;
+
+import com.selimhorri.app.domain.PaymentStatus;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public enum ChargeOutcome {
+	
+	APPROVED(PaymentStatus.COMPLETED),
+	DECLINED(PaymentStatus.FAILED),
+	/** The gateway could not decide, the payment goes back to NOT_STARTED and is retried. */
+	UNAVAILABLE(PaymentStatus.NOT_STARTED);
+	
+	private final PaymentStatus paymentStatus;
+	
+}
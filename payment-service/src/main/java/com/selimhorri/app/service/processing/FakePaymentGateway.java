@@ -0,0 +1,48 @@
+package com.selimhorri.app.service.processing;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.selimhorri.app.dto.PaymentDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local stand-in for a payment provider: every call costs a fixed round trip,
+ * whatever the batch size, and a configurable share of payments is declined.
+ */
+@Slf4j
+public class FakePaymentGateway implements PaymentGateway {
+	
+	private final Duration latency;
+	private final double declineRate;
+	
+	public FakePaymentGateway(final Duration latency, final double declineRate) {
+		if (declineRate < 0 || declineRate > 1)
+			throw new IllegalArgumentException("decline rate must be in [0, 1]");
+		this.latency = latency;
+		this.declineRate = declineRate;
+	}
+	
+	@Override
+	public Map<Integer, ChargeOutcome> charge(final List<PaymentDto> payments) {
+		log.info("*** Map, fake gateway; charge {} payments *", payments.size());
+		try {
+			Thread.sleep(this.latency.toMillis());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while charging payments", e);
+		}
+		final Map<Integer, ChargeOutcome> outcomes = new HashMap<>(payments.size() * 2);
+		payments.forEach(p -> outcomes.put(p.getPaymentId(), 
+				ThreadLocalRandom.current().nextDouble() < this.declineRate ? ChargeOutcome.DECLINED : ChargeOutcome.APPROVED));
+		return outcomes;
+	}
+	
+	
+	
+}
@@ -0,0 +1,18 @@
+package com.selimhorri.app.service.processing;
+
+import java.util.List;
+import java.util.Map;
+
+import com.selimhorri.app.dto.PaymentDto;
+
+/**
+ * Charges payments against an external payment provider, one micro-batch per
+ * call. Implementations return an outcome per payment id; a missing entry or
+ * a thrown exception is treated as {@link ChargeOutcome#UNAVAILABLE}.
+ * The payment id is stable across retries and can be used as idempotency key.
+ */
+public interface PaymentGateway {
+	
+	Map<Integer, ChargeOutcome> charge(final List<PaymentDto> payments);
+	
+}
@@ -0,0 +1,182 @@
+package com.selimhorri.app.service.processing;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.data.domain.PageRequest;
+
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Worker pool draining the {@link PaymentQueue} in micro-batches. Each batch
+ * is claimed (NOT_STARTED to IN_PROGRESS) in one transaction, charged with a
+ * single gateway call outside any transaction, and settled in a second
+ * transaction. Both transactions use version-checked transitions, so a payment
+ * changed concurrently (another worker, another instance, a PUT) is skipped.
+ *
+ * Payments the gateway could not settle go back to NOT_STARTED; they are, like
+ * payments that did not fit in the queue, re-queued by {@link #sweep()}.
+ */
+@Slf4j
+public class PaymentProcessor {
+	
+	private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+	
+	private final PaymentQueue paymentQueue;
+	private final PaymentService paymentService;
+	private final PaymentGateway paymentGateway;
+	private final PaymentRepository paymentRepository;
+	private final int workers;
+	private final int batchSize;
+	private final Duration batchLinger;
+	private final Duration shutdownTimeout;
+	private final Map<PaymentStatus, Counter> processed = new EnumMap<>(PaymentStatus.class);
+	private final Counter failures;
+	private final DistributionSummary batchSizes;
+	private final Timer batchTimer;
+	private volatile boolean running;
+	private ExecutorService executor;
+	
+	public PaymentProcessor(final PaymentQueue paymentQueue, final PaymentService paymentService,
+			final PaymentGateway paymentGateway, final PaymentRepository paymentRepository, final int workers,
+			final int batchSize, final Duration batchLinger, final Duration shutdownTimeout,
+			final MeterRegistry meterRegistry) {
+		this.paymentQueue = paymentQueue;
+		this.paymentService = paymentService;
+		this.paymentGateway = paymentGateway;
+		this.paymentRepository = paymentRepository;
+		this.workers = workers;
+		this.batchSize = batchSize;
+		this.batchLinger = batchLinger;
+		this.shutdownTimeout = shutdownTimeout;
+		for (final PaymentStatus status : PaymentStatus.values())
+			this.processed.put(status, Counter.builder("payments.processed")
+					.description("Payments settled by the processing pipeline, by resulting status")
+					.tag("status", status.getStatus())
+					.register(meterRegistry));
+		this.failures = Counter.builder("payments.processing.failures")
+				.description("Batches that failed before their payments were settled")
+				.register(meterRegistry);
+		this.batchSizes = DistributionSummary.builder("payments.batch.size")
+				.description("Payments claimed per micro-batch")
+				.register(meterRegistry);
+		this.batchTimer = Timer.builder("payments.batch.duration")
+				.description("Time to claim, charge and settle one micro-batch")
+				.register(meterRegistry);
+	}
+	
+	public synchronized void start() {
+		if (this.running)
+			return;
+		this.running = true;
+		final AtomicInteger threadCount = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(this.workers, runnable -> {
+			final Thread thread = new Thread(runnable, "payment-worker-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int i = 0; i < this.workers; i++)
+			this.executor.execute(this::work);
+		log.info("*** Payment processing started with {} workers *", this.workers);
+	}
+	
+	/**
+	 * Stops taking new batches and waits for the running ones to settle.
+	 */
+	public synchronized void stop() {
+		if (!this.running)
+			return;
+		this.running = false;
+		this.executor.shutdown();
+		try {
+			if (!this.executor.awaitTermination(this.shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS))
+				this.executor.shutdownNow();
+		}
+		catch (InterruptedException e) {
+			this.executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Re-queues NOT_STARTED payments, oldest first, as far as the queue has room;
+	 * returns the number of payments queued.
+	 */
+	public int sweep() {
+		final int room = this.paymentQueue.remainingCapacity();
+		if (!this.running || room == 0)
+			return 0;
+		int queued = 0;
+		for (final Integer paymentId : this.paymentRepository.findIdsByPaymentStatus(PaymentStatus.NOT_STARTED,
+				PageRequest.of(0, room)))
+			if (this.paymentQueue.submit(paymentId))
+				queued++;
+		return queued;
+	}
+	
+	/**
+	 * Claims, charges and settles one batch of payment ids.
+	 */
+	public void process(final List<Integer> paymentIds) {
+		final Timer.Sample sample = Timer.start();
+		try {
+			final List<PaymentDto> claimed = this.paymentService.startProcessing(paymentIds);
+			if (claimed.isEmpty())
+				return;
+			this.batchSizes.record(claimed.size());
+			this.paymentService.finishProcessing(claimed, this.charge(claimed))
+					.forEach(p -> this.processed.get(p.getPaymentStatus()).increment());
+		}
+		catch (RuntimeException e) {
+			this.failures.increment();
+			log.error("*** Payment batch {} not settled: {} *", paymentIds, e.getMessage());
+		}
+		finally {
+			this.paymentQueue.done(paymentIds);
+			sample.stop(this.batchTimer);
+		}
+	}
+	
+	private Map<Integer, ChargeOutcome> charge(final List<PaymentDto> claimed) {
+		try {
+			return this.paymentGateway.charge(claimed);
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Payment gateway unavailable, {} payments handed back: {} *", claimed.size(), e.getMessage());
+			return Map.of();
+		}
+	}
+	
+	private void work() {
+		while (this.running) {
+			final List<Integer> batch;
+			try {
+				batch = this.paymentQueue.nextBatch(this.batchSize, this.batchLinger, POLL_TIMEOUT);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			if (!batch.isEmpty())
+				this.process(batch);
+		}
+	}
+	
+	
+	
+}
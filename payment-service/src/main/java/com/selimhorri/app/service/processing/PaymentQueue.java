@@ -0,0 +1,103 @@
+package com.selimhorri.app.service.processing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded hand-off between the request threads that accept payments and the
+ * processing workers. Payment ids are queued at most once until their batch is
+ * done; when the queue is full the id is dropped and the payment simply stays
+ * NOT_STARTED in the database, where the sweeper finds it again.
+ */
+public class PaymentQueue {
+	
+	private final BlockingQueue<Integer> queue;
+	private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+	private final Counter accepted;
+	private final Counter rejected;
+	
+	public PaymentQueue(final int capacity, final MeterRegistry meterRegistry) {
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		Gauge.builder("payments.queue.depth", this.queue, BlockingQueue::size)
+				.description("Payments waiting for a processing worker")
+				.register(meterRegistry);
+		Gauge.builder("payments.queue.capacity", this.queue, q -> q.size() + q.remainingCapacity())
+				.register(meterRegistry);
+		this.accepted = Counter.builder("payments.queue.accepted")
+				.description("Payments handed to the processing pipeline")
+				.register(meterRegistry);
+		this.rejected = Counter.builder("payments.queue.rejected")
+				.description("Payments not queued because the queue was full (picked up by the sweeper)")
+				.register(meterRegistry);
+	}
+	
+	/**
+	 * Queues a payment without blocking; returns false when the queue is full.
+	 */
+	public boolean submit(final Integer paymentId) {
+		if (!this.pending.add(paymentId))
+			return true;
+		if (this.queue.offer(paymentId)) {
+			this.accepted.increment();
+			return true;
+		}
+		this.pending.remove(paymentId);
+		this.rejected.increment();
+		return false;
+	}
+	
+	/**
+	 * Waits up to {@code pollTimeout} for a first payment, then keeps collecting
+	 * for at most {@code linger} until {@code maxSize} payments are gathered.
+	 * Returns an empty list when nothing arrived.
+	 */
+	public List<Integer> nextBatch(final int maxSize, final Duration linger, final Duration pollTimeout) 
+			throws InterruptedException {
+		final Integer first = this.queue.poll(pollTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		if (first == null)
+			return List.of();
+		final List<Integer> batch = new ArrayList<>(maxSize);
+		batch.add(first);
+		final long deadline = System.nanoTime() + linger.toNanos();
+		while (batch.size() < maxSize) {
+			this.queue.drainTo(batch, maxSize - batch.size());
+			final long remaining = deadline - System.nanoTime();
+			if (batch.size() >= maxSize || remaining <= 0)
+				break;
+			final Integer next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null)
+				break;
+			batch.add(next);
+		}
+		return batch;
+	}
+	
+	/**
+	 * Releases the payments of a finished batch so they can be queued again.
+	 */
+	public void done(final Collection<Integer> paymentIds) {
+		this.pending.removeAll(paymentIds);
+	}
+	
+	public int size() {
+		return this.queue.size();
+	}
+	
+	public int remainingCapacity() {
+		return this.queue.remainingCapacity();
+	}
+	
+	
+	
+}
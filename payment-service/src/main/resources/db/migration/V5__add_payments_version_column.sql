@@ -0,0 +1,5 @@
+
+ALTER TABLE payments ADD COLUMN version INT(11) DEFAULT 0 NOT NULL;
+
+CREATE INDEX idx_payments_payment_status ON payments (payment_status, payment_id);
+
@@ -0,0 +1,93 @@
+package com.selimhorri.app.config.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.filter.ConcurrencyLimitFilter;
+import com.selimhorri.app.config.filter.ConcurrencyLimitFilter.LimitedGroup;
+import com.selimhorri.app.resource.PaymentResource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GradientConcurrencyLimitTest {
+
+    @Test
+    void tryAcquireShouldRejectOnceLimitIsReached() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 1.5, 0.2);
+
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShouldGrowWhileLatencyIsStable() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 4, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            int inFlight = limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10), Math.max(inFlight, limit.getLimit()), false);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShouldShrinkWhenLatencyClimbs() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 4, 100, 1.5, 0.2);
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10), 50, false);
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(200), limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before);
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void limitShouldBackOffOnDrops() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 100, 1.5, 0.2);
+
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10), 1, true);
+
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    void filterShouldAnswerServiceUnavailableWithRetryAfterWhenSaturated() throws Exception {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(1, 1, 1, 1.5, 0.2);
+        Counter rejected = new SimpleMeterRegistry().counter("concurrency.rejected");
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                List.of(new LimitedGroup("payments", List.of("/api/payments/**"), limit, 2, rejected)),
+                new ObjectMapper());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PaymentResource(null, null, new ObjectMapper()))
+                .addFilters(filter)
+                .build();
+
+        limit.tryAcquire();
+
+        mockMvc.perform(get("/api/payments/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        assertThat(rejected.count()).isEqualTo(1.0);
+    }
+
+}
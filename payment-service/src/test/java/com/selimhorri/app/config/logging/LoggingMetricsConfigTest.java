@@ -0,0 +1,38 @@
+package com.selimhorri.app.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoggingMetricsConfigTest {
+
+    @Test
+    void loggingEventsMetricsShouldReportTheStaticCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new LoggingMetricsConfig().loggingEventsMetrics().bindTo(registry);
+
+        RequestSamplingTurboFilter filter = new RequestSamplingTurboFilter();
+        filter.setSamplePercent(0);
+        MDC.put("traceId", "a");
+        try {
+            filter.decide(null, new LoggerContext().getLogger("com.selimhorri.app.resource.PaymentResource"),
+                    Level.INFO, "sampled out", null, null);
+        }
+        finally {
+            MDC.clear();
+        }
+
+        assertThat(registry.get("logging.events.dropped").functionCounter().count())
+                .isEqualTo(DroppingAsyncAppender.getDroppedEvents());
+        assertThat(registry.get("logging.events.sampled.out").functionCounter().count())
+                .isEqualTo(RequestSamplingTurboFilter.getSampledOutEvents())
+                .isPositive();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.selimhorri.app.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class RequestSamplingTurboFilterTest {
+
+    // "0".hashCode() % 100 == 48, "a".hashCode() % 100 == 97
+    private static final String SAMPLED_TRACE = "0";
+    private static final String UNSAMPLED_TRACE = "a";
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private RequestSamplingTurboFilter filter;
+
+    private Logger appLogger;
+
+    @BeforeEach
+    void setUp() {
+        this.filter = new RequestSamplingTurboFilter();
+        this.filter.setSamplePercent(50);
+        this.appLogger = this.loggerContext.getLogger("com.selimhorri.app.resource.PaymentResource");
+        this.appLogger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void decideShouldKeepOrSkipAllInfoLinesOfARequest() {
+        long before = RequestSamplingTurboFilter.getSampledOutEvents();
+
+        MDC.put("traceId", SAMPLED_TRACE);
+        assertThat(decide(this.appLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+        MDC.put("traceId", UNSAMPLED_TRACE);
+        assertThat(decide(this.appLogger, Level.INFO)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(this.appLogger, Level.INFO)).isEqualTo(FilterReply.DENY);
+
+        assertThat(RequestSamplingTurboFilter.getSampledOutEvents() - before).isEqualTo(2);
+    }
+
+    @Test
+    void decideShouldAlwaysPassWarningsOtherPackagesAndUntracedLines() {
+        MDC.put("traceId", UNSAMPLED_TRACE);
+        assertThat(decide(this.appLogger, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(this.loggerContext.getLogger("org.hibernate.SQL"), Level.INFO))
+                .isEqualTo(FilterReply.NEUTRAL);
+        // disabled anyway, not counted as sampled out
+        assertThat(decide(this.appLogger, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+
+        MDC.remove("traceId");
+        assertThat(decide(this.appLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return this.filter.decide(null, logger, level, "line", null, null);
+    }
+
+}
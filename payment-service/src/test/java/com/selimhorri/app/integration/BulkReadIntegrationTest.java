@@ -0,0 +1,150 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.bulkread.BulkReader;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:payment_bulk_read_integration_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false",
+        "app.payment-processing.enabled=false",
+        "app.bulk-read.fetch-size=4"
+})
+class BulkReadIntegrationTest {
+
+    private static final int PAYMENTS = 10;
+
+    private static final int ORDERS = 3;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BulkReader bulkReader;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.paymentRepository.deleteAll();
+        this.paymentRepository.saveAll(IntStream.range(0, PAYMENTS)
+                .mapToObj(i -> Payment.builder()
+                        .orderId(orderIdOf(i))
+                        .isPayed(false)
+                        .paymentStatus(PaymentStatus.NOT_STARTED)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamAllShouldLeaveNoEntitiesInThePersistenceContext() {
+        final TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+        readOnly.setReadOnly(true);
+
+        final int managed = readOnly.execute(status -> {
+            final List<PaymentDto> payments = this.bulkReader.mapAll(this.paymentRepository.streamAll(),
+                    PaymentMappingHelper::map);
+            assertThat(payments).hasSize(PAYMENTS);
+            return this.entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertThat(managed).isZero();
+    }
+
+    @Test
+    void findAllShouldResolveEachOrderOnceOutsideTheReadTransaction() {
+        final List<Boolean> inTransaction = new ArrayList<>();
+        when(this.restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            final String url = invocation.getArgument(0);
+            return OrderDto.builder()
+                    .orderId(Integer.valueOf(url.substring(url.lastIndexOf('/') + 1)))
+                    .orderDesc("resolved")
+                    .build();
+        });
+
+        final List<PaymentDto> payments = this.paymentService.findAll();
+
+        assertThat(payments).hasSize(PAYMENTS);
+        assertThat(payments).allSatisfy(payment -> assertThat(payment.getOrderDto().getOrderDesc()).isEqualTo("resolved"));
+        assertThat(inTransaction).hasSize(ORDERS).containsOnly(false);
+    }
+
+    @Test
+    void exportAllShouldHandEveryPaymentToTheSinkInIdOrder() {
+        final List<PaymentDto> exported = new ArrayList<>();
+
+        final long count = this.paymentService.exportAll(exported::add);
+
+        assertThat(count).isEqualTo(PAYMENTS);
+        assertThat(exported).extracting(PaymentDto::getPaymentId).isSorted().doesNotHaveDuplicates();
+        assertThat(exported).extracting(payment -> payment.getOrderDto().getOrderId())
+                .containsExactlyElementsOf(IntStream.range(0, PAYMENTS)
+                        .mapToObj(BulkReadIntegrationTest::orderIdOf)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void bulkReadsShouldRefuseReadWriteTransactions() {
+        final TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> readWrite.executeWithoutResult(status ->
+                this.bulkReader.scroll(PaymentRepository.STREAM_ALL_QUERY, Payment.class, payment -> {})));
+    }
+
+    private static Integer orderIdOf(int i) {
+        return 500 + i % ORDERS;
+    }
+
+}
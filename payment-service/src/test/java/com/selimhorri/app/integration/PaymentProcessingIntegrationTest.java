@@ -0,0 +1,129 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:payment_processing_integration_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false",
+        "app.payment-processing.workers=2",
+        "app.payment-processing.batch-size=8",
+        "app.payment-processing.batch-linger=5ms",
+        "app.payment-processing.sweep-interval=100ms",
+        "app.payment-processing.fake-gateway.latency=5ms"
+})
+class PaymentProcessingIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private org.springframework.web.client.RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.paymentRepository.deleteAll();
+    }
+
+    @Test
+    void savedPaymentsShouldBeCompletedAsynchronouslyInBatches() throws InterruptedException {
+        List<Integer> paymentIds = new ArrayList<>();
+        for (int orderId = 1; orderId <= 30; orderId++) {
+            PaymentDto saved = this.paymentService.save(PaymentDto.builder()
+                    .orderDto(OrderDto.builder().orderId(orderId).build())
+                    .build());
+            assertThat(saved.getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+            paymentIds.add(saved.getPaymentId());
+        }
+
+        awaitUntil(() -> this.paymentRepository.findAllById(paymentIds).stream()
+                .allMatch(p -> p.getPaymentStatus() == PaymentStatus.COMPLETED));
+
+        assertThat(this.paymentRepository.findAllById(paymentIds))
+                .allSatisfy(p -> {
+                    assertThat(p.getIsPayed()).isTrue();
+                    assertThat(p.getVersion()).isEqualTo(2);
+                });
+        assertThat(this.meterRegistry.get("payments.batch.size").summary().max()).isGreaterThan(1.0);
+    }
+
+    @Test
+    void sweeperShouldPickUpPaymentsThatWereNeverQueued() throws InterruptedException {
+        Payment stranded = this.paymentRepository.save(Payment.builder()
+                .orderId(99)
+                .isPayed(Boolean.FALSE)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build());
+
+        awaitUntil(() -> this.paymentRepository.findById(stranded.getPaymentId()).orElseThrow()
+                .getPaymentStatus() == PaymentStatus.COMPLETED);
+    }
+
+    @Test
+    void transitionShouldFailForStaleVersions() {
+        Payment payment = this.paymentRepository.save(Payment.builder()
+                .orderId(42)
+                .isPayed(Boolean.FALSE)
+                .paymentStatus(PaymentStatus.FAILED)
+                .build());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+        Integer first = transactionTemplate.execute(status -> this.paymentRepository.transition(payment.getPaymentId(),
+                payment.getVersion(), PaymentStatus.FAILED, PaymentStatus.NOT_STARTED, false));
+        Integer second = transactionTemplate.execute(status -> this.paymentRepository.transition(payment.getPaymentId(),
+                payment.getVersion(), PaymentStatus.FAILED, PaymentStatus.NOT_STARTED, false));
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+}
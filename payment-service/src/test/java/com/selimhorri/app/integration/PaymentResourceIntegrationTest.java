@@ -42,7 +42,8 @@ import com.selimhorri.app.repository.PaymentRepository;
         "eureka.client.enabled=false",
         "spring.cloud.config.enabled=false",
         "spring.cloud.discovery.enabled=false",
-        "server.servlet.context-path="
+        "server.servlet.context-path=",
+        "app.payment-processing.enabled=false"
 })
 @AutoConfigureMockMvc
 class PaymentResourceIntegrationTest {
@@ -96,7 +97,7 @@ class PaymentResourceIntegrationTest {
     }
 
     @Test
-    void shouldCreatePayment() throws Exception {
+    void shouldCreatePaymentAsNotStarted() throws Exception {
         PaymentDto payload = PaymentDto.builder()
                 .isPayed(Boolean.TRUE)
                 .paymentStatus(PaymentStatus.IN_PROGRESS)
@@ -108,7 +109,8 @@ class PaymentResourceIntegrationTest {
                         .content(this.objectMapper.writeValueAsString(payload)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.paymentId").isNumber())
-                .andExpect(jsonPath("$.paymentStatus", equalTo(PaymentStatus.IN_PROGRESS.name())))
+                .andExpect(jsonPath("$.paymentStatus", equalTo(PaymentStatus.NOT_STARTED.name())))
+                .andExpect(jsonPath("$.isPayed", equalTo(false)))
                 .andExpect(jsonPath("$.order.orderId", equalTo(702)))
                 .andReturn();
 
@@ -120,9 +122,8 @@ class PaymentResourceIntegrationTest {
     void shouldUpdatePayment() throws Exception {
         PaymentDto payload = PaymentDto.builder()
                 .paymentId(this.persistedPayment.getPaymentId())
-                .isPayed(Boolean.TRUE)
-                .paymentStatus(PaymentStatus.COMPLETED)
-                .orderDto(OrderDto.builder().orderId(EXISTING_ORDER_ID).build())
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .orderDto(OrderDto.builder().orderId(EXISTING_ORDER_ID + 1).build())
                 .build();
 
         this.mockMvc.perform(put("/api/payments")
@@ -130,11 +131,61 @@ class PaymentResourceIntegrationTest {
                         .content(this.objectMapper.writeValueAsString(payload)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.paymentId", equalTo(this.persistedPayment.getPaymentId())))
-                .andExpect(jsonPath("$.paymentStatus", equalTo(PaymentStatus.COMPLETED.name())));
+                .andExpect(jsonPath("$.paymentStatus", equalTo(PaymentStatus.NOT_STARTED.name())))
+                .andExpect(jsonPath("$.version", equalTo(this.persistedPayment.getVersion() + 1)));
 
         Payment reloaded = this.paymentRepository.findById(this.persistedPayment.getPaymentId()).orElseThrow();
-        assertThat(reloaded.getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
-        assertThat(reloaded.getIsPayed()).isTrue();
+        assertThat(reloaded.getOrderId()).isEqualTo(EXISTING_ORDER_ID + 1);
+        assertThat(reloaded.getIsPayed()).isFalse();
+    }
+
+    @Test
+    void shouldRejectClaimingForProcessing() throws Exception {
+        PaymentDto payload = PaymentDto.builder()
+                .paymentId(this.persistedPayment.getPaymentId())
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .orderDto(OrderDto.builder().orderId(EXISTING_ORDER_ID).build())
+                .build();
+
+        this.mockMvc.perform(put("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isBadRequest());
+
+        Payment reloaded = this.paymentRepository.findById(this.persistedPayment.getPaymentId()).orElseThrow();
+        assertThat(reloaded.getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+    }
+
+    @Test
+    void shouldRejectSkippingProcessing() throws Exception {
+        PaymentDto payload = PaymentDto.builder()
+                .paymentId(this.persistedPayment.getPaymentId())
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .orderDto(OrderDto.builder().orderId(EXISTING_ORDER_ID).build())
+                .build();
+
+        this.mockMvc.perform(put("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(this.paymentRepository.findById(this.persistedPayment.getPaymentId()).orElseThrow()
+                .getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+    }
+
+    @Test
+    void shouldRejectStaleVersion() throws Exception {
+        PaymentDto payload = PaymentDto.builder()
+                .paymentId(this.persistedPayment.getPaymentId())
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .version(this.persistedPayment.getVersion() + 5)
+                .orderDto(OrderDto.builder().orderId(EXISTING_ORDER_ID).build())
+                .build();
+
+        this.mockMvc.perform(put("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isConflict());
     }
 
     @Test
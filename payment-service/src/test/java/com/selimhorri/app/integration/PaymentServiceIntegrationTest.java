@@ -1,6 +1,7 @@
 package com.selimhorri.app.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,7 +35,8 @@ import com.selimhorri.app.service.PaymentService;
         "eureka.client.enabled=false",
         "spring.cloud.config.enabled=false",
         "spring.cloud.discovery.enabled=false",
-        "server.servlet.context-path="
+        "server.servlet.context-path=",
+        "app.payment-processing.enabled=false"
 })
 class PaymentServiceIntegrationTest {
 
@@ -111,6 +113,22 @@ class PaymentServiceIntegrationTest {
 
     @Test
     void updateShouldModifyExistingPayment() {
+        PaymentDto payload = PaymentDto.builder()
+                .paymentId(this.persistedPayment.getPaymentId())
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .orderDto(OrderDto.builder().orderId(903).build())
+                .build();
+
+        PaymentDto updated = this.paymentService.update(payload);
+
+        assertThat(updated.getPaymentId()).isEqualTo(this.persistedPayment.getPaymentId());
+        Payment reloaded = this.paymentRepository.findById(this.persistedPayment.getPaymentId()).orElseThrow();
+        assertThat(reloaded.getOrderId()).isEqualTo(903);
+        assertThat(reloaded.getPaymentStatus()).isEqualTo(PaymentStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void updateShouldLeaveCompletionToThePipeline() {
         PaymentDto payload = PaymentDto.builder()
                 .paymentId(this.persistedPayment.getPaymentId())
                 .isPayed(Boolean.TRUE)
@@ -118,12 +136,10 @@ class PaymentServiceIntegrationTest {
                 .orderDto(OrderDto.builder().orderId(EXISTING_ORDER_ID).build())
                 .build();
 
-        PaymentDto updated = this.paymentService.update(payload);
+        assertThrows(IllegalStateException.class, () -> this.paymentService.update(payload));
 
-        assertThat(updated.getPaymentId()).isEqualTo(this.persistedPayment.getPaymentId());
         Payment reloaded = this.paymentRepository.findById(this.persistedPayment.getPaymentId()).orElseThrow();
-        assertThat(reloaded.getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
-        assertThat(reloaded.getIsPayed()).isTrue();
+        assertThat(reloaded.getPaymentStatus()).isEqualTo(PaymentStatus.IN_PROGRESS);
     }
 
     @Test
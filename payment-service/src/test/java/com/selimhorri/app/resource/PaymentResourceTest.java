@@ -2,17 +2,21 @@ package com.selimhorri.app.resource;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,16 +24,20 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.idempotency.IdempotencyConfig;
 import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.service.PaymentService;
 
 @WebMvcTest(PaymentResource.class)
+@Import(IdempotencyConfig.class)
 class PaymentResourceTest {
 
     @Autowired
@@ -65,6 +73,31 @@ class PaymentResourceTest {
         verify(this.paymentService).findAll();
     }
 
+    @Test
+    void exportAllShouldStreamOneJsonLinePerPayment() throws Exception {
+        when(this.paymentService.exportAll(any())).thenAnswer(invocation -> {
+            Consumer<PaymentDto> sink = invocation.getArgument(0);
+            sink.accept(this.paymentDto);
+            sink.accept(PaymentDto.builder().paymentId(2).paymentStatus(PaymentStatus.NOT_STARTED).build());
+            return 2L;
+        });
+
+        MvcResult started = this.mockMvc.perform(get("/api/payments/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = this.mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        org.assertj.core.api.Assertions.assertThat(lines).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(this.objectMapper.readValue(lines[1], PaymentDto.class)
+                .getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+    }
+
     @Test
     void findByIdShouldReturnPayment() throws Exception {
         when(this.paymentService.findById(1)).thenReturn(this.paymentDto);
@@ -77,6 +110,17 @@ class PaymentResourceTest {
         verify(this.paymentService).findById(1);
     }
 
+    @Test
+    void findByOrderIdShouldReturnPaymentsCollection() throws Exception {
+        when(this.paymentService.findByOrderId(55)).thenReturn(List.of(this.paymentDto));
+
+        this.mockMvc.perform(get("/api/payments/order/{orderId}", "55"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].paymentId", equalTo(this.paymentDto.getPaymentId())));
+
+        verify(this.paymentService).findByOrderId(55);
+    }
+
     @Test
     void saveShouldDelegateToService() throws Exception {
         PaymentDto payload = PaymentDto.builder()
@@ -98,6 +142,27 @@ class PaymentResourceTest {
         org.assertj.core.api.Assertions.assertThat(sent.getOrderDto().getOrderId()).isEqualTo(payload.getOrderDto().getOrderId());
     }
 
+    @Test
+    void saveWithSameIdempotencyKeyShouldRunOnce() throws Exception {
+        String payload = this.objectMapper.writeValueAsString(this.paymentDto);
+        when(this.paymentService.save(any(PaymentDto.class))).thenReturn(this.paymentDto);
+
+        for (int attempt = 0; attempt < 2; attempt++)
+            this.mockMvc.perform(post("/api/payments")
+                    .header("Idempotency-Key", "checkout-42")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentId", equalTo(this.paymentDto.getPaymentId())));
+        this.mockMvc.perform(post("/api/payments")
+                .header("Idempotency-Key", "checkout-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isUnprocessableEntity());
+
+        verify(this.paymentService, times(1)).save(any(PaymentDto.class));
+    }
+
     @Test
     void updateShouldDelegateToService() throws Exception {
         when(this.paymentService.update(any(PaymentDto.class))).thenReturn(this.paymentDto);
@@ -0,0 +1,138 @@
+package com.selimhorri.app.service.bulkread;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.PaymentRepository;
+
+/**
+ * Listing 100k payments the way findAll used to, in a read-write
+ * transaction, in a read-only one, through {@link BulkReader#mapAll} and
+ * exporting them through {@link BulkReader#scroll}; the remote order lookups
+ * findAll adds per payment are left out. Reports time per call, the part of
+ * it spent committing (the flush with its dirty check), entities still
+ * managed when the read is done, and allocation. Not part of the regular
+ * build; run it with
+ *
+ *     mvn -B test -Dtest=BulkReadBenchmark
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:payment_bulk_read_benchmark_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false",
+        "app.payment-processing.enabled=false",
+        "logging.level.com.selimhorri.app=WARN",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class BulkReadBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARM_UP_CALLS = 3;
+    private static final int MEASURED_CALLS = 5;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private BulkReader bulkReader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareReadPaths() {
+        this.seed();
+        final TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+        final TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+        readOnly.setReadOnly(true);
+
+        System.out.printf("%-28s %10s %10s %10s %14s%n", "path", "ms/op", "commit ms", "managed", "MB alloc/op");
+        this.run("read-write findAll", readWrite, () -> this.paymentRepository.findAll().stream()
+                .map(PaymentMappingHelper::map).collect(Collectors.toUnmodifiableList()).size());
+        this.run("read-only findAll", readOnly, () -> this.paymentRepository.findAll().stream()
+                .map(PaymentMappingHelper::map).collect(Collectors.toUnmodifiableList()).size());
+        this.run("read-only streamAll+clear", readOnly, () -> this.bulkReader
+                .mapAll(this.paymentRepository.streamAll(), PaymentMappingHelper::map).size());
+        this.run("stateless scroll export", readOnly, () -> {
+            final int[] count = new int[1];
+            this.bulkReader.scroll(PaymentRepository.STREAM_ALL_QUERY, Payment.class, payment -> {
+                PaymentMappingHelper.map(payment);
+                count[0]++;
+            });
+            return count[0];
+        });
+    }
+
+    private void seed() {
+        final PaymentStatus[] statuses = PaymentStatus.values();
+        this.jdbcTemplate.batchUpdate("INSERT INTO payments (order_id, is_payed, payment_status, version) "
+                + "VALUES (?, ?, ?, 0)", IntStream.range(0, ROWS)
+                        .mapToObj(i -> new Object[] { i / 2, i % 3 == 0, statuses[i % statuses.length].name() })
+                        .collect(Collectors.toList()));
+    }
+
+    private void run(final String name, final TransactionTemplate transaction, final Supplier<Integer> read) {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARM_UP_CALLS; i++)
+            transaction.execute(status -> read.get());
+        long totalNanos = 0;
+        long commitNanos = 0;
+        final long[] managed = new long[1];
+        long rows = 0;
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            final long[] readDone = new long[1];
+            final long started = System.nanoTime();
+            rows += transaction.execute(status -> {
+                final int size = read.get();
+                final Session session = this.entityManager.unwrap(Session.class);
+                managed[0] += session.getStatistics().getEntityCount();
+                readDone[0] = System.nanoTime();
+                return size;
+            });
+            final long finished = System.nanoTime();
+            totalNanos += finished - started;
+            commitNanos += finished - readDone[0];
+        }
+        final double megabytes = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / 1_048_576.0
+                / MEASURED_CALLS;
+        System.out.printf(Locale.ROOT, "%-28s %10.1f %10.1f %10d %14.1f   (%d rows)%n", name,
+                totalNanos / 1_000_000.0 / MEASURED_CALLS, commitNanos / 1_000_000.0 / MEASURED_CALLS,
+                managed[0] / MEASURED_CALLS, megabytes, rows / MEASURED_CALLS);
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.selimhorri.app.service.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void concurrentDuplicatesShouldWaitForTheFirstExecution() throws Exception {
+        IdempotencyStore<Integer> store = store(10, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> first = executor.submit(() -> store.execute("key", "payload", () -> {
+                started.countDown();
+                await(release);
+                return this.executions.incrementAndGet();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<Integer> second = executor.submit(() -> store.execute("key", "payload", this.executions::incrementAndGet));
+            Future<Integer> third = executor.submit(() -> store.execute("key", "payload", this.executions::incrementAndGet));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(this.executions).hasValue(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedExecutionShouldBeForgotten() {
+        IdempotencyStore<Integer> store = store(10, Duration.ofSeconds(1));
+
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "payload", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertThat(store.execute("key", "payload", this.executions::incrementAndGet)).isEqualTo(1);
+        assertThat(store.execute("key", "payload", this.executions::incrementAndGet)).isEqualTo(1);
+    }
+
+    @Test
+    void keysShouldExpireAndBeEvictedBeyondCapacity() {
+        IdempotencyStore<Integer> store = store(2, Duration.ofSeconds(1));
+        store.execute("a", "payload", this.executions::incrementAndGet);
+        store.execute("b", "payload", this.executions::incrementAndGet);
+        store.execute("c", "payload", this.executions::incrementAndGet);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.execute("a", "payload", this.executions::incrementAndGet)).isEqualTo(4);
+
+        this.clock.advance(Duration.ofMinutes(2));
+        assertThat(store.execute("c", "payload", this.executions::incrementAndGet)).isEqualTo(5);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void reusedKeyWithDifferentPayloadShouldBeRejected() {
+        IdempotencyStore<Integer> store = store(10, Duration.ofSeconds(1));
+        store.execute("key", "payload", this.executions::incrementAndGet);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.execute("key", "other", this.executions::incrementAndGet));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute(" ", "payload", this.executions::incrementAndGet));
+    }
+
+    @Test
+    void payloadsWithTheSameHashCodeShouldStillBeToldApart() {
+        IdempotencyStore<Integer> store = store(10, Duration.ofSeconds(1));
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        store.execute("key", "Aa", this.executions::incrementAndGet);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.execute("key", "BB", this.executions::incrementAndGet));
+    }
+
+    @Test
+    void equalPaymentsShouldReplayAndChangedOnesBeRejected() {
+        IdempotencyStore<Integer> store = store(10, Duration.ofSeconds(1));
+        store.execute("key", payment(101), this.executions::incrementAndGet);
+
+        assertThat(store.execute("key", payment(101), this.executions::incrementAndGet)).isEqualTo(1);
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.execute("key", payment(102), this.executions::incrementAndGet));
+    }
+
+    @Test
+    void duplicateShouldGiveUpWhenTheFirstExecutionTakesTooLong() throws Exception {
+        IdempotencyStore<Integer> store = store(10, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> store.execute("key", "payload", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThrows(IdempotencyKeyConflictException.class,
+                    () -> store.execute("key", "payload", this.executions::incrementAndGet));
+        }
+        finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyStore<Integer> store(int maxEntries, Duration inFlightTimeout) {
+        return new IdempotencyStore<>("test", maxEntries, Duration.ofMinutes(1), inFlightTimeout, this.clock,
+                JsonMapper.builder().findAndAddModules().build(), new SimpleMeterRegistry());
+    }
+
+    private static PaymentDto payment(int orderId) {
+        return PaymentDto.builder()
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .orderDto(OrderDto.builder().orderId(orderId).build())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+
+    }
+
+}
@@ -3,19 +3,29 @@ package com.selimhorri.app.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
@@ -26,6 +36,12 @@ import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.repository.PaymentRepository;
 import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.bulkread.BulkReader;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
+import com.selimhorri.app.service.processing.ChargeOutcome;
+import com.selimhorri.app.service.processing.PaymentQueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceImplTest {
@@ -36,17 +52,33 @@ class PaymentServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private BulkReader bulkReader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentQueue paymentQueue;
+
     private PaymentService paymentService;
 
     @BeforeEach
     void setUp() {
-        this.paymentService = new PaymentServiceImpl(this.paymentRepository, this.restTemplate);
+        this.paymentQueue = new PaymentQueue(10, new SimpleMeterRegistry());
+        this.paymentService = new PaymentServiceImpl(this.paymentRepository, this.restTemplate, this.outboxPublisher,
+                this.paymentQueue, this.bulkReader, this.transactionManager);
     }
 
     @Test
     void findAllShouldReturnMappedDtosWithOrderDetails() {
         Payment payment = buildPayment(1, 101, true, PaymentStatus.COMPLETED);
-        when(this.paymentRepository.findAll()).thenReturn(List.of(payment));
+        when(this.paymentRepository.streamAll()).thenReturn(Stream.of(payment));
+        when(this.bulkReader.mapAll(any(), any())).thenAnswer(invocation -> invocation.<Stream<Payment>>getArgument(0)
+                .map(invocation.<Function<Payment, PaymentDto>>getArgument(1))
+                .collect(Collectors.toList()));
         OrderDto orderDto = OrderDto.builder().orderId(payment.getOrderId()).build();
         when(this.restTemplate.getForObject(orderUrl(payment.getOrderId()), OrderDto.class)).thenReturn(orderDto);
 
@@ -58,10 +90,47 @@ class PaymentServiceImplTest {
         assertThat(dto.getOrderDto().getOrderId()).isEqualTo(payment.getOrderId());
         assertThat(dto.getPaymentStatus()).isEqualTo(payment.getPaymentStatus());
 
-        verify(this.paymentRepository).findAll();
+        verify(this.paymentRepository).streamAll();
         verify(this.restTemplate).getForObject(orderUrl(payment.getOrderId()), OrderDto.class);
     }
 
+    @Test
+    void findAllShouldResolveEachOrderOnceAfterTheReadTransaction() {
+        Payment first = buildPayment(1, 101, false, PaymentStatus.FAILED);
+        Payment retry = buildPayment(2, 101, true, PaymentStatus.COMPLETED);
+        Payment other = buildPayment(3, 102, false, PaymentStatus.NOT_STARTED);
+        when(this.paymentRepository.streamAll()).thenReturn(Stream.of(first, retry, other));
+        when(this.bulkReader.mapAll(any(), any())).thenAnswer(invocation -> invocation.<Stream<Payment>>getArgument(0)
+                .map(invocation.<Function<Payment, PaymentDto>>getArgument(1))
+                .collect(Collectors.toList()));
+        when(this.restTemplate.getForObject(orderUrl(101), OrderDto.class))
+                .thenReturn(OrderDto.builder().orderId(101).orderDesc("first").build());
+        when(this.restTemplate.getForObject(orderUrl(102), OrderDto.class))
+                .thenReturn(OrderDto.builder().orderId(102).orderDesc("other").build());
+
+        List<PaymentDto> result = this.paymentService.findAll();
+
+        assertThat(result).extracting(p -> p.getOrderDto().getOrderDesc()).containsExactly("first", "first", "other");
+        InOrder inOrder = inOrder(this.transactionManager, this.restTemplate);
+        inOrder.verify(this.transactionManager).commit(any());
+        inOrder.verify(this.restTemplate).getForObject(orderUrl(101), OrderDto.class);
+        inOrder.verify(this.restTemplate).getForObject(orderUrl(102), OrderDto.class);
+        verifyNoMoreInteractions(this.restTemplate);
+    }
+
+    @Test
+    void findByOrderIdShouldReturnPaymentsWithoutRemoteCalls() {
+        Payment first = buildPayment(1, 303, false, PaymentStatus.FAILED);
+        Payment second = buildPayment(2, 303, true, PaymentStatus.COMPLETED);
+        when(this.paymentRepository.findByOrderIdOrderByPaymentIdAsc(303)).thenReturn(List.of(first, second));
+
+        List<PaymentDto> result = this.paymentService.findByOrderId(303);
+
+        assertThat(result).extracting(PaymentDto::getPaymentId).containsExactly(1, 2);
+        assertThat(result.get(1).getOrderDto().getOrderId()).isEqualTo(303);
+        verifyNoInteractions(this.restTemplate);
+    }
+
     @Test
     void findByIdShouldReturnDtoWhenFound() {
         Payment payment = buildPayment(5, 202, false, PaymentStatus.IN_PROGRESS);
@@ -85,9 +154,9 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    void saveShouldPersistMappedPayment() {
+    void saveShouldPersistNotStartedPaymentAndQueueIt() {
         PaymentDto payload = buildPaymentDto(null, 303, true, PaymentStatus.COMPLETED);
-        Payment persisted = buildPayment(10, payload.getOrderDto().getOrderId(), payload.getIsPayed(), payload.getPaymentStatus());
+        Payment persisted = buildPayment(10, payload.getOrderDto().getOrderId(), false, PaymentStatus.NOT_STARTED);
         when(this.paymentRepository.save(any(Payment.class))).thenReturn(persisted);
 
         PaymentDto result = this.paymentService.save(payload);
@@ -97,29 +166,112 @@ class PaymentServiceImplTest {
         Payment saved = captor.getValue();
         assertThat(saved.getPaymentId()).isNull();
         assertThat(saved.getOrderId()).isEqualTo(payload.getOrderDto().getOrderId());
-        assertThat(saved.getPaymentStatus()).isEqualTo(payload.getPaymentStatus());
+        assertThat(saved.getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+        assertThat(saved.getIsPayed()).isFalse();
 
         assertThat(result.getPaymentId()).isEqualTo(persisted.getPaymentId());
         assertThat(result.getOrderDto().getOrderId()).isEqualTo(payload.getOrderDto().getOrderId());
+        assertThat(this.paymentQueue.size()).isEqualTo(1);
+        verify(this.restTemplate).put(AppConstant.DiscoveredDomainsApi.ORDER_SUMMARY_SERVICE_API_URL + "/303/payment", result);
     }
 
     @Test
-    void updateShouldPersistMappedPayment() {
-        PaymentDto payload = buildPaymentDto(77, 404, false, PaymentStatus.NOT_STARTED);
-        Payment persisted = buildPayment(payload.getPaymentId(), payload.getOrderDto().getOrderId(), payload.getIsPayed(), payload.getPaymentStatus());
-        when(this.paymentRepository.save(any(Payment.class))).thenReturn(persisted);
+    void updateShouldApplyRequestedRetry() {
+        Payment stored = buildPayment(77, 404, false, PaymentStatus.FAILED);
+        when(this.paymentRepository.findById(77)).thenReturn(Optional.of(stored));
 
-        PaymentDto result = this.paymentService.update(payload);
+        PaymentDto result = this.paymentService.update(buildPaymentDto(77, 405, true, PaymentStatus.NOT_STARTED));
 
-        ArgumentCaptor<Payment> captor = ArgumentCaptor.forClass(Payment.class);
-        verify(this.paymentRepository).save(captor.capture());
-        Payment saved = captor.getValue();
-        assertThat(saved.getPaymentId()).isEqualTo(payload.getPaymentId());
-        assertThat(saved.getOrderId()).isEqualTo(payload.getOrderDto().getOrderId());
-        assertThat(saved.getIsPayed()).isEqualTo(payload.getIsPayed());
+        verify(this.paymentRepository).saveAndFlush(stored);
+        assertThat(stored.getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+        assertThat(stored.getOrderId()).isEqualTo(405);
+        assertThat(stored.getIsPayed()).isFalse();
+        assertThat(result.getPaymentId()).isEqualTo(77);
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+    }
+
+    @Test
+    void updateShouldNotCompleteAPaymentThePipelineNeverCharged() {
+        Payment stored = buildPayment(81, 404, false, PaymentStatus.IN_PROGRESS);
+        when(this.paymentRepository.findById(81)).thenReturn(Optional.of(stored));
+
+        assertThrows(IllegalStateException.class,
+                () -> this.paymentService.update(buildPaymentDto(81, 404, true, PaymentStatus.COMPLETED)));
+        verify(this.paymentRepository, never()).saveAndFlush(any(Payment.class));
+        assertThat(stored.getIsPayed()).isFalse();
+    }
 
-        assertThat(result.getPaymentId()).isEqualTo(payload.getPaymentId());
-        assertThat(result.getPaymentStatus()).isEqualTo(payload.getPaymentStatus());
+    @Test
+    void updateShouldNotClaimAPaymentForProcessing() {
+        when(this.paymentRepository.findById(82)).thenReturn(Optional.of(buildPayment(82, 404, false, PaymentStatus.NOT_STARTED)));
+
+        assertThrows(IllegalStateException.class,
+                () -> this.paymentService.update(buildPaymentDto(82, 404, false, PaymentStatus.IN_PROGRESS)));
+        verify(this.paymentRepository, never()).saveAndFlush(any(Payment.class));
+    }
+
+    @Test
+    void updateShouldRejectIllegalTransition() {
+        when(this.paymentRepository.findById(78)).thenReturn(Optional.of(buildPayment(78, 404, false, PaymentStatus.NOT_STARTED)));
+
+        assertThrows(IllegalStateException.class,
+                () -> this.paymentService.update(buildPaymentDto(78, 404, true, PaymentStatus.COMPLETED)));
+        verify(this.paymentRepository, never()).saveAndFlush(any(Payment.class));
+    }
+
+    @Test
+    void updateShouldRejectStaleVersion() {
+        Payment stored = buildPayment(79, 404, false, PaymentStatus.FAILED);
+        stored.setVersion(3);
+        when(this.paymentRepository.findById(79)).thenReturn(Optional.of(stored));
+        PaymentDto payload = buildPaymentDto(79, 404, false, PaymentStatus.NOT_STARTED);
+        payload.setVersion(2);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> this.paymentService.update(payload));
+    }
+
+    @Test
+    void retryingFailedPaymentShouldQueueItAgain() {
+        when(this.paymentRepository.findById(80)).thenReturn(Optional.of(buildPayment(80, 404, false, PaymentStatus.FAILED)));
+
+        this.paymentService.update(buildPaymentDto(80, 404, false, PaymentStatus.NOT_STARTED));
+
+        assertThat(this.paymentQueue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void startProcessingShouldClaimOnlyNotStartedPaymentsThatWereNotChangedMeanwhile() {
+        Payment fresh = buildPayment(1, 11, false, PaymentStatus.NOT_STARTED);
+        fresh.setVersion(0);
+        Payment raced = buildPayment(2, 12, false, PaymentStatus.NOT_STARTED);
+        raced.setVersion(4);
+        Payment done = buildPayment(3, 13, true, PaymentStatus.COMPLETED);
+        when(this.paymentRepository.findAllById(List.of(1, 2, 3))).thenReturn(List.of(fresh, raced, done));
+        when(this.paymentRepository.transition(1, 0, PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS, false)).thenReturn(1);
+        when(this.paymentRepository.transition(2, 4, PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS, false)).thenReturn(0);
+
+        List<PaymentDto> claimed = this.paymentService.startProcessing(List.of(1, 2, 3));
+
+        assertThat(claimed).extracting(PaymentDto::getPaymentId).containsExactly(1);
+        assertThat(claimed.get(0).getPaymentStatus()).isEqualTo(PaymentStatus.IN_PROGRESS);
+        assertThat(claimed.get(0).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void finishProcessingShouldSettleOutcomesAndHandBackMissingOnes() {
+        PaymentDto approved = buildPaymentDto(1, 11, false, PaymentStatus.IN_PROGRESS);
+        approved.setVersion(1);
+        PaymentDto unknown = buildPaymentDto(2, 12, false, PaymentStatus.IN_PROGRESS);
+        unknown.setVersion(1);
+        when(this.paymentRepository.transition(1, 1, PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED, true)).thenReturn(1);
+        when(this.paymentRepository.transition(2, 1, PaymentStatus.IN_PROGRESS, PaymentStatus.NOT_STARTED, false)).thenReturn(1);
+
+        List<PaymentDto> settled = this.paymentService.finishProcessing(List.of(approved, unknown),
+                Map.of(1, ChargeOutcome.APPROVED));
+
+        assertThat(settled).extracting(PaymentDto::getPaymentStatus)
+                .containsExactly(PaymentStatus.COMPLETED, PaymentStatus.NOT_STARTED);
+        assertThat(settled.get(0).getIsPayed()).isTrue();
     }
 
     @Test
@@ -130,6 +282,16 @@ class PaymentServiceImplTest {
         verifyNoInteractions(this.restTemplate);
     }
 
+    @Test
+    void deleteByIdShouldClearOrderSummaryPaymentStatus() {
+        when(this.paymentRepository.findById(13)).thenReturn(Optional.of(buildPayment(13, 505, false, PaymentStatus.IN_PROGRESS)));
+
+        this.paymentService.deleteById(13);
+
+        verify(this.paymentRepository).deleteById(13);
+        verify(this.restTemplate).delete(AppConstant.DiscoveredDomainsApi.ORDER_SUMMARY_SERVICE_API_URL + "/505/payment/13");
+    }
+
     private static Payment buildPayment(Integer paymentId, Integer orderId, boolean isPayed, PaymentStatus status) {
         return Payment.builder()
                 .paymentId(paymentId)
@@ -0,0 +1,124 @@
+package com.selimhorri.app.service.processing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentProcessorTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PaymentQueue paymentQueue;
+
+    private PaymentProcessor paymentProcessor;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.paymentQueue = new PaymentQueue(3, this.meterRegistry);
+        this.paymentProcessor = new PaymentProcessor(this.paymentQueue, this.paymentService, this.paymentGateway,
+                this.paymentRepository, 1, 10, Duration.ZERO, Duration.ofSeconds(1), this.meterRegistry);
+    }
+
+    @Test
+    void queueShouldDeduplicateAndRejectWhenFull() throws InterruptedException {
+        assertThat(this.paymentQueue.submit(1)).isTrue();
+        assertThat(this.paymentQueue.submit(1)).isTrue();
+        assertThat(this.paymentQueue.submit(2)).isTrue();
+        assertThat(this.paymentQueue.submit(3)).isTrue();
+        assertThat(this.paymentQueue.submit(4)).isFalse();
+
+        List<Integer> batch = this.paymentQueue.nextBatch(2, Duration.ZERO, Duration.ZERO);
+
+        assertThat(batch).containsExactly(1, 2);
+        assertThat(this.meterRegistry.get("payments.queue.depth").gauge().value()).isEqualTo(1.0);
+        assertThat(this.meterRegistry.get("payments.queue.rejected").counter().count()).isEqualTo(1.0);
+        this.paymentQueue.done(batch);
+        assertThat(this.paymentQueue.submit(1)).isTrue();
+    }
+
+    @Test
+    void processShouldChargeClaimedPaymentsInOneGatewayCall() {
+        List<PaymentDto> claimed = List.of(claimed(1), claimed(2));
+        Map<Integer, ChargeOutcome> outcomes = Map.of(1, ChargeOutcome.APPROVED, 2, ChargeOutcome.DECLINED);
+        when(this.paymentService.startProcessing(List.of(1, 2, 3))).thenReturn(claimed);
+        when(this.paymentGateway.charge(claimed)).thenReturn(outcomes);
+        when(this.paymentService.finishProcessing(claimed, outcomes)).thenReturn(List.of(
+                settled(1, PaymentStatus.COMPLETED), settled(2, PaymentStatus.FAILED)));
+
+        this.paymentProcessor.process(List.of(1, 2, 3));
+
+        assertThat(processed(PaymentStatus.COMPLETED)).isEqualTo(1.0);
+        assertThat(processed(PaymentStatus.FAILED)).isEqualTo(1.0);
+        assertThat(this.meterRegistry.get("payments.batch.size").summary().totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    void gatewayOutageShouldHandPaymentsBack() {
+        List<PaymentDto> claimed = List.of(claimed(5));
+        when(this.paymentService.startProcessing(List.of(5))).thenReturn(claimed);
+        when(this.paymentGateway.charge(claimed)).thenThrow(new IllegalStateException("gateway down"));
+        when(this.paymentService.finishProcessing(claimed, Map.of()))
+                .thenReturn(List.of(settled(5, PaymentStatus.NOT_STARTED)));
+
+        this.paymentProcessor.process(List.of(5));
+
+        verify(this.paymentService).finishProcessing(claimed, Map.of());
+        assertThat(processed(PaymentStatus.NOT_STARTED)).isEqualTo(1.0);
+    }
+
+    @Test
+    void processShouldSkipGatewayWhenNothingWasClaimed() {
+        when(this.paymentService.startProcessing(List.of(9))).thenReturn(List.of());
+
+        this.paymentProcessor.process(List.of(9));
+
+        verify(this.paymentGateway, never()).charge(anyList());
+    }
+
+    private double processed(PaymentStatus status) {
+        return this.meterRegistry.get("payments.processed").tag("status", status.getStatus()).counter().count();
+    }
+
+    private static PaymentDto claimed(Integer paymentId) {
+        return settled(paymentId, PaymentStatus.IN_PROGRESS);
+    }
+
+    private static PaymentDto settled(Integer paymentId, PaymentStatus status) {
+        return PaymentDto.builder()
+                .paymentId(paymentId)
+                .paymentStatus(status)
+                .version(1)
+                .build();
+    }
+
+}
@@ -0,0 +1,120 @@
+"""
+Startup benchmark: time from `java` launch to the first HTTP 200 of each service.
+
+Compares the regular fat jar with the fast-start build (thin jar, class-data
+sharing archive, fast-start Spring profile). Build both first, from the root:
+
+    ./mvnw -DskipTests package
+    ./mvnw -DskipTests -Pfast-start package
+
+then run, for example:
+
+    python perf/startup/time_to_first_200.py --runs 5 payment-service order-service
+
+Services start on the dev profile (in-memory H2) without config server,
+registry or zipkin. Services whose list endpoint calls other services are
+probed on their health endpoint instead.
+"""
+import argparse
+import os
+import statistics
+import subprocess
+import sys
+import time
+import urllib.error
+import urllib.request
+
+ROOT = os.path.abspath(os.path.join(os.path.dirname(__file__), "..", ".."))
+VERSION = "0.1.0"
+
+# service -> (port, path answering 200 without calling another service)
+SERVICES = {
+    "api-gateway": (8080, "/actuator/health"),
+    "proxy-client": (8900, "/app/actuator/health"),
+    "user-service": (8700, "/user-service/api/users"),
+    "product-service": (8500, "/product-service/api/products"),
+    "favourite-service": (8800, "/favourite-service/actuator/health"),
+    "order-service": (8300, "/order-service/api/orders"),
+    "shipping-service": (8600, "/shipping-service/actuator/health"),
+    "payment-service": (8400, "/payment-service/actuator/health"),
+}
+
+COMMON_ARGS = [
+    "-Dspring.cloud.config.enabled=false",
+    "-Deureka.client.enabled=false",
+    "-Dspring.zipkin.enabled=false",
+]
+
+
+def command(service, mode):
+    if mode == "baseline":
+        jar = os.path.join(ROOT, service, "target", f"{service}-v{VERSION}.jar")
+        return ["java", *COMMON_ARGS, "-Dspring.profiles.active=dev", "-jar", jar], None
+    directory = os.path.join(ROOT, service, "target", "fast-start")
+    return [
+        "java", f"-XX:SharedArchiveFile={service}.jsa", "-Xshare:auto", *COMMON_ARGS,
+        "-Dspring.profiles.active=dev,fast-start", "-jar", f"{service}.jar",
+    ], directory
+
+
+def first_200(url, deadline):
+    while time.monotonic() < deadline:
+        try:
+            with urllib.request.urlopen(url, timeout=1) as response:
+                if response.status == 200:
+                    return True
+        except (urllib.error.URLError, ConnectionError, OSError):
+            pass
+        time.sleep(0.02)
+    return False
+
+
+def measure(service, mode, timeout):
+    port, path = SERVICES[service]
+    args, cwd = command(service, mode)
+    if not os.path.exists(os.path.join(cwd or "", args[-1])):
+        raise SystemExit(f"{args[-1]} not found, build the {mode} jar of {service} first")
+    env = dict(os.environ, SPRING_CONFIG_IMPORT="optional:file:./")
+    started = time.monotonic()
+    process = subprocess.Popen(args, cwd=cwd, env=env, stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL)
+    try:
+        ok = first_200(f"http://localhost:{port}{path}", started + timeout)
+        elapsed = (time.monotonic() - started) * 1000
+    finally:
+        process.terminate()
+        try:
+            process.wait(timeout=30)
+        except subprocess.TimeoutExpired:
+            process.kill()
+            process.wait()
+    if not ok:
+        raise SystemExit(f"{service} ({mode}) did not answer 200 on {path} within {timeout}s")
+    return elapsed
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("services", nargs="*", default=list(SERVICES), help="services to start (default: all)")
+    parser.add_argument("--runs", type=int, default=3, help="starts per service and mode")
+    parser.add_argument("--mode", choices=["baseline", "fast-start", "both"], default="both")
+    parser.add_argument("--timeout", type=int, default=180, help="seconds to wait for the first 200")
+    options = parser.parse_args()
+
+    modes = ["baseline", "fast-start"] if options.mode == "both" else [options.mode]
+    print(f"{'service':<20}{'mode':<12}{'median ms':>10}{'min ms':>10}{'max ms':>10}")
+    for service in options.services:
+        if service not in SERVICES:
+            raise SystemExit(f"unknown service {service}")
+        medians = {}
+        for mode in modes:
+            samples = [measure(service, mode, options.timeout) for _ in range(options.runs)]
+            medians[mode] = statistics.median(samples)
+            print(f"{service:<20}{mode:<12}{medians[mode]:>10.0f}{min(samples):>10.0f}{max(samples):>10.0f}")
+        if len(medians) == 2:
+            gain = 1 - medians["fast-start"] / medians["baseline"]
+            print(f"{service:<20}{'gain':<12}{gain:>10.0%}")
+        sys.stdout.flush()
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,73 @@
+package com.selimhorri.app.config.outbox;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.service.outbox.EventBroker;
+import com.selimhorri.app.service.outbox.InMemoryEventBroker;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
+import com.selimhorri.app.service.outbox.OutboxRelay;
+import com.selimhorri.app.service.outbox.RestEventBroker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OutboxProperties.class)
+@RequiredArgsConstructor
+public class OutboxConfig implements SchedulingConfigurer {
+	
+	private final OutboxProperties outboxProperties;
+	private final ObjectProvider<OutboxRelay> outboxRelay;
+	
+	@Bean
+	public OutboxPublisher outboxPublisherBean(final OutboxEventRepository outboxEventRepository,
+			final ObjectMapper objectMapper) {
+		return new OutboxPublisher(outboxEventRepository, objectMapper);
+	}
+	
+	@Bean
+	public EventBroker eventBrokerBean(final RestTemplate restTemplate) {
+		switch (this.outboxProperties.getBroker()) {
+			case REST:
+				return new RestEventBroker(restTemplate, this.outboxProperties.getSubscribers());
+			default:
+				return new InMemoryEventBroker();
+		}
+	}
+	
+	@Bean
+	public OutboxRelay outboxRelayBean(final OutboxEventRepository outboxEventRepository,
+			final EventBroker eventBroker, final PlatformTransactionManager transactionManager,
+			final ObjectMapper objectMapper, @Value("${spring.application.name}") final String source,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new OutboxRelay(outboxEventRepository, eventBroker, new TransactionTemplate(transactionManager),
+				objectMapper, source, this.outboxProperties.getBatchSize(), this.outboxProperties.getRetention(),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	@Override
+	public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+		if (this.outboxProperties.isRelayEnabled())
+			taskRegistrar.addFixedDelayTask(new IntervalTask(() -> this.outboxRelay.getObject().relay(),
+					this.outboxProperties.getRelayInterval().toMillis(),
+					this.outboxProperties.getRelayInitialDelay().toMillis()));
+	}
+	
+	
+	
+}
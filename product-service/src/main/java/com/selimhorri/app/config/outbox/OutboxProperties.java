@@ -0,0 +1,43 @@
+package com.selimhorri.app.config.outbox;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.outbox")
+@Data
+public class OutboxProperties {
+	
+	private boolean relayEnabled = true;
+	
+	private Duration relayInterval = Duration.ofMillis(500);
+	
+	/**
+	 * Delay before the first relay run, to keep it off the startup path.
+	 */
+	private Duration relayInitialDelay = Duration.ZERO;
+	
+	private int batchSize = 100;
+	
+	/**
+	 * How long published events are kept before being purged.
+	 */
+	private Duration retention = Duration.ofHours(1);
+	
+	private Broker broker = Broker.IN_MEMORY;
+	
+	/**
+	 * Endpoints receiving each batch when broker is REST.
+	 */
+	private List<String> subscribers = new ArrayList<>();
+	
+	public enum Broker {
+		IN_MEMORY,
+		REST;
+	}
+	
+}
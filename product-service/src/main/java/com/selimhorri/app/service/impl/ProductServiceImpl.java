@@ -3,15 +3,16 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.domain.ChangeType;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.helper.ProductMappingHelper;
 import com.selimhorri.app.repository.ProductRepository;
 import com.selimhorri.app.service.ProductService;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,19 +23,23 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 	
+	private static final String AGGREGATE_TYPE = "PRODUCT";
+	
 	private final ProductRepository productRepository;
+	private final OutboxPublisher outboxPublisher;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<ProductDto> findAll() {
 		log.info("*** ProductDto List, service; fetch all products *");
 		return this.productRepository.findAll()
 				.stream()
 					.map(ProductMappingHelper::map)
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public ProductDto findById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
 		return this.productRepository.findById(productId)
@@ -45,15 +50,15 @@ public class ProductServiceImpl implements ProductService {
 	@Override
 	public ProductDto save(final ProductDto productDto) {
 		log.info("*** ProductDto, service; save product *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		return this.published(ChangeType.CREATED, ProductMappingHelper.map(this.productRepository
+				.save(ProductMappingHelper.map(productDto))));
 	}
 	
 	@Override
 	public ProductDto update(final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		return this.published(ChangeType.UPDATED, ProductMappingHelper.map(this.productRepository
+				.save(ProductMappingHelper.map(productDto))));
 	}
 	
 	@Override
@@ -69,15 +74,21 @@ public class ProductServiceImpl implements ProductService {
 				.quantity(productDto.getQuantity())
 				.categoryDto(productDto.getCategoryDto())
 				.build();
-		return ProductMappingHelper.map(this.productRepository
-			.save(ProductMappingHelper.map(dtoToPersist)));
+		return this.published(ChangeType.UPDATED, ProductMappingHelper.map(this.productRepository
+			.save(ProductMappingHelper.map(dtoToPersist))));
 	}
 	
 	@Override
 	public void deleteById(final Integer productId) {
 		log.info("*** Void, service; delete product by id *");
-		this.productRepository.delete(ProductMappingHelper
-				.map(this.findById(productId)));
+		final ProductDto productDto = this.findById(productId);
+		this.productRepository.delete(ProductMappingHelper.map(productDto));
+		this.published(ChangeType.DELETED, productDto);
+	}
+	
+	private ProductDto published(final ChangeType changeType, final ProductDto productDto) {
+		this.outboxPublisher.append(AGGREGATE_TYPE, productDto.getProductId(), changeType, productDto);
+		return productDto;
 	}
 	
 	
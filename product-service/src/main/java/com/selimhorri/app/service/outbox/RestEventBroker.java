@@ -0,0 +1,29 @@
+package com.selimhorri.app.service.outbox;
+
+import java.util.List;
+
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.dto.ChangeEventDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Posts every batch to each subscriber endpoint through the load-balanced
+ * client; any failing subscriber fails the batch, so the others may see it
+ * again on retry.
+ */
+@RequiredArgsConstructor
+public class RestEventBroker implements EventBroker {
+	
+	private final RestTemplate restTemplate;
+	private final List<String> subscribers;
+	
+	@Override
+	public void publish(final List<ChangeEventDto> changeEvents) {
+		this.subscribers.forEach(url -> this.restTemplate.postForLocation(url, changeEvents));
+	}
+	
+	
+	
+}
@@ -11,10 +11,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.ChangeType;
+import com.selimhorri.app.domain.OutboxEvent;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
 import com.selimhorri.app.repository.ProductRepository;
 import com.selimhorri.app.service.ProductService;
 
@@ -31,7 +34,8 @@ import com.selimhorri.app.service.ProductService;
         "eureka.client.enabled=false",
         "spring.cloud.config.enabled=false",
         "spring.cloud.discovery.enabled=false",
-        "server.servlet.context-path="
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false"
 })
 class ProductServiceIntegrationTest {
 
@@ -44,6 +48,9 @@ class ProductServiceIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     private Category persistedCategory;
     private Product persistedProduct;
 
@@ -51,6 +58,7 @@ class ProductServiceIntegrationTest {
     void setUp() {
         this.productRepository.deleteAll();
         this.categoryRepository.deleteAll();
+        this.outboxEventRepository.deleteAll();
 
         this.persistedCategory = this.categoryRepository.save(Category.builder()
                 .categoryTitle("Audio")
@@ -107,6 +115,11 @@ class ProductServiceIntegrationTest {
         Optional<Product> persisted = this.productRepository.findById(saved.getProductId());
         assertThat(persisted).isPresent();
         assertThat(persisted.get().getSku()).isEqualTo("HPH-002");
+        List<OutboxEvent> events = this.outboxEventRepository.findAll();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getAggregateId()).isEqualTo(String.valueOf(saved.getProductId()));
+        assertThat(events.get(0).getChangeType()).isEqualTo(ChangeType.CREATED);
+        assertThat(events.get(0).getPayload()).contains("HPH-002");
     }
 
     @Test
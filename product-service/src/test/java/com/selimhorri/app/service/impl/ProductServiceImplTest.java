@@ -3,6 +3,7 @@ package com.selimhorri.app.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,12 +18,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.ChangeType;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.repository.ProductRepository;
 import com.selimhorri.app.service.ProductService;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceImplTest {
@@ -30,11 +33,14 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
-        this.productService = new ProductServiceImpl(this.productRepository);
+        this.productService = new ProductServiceImpl(this.productRepository, this.outboxPublisher);
     }
 
     @Test
@@ -87,6 +93,7 @@ class ProductServiceImplTest {
         assertThat(saved.getCategory().getCategoryId()).isEqualTo(payload.getCategoryDto().getCategoryId());
 
         assertThat(result.getProductId()).isEqualTo(persisted.getProductId());
+        verify(this.outboxPublisher).append("PRODUCT", 3, ChangeType.CREATED, result);
     }
 
     @Test
@@ -140,6 +147,7 @@ class ProductServiceImplTest {
         Product deleted = captor.getValue();
         assertThat(deleted.getProductId()).isEqualTo(existing.getProductId());
         assertThat(deleted.getSku()).isEqualTo(existing.getSku());
+        verify(this.outboxPublisher).append(eq("PRODUCT"), eq(11), eq(ChangeType.DELETED), any());
     }
 
     private static Product buildProduct(Integer id, String title, String sku, Double price, Integer quantity, Category category) {
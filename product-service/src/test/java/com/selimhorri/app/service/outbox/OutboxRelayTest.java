@@ -0,0 +1,103 @@
+package com.selimhorri.app.service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.domain.ChangeType;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.dto.ChangeEventDto;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private EventBroker eventBroker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.outboxRelay = new OutboxRelay(this.outboxEventRepository, this.eventBroker, new TransactionTemplate(this.transactionManager),
+                new ObjectMapper(), "PRODUCT-SERVICE", 2, Duration.ofHours(1), this.meterRegistry);
+    }
+
+    @Test
+    void relayShouldPublishBatchInOrderAndMarkItPublished() {
+        OutboxEvent first = buildEvent(1L, ChangeType.CREATED);
+        OutboxEvent second = buildEvent(2L, ChangeType.UPDATED);
+        when(this.outboxEventRepository.findByPublishedAtIsNullOrderByEventIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        InMemoryEventBroker broker = new InMemoryEventBroker();
+        List<ChangeEventDto> received = new ArrayList<>();
+        broker.subscribe(received::add);
+        OutboxRelay relay = new OutboxRelay(this.outboxEventRepository, broker, new TransactionTemplate(this.transactionManager),
+                new ObjectMapper(), "PRODUCT-SERVICE", 2, Duration.ofHours(1), this.meterRegistry);
+
+        int published = relay.relay();
+
+        assertThat(published).isEqualTo(2);
+        assertThat(received).extracting(ChangeEventDto::getEventId).containsExactly(1L, 2L);
+        assertThat(received.get(0).getPayload().get("productId").asInt()).isEqualTo(5);
+        assertThat(received.get(0).getSource()).isEqualTo("PRODUCT-SERVICE");
+        assertThat(first.getPublishedAt()).isNotNull();
+        assertThat(second.getPublishedAt()).isNotNull();
+        assertThat(this.meterRegistry.get("outbox.events.published").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void relayShouldLeaveBatchUnpublishedAndBackOffWhenBrokerFails() {
+        OutboxEvent event = buildEvent(3L, ChangeType.DELETED);
+        when(this.outboxEventRepository.findByPublishedAtIsNullOrderByEventIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event));
+        doThrow(new ResourceAccessException("subscriber down")).when(this.eventBroker).publish(any());
+
+        assertThat(this.outboxRelay.relay()).isZero();
+        assertThat(this.outboxRelay.relay()).isZero();
+
+        assertThat(event.getPublishedAt()).isNull();
+        verify(this.eventBroker).publish(any());
+        assertThat(this.meterRegistry.get("outbox.relay.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    private static OutboxEvent buildEvent(Long eventId, ChangeType changeType) {
+        return OutboxEvent.builder()
+                .eventId(eventId)
+                .aggregateType("PRODUCT")
+                .aggregateId("5")
+                .changeType(changeType)
+                .payload("{\"productId\":5}")
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,44 +1,116 @@
 package com.selimhorri.app.business.auth.service.impl;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.stereotype.Service;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.client.HttpClientErrorException;
 
 import com.selimhorri.app.business.auth.model.request.AuthenticationRequest;
 import com.selimhorri.app.business.auth.model.response.AuthenticationResponse;
 import com.selimhorri.app.business.auth.service.AuthenticationService;
 import com.selimhorri.app.exception.wrapper.IllegalAuthenticationCredentialsException;
+import com.selimhorri.app.exception.wrapper.LoginUnavailableException;
 import com.selimhorri.app.jwt.service.JwtService;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
-@Service
+/**
+ * Logs a user in with a single credential fetch: the same user details are
+ * checked for account status, matched against the password and turned into
+ * the token.
+ *
+ * The hash check runs on the bounded password hash executor, so a burst of
+ * logins waits there rather than on request threads; once its queue is full,
+ * or the hash takes longer than {@code hashTimeout}, the login is refused with
+ * {@link LoginUnavailableException}. Every login is timed as {@code login}
+ * tagged with its outcome.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class AuthenticationServiceImpl implements AuthenticationService {
 	
-	private final AuthenticationManager authenticationManager;
+	static final String SUCCESS = "success";
+	static final String BAD_CREDENTIALS = "bad_credentials";
+	static final String ACCOUNT_STATUS = "account_status";
+	static final String REJECTED = "rejected";
+	static final String TIMEOUT = "timeout";
+	static final String ERROR = "error";
+	
 	private final UserDetailsService userDetailsService;
+	private final PasswordEncoder passwordEncoder;
 	private final JwtService jwtService;
+	private final ExecutorService passwordHashExecutor;
+	private final Duration hashTimeout;
+	private final MeterRegistry meterRegistry;
+	private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+	
+	public AuthenticationServiceImpl(final UserDetailsService userDetailsService,
+			final PasswordEncoder passwordEncoder,
+			final JwtService jwtService,
+			final ExecutorService passwordHashExecutor,
+			final Duration hashTimeout,
+			final MeterRegistry meterRegistry) {
+		this.userDetailsService = userDetailsService;
+		this.passwordEncoder = passwordEncoder;
+		this.jwtService = jwtService;
+		this.passwordHashExecutor = passwordHashExecutor;
+		this.hashTimeout = hashTimeout;
+		this.meterRegistry = meterRegistry;
+	}
 	
 	@Override
 	public AuthenticationResponse authenticate(final AuthenticationRequest authenticationRequest) {
-		
+	
 		log.info("** AuthenticationResponse, authenticate user service*\n");
-		
+	
+		final long started = System.nanoTime();
+		String outcome = ERROR;
 		try {
-			this.authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-					authenticationRequest.getUsername(), authenticationRequest.getPassword()));
+			final UserDetails userDetails = this.loadUser(authenticationRequest.getUsername());
+			if (userDetails == null) {
+				outcome = BAD_CREDENTIALS;
+				throw new IllegalAuthenticationCredentialsException("#### Bad credentials! ####");
+			}
+			try {
+				this.userDetailsChecker.check(userDetails);
+			}
+			catch (AccountStatusException e) {
+				outcome = ACCOUNT_STATUS;
+				throw e;
+			}
+			if (!this.matches(authenticationRequest.getPassword(), userDetails.getPassword())) {
+				outcome = BAD_CREDENTIALS;
+				throw new IllegalAuthenticationCredentialsException("#### Bad credentials! ####");
+			}
+			final AuthenticationResponse response = new AuthenticationResponse(this.jwtService
+					.generateToken(userDetails));
+			outcome = SUCCESS;
+			return response;
 		}
-		catch (BadCredentialsException e) {
-			throw new IllegalAuthenticationCredentialsException("#### Bad credentials! ####");
+		catch (LoginUnavailableException e) {
+			outcome = (e.getCause() instanceof TimeoutException) ? TIMEOUT : REJECTED;
+			throw e;
+		}
+		finally {
+			Timer.builder("login")
+					.description("Logins, credential fetch and password hash check included")
+					.tag("outcome", outcome)
+					.register(this.meterRegistry)
+					.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 		}
-		
-		return new AuthenticationResponse(this.jwtService.generateToken(this.userDetailsService
-				.loadUserByUsername(authenticationRequest.getUsername())));
 	}
 	
 	@Override
@@ -46,6 +118,43 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 		return null;
 	}
 	
+	/**
+	 * Unknown users come back as null, to be answered like a wrong password.
+	 */
+	private UserDetails loadUser(final String username) {
+		try {
+			return this.userDetailsService.loadUserByUsername(username);
+		}
+		catch (UsernameNotFoundException | HttpClientErrorException e) {
+			return null;
+		}
+	}
+	
+	private boolean matches(final String rawPassword, final String encodedPassword) {
+		final Future<Boolean> match;
+		try {
+			match = this.passwordHashExecutor.submit(() -> this.passwordEncoder.matches(rawPassword, encodedPassword));
+		}
+		catch (RejectedExecutionException e) {
+			throw new LoginUnavailableException("#### Too many logins in progress, retry later ####", e);
+		}
+		try {
+			return match.get(this.hashTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			match.cancel(true);
+			throw new LoginUnavailableException("#### Too many logins in progress, retry later ####", e);
+		}
+		catch (InterruptedException e) {
+			match.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new LoginUnavailableException("#### Login interrupted ####", e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("#### Password hash check failed ####", e.getCause());
+		}
+	}
+	
 	
 	
 }
\ No newline at end of file
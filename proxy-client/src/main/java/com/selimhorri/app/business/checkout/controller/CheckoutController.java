@@ -0,0 +1,42 @@
+package com.selimhorri.app.business.checkout.controller;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.checkout.model.CheckoutDto;
+import com.selimhorri.app.business.checkout.service.CheckoutService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/checkout")
+@RequiredArgsConstructor
+public class CheckoutController {
+	
+	private final CheckoutService checkoutService;
+	
+	@GetMapping("/{orderId}")
+	public ResponseEntity<CheckoutDto> findByOrderId(
+			@PathVariable("orderId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String orderId) {
+		return ResponseEntity.ok(this.checkoutService.findByOrderId(orderId));
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,65 @@
+package com.selimhorri.app.business.checkout.model;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.orderItem.model.OrderItemsByOrderDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything a checkout page needs for one order. A branch that failed or timed
+ * out is left null and listed in {@code failures} with the reason, and the
+ * response is flagged {@code partial}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class CheckoutDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@JsonProperty("order")
+	private OrderDto orderDto;
+	
+	@JsonProperty("cart")
+	private CartDto cartDto;
+	
+	@JsonProperty("orderItems")
+	private OrderItemsByOrderDto orderItemsDto;
+	
+	@JsonProperty("products")
+	private List<ProductDto> productDtos;
+	
+	@JsonProperty("payments")
+	private Collection<PaymentDto> paymentDtos;
+	
+	private boolean partial;
+	
+	private Map<String, String> failures;
+	
+}
+
+
+
+
+
+
+
+
+
+
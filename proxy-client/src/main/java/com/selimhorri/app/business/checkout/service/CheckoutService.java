@@ -0,0 +1,9 @@
+package com.selimhorri.app.business.checkout.service;
+
+import com.selimhorri.app.business.checkout.model.CheckoutDto;
+
+public interface CheckoutService {
+	
+	CheckoutDto findByOrderId(final String orderId);
+	
+}
@@ -0,0 +1,224 @@
+package com.selimhorri.app.business.checkout.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+
+import com.selimhorri.app.business.checkout.model.CheckoutDto;
+import com.selimhorri.app.business.checkout.service.CheckoutService;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.model.OrderItemsByOrderDto;
+import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.config.checkout.CheckoutProperties;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the checkout view of an order with as few round trips in sequence as
+ * the data allows: order, order items and payments are fetched concurrently,
+ * the cart as soon as the order names it and the products as soon as the items
+ * are known, so the page waits for roughly the slowest of
+ * {@code order + cart}, {@code items + products} and {@code payments}.
+ *
+ * Every call runs on the bounded checkout executor with its own timeout. A call
+ * that fails, times out or finds the executor full leaves its part of the
+ * response empty instead of failing the whole checkout. A timeout stops waiting
+ * and frees a queued call, but cannot abort an HTTP call already in flight.
+ */
+@Slf4j
+public class CheckoutServiceImpl implements CheckoutService {
+	
+	static final String ORDER = "order";
+	static final String CART = "cart";
+	static final String ORDER_ITEMS = "orderItems";
+	static final String PRODUCTS = "products";
+	static final String PAYMENTS = "payments";
+	
+	private final OrderClientService orderClientService;
+	private final CartClientService cartClientService;
+	private final OrderItemClientService orderItemClientService;
+	private final ProductClientService productClientService;
+	private final PaymentClientService paymentClientService;
+	private final ExecutorService executor;
+	private final CheckoutProperties properties;
+	private final MeterRegistry meterRegistry;
+	
+	public CheckoutServiceImpl(final OrderClientService orderClientService,
+			final CartClientService cartClientService,
+			final OrderItemClientService orderItemClientService,
+			final ProductClientService productClientService,
+			final PaymentClientService paymentClientService,
+			final ExecutorService executor,
+			final CheckoutProperties properties,
+			final MeterRegistry meterRegistry) {
+		this.orderClientService = orderClientService;
+		this.cartClientService = cartClientService;
+		this.orderItemClientService = orderItemClientService;
+		this.productClientService = productClientService;
+		this.paymentClientService = paymentClientService;
+		this.executor = executor;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+	
+	@Override
+	public CheckoutDto findByOrderId(final String orderId) {
+		log.info("*** CheckoutDto, service; fetch checkout by order id *");
+		final Map<String, String> failures = new ConcurrentHashMap<>();
+	
+		final CompletableFuture<OrderDto> order = this.branch(ORDER, ORDER,
+				() -> body(this.orderClientService.findById(orderId)), failures);
+		final CompletableFuture<OrderItemsByOrderDto> orderItems = this.branch(ORDER_ITEMS, ORDER_ITEMS,
+				() -> body(this.orderItemClientService.findByOrderId(orderId)), failures);
+		final CompletableFuture<Collection<PaymentDto>> payments = this.branch(PAYMENTS, PAYMENTS,
+				() -> collection(this.paymentClientService.findByOrderId(orderId)), failures);
+	
+		final CompletableFuture<CartDto> cart = order.thenCompose(orderDto -> {
+			if (orderDto == null || orderDto.getCartDto() == null || orderDto.getCartDto().getCartId() == null)
+				return CompletableFuture.completedFuture(null);
+			final String cartId = String.valueOf(orderDto.getCartDto().getCartId());
+			return this.branch(CART, CART, () -> body(this.cartClientService.findById(cartId)), failures);
+		});
+		final CompletableFuture<List<ProductDto>> products = orderItems
+				.thenCompose(orderItemsDto -> this.products(orderItemsDto, failures));
+	
+		// every branch completes normally within its own timeout, failures included
+		CompletableFuture.allOf(cart, products, payments).join();
+	
+		return CheckoutDto.builder()
+				.orderDto(order.join())
+				.cartDto(cart.join())
+				.orderItemsDto(orderItems.join())
+				.productDtos(products.join())
+				.paymentDtos(payments.join())
+				.partial(!failures.isEmpty())
+				.failures(failures.isEmpty() ? null : new TreeMap<>(failures))
+				.build();
+	}
+	
+	private CompletableFuture<List<ProductDto>> products(final OrderItemsByOrderDto orderItemsDto,
+			final Map<String, String> failures) {
+		if (orderItemsDto == null || orderItemsDto.getOrderItemDtos() == null)
+			return CompletableFuture.completedFuture(null);
+		final List<CompletableFuture<ProductDto>> products = orderItemsDto.getOrderItemDtos().stream()
+				.map(OrderItemDto::getProductId)
+				.filter(Objects::nonNull)
+				.distinct()
+				.map(productId -> this.branch(PRODUCTS, PRODUCTS + "." + productId,
+						() -> body(this.productClientService.findById(String.valueOf(productId))), failures))
+				.collect(Collectors.toUnmodifiableList());
+		return CompletableFuture.allOf(products.toArray(CompletableFuture[]::new))
+				.thenApply(done -> products.stream()
+						.map(CompletableFuture::join)
+						.filter(Objects::nonNull)
+						.collect(Collectors.toUnmodifiableList()));
+	}
+	
+	/**
+	 * Runs one remote call on the checkout executor. The returned future always
+	 * completes normally, with null when the call did not produce a result in
+	 * time; the reason is then recorded under {@code key}.
+	 */
+	private <T> CompletableFuture<T> branch(final String branch, final String key, final Supplier<T> call,
+			final Map<String, String> failures) {
+		final Timer.Sample sample = Timer.start(this.meterRegistry);
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		Future<?> task = null;
+		try {
+			task = this.executor.submit(() -> {
+				try {
+					result.complete(call.get());
+				}
+				catch (RuntimeException e) {
+					result.completeExceptionally(e);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			result.completeExceptionally(e);
+		}
+		final Future<?> submitted = task;
+		return result
+				.orTimeout(this.properties.timeoutOf(branch).toMillis(), TimeUnit.MILLISECONDS)
+				.handle((value, error) -> {
+					final String outcome = outcome(error);
+					sample.stop(this.meterRegistry.timer("checkout.branch", "branch", branch, "outcome", outcome));
+					if (error == null)
+						return value;
+					if (submitted != null)
+						submitted.cancel(true);
+					failures.put(key, reason(outcome, error));
+					log.warn("*** CheckoutDto, service; checkout branch {} {} *", key, outcome);
+					return null;
+				});
+	}
+	
+	private static String outcome(final Throwable error) {
+		final Throwable cause = unwrap(error);
+		if (cause == null)
+			return "success";
+		if (cause instanceof TimeoutException)
+			return "timeout";
+		if (cause instanceof RejectedExecutionException)
+			return "rejected";
+		return "error";
+	}
+	
+	private static String reason(final String outcome, final Throwable error) {
+		final Throwable cause = unwrap(error);
+		return (cause instanceof FeignException) ? outcome + " " + ((FeignException) cause).status() : outcome;
+	}
+	
+	private static Throwable unwrap(final Throwable error) {
+		return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+	}
+	
+	private static <T> T body(final ResponseEntity<T> response) {
+		return (response == null) ? null : response.getBody();
+	}
+	
+	private static Collection<PaymentDto> collection(
+			final ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> response) {
+		final PaymentPaymentServiceDtoCollectionResponse body = body(response);
+		return (body == null) ? null : body.getCollection();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
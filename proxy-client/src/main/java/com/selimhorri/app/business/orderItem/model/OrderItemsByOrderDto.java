@@ -0,0 +1,38 @@
+package com.selimhorri.app.business.orderItem.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderItemsByOrderDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer orderId;
+	private Long itemCount;
+	private Long quantitySum;
+	
+	@JsonProperty("items")
+	private List<OrderItemDto> orderItemDtos;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -9,7 +9,8 @@ public enum PaymentStatus {
 	
 	NOT_STARTED("not_started"),
 	IN_PROGRESS("in_progress"),
-	COMPLETED("completed");
+	COMPLETED("completed"),
+	FAILED("failed");
 	
 	private final String status;
 	
@@ -28,6 +28,12 @@ public interface PaymentClientService {
 			@NotBlank(message = "Input must not be blank!") 
 			@Valid final String paymentId);
 	
+	@GetMapping("/order/{orderId}")
+	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findByOrderId(
+			@PathVariable("orderId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String orderId);
+	
 	@PostMapping
 	public ResponseEntity<PaymentDto> save(
 			@RequestBody 
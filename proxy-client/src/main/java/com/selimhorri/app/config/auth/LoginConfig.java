@@ -0,0 +1,66 @@
+package com.selimhorri.app.config.auth;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.selimhorri.app.business.auth.service.AuthenticationService;
+import com.selimhorri.app.business.auth.service.impl.AuthenticationServiceImpl;
+import com.selimhorri.app.jwt.service.JwtService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(LoginProperties.class)
+public class LoginConfig {
+	
+	/**
+	 * Bounded pool for password hash checks, kept apart from the request threads
+	 * so a login storm queues here and is refused once the queue is full. Queue
+	 * depth and wait time are exported as executor.queued and executor.idle with
+	 * name=login.
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService passwordHashExecutor(final LoginProperties properties,
+			final BeanFactory beanFactory,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getHashThreads(),
+				properties.getHashThreads(), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(properties.getHashQueueCapacity()),
+				new CustomizableThreadFactory("password-hash-"), new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		new ExecutorServiceMetrics(executor, "login", List.of())
+				.bindTo(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+		return new TraceableExecutorService(beanFactory, executor);
+	}
+	
+	@Bean
+	public AuthenticationService authenticationService(final UserDetailsService userDetailsService,
+			final PasswordEncoder passwordEncoder,
+			final JwtService jwtService,
+			@Qualifier("passwordHashExecutor") final ExecutorService passwordHashExecutor,
+			final LoginProperties properties,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new AuthenticationServiceImpl(userDetailsService, passwordEncoder, jwtService,
+				passwordHashExecutor, properties.getHashTimeout(),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	
+	
+}
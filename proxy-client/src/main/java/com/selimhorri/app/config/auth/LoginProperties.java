@@ -0,0 +1,30 @@
+package com.selimhorri.app.config.auth;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.login")
+@Data
+public class LoginProperties {
+	
+	/**
+	 * Threads verifying password hashes; hashing is CPU bound, so more threads
+	 * than cores only adds contention.
+	 */
+	private int hashThreads = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Logins waiting for a hash thread; beyond that a login is refused with 503
+	 * instead of tying up a request thread.
+	 */
+	private int hashQueueCapacity = 32;
+	
+	/**
+	 * Longest a request thread waits for its hash, queueing included.
+	 */
+	private Duration hashTimeout = Duration.ofSeconds(2);
+	
+}
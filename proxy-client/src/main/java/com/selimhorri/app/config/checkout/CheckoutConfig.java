@@ -0,0 +1,68 @@
+package com.selimhorri.app.config.checkout;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.selimhorri.app.business.checkout.service.CheckoutService;
+import com.selimhorri.app.business.checkout.service.impl.CheckoutServiceImpl;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.product.service.ProductClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(CheckoutProperties.class)
+public class CheckoutConfig {
+	
+	/**
+	 * Bounded pool for checkout fan-outs: a full queue rejects new calls rather
+	 * than letting slow downstream services pile up work. Tasks carry the
+	 * caller's trace so the downstream spans stay in one trace.
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService checkoutExecutor(final CheckoutProperties properties,
+			final BeanFactory beanFactory,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+				60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+				new CustomizableThreadFactory("checkout-"), new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		new ExecutorServiceMetrics(executor, "checkout", List.of())
+				.bindTo(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+		return new TraceableExecutorService(beanFactory, executor);
+	}
+	
+	@Bean
+	public CheckoutService checkoutService(final OrderClientService orderClientService,
+			final CartClientService cartClientService,
+			final OrderItemClientService orderItemClientService,
+			final ProductClientService productClientService,
+			final PaymentClientService paymentClientService,
+			@Qualifier("checkoutExecutor") final ExecutorService checkoutExecutor,
+			final CheckoutProperties properties,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new CheckoutServiceImpl(orderClientService, cartClientService, orderItemClientService,
+				productClientService, paymentClientService, checkoutExecutor, properties,
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	
+	
+}
@@ -0,0 +1,38 @@
+package com.selimhorri.app.config.checkout;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.checkout")
+@Data
+public class CheckoutProperties {
+	
+	/**
+	 * Worker threads shared by all checkout fan-outs.
+	 */
+	private int threads = 16;
+	
+	/**
+	 * Calls waiting for a worker; beyond that a branch is rejected and reported as
+	 * a partial result instead of queueing behind slow services.
+	 */
+	private int queueCapacity = 64;
+	
+	private Duration defaultTimeout = Duration.ofSeconds(2);
+	
+	/**
+	 * Per-branch overrides of {@code default-timeout}, keyed by order, cart,
+	 * orderItems, products or payments.
+	 */
+	private Map<String, Duration> timeouts = new HashMap<>();
+	
+	public Duration timeoutOf(final String branch) {
+		return this.timeouts.getOrDefault(branch, this.defaultTimeout);
+	}
+	
+}
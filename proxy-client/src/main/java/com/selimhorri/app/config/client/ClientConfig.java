@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.client;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import feign.RequestInterceptor;
+
+@Configuration
+public class ClientConfig {
+	
+	@Bean
+	public RequestInterceptor smileAcceptRequestInterceptor() {
+		return new SmileAcceptRequestInterceptor();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.client;
+
+import org.springframework.http.HttpHeaders;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Asks the domain services for Smile, the binary form of JSON, on every Feign
+ * call that does not set its own Accept header; all Feign clients read Jackson
+ * types, which the Smile converter decodes. JSON stays acceptable at a lower
+ * quality, so a service that cannot write Smile still answers.
+ */
+public class SmileAcceptRequestInterceptor implements RequestInterceptor {
+	
+	static final String ACCEPT = "application/x-jackson-smile, application/json;q=0.9";
+	
+	@Override
+	public void apply(final RequestTemplate template) {
+		if (!template.headers().containsKey(HttpHeaders.ACCEPT))
+			template.header(HttpHeaders.ACCEPT, ACCEPT);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -32,8 +32,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain) 
 			throws ServletException, IOException {
 		
-		log.info("**JwtRequestFilter, once per request, validating and extracting token*\n");
-		log.info("Request URI: {}", request.getRequestURI());
+		log.debug("**JwtRequestFilter, once per request, validating and extracting token*\n");
+		log.debug("Request URI: {}", request.getRequestURI());
 		
 		// Skip JWT validation for authentication endpoints
 		String requestPath = request.getRequestURI();
@@ -43,7 +43,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 		    requestPath.contains("/v3/api-docs") ||
 		    requestPath.contains("/api/categories") ||
 		    requestPath.contains("/api/products")) {
-			log.info("**Skipping JWT filter for public endpoint: {}*\n", requestPath);
+			log.debug("**Skipping JWT filter for public endpoint: {}*\n", requestPath);
 			filterChain.doFilter(request, response);
 			return;
 		}
@@ -72,7 +72,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 		}
 		
 		filterChain.doFilter(request, response);
-		log.info("**Jwt request filtered!*\n");
+		log.debug("**Jwt request filtered!*\n");
 	}
 	
 	
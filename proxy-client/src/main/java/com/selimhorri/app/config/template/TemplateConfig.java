@@ -5,13 +5,17 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.config.client.SmileAcceptClientHttpRequestInterceptor;
+
 @Configuration
 public class TemplateConfig {
 	
 	@LoadBalanced
 	@Bean
 	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+		final var restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add(new SmileAcceptClientHttpRequestInterceptor());
+		return restTemplate;
 	}
 	
 	
@@ -1,19 +1,24 @@
 package com.selimhorri.app.exception;
 
+import java.io.IOException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CredentialNotFoundException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.LoginUnavailableException;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.exception.wrapper.VerificationTokenNotFoundException;
 
@@ -28,6 +33,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ApiExceptionHandler {
 	
+	private static final ObjectMapper SMILE_MAPPER = Jackson2ObjectMapperBuilder.smile().build();
+	
 	@ExceptionHandler(value = {
 		FeignClientException.class,
 		FeignServerException.class,
@@ -40,7 +47,7 @@ public class ApiExceptionHandler {
 		
 		return new ResponseEntity<>(
 				ExceptionMsg.builder()
-					.msg(e.contentUTF8())
+					.msg(errorBody(e))
 					.httpStatus(badRequest)
 					.timestamp(ZonedDateTime
 							.now(ZoneId.systemDefault()))
@@ -86,6 +93,39 @@ public class ApiExceptionHandler {
 					.build(), badRequest);
 	}
 	
+	@ExceptionHandler(value = LoginUnavailableException.class)
+	public ResponseEntity<ExceptionMsg> handleLoginUnavailableException(final LoginUnavailableException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle login unavailable*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+		final var headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "1");
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg(e.getMessage())
+					.httpStatus(serviceUnavailable)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), headers, serviceUnavailable);
+	}
+	
+	/**
+	 * Downstream errors come in the format the call asked for; Smile bodies, told
+	 * apart by their ":)\n" header, are turned back into JSON text for the caller.
+	 */
+	private static String errorBody(final FeignException e) {
+		final byte[] content = e.content();
+		if (content == null || content.length < 3 || content[0] != ':' || content[1] != ')' || content[2] != '\n')
+			return e.contentUTF8();
+		try {
+			return SMILE_MAPPER.readTree(content).toString();
+		}
+		catch (IOException ex) {
+			return e.contentUTF8();
+		}
+	}
+	
 	
 	
 }
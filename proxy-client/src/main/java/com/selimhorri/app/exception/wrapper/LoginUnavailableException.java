@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class LoginUnavailableException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public LoginUnavailableException() {
+		super();
+	}
+	
+	public LoginUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public LoginUnavailableException(String message) {
+		super(message);
+	}
+	
+	public LoginUnavailableException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,164 @@
+package com.selimhorri.app.business.auth.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.selimhorri.app.business.auth.model.request.AuthenticationRequest;
+import com.selimhorri.app.exception.wrapper.IllegalAuthenticationCredentialsException;
+import com.selimhorri.app.exception.wrapper.LoginUnavailableException;
+import com.selimhorri.app.jwt.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceImplTest {
+
+    private static final UserDetails USER = User.withUsername("selim")
+            .password("{hash}")
+            .roles("USER")
+            .build();
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JwtService jwtService;
+
+    private ThreadPoolExecutor executor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void authenticateShouldFetchTheCredentialOnceAndReuseItForTheToken() {
+        when(this.userDetailsService.loadUserByUsername("selim")).thenReturn(USER);
+        when(this.passwordEncoder.matches("secret", "{hash}")).thenReturn(true);
+        when(this.jwtService.generateToken(USER)).thenReturn("jwt");
+
+        assertThat(service(Duration.ofSeconds(5)).authenticate(request("selim", "secret")).getJwtToken())
+                .isEqualTo("jwt");
+        verify(this.userDetailsService, times(1)).loadUserByUsername(anyString());
+        assertThat(loginCount(AuthenticationServiceImpl.SUCCESS)).isEqualTo(1);
+    }
+
+    @Test
+    void authenticateShouldRefuseAWrongPassword() {
+        when(this.userDetailsService.loadUserByUsername("selim")).thenReturn(USER);
+        when(this.passwordEncoder.matches("wrong", "{hash}")).thenReturn(false);
+
+        assertThatThrownBy(() -> service(Duration.ofSeconds(5)).authenticate(request("selim", "wrong")))
+                .isInstanceOf(IllegalAuthenticationCredentialsException.class);
+        verify(this.jwtService, never()).generateToken(any());
+        assertThat(loginCount(AuthenticationServiceImpl.BAD_CREDENTIALS)).isEqualTo(1);
+    }
+
+    @Test
+    void authenticateShouldAnswerAnUnknownUserLikeAWrongPassword() {
+        when(this.userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+
+        assertThatThrownBy(() -> service(Duration.ofSeconds(5)).authenticate(request("ghost", "secret")))
+                .isInstanceOf(IllegalAuthenticationCredentialsException.class);
+        verify(this.passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void authenticateShouldBeRefusedWhenTheHashQueueIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        this.executor.execute(() -> await(release));
+        this.executor.execute(() -> await(release));
+        when(this.userDetailsService.loadUserByUsername("selim")).thenReturn(USER);
+
+        try {
+            assertThatThrownBy(() -> service(Duration.ofSeconds(5)).authenticate(request("selim", "secret")))
+                    .isInstanceOf(LoginUnavailableException.class);
+        }
+        finally {
+            release.countDown();
+        }
+        verify(this.passwordEncoder, never()).matches(any(), any());
+        assertThat(loginCount(AuthenticationServiceImpl.REJECTED)).isEqualTo(1);
+    }
+
+    @Test
+    void authenticateShouldGiveUpOnASlowHash() {
+        final CountDownLatch release = new CountDownLatch(1);
+        when(this.userDetailsService.loadUserByUsername("selim")).thenReturn(USER);
+        when(this.passwordEncoder.matches("secret", "{hash}")).thenAnswer(invocation -> {
+            await(release);
+            return true;
+        });
+
+        try {
+            assertThatThrownBy(() -> service(Duration.ofMillis(50)).authenticate(request("selim", "secret")))
+                    .isInstanceOf(LoginUnavailableException.class);
+        }
+        finally {
+            release.countDown();
+        }
+        verify(this.jwtService, never()).generateToken(any());
+        assertThat(loginCount(AuthenticationServiceImpl.TIMEOUT)).isEqualTo(1);
+    }
+
+    private AuthenticationServiceImpl service(final Duration hashTimeout) {
+        return new AuthenticationServiceImpl(this.userDetailsService, this.passwordEncoder, this.jwtService,
+                this.executor, hashTimeout, this.meterRegistry);
+    }
+
+    private long loginCount(final String outcome) {
+        return this.meterRegistry.get("login").tag("outcome", outcome).timer().count();
+    }
+
+    private static AuthenticationRequest request(final String username, final String password) {
+        return AuthenticationRequest.builder()
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
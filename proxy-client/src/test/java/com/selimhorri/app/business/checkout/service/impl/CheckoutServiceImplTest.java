@@ -0,0 +1,206 @@
+package com.selimhorri.app.business.checkout.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import com.selimhorri.app.business.checkout.model.CheckoutDto;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.model.OrderItemsByOrderDto;
+import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.config.checkout.CheckoutProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutServiceImplTest {
+
+    @Mock
+    private OrderClientService orderClientService;
+
+    @Mock
+    private CartClientService cartClientService;
+
+    @Mock
+    private OrderItemClientService orderItemClientService;
+
+    @Mock
+    private ProductClientService productClientService;
+
+    @Mock
+    private PaymentClientService paymentClientService;
+
+    private ExecutorService executor;
+
+    private CheckoutProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CheckoutServiceImpl checkoutService;
+
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newFixedThreadPool(8);
+        this.properties = new CheckoutProperties();
+        this.properties.setDefaultTimeout(Duration.ofSeconds(2));
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.checkoutService = newService(this.executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void findByOrderIdShouldComposeAllBranches() {
+        stubOrder();
+        stubCart();
+        stubOrderItems(5, 5, 7);
+        stubProduct(5);
+        stubProduct(7);
+        stubPayments();
+
+        CheckoutDto checkout = this.checkoutService.findByOrderId("10");
+
+        assertThat(checkout.isPartial()).isFalse();
+        assertThat(checkout.getFailures()).isNull();
+        assertThat(checkout.getOrderDto().getOrderId()).isEqualTo(10);
+        assertThat(checkout.getCartDto().getUserId()).isEqualTo(3);
+        assertThat(checkout.getOrderItemsDto().getOrderItemDtos()).hasSize(3);
+        assertThat(checkout.getProductDtos()).extracting(ProductDto::getProductId).containsExactly(5, 7);
+        assertThat(checkout.getPaymentDtos()).hasSize(1);
+        verify(this.productClientService, times(1)).findById("5");
+        assertThat(this.meterRegistry.get("checkout.branch").tag("branch", "products").tag("outcome", "success")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void findByOrderIdShouldReturnPartialResultWhenBranchTimesOut() {
+        this.properties.getTimeouts().put(CheckoutServiceImpl.PAYMENTS, Duration.ofMillis(100));
+        stubOrder();
+        stubCart();
+        stubOrderItems(5);
+        stubProduct(5);
+        when(this.paymentClientService.findByOrderId("10")).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return ResponseEntity.ok(new PaymentPaymentServiceDtoCollectionResponse(List.of()));
+        });
+
+        long start = System.nanoTime();
+        CheckoutDto checkout = this.checkoutService.findByOrderId("10");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(checkout.isPartial()).isTrue();
+        assertThat(checkout.getFailures()).containsEntry(CheckoutServiceImpl.PAYMENTS, "timeout");
+        assertThat(checkout.getPaymentDtos()).isNull();
+        assertThat(checkout.getCartDto()).isNotNull();
+        assertThat(checkout.getProductDtos()).hasSize(1);
+        assertThat(this.meterRegistry.get("checkout.branch").tag("branch", "payments").tag("outcome", "timeout")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void findByOrderIdShouldKeepOtherBranchesWhenOneFails() {
+        when(this.orderClientService.findById("10")).thenThrow(new IllegalStateException("order-service down"));
+        stubOrderItems(5, 6);
+        stubProduct(5);
+        when(this.productClientService.findById("6")).thenThrow(new IllegalStateException("not found"));
+        stubPayments();
+
+        CheckoutDto checkout = this.checkoutService.findByOrderId("10");
+
+        assertThat(checkout.isPartial()).isTrue();
+        assertThat(checkout.getFailures())
+                .containsEntry(CheckoutServiceImpl.ORDER, "error")
+                .containsEntry(CheckoutServiceImpl.PRODUCTS + ".6", "error")
+                .hasSize(2);
+        assertThat(checkout.getOrderDto()).isNull();
+        assertThat(checkout.getCartDto()).isNull();
+        assertThat(checkout.getProductDtos()).extracting(ProductDto::getProductId).containsExactly(5);
+        assertThat(checkout.getPaymentDtos()).hasSize(1);
+        verify(this.cartClientService, never()).findById(anyString());
+    }
+
+    @Test
+    void findByOrderIdShouldReportRejectedBranchesWhenExecutorIsFull() {
+        ExecutorService closed = Executors.newSingleThreadExecutor();
+        closed.shutdown();
+
+        CheckoutDto checkout = newService(closed).findByOrderId("10");
+
+        assertThat(checkout.isPartial()).isTrue();
+        assertThat(checkout.getFailures())
+                .containsEntry(CheckoutServiceImpl.ORDER, "rejected")
+                .containsEntry(CheckoutServiceImpl.ORDER_ITEMS, "rejected")
+                .containsEntry(CheckoutServiceImpl.PAYMENTS, "rejected");
+    }
+
+    private CheckoutServiceImpl newService(ExecutorService executorService) {
+        return new CheckoutServiceImpl(this.orderClientService, this.cartClientService, this.orderItemClientService,
+                this.productClientService, this.paymentClientService, executorService, this.properties,
+                this.meterRegistry);
+    }
+
+    private void stubOrder() {
+        when(this.orderClientService.findById("10")).thenReturn(ResponseEntity.ok(OrderDto.builder()
+                .orderId(10)
+                .cartDto(CartDto.builder().cartId(4).build())
+                .build()));
+    }
+
+    private void stubCart() {
+        when(this.cartClientService.findById("4"))
+                .thenReturn(ResponseEntity.ok(CartDto.builder().cartId(4).userId(3).build()));
+    }
+
+    private void stubOrderItems(Integer... productIds) {
+        List<OrderItemDto> items = Arrays.stream(productIds)
+                .map(productId -> OrderItemDto.builder().orderId(10).productId(productId).orderedQuantity(1).build())
+                .collect(Collectors.toList());
+        when(this.orderItemClientService.findByOrderId("10")).thenReturn(ResponseEntity.ok(OrderItemsByOrderDto.builder()
+                .orderId(10)
+                .itemCount((long) items.size())
+                .quantitySum((long) items.size())
+                .orderItemDtos(items)
+                .build()));
+    }
+
+    private void stubProduct(int productId) {
+        when(this.productClientService.findById(String.valueOf(productId)))
+                .thenReturn(ResponseEntity.ok(ProductDto.builder().productId(productId).build()));
+    }
+
+    private void stubPayments() {
+        when(this.paymentClientService.findByOrderId("10")).thenReturn(ResponseEntity.ok(
+                new PaymentPaymentServiceDtoCollectionResponse(List.of(PaymentDto.builder().paymentId(1).build()))));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(ProductCacheProperties.class)
+public class ProductCacheConfig {
+	
+	@Bean
+	public ProductSnapshotCache productSnapshotCacheBean(final RestTemplate restTemplate,
+			final ProductCacheProperties properties, final ObjectProvider<MeterRegistry> meterRegistryProvider) {
+		return new ProductSnapshotCache(restTemplate, properties,
+				meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
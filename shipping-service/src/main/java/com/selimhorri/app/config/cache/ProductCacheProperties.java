@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.product-cache")
+@Data
+public class ProductCacheProperties {
+	
+	private long maximumSize = 10_000;
+	
+	/**
+	 * Age after which a snapshot is reloaded in the background on its next read.
+	 */
+	private Duration refreshAfter = Duration.ofMinutes(1);
+	
+	/**
+	 * Hard bound on staleness, including while product-service is unreachable.
+	 */
+	private Duration expireAfter = Duration.ofMinutes(30);
+	
+}
+
+
+
+
+
+
+
+
+
+
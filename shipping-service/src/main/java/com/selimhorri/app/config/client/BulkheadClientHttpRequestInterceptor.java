@@ -0,0 +1,57 @@
+package com.selimhorri.app.config.client;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs every remote call inside the bulkhead of its downstream service, so a
+ * slow dependency can only hold its own permits and never the whole worker pool.
+ *
+ * Must run before the load balancer interceptor, while the request host is still
+ * the discovered service id (e.g. USER-SERVICE -> bulkhead instance "user-service").
+ */
+@RequiredArgsConstructor
+public class BulkheadClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private final BulkheadRegistry bulkheadRegistry;
+
+	@Override
+	public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+			final ClientHttpRequestExecution execution) throws IOException {
+
+		final String host = request.getURI().getHost();
+		if (host == null)
+			return execution.execute(request, body);
+
+		final Bulkhead bulkhead = this.bulkheadRegistry.bulkhead(host.toLowerCase(Locale.ROOT));
+		bulkhead.acquirePermission();
+		try {
+			return execution.execute(request, body);
+		}
+		finally {
+			bulkhead.onComplete();
+		}
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -5,13 +5,18 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
 @Configuration
 public class ClientConfig {
 	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+	public RestTemplate restTemplateBean(final BulkheadRegistry bulkheadRegistry) {
+		final var restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add(new BulkheadClientHttpRequestInterceptor(bulkheadRegistry));
+		restTemplate.getInterceptors().add(new SmileAcceptClientHttpRequestInterceptor());
+		return restTemplate;
 	}
 	
 	
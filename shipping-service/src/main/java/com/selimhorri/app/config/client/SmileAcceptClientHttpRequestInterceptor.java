@@ -0,0 +1,49 @@
+package com.selimhorri.app.config.client;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Asks other services for Smile, the binary form of JSON, when the expected
+ * response is an object only Jackson can read: the rest template listed Smile
+ * among the accepted types but no wildcard, which would mean a String or byte
+ * array that must stay text. JSON stays acceptable at a lower quality, so a
+ * service that cannot write Smile still answers.
+ */
+public class SmileAcceptClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+	
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+	
+	private static final List<MediaType> ACCEPT = List.of(APPLICATION_SMILE,
+			new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")));
+	
+	@Override
+	public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+			final ClientHttpRequestExecution execution) throws IOException {
+		final List<MediaType> accept = request.getHeaders().getAccept();
+		if (accept.stream().anyMatch(APPLICATION_SMILE::equalsTypeAndSubtype)
+				&& accept.stream().noneMatch(MediaType::isWildcardType))
+			request.getHeaders().setAccept(ACCEPT);
+		return execution.execute(request, body);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.logging;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class LoggingMetricsConfig {
+	
+	@Bean
+	public MeterBinder loggingEventsMetrics() {
+		return registry -> {
+			FunctionCounter.builder("logging.events.dropped", DroppingAsyncAppender.class,
+					appender -> DroppingAsyncAppender.getDroppedEvents())
+					.description("Log events dropped because the async appender buffer was full")
+					.register(registry);
+			FunctionCounter.builder("logging.events.sampled.out", RequestSamplingTurboFilter.class,
+					filter -> RequestSamplingTurboFilter.getSampledOutEvents())
+					.description("Log lines skipped because their request was not sampled")
+					.register(registry);
+		};
+	}
+	
+	
+	
+}
@@ -0,0 +1,38 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Items of one order with their totals. Totals come from a SQL aggregate, see
+ * {@link com.selimhorri.app.repository.OrderItemRepository#findTotalsByOrderIds}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderItemsByOrderDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer orderId;
+	private Long itemCount;
+	private Long quantitySum;
+	
+	@JsonProperty("items")
+	private List<OrderItemDto> orderItemDtos;
+	
+	public OrderItemsByOrderDto(final Integer orderId, final Long itemCount, final Long quantitySum) {
+		this.orderId = orderId;
+		this.itemCount = itemCount;
+		this.quantitySum = quantitySum;
+	}
+	
+}
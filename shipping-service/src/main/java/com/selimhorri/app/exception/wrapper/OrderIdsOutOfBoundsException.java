@@ -0,0 +1,39 @@
+package com.selimhorri.app.exception.wrapper;
+
+/**
+ * A multi-order lookup asked for no order ids, a null one, or more than the
+ * service answers in one call.
+ */
+public class OrderIdsOutOfBoundsException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+
+	public OrderIdsOutOfBoundsException() {
+		super();
+	}
+	
+	public OrderIdsOutOfBoundsException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public OrderIdsOutOfBoundsException(String message) {
+		super(message);
+	}
+	
+	public OrderIdsOutOfBoundsException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
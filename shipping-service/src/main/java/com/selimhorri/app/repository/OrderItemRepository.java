@@ -1,12 +1,29 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderItemsByOrderDto;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {
 	
+	List<OrderItem> findByOrderIdInOrderByOrderIdAscProductIdAsc(final Collection<Integer> orderIds);
+	
+	/**
+	 * Item count and quantity sum per order, without items; orders without
+	 * items are absent from the result.
+	 */
+	@Query("SELECT new com.selimhorri.app.dto.OrderItemsByOrderDto(i.orderId, COUNT(i), "
+			+ "COALESCE(SUM(i.orderedQuantity), 0L)) "
+			+ "FROM OrderItem i WHERE i.orderId IN :orderIds GROUP BY i.orderId")
+	List<OrderItemsByOrderDto> findTotalsByOrderIds(@Param("orderIds") final Collection<Integer> orderIds);
+	
 	
 	
 }
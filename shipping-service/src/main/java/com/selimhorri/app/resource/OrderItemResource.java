@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
@@ -11,10 +13,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.OrderItemsByOrderDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.OrderItemService;
 
@@ -44,6 +48,19 @@ public class OrderItemResource {
 				new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId))));
 	}
 	
+	@GetMapping("/order/{orderId}")
+	public ResponseEntity<OrderItemsByOrderDto> findByOrderId(@PathVariable("orderId") final String orderId) {
+		log.info("*** OrderItemsByOrderDto, resource; fetch orderItems by orderId *");
+		return ResponseEntity.ok(this.orderItemService.findByOrderId(Integer.parseInt(orderId)));
+	}
+	
+	@GetMapping("/order")
+	public ResponseEntity<DtoCollectionResponse<OrderItemsByOrderDto>> findByOrderIds(
+			@RequestParam("orderIds") final List<Integer> orderIds) {
+		log.info("*** OrderItemsByOrderDto List, resource; fetch orderItems by orderIds *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.findByOrderIds(orderIds)));
+	}
+	
 	@GetMapping("/find")
 	public ResponseEntity<OrderItemDto> findById(
 			@RequestBody 
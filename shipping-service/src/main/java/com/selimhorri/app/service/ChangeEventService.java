@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.ChangeEventDto;
+
+public interface ChangeEventService {
+	
+	void handle(final List<ChangeEventDto> changeEvents);
+	
+}
@@ -1,22 +1,31 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.ChangeType;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
-import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.OrderItemsByOrderDto;
+import com.selimhorri.app.exception.wrapper.OrderIdsOutOfBoundsException;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 import com.selimhorri.app.helper.OrderItemMappingHelper;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,34 +36,38 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderItemServiceImpl implements OrderItemService {
 	
+	private static final String AGGREGATE_TYPE = "ORDER_ITEM";
+	static final int MAX_ORDER_IDS = 100;
+	
 	private final OrderItemRepository orderItemRepository;
 	private final RestTemplate restTemplate;
+	private final ProductSnapshotCache productSnapshotCache;
+	private final OutboxPublisher outboxPublisher;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<OrderItemDto> findAll() {
 		log.info("*** OrderItemDto List, service; fetch all orderItems *");
 		return this.orderItemRepository.findAll()
 				.stream()
 					.map(OrderItemMappingHelper::map)
 					.map(o -> {
-						o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
+						o.setProductDto(this.productSnapshotCache.get(o.getProductDto().getProductId()));
 						o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
 								.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
 						return o;
 					})
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public OrderItemDto findById(final OrderItemId orderItemId) {
 		log.info("*** OrderItemDto, service; fetch orderItem by id *");
 		return this.orderItemRepository.findById(orderItemId)
 				.map(OrderItemMappingHelper::map)
 				.map(o -> {
-					o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
+					o.setProductDto(this.productSnapshotCache.get(o.getProductDto().getProductId()));
 					o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
 							.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
 					return o;
@@ -62,26 +75,77 @@ public class OrderItemServiceImpl implements OrderItemService {
 				.orElseThrow(() -> new OrderItemNotFoundException(String.format("OrderItem with id: %s not found", orderItemId)));
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public OrderItemsByOrderDto findByOrderId(final Integer orderId) {
+		log.info("*** OrderItemsByOrderDto, service; fetch orderItems by orderId *");
+		return this.findByOrderIds(List.of(orderId)).get(0);
+	}
+	
+	/**
+	 * One group per distinct requested order, in request order; orders without
+	 * items get an empty group. Items carry no remote product or order details,
+	 * so this read never leaves the database.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<OrderItemsByOrderDto> findByOrderIds(final Collection<Integer> orderIds) {
+		log.info("*** OrderItemsByOrderDto List, service; fetch orderItems by orderIds *");
+		final var distinctOrderIds = new LinkedHashSet<>(orderIds);
+		if (distinctOrderIds.isEmpty() || distinctOrderIds.size() > MAX_ORDER_IDS || distinctOrderIds.contains(null))
+			throw new OrderIdsOutOfBoundsException(String
+					.format("Between 1 and %d order ids are required", MAX_ORDER_IDS));
+		
+		final Map<Integer, OrderItemsByOrderDto> totals = this.orderItemRepository
+				.findTotalsByOrderIds(distinctOrderIds)
+				.stream()
+					.collect(Collectors.toMap(OrderItemsByOrderDto::getOrderId, Function.identity()));
+		final Map<Integer, List<OrderItemDto>> items = new LinkedHashMap<>();
+		this.orderItemRepository.findByOrderIdInOrderByOrderIdAscProductIdAsc(distinctOrderIds)
+				.forEach(o -> items.computeIfAbsent(o.getOrderId(), id -> new ArrayList<>())
+						.add(OrderItemDto.builder()
+								.productId(o.getProductId())
+								.orderId(o.getOrderId())
+								.orderedQuantity(o.getOrderedQuantity())
+								.build()));
+		
+		return distinctOrderIds.stream()
+				.map(orderId -> {
+					final var group = totals.getOrDefault(orderId, new OrderItemsByOrderDto(orderId, 0L, 0L));
+					group.setOrderItemDtos(items.getOrDefault(orderId, List.of()));
+					return group;
+				})
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
 	@Override
 	public OrderItemDto save(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; save orderItem *");
-		return OrderItemMappingHelper.map(this.orderItemRepository
-				.save(OrderItemMappingHelper.map(orderItemDto)));
+		return this.published(ChangeType.CREATED, OrderItemMappingHelper.map(this.orderItemRepository
+				.save(OrderItemMappingHelper.map(orderItemDto))));
 	}
 	
 	@Override
 	public OrderItemDto update(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; update orderItem *");
-		return OrderItemMappingHelper.map(this.orderItemRepository
-				.save(OrderItemMappingHelper.map(orderItemDto)));
+		return this.published(ChangeType.UPDATED, OrderItemMappingHelper.map(this.orderItemRepository
+				.save(OrderItemMappingHelper.map(orderItemDto))));
 	}
 	
 	@Override
 	public void deleteById(final OrderItemId orderItemId) {
 		log.info("*** Void, service; delete orderItem by id *");
+		this.orderItemRepository.findById(orderItemId)
+				.ifPresent(o -> this.published(ChangeType.DELETED, OrderItemMappingHelper.map(o)));
 		this.orderItemRepository.deleteById(orderItemId);
 	}
 	
+	private OrderItemDto published(final ChangeType changeType, final OrderItemDto orderItemDto) {
+		this.outboxPublisher.append(AGGREGATE_TYPE, orderItemDto.getOrderId() + ":" + orderItemDto.getProductId(),
+				changeType, orderItemDto);
+		return orderItemDto;
+	}
+	
 	
 	
 }
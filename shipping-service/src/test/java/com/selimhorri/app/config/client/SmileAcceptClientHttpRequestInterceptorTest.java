@@ -0,0 +1,54 @@
+package com.selimhorri.app.config.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.selimhorri.app.dto.OrderDto;
+
+class SmileAcceptClientHttpRequestInterceptorTest {
+
+    private RestTemplate restTemplate;
+
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.restTemplate = new RestTemplate();
+        this.restTemplate.getInterceptors().add(new SmileAcceptClientHttpRequestInterceptor());
+        this.server = MockRestServiceServer.bindTo(this.restTemplate).build();
+    }
+
+    @Test
+    void dtoRequestsShouldPreferSmileAndReadIt() throws Exception {
+        OrderDto order = OrderDto.builder().orderId(7).orderDesc("init").orderFee(12.5).build();
+        this.server.expect(requestTo("http://order-service/api/orders/7"))
+                .andExpect(header("Accept", "application/x-jackson-smile, application/json;q=0.9"))
+                .andRespond(withSuccess(new SmileMapper().writeValueAsBytes(order),
+                        SmileAcceptClientHttpRequestInterceptor.APPLICATION_SMILE));
+
+        assertThat(this.restTemplate.getForObject("http://order-service/api/orders/7", OrderDto.class))
+                .isEqualTo(order);
+        this.server.verify();
+    }
+
+    @Test
+    void requestsSmileCannotAnswerShouldKeepTheirAcceptHeader() {
+        this.server.expect(requestTo("http://order-service/api/orders/7"))
+                .andExpect(header("Accept", "text/plain, application/json, application/x-jackson-smile, application/*+json, */*"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        assertThat(this.restTemplate.getForObject("http://order-service/api/orders/7", String.class))
+                .isEqualTo("{}");
+        this.server.verify();
+    }
+
+}
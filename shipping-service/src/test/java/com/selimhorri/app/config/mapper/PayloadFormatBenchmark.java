@@ -0,0 +1,131 @@
+package com.selimhorri.app.config.mapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+/**
+ * Payload size and serialization CPU of the largest collection responses, the
+ * order list and the order item list with its orders and products inlined, in
+ * each format a caller can get: indented JSON (what the services write today),
+ * compact JSON and Smile. Not part of the regular build; run it with
+ *
+ *     mvn -B test -Dtest=PayloadFormatBenchmark
+ */
+class PayloadFormatBenchmark {
+
+    private static final int ROWS = 2_000;
+    private static final long WARM_UP_NANOS = 3_000_000_000L;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    private static final TypeReference<DtoCollectionResponse<OrderDto>> ORDERS =
+            new TypeReference<DtoCollectionResponse<OrderDto>>() {};
+    private static final TypeReference<DtoCollectionResponse<OrderItemDto>> ORDER_ITEMS =
+            new TypeReference<DtoCollectionResponse<OrderItemDto>>() {};
+
+    @Test
+    void compareFormats() throws Exception {
+        final var orders = new DtoCollectionResponse<>(rows(PayloadFormatBenchmark::order));
+        final var orderItems = new DtoCollectionResponse<>(rows(PayloadFormatBenchmark::orderItem));
+
+        System.out.printf("%-12s %-14s %10s %12s %12s%n", "payload", "format", "bytes", "write us/op", "read us/op");
+        for (final var format : List.of(
+                new Format("json-indent", new MapperConfig().objectMapperBean()),
+                new Format("json", new JsonMapper()),
+                new Format("smile", new SmileMapper()))) {
+            run("orders", format, orders, ORDERS);
+            run("orderItems", format, orderItems, ORDER_ITEMS);
+        }
+    }
+
+    private static <T> void run(final String payload, final Format format, final T value,
+            final TypeReference<T> type) throws Exception {
+        final byte[] bytes = format.mapper.writeValueAsBytes(value);
+        final double write = measure(() -> format.mapper.writeValueAsBytes(value));
+        final double read = measure(() -> format.mapper.readValue(bytes, type));
+        System.out.printf(Locale.ROOT, "%-12s %-14s %10d %12.1f %12.1f%n", payload, format.name, bytes.length,
+                write, read);
+    }
+
+    /**
+     * Mean microseconds per call after a warm-up, on the calling thread.
+     */
+    private static double measure(final Call call) throws Exception {
+        final long warmUpEnd = System.nanoTime() + WARM_UP_NANOS;
+        while (System.nanoTime() < warmUpEnd)
+            call.run();
+        long calls = 0;
+        final long started = System.nanoTime();
+        final long end = started + MEASURE_NANOS;
+        while (System.nanoTime() < end) {
+            call.run();
+            calls++;
+        }
+        return (System.nanoTime() - started) / 1_000.0 / calls;
+    }
+
+    private static <T> List<T> rows(final IntFunction<T> row) {
+        return IntStream.range(0, ROWS)
+                .mapToObj(row)
+                .collect(Collectors.toList());
+    }
+
+    private static OrderDto order(final int id) {
+        return OrderDto.builder()
+                .orderId(id)
+                .orderDate(LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(id * 7L).plusNanos(id * 1_000L))
+                .orderDesc("order " + id + " placed through the web shop")
+                .orderFee(10 + id % 500 * 1.25)
+                .build();
+    }
+
+    private static OrderItemDto orderItem(final int id) {
+        final int productId = id % 200;
+        return OrderItemDto.builder()
+                .orderId(id / 3)
+                .productId(productId)
+                .orderedQuantity(1 + id % 4)
+                .orderDto(order(id / 3))
+                .productDto(ProductDto.builder()
+                        .productId(productId)
+                        .productTitle("product " + productId)
+                        .imageUrl("https://cdn.example.com/products/" + productId + ".png")
+                        .sku("SKU-" + (100_000 + productId))
+                        .priceUnit(5 + productId * 0.5)
+                        .quantity(50 + productId)
+                        .build())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object run() throws Exception;
+    }
+
+    private static final class Format {
+
+        private final String name;
+        private final ObjectMapper mapper;
+
+        private Format(final String name, final ObjectMapper mapper) {
+            this.name = name;
+            this.mapper = mapper;
+        }
+
+    }
+
+}
@@ -35,6 +35,7 @@ import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
 
 @SpringBootTest(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
@@ -63,6 +64,9 @@ class OrderItemResourceIntegrationTest {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -72,6 +76,7 @@ class OrderItemResourceIntegrationTest {
     @BeforeEach
     void setUp() {
         this.orderItemRepository.deleteAll();
+        this.productSnapshotCache.invalidateAll();
         this.persistedOrderItem = this.orderItemRepository.save(OrderItem.builder()
                 .productId(111)
                 .orderId(211)
@@ -1,6 +1,7 @@
 package com.selimhorri.app.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
@@ -25,9 +26,11 @@ import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.OrderItemsByOrderDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
 
 @SpringBootTest(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
@@ -55,6 +58,9 @@ class OrderItemServiceIntegrationTest {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -64,6 +70,7 @@ class OrderItemServiceIntegrationTest {
     @BeforeEach
     void setUp() {
         this.orderItemRepository.deleteAll();
+        this.productSnapshotCache.invalidateAll();
         this.persistedOrderItem = this.orderItemRepository.save(OrderItem.builder()
                 .productId(101)
                 .orderId(201)
@@ -106,6 +113,22 @@ class OrderItemServiceIntegrationTest {
         this.mockServer.verify();
     }
 
+    @Test
+    void findByOrderIdsShouldGroupItemsWithTotalsWithoutRemoteCalls() {
+        this.orderItemRepository.save(OrderItem.builder().productId(102).orderId(201).orderedQuantity(6).build());
+        this.orderItemRepository.save(OrderItem.builder().productId(103).orderId(202).orderedQuantity(null).build());
+
+        List<OrderItemsByOrderDto> result = this.orderItemService.findByOrderIds(List.of(202, 201, 999));
+
+        assertThat(result).extracting(OrderItemsByOrderDto::getOrderId, OrderItemsByOrderDto::getItemCount,
+                OrderItemsByOrderDto::getQuantitySum)
+                .containsExactly(tuple(202, 1L, 0L), tuple(201, 2L, 10L), tuple(999, 0L, 0L));
+        assertThat(result.get(1).getOrderItemDtos()).extracting(OrderItemDto::getProductId).containsExactly(101, 102);
+        assertThat(this.orderItemService.findByOrderId(201).getQuantitySum()).isEqualTo(10L);
+
+        this.mockServer.verify();
+    }
+
     @Test
     void saveShouldPersistOrderItem() {
         OrderItemDto payload = OrderItemDto.builder()
@@ -0,0 +1,60 @@
+package com.selimhorri.app.integration;
+
+import static com.selimhorri.app.integration.QueryPlanInspector.assertNoFullScan;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+/**
+ * Every derived lookup must be served by an index of the Flyway schema.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:shipping_query_plan_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.selimhorri.app.integration.QueryPlanInspector",
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false"
+})
+class RepositoryQueryPlanIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void orderItemLookupByOrderShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate,
+                () -> this.orderItemRepository.findByOrderIdInOrderByOrderIdAscProductIdAsc(List.of(1, 2)));
+        assertNoFullScan(this.jdbcTemplate, () -> this.orderItemRepository.findTotalsByOrderIds(List.of(1, 2)));
+    }
+
+    @Test
+    void unpublishedOutboxEventsLookupShouldUseIndexes() {
+        assertNoFullScan(this.jdbcTemplate,
+                () -> this.outboxEventRepository.findByPublishedAtIsNullOrderByEventIdAsc(PageRequest.of(0, 100)));
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.selimhorri.app.resource;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
@@ -20,15 +21,24 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.selimhorri.app.config.client.SmileAcceptClientHttpRequestInterceptor;
+import com.selimhorri.app.config.mapper.MapperConfig;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.OrderItemsByOrderDto;
+import com.selimhorri.app.exception.wrapper.OrderIdsOutOfBoundsException;
 import com.selimhorri.app.service.OrderItemService;
 
 @WebMvcTest(OrderItemResource.class)
+@Import(MapperConfig.class)
 class OrderItemResourceTest {
 
     @Autowired
@@ -63,6 +73,30 @@ class OrderItemResourceTest {
         verify(this.orderItemService).findAll();
     }
 
+    @Test
+    void findAllShouldAnswerSmileToServicesAskingForIt() throws Exception {
+        when(this.orderItemService.findAll()).thenReturn(List.of(this.orderItemDto));
+
+        MvcResult result = this.mockMvc.perform(get("/api/shippings")
+                        .header("Accept", "application/x-jackson-smile, application/json;q=0.9"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SmileAcceptClientHttpRequestInterceptor.APPLICATION_SMILE))
+                .andReturn();
+
+        JsonNode body = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.at("/collection/0/productId").asInt()).isEqualTo(this.orderItemDto.getProductId());
+    }
+
+    @Test
+    void findAllShouldKeepJsonForCallersAcceptingAnything() throws Exception {
+        when(this.orderItemService.findAll()).thenReturn(List.of(this.orderItemDto));
+
+        this.mockMvc.perform(get("/api/shippings").header("Accept", "*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.collection[0].productId", equalTo(this.orderItemDto.getProductId())));
+    }
+
     @Test
     void findByCompositePathShouldReturnDto() throws Exception {
         OrderItemId orderItemId = new OrderItemId(1, 2);
@@ -75,6 +109,44 @@ class OrderItemResourceTest {
         verify(this.orderItemService).findById(orderItemId);
     }
 
+    @Test
+    void findByOrderIdShouldReturnGroupWithTotals() throws Exception {
+        when(this.orderItemService.findByOrderId(2))
+                .thenReturn(new OrderItemsByOrderDto(2, 1L, 5L, List.of(this.orderItemDto)));
+
+        this.mockMvc.perform(get("/api/shippings/order/{orderId}", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemCount", equalTo(1)))
+                .andExpect(jsonPath("$.quantitySum", equalTo(5)))
+                .andExpect(jsonPath("$.items[0].productId", equalTo(this.orderItemDto.getProductId())));
+
+        verify(this.orderItemService).findByOrderId(2);
+    }
+
+    @Test
+    void findByOrderIdsShouldReturnOneGroupPerOrder() throws Exception {
+        when(this.orderItemService.findByOrderIds(List.of(2, 3))).thenReturn(List.of(
+                new OrderItemsByOrderDto(2, 1L, 5L, List.of(this.orderItemDto)),
+                new OrderItemsByOrderDto(3, 0L, 0L, List.of())));
+
+        this.mockMvc.perform(get("/api/shippings/order").param("orderIds", "2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].orderId", equalTo(2)))
+                .andExpect(jsonPath("$.collection[1].itemCount", equalTo(0)));
+
+        verify(this.orderItemService).findByOrderIds(List.of(2, 3));
+    }
+
+    @Test
+    void findByOrderIdsShouldAnswerBadRequestForTooManyOrders() throws Exception {
+        when(this.orderItemService.findByOrderIds(List.of(2, 3)))
+                .thenThrow(new OrderIdsOutOfBoundsException("Between 1 and 100 order ids are required"));
+
+        this.mockMvc.perform(get("/api/shippings/order").param("orderIds", "2,3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg", equalTo("#### Between 1 and 100 order ids are required! ####")));
+    }
+
     @Test
     void findByBodyShouldReturnDto() throws Exception {
         OrderItemId orderItemId = new OrderItemId(3, 4);
@@ -0,0 +1,80 @@
+package com.selimhorri.app.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.cache.ProductCacheProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSnapshotCacheTest {
+
+    private static final String PRODUCT_URL = AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/5";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductSnapshotCache productSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.productSnapshotCache = new ProductSnapshotCache(this.restTemplate, new ProductCacheProperties(),
+                this.meterRegistry);
+    }
+
+    @Test
+    void getShouldFetchOnceAndServeFollowingReadsFromCache() {
+        when(this.restTemplate.getForObject(PRODUCT_URL, ProductDto.class))
+                .thenReturn(ProductDto.builder().productId(5).productTitle("Laptop").build());
+
+        ProductDto first = this.productSnapshotCache.get(5);
+        ProductDto second = this.productSnapshotCache.get(5);
+
+        assertThat(first.getProductTitle()).isEqualTo("Laptop");
+        assertThat(second).isSameAs(first);
+        verify(this.restTemplate, times(1)).getForObject(PRODUCT_URL, ProductDto.class);
+        assertThat(this.meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(this.meterRegistry.get("cache.staleness").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void getIfPresentShouldKeepServingLastSnapshotWhileProductServiceIsDown() {
+        when(this.restTemplate.getForObject(PRODUCT_URL, ProductDto.class))
+                .thenReturn(ProductDto.builder().productId(5).build())
+                .thenThrow(new ResourceAccessException("product-service down"));
+        this.productSnapshotCache.get(5);
+
+        assertThat(this.productSnapshotCache.getIfPresent(5).getProductId()).isEqualTo(5);
+        assertThat(this.productSnapshotCache.getIfPresent(6)).isNull();
+    }
+
+    @Test
+    void invalidateShouldForceNextReadToReload() {
+        when(this.restTemplate.getForObject(PRODUCT_URL, ProductDto.class))
+                .thenReturn(ProductDto.builder().productId(5).productTitle("Old").build())
+                .thenReturn(ProductDto.builder().productId(5).productTitle("New").build());
+        this.productSnapshotCache.get(5);
+
+        this.productSnapshotCache.invalidate(5);
+
+        assertThat(this.productSnapshotCache.get(5).getProductTitle()).isEqualTo("New");
+    }
+
+}
@@ -3,10 +3,13 @@ package com.selimhorri.app.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,15 +21,22 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.config.cache.ProductCacheProperties;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.OrderItemsByOrderDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.exception.wrapper.OrderIdsOutOfBoundsException;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.cache.ProductSnapshotCache;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class OrderItemServiceImplTest {
@@ -37,11 +47,16 @@ class OrderItemServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
     private OrderItemService orderItemService;
 
     @BeforeEach
     void setUp() {
-        this.orderItemService = new OrderItemServiceImpl(this.orderItemRepository, this.restTemplate);
+        this.orderItemService = new OrderItemServiceImpl(this.orderItemRepository, this.restTemplate,
+                new ProductSnapshotCache(this.restTemplate, new ProductCacheProperties(), new SimpleMeterRegistry()),
+                this.outboxPublisher);
     }
 
     @Test
@@ -94,6 +109,34 @@ class OrderItemServiceImplTest {
         verify(this.orderItemRepository).findById(orderItemId);
     }
 
+    @Test
+    void findByOrderIdsShouldGroupItemsUnderSqlTotalsInRequestOrder() {
+        when(this.orderItemRepository.findTotalsByOrderIds(anyCollection()))
+                .thenReturn(List.of(new OrderItemsByOrderDto(20, 2L, 7L)));
+        when(this.orderItemRepository.findByOrderIdInOrderByOrderIdAscProductIdAsc(anyCollection()))
+                .thenReturn(List.of(buildOrderItem(1, 20, 3), buildOrderItem(2, 20, 4)));
+
+        List<OrderItemsByOrderDto> result = this.orderItemService.findByOrderIds(List.of(30, 20, 30));
+
+        assertThat(result).extracting(OrderItemsByOrderDto::getOrderId).containsExactly(30, 20);
+        assertThat(result.get(0).getItemCount()).isZero();
+        assertThat(result.get(0).getOrderItemDtos()).isEmpty();
+        assertThat(result.get(1).getQuantitySum()).isEqualTo(7L);
+        assertThat(result.get(1).getOrderItemDtos()).extracting(OrderItemDto::getProductId).containsExactly(1, 2);
+        verifyNoInteractions(this.restTemplate);
+    }
+
+    @Test
+    void findByOrderIdsShouldRejectEmptyOrOversizedRequests() {
+        List<Integer> tooMany = new ArrayList<>();
+        for (int orderId = 0; orderId <= OrderItemServiceImpl.MAX_ORDER_IDS; orderId++)
+            tooMany.add(orderId);
+
+        assertThrows(OrderIdsOutOfBoundsException.class, () -> this.orderItemService.findByOrderIds(Collections.emptyList()));
+        assertThrows(OrderIdsOutOfBoundsException.class, () -> this.orderItemService.findByOrderIds(tooMany));
+        verifyNoInteractions(this.orderItemRepository);
+    }
+
     @Test
     void saveShouldPersistMappedOrderItem() {
         OrderItemDto payload = buildOrderItemDto(9, 10, 6);
@@ -0,0 +1,125 @@
+package com.selimhorri.app.config.datasource;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells whether the replica is fresh enough to serve reads, from a heartbeat:
+ * each {@link #heartbeat()} stamps the current time into the single
+ * replica_heartbeat row on the primary and reads the row back from the
+ * replica, whose copy is as old as the replication lag plus at most one
+ * heartbeat interval.
+ *
+ * The replica counts as unusable until the first heartbeat has read it, and
+ * whenever it cannot be read or lags more than {@code maxLag}. Heartbeats run
+ * on a thread of their own between {@link #start()} and {@link #stop()}, so a
+ * slow scheduled job elsewhere never delays one into a false lag reading.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+	
+	static final String WRITE_HEARTBEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE heartbeat_id = 1";
+	static final String READ_HEARTBEAT = "SELECT beat_at FROM replica_heartbeat WHERE heartbeat_id = 1";
+	
+	private final JdbcTemplate primary;
+	private final JdbcTemplate replica;
+	private final Duration maxLag;
+	private final Duration heartbeatInterval;
+	private final Clock clock;
+	private volatile boolean replicaUsable;
+	private volatile double lagSeconds = Double.NaN;
+	private ScheduledExecutorService executor;
+	
+	public ReplicaLagMonitor(final DataSource primary, final DataSource replica, final Duration maxLag,
+			final Duration heartbeatInterval, final Clock clock, final MeterRegistry meterRegistry) {
+		this.primary = new JdbcTemplate(primary);
+		this.replica = new JdbcTemplate(replica);
+		this.maxLag = maxLag;
+		this.heartbeatInterval = heartbeatInterval;
+		this.clock = clock;
+		Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+				.description("Age of the replica's copy of the heartbeat, NaN when unreadable")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+		Gauge.builder("datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+				.description("1 while read-only transactions are sent to the replica")
+				.register(meterRegistry);
+	}
+	
+	public synchronized void start() {
+		if (this.executor != null)
+			return;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "replica-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.scheduleWithFixedDelay(() -> {
+			try {
+				this.heartbeat();
+			}
+			catch (RuntimeException e) {
+				// an escaping exception would cancel every later heartbeat
+				log.warn("*** Replica heartbeat, monitor; heartbeat failed: {} *", e.getMessage());
+			}
+		}, 0, this.heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+	
+	public synchronized void stop() {
+		if (this.executor == null)
+			return;
+		this.executor.shutdownNow();
+		this.executor = null;
+	}
+	
+	public boolean isReplicaUsable() {
+		return this.replicaUsable;
+	}
+	
+	public void heartbeat() {
+		final Instant now = this.clock.instant();
+		try {
+			this.primary.update(WRITE_HEARTBEAT, Timestamp.from(now));
+		}
+		catch (DataAccessException e) {
+			log.warn("*** Replica heartbeat, monitor; could not write heartbeat to primary: {} *", e.getMessage());
+		}
+		final Duration lag = this.replicaLag(now);
+		this.lagSeconds = (lag == null) ? Double.NaN : Math.max(0, lag.toMillis()) / 1000.0;
+		final boolean usable = lag != null && lag.compareTo(this.maxLag) <= 0;
+		if (usable != this.replicaUsable)
+			log.warn("*** Replica heartbeat, monitor; {} (lag {}s) *",
+					usable ? "reading from replica" : "replica unusable, reading from primary", this.lagSeconds);
+		this.replicaUsable = usable;
+	}
+	
+	/**
+	 * Null when the replica or its heartbeat row cannot be read.
+	 */
+	private Duration replicaLag(final Instant now) {
+		try {
+			final Timestamp beat = this.replica.queryForObject(READ_HEARTBEAT, Timestamp.class);
+			return (beat == null) ? null : Duration.between(beat.toInstant(), now);
+		}
+		catch (DataAccessException e) {
+			return null;
+		}
+	}
+	
+	
+	
+}
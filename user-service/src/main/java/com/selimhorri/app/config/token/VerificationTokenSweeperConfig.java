@@ -0,0 +1,52 @@
+package com.selimhorri.app.config.token;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.repository.VerificationTokenRepository;
+import com.selimhorri.app.service.token.VerificationTokenSweeper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(VerificationTokenSweeperProperties.class)
+@RequiredArgsConstructor
+public class VerificationTokenSweeperConfig implements SchedulingConfigurer {
+	
+	private final VerificationTokenSweeperProperties sweeperProperties;
+	private final ObjectProvider<VerificationTokenSweeper> verificationTokenSweeper;
+	
+	@Bean
+	public VerificationTokenSweeper verificationTokenSweeperBean(
+			final VerificationTokenRepository verificationTokenRepository,
+			final PlatformTransactionManager transactionManager, final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new VerificationTokenSweeper(verificationTokenRepository, new TransactionTemplate(transactionManager),
+				Clock.systemDefaultZone(), this.sweeperProperties.getBatchSize(),
+				this.sweeperProperties.getMaxDutyCycle(), this.sweeperProperties.getMaxRunTime(),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+	
+	@Override
+	public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+		if (this.sweeperProperties.isEnabled())
+			taskRegistrar.addFixedDelayTask(new IntervalTask(() -> this.verificationTokenSweeper.getObject().sweep(),
+					this.sweeperProperties.getInterval().toMillis(),
+					this.sweeperProperties.getInitialDelay().toMillis()));
+	}
+	
+	
+	
+}
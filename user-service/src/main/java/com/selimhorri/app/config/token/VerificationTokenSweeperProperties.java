@@ -0,0 +1,32 @@
+package com.selimhorri.app.config.token;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.verification-token-sweeper")
+@Data
+public class VerificationTokenSweeperProperties {
+	
+	private boolean enabled = true;
+	
+	private Duration interval = Duration.ofMinutes(10);
+	
+	private Duration initialDelay = Duration.ofMinutes(1);
+	
+	private int batchSize = 500;
+	
+	/**
+	 * Share of wall time a run may spend deleting; the sweeper pauses between
+	 * batches to stay under it.
+	 */
+	private double maxDutyCycle = 0.2;
+	
+	/**
+	 * A run stops after this long; what is left goes to the next run.
+	 */
+	private Duration maxRunTime = Duration.ofSeconds(30);
+	
+}
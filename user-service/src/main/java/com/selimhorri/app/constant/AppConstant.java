@@ -22,6 +22,7 @@ public abstract class AppConstant {
 		
 		public static final String ORDER_SERVICE_HOST = "http://ORDER-SERVICE/order-service";
 		public static final String ORDER_SERVICE_API_URL = "http://ORDER-SERVICE/order-service/api/orders";
+		public static final String ORDER_SUMMARY_SERVICE_API_URL = "http://ORDER-SERVICE/order-service/internal/order-summaries";
 		
 		public static final String FAVOURITE_SERVICE_HOST = "http://FAVOURITE-SERVICE/favourite-service";
 		public static final String FAVOURITE_SERVICE_API_URL = "http://FAVOURITE-SERVICE/favourite-service/api/favourites";
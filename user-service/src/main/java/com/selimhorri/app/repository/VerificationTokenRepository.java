@@ -1,11 +1,33 @@
 package com.selimhorri.app.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.VerificationToken;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Integer> {
 	
+	@Query("SELECT t.verificationTokenId FROM VerificationToken t WHERE t.expireDate < :today "
+			+ "ORDER BY t.expireDate ASC, t.verificationTokenId ASC")
+	List<Integer> findExpiredIds(@Param("today") final LocalDate today, final Pageable pageable);
+	
+	@Query("SELECT MIN(t.expireDate) FROM VerificationToken t WHERE t.expireDate < :today")
+	LocalDate findOldestExpireDate(@Param("today") final LocalDate today);
+	
+	/**
+	 * Deletes the given tokens unless they were renewed since they were selected.
+	 */
+	@Modifying
+	@Query("DELETE FROM VerificationToken t WHERE t.verificationTokenId IN :ids AND t.expireDate < :today")
+	int deleteExpiredByIds(@Param("ids") final Collection<Integer> ids, @Param("today") final LocalDate today);
+	
 	
 	
 }
@@ -3,15 +3,20 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.ChangeType;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.helper.UserMappingHelper;
 import com.selimhorri.app.repository.UserRepository;
 import com.selimhorri.app.service.UserService;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,19 +27,24 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 	
+	private static final String AGGREGATE_TYPE = "USER";
+	
 	private final UserRepository userRepository;
+	private final OutboxPublisher outboxPublisher;
+	private final RestTemplate restTemplate;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<UserDto> findAll() {
 		log.info("*** UserDto List, service; fetch all users *");
 		return this.userRepository.findAll()
 				.stream()
 					.map(UserMappingHelper::map)
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public UserDto findById(final Integer userId) {
 		log.info("*** UserDto, service; fetch user by id *");
 		return this.userRepository.findById(userId)
@@ -45,13 +55,13 @@ public class UserServiceImpl implements UserService {
 	@Override
 	public UserDto save(final UserDto userDto) {
 		log.info("*** UserDto, service; save user *");
-		return UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto)));
+		return this.published(ChangeType.CREATED, UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto))));
 	}
 	
 	@Override
 	public UserDto update(final UserDto userDto) {
 		log.info("*** UserDto, service; update user *");
-		return UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto)));
+		return this.published(ChangeType.UPDATED, UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto))));
 	}
 	
 	@Override
@@ -68,16 +78,66 @@ public class UserServiceImpl implements UserService {
 				.addressDtos(userDto.getAddressDtos())
 				.credentialDto(userDto.getCredentialDto())
 				.build();
-		return UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(dtoToPersist)));
+		return this.published(ChangeType.UPDATED, UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(dtoToPersist))));
 	}
 	
 	@Override
 	public void deleteById(final Integer userId) {
 		log.info("*** Void, service; delete user by id *");
 		this.userRepository.deleteById(userId);
+		this.outboxPublisher.append(AGGREGATE_TYPE, userId, ChangeType.DELETED, UserDto.builder()
+				.userId(userId)
+				.build());
+	}
+	
+	/**
+	 * Events carry the public profile only, never the credential. Updates are
+	 * also reported to the order-service order summaries, which keep a copy of
+	 * the user's name.
+	 */
+	private UserDto published(final ChangeType changeType, final UserDto userDto) {
+		final UserDto profile = UserDto.builder()
+				.userId(userDto.getUserId())
+				.firstName(userDto.getFirstName())
+				.lastName(userDto.getLastName())
+				.imageUrl(userDto.getImageUrl())
+				.email(userDto.getEmail())
+				.phone(userDto.getPhone())
+				.build();
+		this.outboxPublisher.append(AGGREGATE_TYPE, userDto.getUserId(), changeType, profile);
+		if (changeType == ChangeType.UPDATED)
+			this.afterCommit(() -> this.restTemplate.put(AppConstant.DiscoveredDomainsApi
+					.ORDER_SUMMARY_SERVICE_API_URL + "/user/" + profile.getUserId(), profile));
+		return userDto;
+	}
+	
+	/**
+	 * Runs the remote call once the user is committed, outside the database
+	 * transaction; a failure is logged and never rolls back the user write.
+	 */
+	private void afterCommit(final Runnable remoteCall) {
+		final Runnable guarded = () -> {
+			try {
+				remoteCall.run();
+			}
+			catch (RuntimeException e) {
+				log.warn("*** Could not update order summaries: {} *", e.getMessage());
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			guarded.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				guarded.run();
+			}
+		});
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public UserDto findByUsername(final String username) {
 		log.info("*** UserDto, service; fetch user with username *");
 		return UserMappingHelper.map(this.userRepository.findByCredentialUsername(username)
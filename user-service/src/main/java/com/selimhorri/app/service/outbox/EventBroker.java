@@ -0,0 +1,16 @@
+package com.selimhorri.app.service.outbox;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.ChangeEventDto;
+
+/**
+ * Destination of the outbox relay. A batch is retried as a whole until
+ * publish returns normally, so delivery is at-least-once in event id order
+ * and consumers must tolerate duplicates.
+ */
+public interface EventBroker {
+	
+	void publish(final List<ChangeEventDto> changeEvents);
+	
+}
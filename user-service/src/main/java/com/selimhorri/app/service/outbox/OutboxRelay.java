@@ -0,0 +1,131 @@
+package com.selimhorri.app.service.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.dto.ChangeEventDto;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes unpublished outbox events in id order, one batch per transaction:
+ * the batch is marked published only when the broker accepted it, otherwise
+ * the same batch is offered again after an exponential backoff.
+ */
+@Slf4j
+public class OutboxRelay {
+	
+	private static final Duration MAX_BACKOFF = Duration.ofSeconds(32);
+	private static final int MAX_BACKOFF_SHIFT = 6;
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final EventBroker eventBroker;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final String source;
+	private final int batchSize;
+	private final Duration retention;
+	private final Counter published;
+	private final Counter failures;
+	private volatile LocalDateTime lastPurge = LocalDateTime.MIN;
+	private volatile LocalDateTime nextAttempt = LocalDateTime.MIN;
+	private volatile int consecutiveFailures;
+	
+	public OutboxRelay(final OutboxEventRepository outboxEventRepository, final EventBroker eventBroker,
+			final TransactionTemplate transactionTemplate, final ObjectMapper objectMapper, final String source,
+			final int batchSize, final Duration retention, final MeterRegistry meterRegistry) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.eventBroker = eventBroker;
+		this.transactionTemplate = transactionTemplate;
+		this.objectMapper = objectMapper;
+		this.source = source;
+		this.batchSize = batchSize;
+		this.retention = retention;
+		this.published = Counter.builder("outbox.events.published")
+				.description("Change events handed to the broker")
+				.register(meterRegistry);
+		this.failures = Counter.builder("outbox.relay.failures")
+				.description("Outbox batches the broker rejected (retried on the next run)")
+				.register(meterRegistry);
+	}
+	
+	/**
+	 * Publishes one batch; returns the number of events published.
+	 */
+	public int relay() {
+		if (LocalDateTime.now().isBefore(this.nextAttempt))
+			return 0;
+		final int count;
+		try {
+			count = this.transactionTemplate.execute(status -> this.publishBatch());
+		}
+		catch (RuntimeException e) {
+			this.failures.increment();
+			final Duration backoff = MAX_BACKOFF.dividedBy(1L << (MAX_BACKOFF_SHIFT
+					- Math.min(this.consecutiveFailures++, MAX_BACKOFF_SHIFT)));
+			this.nextAttempt = LocalDateTime.now().plus(backoff);
+			log.warn("*** Outbox batch not published, retrying in {}: {} *", backoff, e.getMessage());
+			return 0;
+		}
+		this.consecutiveFailures = 0;
+		this.published.increment(count);
+		if (count < this.batchSize)
+			this.purgePublished();
+		return count;
+	}
+	
+	private int publishBatch() {
+		final List<OutboxEvent> batch = this.outboxEventRepository
+				.findByPublishedAtIsNullOrderByEventIdAsc(PageRequest.of(0, this.batchSize));
+		if (batch.isEmpty())
+			return 0;
+		this.eventBroker.publish(batch.stream()
+				.map(this::toDto)
+				.collect(Collectors.toUnmodifiableList()));
+		final LocalDateTime now = LocalDateTime.now();
+		batch.forEach(e -> e.setPublishedAt(now));
+		return batch.size();
+	}
+	
+	private void purgePublished() {
+		final LocalDateTime now = LocalDateTime.now();
+		if (this.lastPurge.isAfter(now.minus(this.retention.dividedBy(10))))
+			return;
+		this.lastPurge = now;
+		final Integer purged = this.transactionTemplate.execute(status -> this.outboxEventRepository
+				.deletePublishedBefore(now.minus(this.retention)));
+		if (purged != null && purged > 0)
+			log.debug("*** Purged {} published outbox events *", purged);
+	}
+	
+	private ChangeEventDto toDto(final OutboxEvent outboxEvent) {
+		try {
+			return ChangeEventDto.builder()
+					.eventId(outboxEvent.getEventId())
+					.source(this.source)
+					.aggregateType(outboxEvent.getAggregateType())
+					.aggregateId(outboxEvent.getAggregateId())
+					.changeType(outboxEvent.getChangeType())
+					.payload(this.objectMapper.readTree(outboxEvent.getPayload()))
+					.occurredAt(outboxEvent.getOccurredAt())
+					.build();
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Unreadable payload of outbox event " + outboxEvent.getEventId(), e);
+		}
+	}
+	
+	
+	
+}
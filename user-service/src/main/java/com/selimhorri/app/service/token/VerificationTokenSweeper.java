@@ -0,0 +1,138 @@
+package com.selimhorri.app.service.token;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.repository.VerificationTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes verification tokens whose expire date has passed (a token is valid
+ * through its expire date), oldest first. Each batch is one short transaction:
+ * ids come from a range scan of the expire_date index and are deleted by
+ * primary key, so no run holds locks on more than one batch of rows.
+ *
+ * To leave the database to live traffic, a run pauses between batches so it
+ * is busy at most {@code maxDutyCycle} of the time, and stops after
+ * {@code maxRunTime}; the rest is left for the next run. The lag gauge tells
+ * how long the oldest expired token still present has been expired.
+ */
+@Slf4j
+public class VerificationTokenSweeper {
+	
+	private final VerificationTokenRepository verificationTokenRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Clock clock;
+	private final int batchSize;
+	private final double maxDutyCycle;
+	private final Duration maxRunTime;
+	private final Counter purged;
+	private final Timer runs;
+	private final AtomicLong lagSeconds = new AtomicLong();
+	
+	public VerificationTokenSweeper(final VerificationTokenRepository verificationTokenRepository,
+			final TransactionTemplate transactionTemplate, final Clock clock, final int batchSize,
+			final double maxDutyCycle, final Duration maxRunTime, final MeterRegistry meterRegistry) {
+		if (batchSize < 1)
+			throw new IllegalArgumentException("batch-size must be positive");
+		if (maxDutyCycle <= 0 || maxDutyCycle > 1)
+			throw new IllegalArgumentException("max-duty-cycle must be in (0, 1]");
+		this.verificationTokenRepository = verificationTokenRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.clock = clock;
+		this.batchSize = batchSize;
+		this.maxDutyCycle = maxDutyCycle;
+		this.maxRunTime = maxRunTime;
+		this.purged = Counter.builder("verification_tokens.purged")
+				.description("Expired verification tokens deleted by the sweeper")
+				.register(meterRegistry);
+		this.runs = Timer.builder("verification_tokens.sweep")
+				.description("Duration of sweeper runs, pauses included")
+				.register(meterRegistry);
+		TimeGauge.builder("verification_tokens.sweep.lag", this.lagSeconds, TimeUnit.SECONDS, AtomicLong::get)
+				.description("How long the oldest remaining expired token has been expired")
+				.strongReference(true)
+				.register(meterRegistry);
+	}
+	
+	/**
+	 * Deletes expired tokens until none is left, the run time is used up or the
+	 * thread is interrupted; returns the number of tokens deleted.
+	 */
+	public int sweep() {
+		final long started = System.nanoTime();
+		final LocalDate today = LocalDate.now(this.clock);
+		int total = 0;
+		try {
+			while (true) {
+				final long batchStarted = System.nanoTime();
+				final int deleted = this.transactionTemplate.execute(status -> this.deleteBatch(today));
+				total += deleted;
+				this.purged.increment(deleted);
+				if (deleted < this.batchSize)
+					break;
+				final long busy = System.nanoTime() - batchStarted;
+				final long pause = (long) (busy * (1 - this.maxDutyCycle) / this.maxDutyCycle);
+				if (System.nanoTime() - started + pause >= this.maxRunTime.toNanos() || !pause(pause))
+					break;
+			}
+		}
+		finally {
+			this.updateLag(today);
+			this.runs.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+		}
+		if (total > 0)
+			log.info("*** Purged {} expired verification tokens *", total);
+		return total;
+	}
+	
+	private int deleteBatch(final LocalDate today) {
+		final List<Integer> ids = this.verificationTokenRepository
+				.findExpiredIds(today, PageRequest.of(0, this.batchSize));
+		return ids.isEmpty() ? 0 : this.verificationTokenRepository.deleteExpiredByIds(ids, today);
+	}
+	
+	private void updateLag(final LocalDate today) {
+		final LocalDate oldest = this.verificationTokenRepository.findOldestExpireDate(today);
+		this.lagSeconds.set((oldest == null) ? 0
+				: Math.max(0, Duration.between(oldest.plusDays(1).atStartOfDay(), LocalDateTime.now(this.clock))
+						.getSeconds()));
+	}
+	
+	private static boolean pause(final long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,11 @@
+
+CREATE TABLE outbox_events (
+	event_id BIGINT NOT NULL PRIMARY KEY AUTO_INCREMENT,
+	aggregate_type VARCHAR(64) NOT NULL,
+	aggregate_id VARCHAR(64) NOT NULL,
+	change_type VARCHAR(16) NOT NULL,
+	payload CLOB,
+	occurred_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	published_at TIMESTAMP
+);
+
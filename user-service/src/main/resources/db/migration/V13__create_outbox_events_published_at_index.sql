@@ -0,0 +1,2 @@
+
+CREATE INDEX idx_outbox_events_published_at ON outbox_events (published_at, event_id);
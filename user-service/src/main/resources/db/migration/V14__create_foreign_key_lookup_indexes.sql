@@ -0,0 +1,5 @@
+
+CREATE INDEX idx_address_user_id ON address (user_id);
+CREATE INDEX idx_credentials_user_id ON credentials (user_id);
+CREATE INDEX idx_credentials_username ON credentials (username);
+CREATE INDEX idx_verification_tokens_credential_id ON verification_tokens (credential_id);
@@ -0,0 +1,2 @@
+
+CREATE INDEX idx_verification_tokens_expire_date ON verification_tokens (expire_date, verification_token_id);
@@ -0,0 +1,8 @@
+
+CREATE TABLE replica_heartbeat (
+	heartbeat_id INT(11) NOT NULL PRIMARY KEY,
+	beat_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO replica_heartbeat (heartbeat_id, beat_at) VALUES (1, LOCALTIMESTAMP);
+
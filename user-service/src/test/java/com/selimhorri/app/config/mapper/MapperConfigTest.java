@@ -0,0 +1,51 @@
+package com.selimhorri.app.config.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.selimhorri.app.dto.VerificationTokenDto;
+
+class MapperConfigTest {
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+            .withUserConfiguration(MapperConfig.class);
+
+    /**
+     * expireDate is a LocalDate with only a @JsonFormat pattern, which a
+     * mapper without the java.time module refuses to write.
+     */
+    @Test
+    void smileConverterShouldRoundTripLocalDateFieldsAsTheirPattern() {
+        this.contextRunner.run(context -> {
+            MappingJackson2SmileHttpMessageConverter converter =
+                    context.getBean(MappingJackson2SmileHttpMessageConverter.class);
+            VerificationTokenDto token = VerificationTokenDto.builder()
+                    .verificationTokenId(1)
+                    .token("token")
+                    .expireDate(LocalDate.of(2025, 10, 26))
+                    .build();
+
+            MockHttpOutputMessage written = new MockHttpOutputMessage();
+            converter.write(token, APPLICATION_SMILE, written);
+
+            assertThat(converter.getObjectMapper().readTree(written.getBodyAsBytes()).get("expireDate").asText())
+                    .isEqualTo("26-10-2025");
+            assertThat(converter.read(VerificationTokenDto.class, new MockHttpInputMessage(written.getBodyAsBytes())))
+                    .isEqualTo(token);
+        });
+    }
+
+}
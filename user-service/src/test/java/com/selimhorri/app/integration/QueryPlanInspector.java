@@ -0,0 +1,80 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Records the SQL Hibernate sends and runs {@code EXPLAIN} on it against H2.
+ * Registered through {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ *
+ * A plan counts as a full scan when H2 reads a table without an index
+ * ({@code tableScan}) or walks an index whose leading column is not constrained.
+ */
+public class QueryPlanInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/\\s*", Pattern.DOTALL);
+
+    private static final Pattern ACCESS_PATH = Pattern.compile("/\\*\\s*[A-Z_]+\\.([A-Za-z0-9_.]+?)(?::\\s*([^*]*?))?\\s*\\*/");
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    /**
+     * Runs {@code queries}, then EXPLAINs every SELECT they issued and fails on
+     * the first plan that does a full scan. Returns the plans.
+     */
+    static List<String> assertNoFullScan(JdbcTemplate jdbcTemplate, Runnable queries) {
+        STATEMENTS.clear();
+        queries.run();
+        List<String> selects = new ArrayList<>();
+        for (String statement : STATEMENTS) {
+            String sql = LEADING_COMMENT.matcher(statement).replaceFirst("");
+            if (sql.regionMatches(true, 0, "select", 0, 6))
+                selects.add(sql);
+        }
+        assertThat(selects).as("statements issued").isNotEmpty();
+
+        List<String> plans = new ArrayList<>();
+        for (String sql : selects) {
+            Object[] nulls = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, nulls);
+            assertIndexed(jdbcTemplate, sql, plan);
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    private static void assertIndexed(JdbcTemplate jdbcTemplate, String sql, String plan) {
+        Matcher accessPath = ACCESS_PATH.matcher(plan);
+        int tables = 0;
+        while (accessPath.find()) {
+            tables++;
+            String index = accessPath.group(1);
+            assertThat(index).as("plan of %s%n%s", sql, plan).doesNotEndWith(".tableScan");
+            String condition = accessPath.group(2);
+            String leadingColumn = jdbcTemplate.queryForObject("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEXES "
+                    + "WHERE INDEX_NAME = ? AND ORDINAL_POSITION = 1", String.class, index);
+            assertThat(condition)
+                    .as("plan of %s walks %s without its leading column %s%n%s", sql, index, leadingColumn, plan)
+                    .isNotNull()
+                    .containsPattern("(?<![A-Z0-9_])" + leadingColumn + "\\s*(=|<|>|IN|IS|BETWEEN)");
+        }
+        assertThat(tables).as("access paths in plan of %s%n%s", sql, plan).isPositive();
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.selimhorri.app.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.selimhorri.app.domain.VerificationToken;
+import com.selimhorri.app.repository.CredentialRepository;
+import com.selimhorri.app.repository.VerificationTokenRepository;
+import com.selimhorri.app.service.token.VerificationTokenSweeper;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:user_token_sweeper_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.config.import=optional:file:./",
+        "SPRING_CONFIG_IMPORT=optional:file:./",
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "server.servlet.context-path=",
+        "app.outbox.relay-enabled=false",
+        "app.verification-token-sweeper.enabled=false",
+        "app.verification-token-sweeper.batch-size=3",
+        "app.verification-token-sweeper.max-duty-cycle=1.0"
+})
+class VerificationTokenSweeperIntegrationTest {
+
+    @Autowired
+    private VerificationTokenSweeper verificationTokenSweeper;
+
+    @Autowired
+    private VerificationTokenRepository verificationTokenRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Test
+    void sweepShouldDeleteOnlyExpiredTokensAcrossBatches() {
+        // the Flyway seed holds four tokens that expired on 2021-12-31
+        LocalDate today = LocalDate.now();
+        save("expired-yesterday", today.minusDays(1));
+        save("valid-today", today);
+        save("valid-next-week", today.plusWeeks(1));
+
+        int purged = this.verificationTokenSweeper.sweep();
+
+        assertThat(purged).isEqualTo(5);
+        assertThat(this.verificationTokenRepository.findAll())
+                .extracting(VerificationToken::getToken)
+                .containsExactlyInAnyOrder("valid-today", "valid-next-week");
+        assertThat(this.verificationTokenSweeper.sweep()).isZero();
+    }
+
+    private void save(String token, LocalDate expireDate) {
+        this.verificationTokenRepository.save(VerificationToken.builder()
+                .token(token)
+                .expireDate(expireDate)
+                .credential(this.credentialRepository.findAll().get(0))
+                .build());
+    }
+
+}
@@ -3,6 +3,8 @@ package com.selimhorri.app.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -15,7 +17,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.ChangeType;
 import com.selimhorri.app.domain.Credential;
 import com.selimhorri.app.domain.RoleBasedAuthority;
 import com.selimhorri.app.domain.User;
@@ -24,6 +30,7 @@ import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.repository.UserRepository;
 import com.selimhorri.app.service.UserService;
+import com.selimhorri.app.service.outbox.OutboxPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -31,11 +38,17 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private RestTemplate restTemplate;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
-        this.userService = new UserServiceImpl(this.userRepository);
+        this.userService = new UserServiceImpl(this.userRepository, this.outboxPublisher, this.restTemplate);
     }
 
     @Test
@@ -89,6 +102,9 @@ class UserServiceImplTest {
         assertThat(saved.getCredential().getUsername()).isEqualTo(payload.getCredentialDto().getUsername());
 
         assertThat(result.getUserId()).isEqualTo(persisted.getUserId());
+        ArgumentCaptor<Object> eventPayload = ArgumentCaptor.forClass(Object.class);
+        verify(this.outboxPublisher).append(eq("USER"), eq(5), eq(ChangeType.CREATED), eventPayload.capture());
+        assertThat(((UserDto) eventPayload.getValue()).getCredentialDto()).isNull();
     }
 
     @Test
@@ -130,6 +146,23 @@ class UserServiceImplTest {
         assertThat(result.getEmail()).isEqualTo(payload.getEmail());
     }
 
+    @Test
+    void updateShouldReportNewNameToOrderSummariesAndTolerateFailures() {
+        UserDto payload = buildUserDto(7, "Renamed", "User", "renamed@example.com", "9998887777");
+        when(this.userRepository.save(any(User.class)))
+                .thenReturn(buildUser(7, "Renamed", "User", "renamed@example.com", "9998887777"));
+        String url = AppConstant.DiscoveredDomainsApi.ORDER_SUMMARY_SERVICE_API_URL + "/user/7";
+        doThrow(new ResourceAccessException("order-service down")).when(this.restTemplate).put(eq(url), any(UserDto.class));
+
+        UserDto result = this.userService.update(payload);
+
+        ArgumentCaptor<UserDto> reported = ArgumentCaptor.forClass(UserDto.class);
+        verify(this.restTemplate).put(eq(url), reported.capture());
+        assertThat(reported.getValue().getFirstName()).isEqualTo("Renamed");
+        assertThat(reported.getValue().getCredentialDto()).isNull();
+        assertThat(result.getUserId()).isEqualTo(7);
+    }
+
     @Test
     void deleteByIdShouldDelegateToRepository() {
         this.userService.deleteById(55);
@@ -0,0 +1,102 @@
+package com.selimhorri.app.service.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.repository.VerificationTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationTokenSweeperTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    private static final Clock CLOCK = Clock.fixed(TODAY.atTime(6, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    @Mock
+    private VerificationTokenRepository verificationTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void sweepShouldDeleteBatchesUntilAShortOne() {
+        when(this.verificationTokenRepository.findExpiredIds(eq(TODAY), any(Pageable.class)))
+                .thenReturn(ids(1, 3), ids(4, 6), ids(7, 7));
+        when(this.verificationTokenRepository.deleteExpiredByIds(anyList(), eq(TODAY)))
+                .thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0).size());
+
+        int purged = sweeper(3, 1.0, Duration.ofMinutes(1)).sweep();
+
+        assertThat(purged).isEqualTo(7);
+        verify(this.verificationTokenRepository, times(3)).deleteExpiredByIds(anyList(), eq(TODAY));
+        assertThat(this.meterRegistry.get("verification_tokens.purged").counter().count()).isEqualTo(7.0);
+        assertThat(this.meterRegistry.get("verification_tokens.sweep").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepShouldStopWhenRunTimeIsUsedUp() {
+        when(this.verificationTokenRepository.findExpiredIds(eq(TODAY), any(Pageable.class)))
+                .thenReturn(ids(1, 3));
+        when(this.verificationTokenRepository.deleteExpiredByIds(anyList(), eq(TODAY))).thenReturn(3);
+        when(this.verificationTokenRepository.findOldestExpireDate(TODAY)).thenReturn(TODAY.minusDays(3));
+
+        int purged = sweeper(3, 0.5, Duration.ZERO).sweep();
+
+        assertThat(purged).isEqualTo(3);
+        verify(this.verificationTokenRepository, times(1)).deleteExpiredByIds(anyList(), eq(TODAY));
+        // expired since the start of the day after its expire date: two days and six hours ago
+        assertThat(this.meterRegistry.get("verification_tokens.sweep.lag").timeGauge().value(TimeUnit.HOURS))
+                .isEqualTo(54.0);
+    }
+
+    @Test
+    void sweepShouldReportNoLagWhenNothingIsExpired() {
+        when(this.verificationTokenRepository.findExpiredIds(eq(TODAY), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(sweeper(3, 0.2, Duration.ofMinutes(1)).sweep()).isZero();
+        assertThat(this.meterRegistry.get("verification_tokens.sweep.lag").timeGauge().value()).isZero();
+    }
+
+    private VerificationTokenSweeper sweeper(int batchSize, double maxDutyCycle, Duration maxRunTime) {
+        return new VerificationTokenSweeper(this.verificationTokenRepository,
+                new TransactionTemplate(this.transactionManager), CLOCK, batchSize, maxDutyCycle, maxRunTime,
+                this.meterRegistry);
+    }
+
+    private static List<Integer> ids(int from, int to) {
+        return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+    }
+
+}